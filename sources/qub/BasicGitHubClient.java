@@ -5,9 +5,81 @@ package qub;
  */
 public class BasicGitHubClient implements GitHubClient
 {
+    /**
+     * The media type that GitHub recommends requesting for REST API responses.
+     */
+    public static final String acceptHeaderValue = "application/vnd.github+json";
+
+    /**
+     * The version of the GitHub REST API that this client targets.
+     */
+    public static final String apiVersionHeaderValue = "2022-11-28";
+
+    /**
+     * The User-Agent that this client identifies itself with. GitHub rejects requests that
+     * don't have a User-Agent header.
+     */
+    public static final String userAgentHeaderValue = "qub-github-java";
+
+    /**
+     * The maximum number of requests with deadlines that can be waiting for their response
+     * headers at the same time.
+     */
+    public static final int maximumDeadlineSendThreadCount = 64;
+
+    /**
+     * The threads that send requests that have a deadline. A blocking send can't be interrupted,
+     * and the {@link HttpClient} doesn't expose the connection so that it can be closed, so a send
+     * whose deadline passes keeps its thread (and its connection) until the server responds or
+     * the connection fails. The pool is bounded so that hung connections can't grow the number of
+     * threads without limit. When every thread is busy, new requests with deadlines fail with a
+     * {@link GitHubSendThreadsExhaustedException} instead of waiting.
+     */
+    private static final java.util.concurrent.ThreadPoolExecutor deadlineSendExecutor = new java.util.concurrent.ThreadPoolExecutor(
+        0,
+        BasicGitHubClient.maximumDeadlineSendThreadCount,
+        60,
+        java.util.concurrent.TimeUnit.SECONDS,
+        new java.util.concurrent.SynchronousQueue<>(),
+        (Runnable runnable) ->
+        {
+            final Thread thread = new Thread(runnable, "qub-github-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * The single thread that disposes responses whose bodies are still being read when their
+     * request's deadline passes. Disposing a response closes its body stream, which aborts the
+     * read on the caller's thread.
+     */
+    private static final java.util.concurrent.ScheduledThreadPoolExecutor deadlineTimer = BasicGitHubClient.createDeadlineTimer();
+
+    private static java.util.concurrent.ScheduledThreadPoolExecutor createDeadlineTimer()
+    {
+        final java.util.concurrent.ScheduledThreadPoolExecutor result = new java.util.concurrent.ScheduledThreadPoolExecutor(1, (Runnable runnable) ->
+        {
+            final Thread thread = new Thread(runnable, "qub-github-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
     private final HttpClient httpClient;
     private String accessToken;
     private URL baseUrl;
+    private ReadOnlyHttpHeaders defaultHeaders;
+    private volatile String authenticatedUserLogin;
+    private GitHubRepositoryNameIndex repositoryNameIndex;
+    private GitHubCircuitBreaker circuitBreaker;
+    private GitHubHedgingPolicy hedgingPolicy;
+    private GitHubConcurrencyLimiter concurrencyLimiter;
+    private GitHubRequestScheduler requestScheduler;
+    private GitHubSharedRateLimit sharedRateLimit;
+    private GitHubRedirectCache redirectCache;
+    private java.time.Duration defaultTimeout;
 
     private BasicGitHubClient(HttpClient httpClient)
     {
@@ -15,6 +87,29 @@ public class BasicGitHubClient implements GitHubClient
 
         this.httpClient = httpClient;
         this.setBaseUrl(URL.parse("https://api.github.com").await());
+        this.defaultHeaders = BasicGitHubClient.createDefaultHeaders(null);
+    }
+
+    /**
+     * Create the block of headers that is added to every request that this client sends. The
+     * block is created once each time the access token changes, so the Authorization header
+     * isn't formatted again for every request. The block is read-only, so it can be handed out
+     * by {@link #getDefaultHeaders()} without being copied.
+     * @param accessToken The access token to authenticate with, or null if requests shouldn't be
+     *                    authenticated.
+     * @return The block of headers that will be added to every request.
+     */
+    private static ReadOnlyHttpHeaders createDefaultHeaders(String accessToken)
+    {
+        final MutableHttpHeaders result = HttpHeaders.create()
+            .set("Accept", BasicGitHubClient.acceptHeaderValue)
+            .set("X-GitHub-Api-Version", BasicGitHubClient.apiVersionHeaderValue)
+            .set("User-Agent", BasicGitHubClient.userAgentHeaderValue);
+        if (!Strings.isNullOrEmpty(accessToken))
+        {
+            result.set("Authorization", "token " + accessToken);
+        }
+        return ReadOnlyHttpHeaders.create(result);
     }
 
     static BasicGitHubClient create(Network network)
@@ -43,6 +138,7 @@ public class BasicGitHubClient implements GitHubClient
         PreCondition.assertNotNull(baseUrl, "baseUrl");
 
         this.baseUrl = baseUrl;
+        this.authenticatedUserLogin = null;
 
         return this;
     }
@@ -53,10 +149,307 @@ public class BasicGitHubClient implements GitHubClient
         PreCondition.assertNotNullAndNotEmpty(accessToken, "accessToken");
 
         this.accessToken = accessToken;
+        this.defaultHeaders = BasicGitHubClient.createDefaultHeaders(accessToken);
+        this.authenticatedUserLogin = null;
+
+        return this;
+    }
+
+    /**
+     * Get the headers that this client adds to every request that it sends. Headers that are
+     * set on a {@link GitHubRequest} take precedence over these headers.
+     * @return A read-only view of the headers that this client adds to every request that it
+     * sends.
+     */
+    public HttpHeaders getDefaultHeaders()
+    {
+        return this.defaultHeaders;
+    }
+
+    /**
+     * Get the {@link GitHubRepositoryNameIndex} that this client keeps up to date as it creates
+     * and deletes repositories.
+     * @return The {@link GitHubRepositoryNameIndex} that this client keeps up to date, or null
+     * if this client doesn't have one.
+     */
+    public GitHubRepositoryNameIndex getRepositoryNameIndex()
+    {
+        return this.repositoryNameIndex;
+    }
+
+    /**
+     * Set the {@link GitHubRepositoryNameIndex} that this client will keep up to date as it
+     * creates and deletes repositories.
+     * @param repositoryNameIndex The {@link GitHubRepositoryNameIndex} to keep up to date.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setRepositoryNameIndex(GitHubRepositoryNameIndex repositoryNameIndex)
+    {
+        PreCondition.assertNotNull(repositoryNameIndex, "repositoryNameIndex");
+
+        this.repositoryNameIndex = repositoryNameIndex;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubCircuitBreaker} that guards the requests that this client sends.
+     * @return The {@link GitHubCircuitBreaker} that guards the requests that this client sends,
+     * or null if this client doesn't have one.
+     */
+    public GitHubCircuitBreaker getCircuitBreaker()
+    {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Set the {@link GitHubCircuitBreaker} that will guard the requests that this client sends.
+     * Each request goes through one circuit for its base URL and one circuit for its base URL
+     * and route key, so a failing endpoint can be cut off without cutting off the whole host.
+     * @param circuitBreaker The {@link GitHubCircuitBreaker} that will guard requests.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setCircuitBreaker(GitHubCircuitBreaker circuitBreaker)
+    {
+        PreCondition.assertNotNull(circuitBreaker, "circuitBreaker");
+
+        this.circuitBreaker = circuitBreaker;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubHedgingPolicy} that this client uses for idempotent requests.
+     * @return The {@link GitHubHedgingPolicy} that this client uses, or null if this client
+     * doesn't hedge requests.
+     */
+    public GitHubHedgingPolicy getHedgingPolicy()
+    {
+        return this.hedgingPolicy;
+    }
+
+    /**
+     * Set the {@link GitHubHedgingPolicy} that this client will use for idempotent requests.
+     * <p>
+     * A blocking HTTP send can't be cancelled, so the attempt that loses a hedge isn't aborted.
+     * It keeps its connection, and any concurrency limiter, scheduler or rate limit permit that
+     * it acquired, until its response arrives. That response is then disposed right away.
+     * @param hedgingPolicy The {@link GitHubHedgingPolicy} that this client will use.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setHedgingPolicy(GitHubHedgingPolicy hedgingPolicy)
+    {
+        PreCondition.assertNotNull(hedgingPolicy, "hedgingPolicy");
+
+        this.hedgingPolicy = hedgingPolicy;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubConcurrencyLimiter} that limits how many requests this client has in
+     * flight at the same time.
+     * @return The {@link GitHubConcurrencyLimiter} that this client uses, or null if this client
+     * doesn't limit its concurrent requests.
+     */
+    public GitHubConcurrencyLimiter getConcurrencyLimiter()
+    {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * Set the {@link GitHubConcurrencyLimiter} that will limit how many requests this client has
+     * in flight at the same time.
+     * @param concurrencyLimiter The {@link GitHubConcurrencyLimiter} that this client will use.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setConcurrencyLimiter(GitHubConcurrencyLimiter concurrencyLimiter)
+    {
+        PreCondition.assertNotNull(concurrencyLimiter, "concurrencyLimiter");
+
+        this.concurrencyLimiter = concurrencyLimiter;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubRequestScheduler} that decides the order in which this client sends
+     * interactive and background requests.
+     * @return The {@link GitHubRequestScheduler} that this client uses, or null if this client
+     * sends requests in the order that they are made.
+     */
+    public GitHubRequestScheduler getRequestScheduler()
+    {
+        return this.requestScheduler;
+    }
+
+    /**
+     * Set the {@link GitHubRequestScheduler} that will decide the order in which this client
+     * sends interactive and background requests.
+     * @param requestScheduler The {@link GitHubRequestScheduler} that this client will use.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setRequestScheduler(GitHubRequestScheduler requestScheduler)
+    {
+        PreCondition.assertNotNull(requestScheduler, "requestScheduler");
+
+        this.requestScheduler = requestScheduler;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubSharedRateLimit} that this client reserves requests from before
+     * sending them.
+     * @return The {@link GitHubSharedRateLimit} that this client uses, or null if this client
+     * doesn't share its rate limit with other processes.
+     */
+    public GitHubSharedRateLimit getSharedRateLimit()
+    {
+        return this.sharedRateLimit;
+    }
+
+    /**
+     * Set the {@link GitHubSharedRateLimit} that this client will reserve requests from before
+     * sending them, so that this client paces itself against the rate limit that it shares with
+     * the other processes on this machine that use the same token.
+     * @param sharedRateLimit The {@link GitHubSharedRateLimit} that this client will use.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setSharedRateLimit(GitHubSharedRateLimit sharedRateLimit)
+    {
+        PreCondition.assertNotNull(sharedRateLimit, "sharedRateLimit");
+
+        this.sharedRateLimit = sharedRateLimit;
+
+        return this;
+    }
+
+    /**
+     * Get the {@link GitHubRedirectCache} that this client uses to follow and remember redirects.
+     * @return The {@link GitHubRedirectCache} that this client uses, or null if this client
+     * returns redirect responses to the caller.
+     */
+    public GitHubRedirectCache getRedirectCache()
+    {
+        return this.redirectCache;
+    }
+
+    /**
+     * Set the {@link GitHubRedirectCache} that this client will use to follow redirect responses
+     * and to send requests for permanently redirected paths straight to their new location.
+     * @param redirectCache The {@link GitHubRedirectCache} that this client will use.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setRedirectCache(GitHubRedirectCache redirectCache)
+    {
+        PreCondition.assertNotNull(redirectCache, "redirectCache");
+
+        this.redirectCache = redirectCache;
+
+        return this;
+    }
+
+    /**
+     * Get the timeout that this client gives requests that don't have their own deadline.
+     * @return The timeout that this client gives requests that don't have their own deadline,
+     * or null if those requests can take as long as they need.
+     */
+    public java.time.Duration getDefaultTimeout()
+    {
+        return this.defaultTimeout;
+    }
+
+    /**
+     * Set the timeout that this client will give requests that don't have their own deadline.
+     * @param defaultTimeout The timeout that this client will give requests that don't have
+     *                       their own deadline.
+     * @return This object for method chaining.
+     */
+    public BasicGitHubClient setDefaultTimeout(java.time.Duration defaultTimeout)
+    {
+        PreCondition.assertNotNull(defaultTimeout, "defaultTimeout");
+        PreCondition.assertGreaterThan(defaultTimeout.toMillis(), 0L, "defaultTimeout.toMillis()");
+
+        this.defaultTimeout = defaultTimeout;
 
         return this;
     }
 
+    /**
+     * Get the login of the {@link GitHubUser} that this client is authenticated to. The login is
+     * cached after it is first retrieved, so that confirming many ambiguous create requests
+     * doesn't send a /user request for each one. The cache is cleared when the access token or
+     * the base URL changes.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs. This is ignored if the login is cached.
+     */
+    @Override
+    public Result<String> getAuthenticatedUserLogin(java.time.Instant deadline)
+    {
+        return Result.create(() ->
+        {
+            String result = this.authenticatedUserLogin;
+            if (result == null)
+            {
+                final String accessToken = this.accessToken;
+                final URL baseUrl = this.baseUrl;
+                result = GitHubClient.super.getAuthenticatedUserLogin(deadline).await();
+                if (accessToken == this.accessToken && baseUrl == this.baseUrl)
+                {
+                    this.authenticatedUserLogin = result;
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Result<GitHubRepository> createRepository(CreateRepositoryParameters parameters, java.time.Instant deadline, boolean confirmAmbiguousFailures)
+    {
+        return GitHubClient.super.createRepository(parameters, deadline, confirmAmbiguousFailures)
+            .then((GitHubRepository repository) ->
+            {
+                final GitHubRepositoryNameIndex repositoryNameIndex = this.repositoryNameIndex;
+                if (repositoryNameIndex != null && !Strings.isNullOrEmpty(repository.getFullName()))
+                {
+                    repositoryNameIndex.add(repository);
+                }
+                return repository;
+            });
+    }
+
+    @Override
+    public Result<Void> deleteRepository(DeleteRepositoryParameters parameters)
+    {
+        final Result<Void> deleteResult = GitHubClient.super.deleteRepository(parameters);
+        return Result.create(() ->
+        {
+            deleteResult.await();
+            this.removeFromRepositoryNameIndex(parameters.getOwner(), parameters.getName());
+        });
+    }
+
+    @Override
+    public Result<Void> deleteRepository(GitHubRepository repository)
+    {
+        final Result<Void> deleteResult = GitHubClient.super.deleteRepository(repository);
+        return Result.create(() ->
+        {
+            deleteResult.await();
+            this.removeFromRepositoryNameIndex(repository.getOwner().getLogin(), repository.getName());
+        });
+    }
+
+    private void removeFromRepositoryNameIndex(String owner, String name)
+    {
+        final GitHubRepositoryNameIndex repositoryNameIndex = this.repositoryNameIndex;
+        if (repositoryNameIndex != null)
+        {
+            repositoryNameIndex.remove(owner + "/" + name);
+        }
+    }
+
     @Override
     public boolean hasAccessToken()
     {
@@ -72,39 +465,344 @@ public class BasicGitHubClient implements GitHubClient
 
         return Result.create(() ->
         {
-            final String httpMethod = request.getHttpMethod();
-            URL baseUrl = request.getBaseUrl();
-            if (baseUrl == null)
+            GitHubRequest requestToSend = request;
+            final java.time.Duration defaultTimeout = this.defaultTimeout;
+            if (request.getDeadline() == null && defaultTimeout != null)
+            {
+                requestToSend = request.clone().setTimeout(defaultTimeout);
+            }
+
+            final GitHubRedirectCache redirectCache = this.redirectCache;
+            final GitHubResponse result = redirectCache == null
+                ? this.sendRequestAttempts(requestToSend)
+                : this.sendRequestFollowingRedirects(requestToSend, redirectCache);
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Send the provided request, hedging it if this client has a {@link GitHubHedgingPolicy}
+     * that applies to it.
+     */
+    private GitHubResponse sendRequestAttempts(GitHubRequest request)
+    {
+        final GitHubHedgingPolicy hedgingPolicy = this.hedgingPolicy;
+        return hedgingPolicy != null && GitHubHedgingPolicy.canHedge(request)
+            ? hedgingPolicy.send(request, this::sendRequestAttempt).await()
+            : this.sendRequestAttempt(request);
+    }
+
+    /**
+     * Send the provided request to its cached location if it has one, and follow any redirect
+     * responses that it gets. The permanent redirects that are followed are cached. Only GET and
+     * HEAD requests use the cache.
+     */
+    private GitHubResponse sendRequestFollowingRedirects(GitHubRequest request, GitHubRedirectCache redirectCache)
+    {
+        GitHubRequest requestToSend = request;
+        URL baseUrl = this.getRequestBaseUrl(requestToSend);
+        final boolean canUseCache = GitHubRedirectCache.canUseCache(requestToSend);
+        final String cachedLocation = canUseCache
+            ? redirectCache.getLocation(GitHubRedirectCache.getKey(baseUrl, requestToSend.getUrlPath()))
+            : null;
+        if (cachedLocation != null)
+        {
+            final GitHubRequest redirectedRequest = GitHubRedirectCache.redirect(requestToSend, baseUrl, cachedLocation);
+            if (redirectedRequest != null)
+            {
+                requestToSend = redirectedRequest;
+                baseUrl = this.getRequestBaseUrl(requestToSend);
+            }
+        }
+
+        // The keys of the permanent redirects that have been followed in a row. These all point
+        // at wherever the last of them leads.
+        final List<String> permanentRedirectKeys = List.create();
+        final int maximumRedirectCount = redirectCache.getMaximumRedirectCount();
+        GitHubResponse result = this.sendRequestAttempts(requestToSend);
+        for (int redirectCount = 0; redirectCount < maximumRedirectCount && GitHubRedirectCache.canFollow(requestToSend, result); ++redirectCount)
+        {
+            final String location = result.getLocation();
+            final GitHubRequest redirectedRequest = GitHubRedirectCache.redirect(requestToSend, baseUrl, location);
+            if (redirectedRequest == null)
             {
-                baseUrl = this.getBaseUrl();
+                break;
             }
-            final String urlPath = request.getUrlPath();
-            final URL url = baseUrl.clone()
-                .setPath(urlPath);
-            final HttpHeaders requestHeaders = request.getHeaders();
-            final ByteReadStream requestBody = request.getBody();
-            final long requestBodyLength = request.getBodyLength();
 
-            final MutableHttpRequest httpRequest = HttpRequest.create()
-                .setMethod(httpMethod)
-                .setUrl(url)
-                .setHeaders(requestHeaders);
-            if (this.hasAccessToken())
+            if (GitHubRedirectCache.isPermanentRedirect(result.getStatusCode()))
             {
-                httpRequest.setHeader("Authorization", "token " + this.accessToken);
+                permanentRedirectKeys.add(GitHubRedirectCache.getKey(baseUrl, requestToSend.getUrlPath()));
             }
-            if (requestBody != null)
+            else
             {
-                httpRequest.setBody(requestBodyLength, requestBody);
+                permanentRedirectKeys.clear();
             }
+            result.dispose().catchError().await();
+            redirectCache.onFollowed();
 
-            final HttpResponse httpResponse = this.httpClient.send(httpRequest).await();
+            requestToSend = redirectedRequest;
+            baseUrl = this.getRequestBaseUrl(requestToSend);
+            result = this.sendRequestAttempts(requestToSend);
+        }
 
-            final GitHubResponse result = GitHubResponse.create(httpResponse);
+        if (canUseCache && permanentRedirectKeys.any())
+        {
+            final String canonicalLocation = GitHubRedirectCache.getKey(baseUrl, requestToSend.getUrlPath());
+            for (final String permanentRedirectKey : permanentRedirectKeys)
+            {
+                redirectCache.put(permanentRedirectKey, canonicalLocation);
+            }
+        }
 
-            PostCondition.assertNotNull(result, "result");
+        return result;
+    }
 
-            return result;
-        });
+    private URL getRequestBaseUrl(GitHubRequest request)
+    {
+        final URL result = request.getBaseUrl();
+        return result != null ? result : this.getBaseUrl();
+    }
+
+    /**
+     * Send one attempt of the provided request over this client's {@link HttpClient}.
+     * @param request The request to send.
+     * @return The response to the request.
+     */
+    private GitHubResponse sendRequestAttempt(GitHubRequest request)
+    {
+        final String httpMethod = request.getHttpMethod();
+        URL baseUrl = request.getBaseUrl();
+        if (baseUrl == null)
+        {
+            baseUrl = this.getBaseUrl();
+        }
+        final String urlPath = request.getUrlPath();
+        final URL url = baseUrl.clone()
+            .setPath(urlPath);
+        for (final MapEntry<String,String> queryParameter : request.getQueryParameters())
+        {
+            url.setQueryParameter(queryParameter.getKey(), queryParameter.getValue());
+        }
+        final HttpHeaders requestHeaders = request.getHeaders();
+        final ByteReadStream requestBody = request.getBody();
+        final long requestBodyLength = request.getBodyLength();
+
+        // HttpRequest keeps its own mutable header collection, so the default block is copied
+        // into it once here. The block itself is never rebuilt per request, and the request's
+        // own headers are only walked when it has some.
+        final MutableHttpRequest httpRequest = HttpRequest.create()
+            .setMethod(httpMethod)
+            .setUrl(url)
+            .setHeaders(this.defaultHeaders);
+        if (requestHeaders.any())
+        {
+            for (final HttpHeader requestHeader : requestHeaders)
+            {
+                httpRequest.setHeader(requestHeader.getName(), requestHeader.getValue());
+            }
+        }
+        if (requestBody != null)
+        {
+            httpRequest.setBody(requestBodyLength, requestBody);
+        }
+
+        final java.time.Instant deadline = request.getDeadline();
+        final GitHubSharedRateLimit sharedRateLimit = this.sharedRateLimit;
+        if (sharedRateLimit != null)
+        {
+            // Reserve from the shared rate limit before taking one of the scheduler's slots, so
+            // that a request that sleeps until the rate limit window resets doesn't hold a slot
+            // that an interactive request could use in the meantime.
+            sharedRateLimit.reserve(request);
+        }
+        final GitHubRequestScheduler requestScheduler = this.requestScheduler;
+        final GitHubRequestScheduler.Permit schedulerPermit = requestScheduler == null
+            ? null
+            : requestScheduler.acquire(request);
+        final GitHubConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+        GitHubConcurrencyLimiter.Permit concurrencyPermit = null;
+        final GitHubCircuitBreaker circuitBreaker = this.circuitBreaker;
+        final HttpResponse httpResponse;
+        try
+        {
+            if (concurrencyLimiter != null)
+            {
+                concurrencyPermit = concurrencyLimiter.acquire(request);
+            }
+            if (circuitBreaker == null)
+            {
+                httpResponse = this.sendHttpRequest(httpRequest, deadline);
+            }
+            else
+            {
+                final GitHubCircuitBreaker.Permit permit = circuitBreaker.acquire(
+                    GitHubCircuitBreaker.getBaseUrlCircuitKey(baseUrl),
+                    GitHubCircuitBreaker.getRouteCircuitKey(baseUrl, request.getRouteKey()));
+                try
+                {
+                    httpResponse = this.sendHttpRequest(httpRequest, deadline);
+                }
+                catch (Throwable error)
+                {
+                    permit.onFailure();
+                    throw error;
+                }
+                permit.onResponse(httpResponse.getStatusCode());
+            }
+        }
+        catch (Throwable error)
+        {
+            if (concurrencyPermit != null)
+            {
+                concurrencyPermit.onFailure();
+            }
+            if (schedulerPermit != null)
+            {
+                schedulerPermit.onFailure();
+            }
+            throw error;
+        }
+
+        final GitHubResponse result = GitHubResponse.create(httpResponse);
+        if (concurrencyPermit != null)
+        {
+            concurrencyPermit.onResponse(result);
+        }
+        if (schedulerPermit != null)
+        {
+            schedulerPermit.onResponse(result);
+        }
+        if (sharedRateLimit != null)
+        {
+            sharedRateLimit.onResponse(result);
+        }
+        if (deadline != null && !request.isHeadRequest())
+        {
+            // The body has to be read before the deadline too, so it is read here instead of
+            // when the caller first asks for it. HEAD responses don't have a body to read.
+            BasicGitHubClient.bufferBodyBeforeDeadline(result, deadline);
+        }
+        return result;
+    }
+
+    private HttpResponse sendHttpRequest(HttpRequest httpRequest, java.time.Instant deadline)
+    {
+        final HttpResponse result;
+        if (deadline == null)
+        {
+            result = this.httpClient.send(httpRequest).await();
+        }
+        else
+        {
+            if (!java.time.Instant.now().isBefore(deadline))
+            {
+                throw new GitHubDeadlineExceededException(deadline, "waiting to send the request");
+            }
+            final java.util.concurrent.CompletableFuture<HttpResponse> future;
+            try
+            {
+                future = java.util.concurrent.CompletableFuture.supplyAsync(() -> this.httpClient.send(httpRequest).await(), BasicGitHubClient.deadlineSendExecutor);
+            }
+            catch (java.util.concurrent.RejectedExecutionException e)
+            {
+                throw new GitHubSendThreadsExhaustedException(BasicGitHubClient.maximumDeadlineSendThreadCount);
+            }
+            result = BasicGitHubClient.awaitBeforeDeadline(future, deadline);
+        }
+        return result;
+    }
+
+    /**
+     * Read the provided response's body on the calling thread. If the deadline passes before the
+     * body has been read, then the response is disposed, which closes its body stream and aborts
+     * the read, and a {@link GitHubDeadlineExceededException} is thrown.
+     * @param response The response whose body should be read.
+     * @param deadline The deadline.
+     */
+    private static void bufferBodyBeforeDeadline(GitHubResponse response, java.time.Instant deadline)
+    {
+        final java.util.concurrent.atomic.AtomicBoolean finished = new java.util.concurrent.atomic.AtomicBoolean();
+        final long remainingMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+        final java.util.concurrent.ScheduledFuture<?> timer = BasicGitHubClient.deadlineTimer.schedule(() ->
+            {
+                if (finished.compareAndSet(false, true))
+                {
+                    response.dispose().catchError().await();
+                }
+            },
+            Math.max(0, remainingMilliseconds),
+            java.util.concurrent.TimeUnit.MILLISECONDS);
+
+        Throwable readError = null;
+        try
+        {
+            response.bufferBody().await();
+        }
+        catch (Throwable error)
+        {
+            readError = error;
+        }
+
+        if (!finished.compareAndSet(false, true))
+        {
+            // The timer disposed the response, so whatever the read did is moot.
+            throw new GitHubDeadlineExceededException(deadline, GitHubDeadlineExceededException.readingResponseBodyOperation);
+        }
+        timer.cancel(false);
+        if (readError instanceof RuntimeException)
+        {
+            throw (RuntimeException)readError;
+        }
+        else if (readError instanceof Error)
+        {
+            throw (Error)readError;
+        }
+        else if (readError != null)
+        {
+            throw new RuntimeException(readError);
+        }
+    }
+
+    /**
+     * Wait for the provided send to complete before the provided deadline. If the deadline
+     * passes first, then a {@link GitHubDeadlineExceededException} is thrown and the response is
+     * disposed if it ever arrives. Until then, the send keeps its thread and its connection.
+     * @param future The send to wait for.
+     * @param deadline The deadline.
+     */
+    private static HttpResponse awaitBeforeDeadline(java.util.concurrent.CompletableFuture<HttpResponse> future, java.time.Instant deadline)
+    {
+        final long remainingMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+        try
+        {
+            return future.get(Math.max(0, remainingMilliseconds), java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+        catch (java.util.concurrent.TimeoutException e)
+        {
+            future.thenAccept((HttpResponse response) -> response.dispose().catchError().await());
+            throw new GitHubDeadlineExceededException(deadline, GitHubDeadlineExceededException.waitingForResponseHeadersOperation);
+        }
+        catch (java.util.concurrent.ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            throw new RuntimeException(cause);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            future.thenAccept((HttpResponse response) -> response.dispose().catchError().await());
+            throw new RuntimeException(e);
+        }
     }
 }
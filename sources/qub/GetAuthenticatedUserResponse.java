@@ -25,4 +25,27 @@ public class GetAuthenticatedUserResponse extends GitHubResponse
             return GitHubUser.create(this.getBodyJsonObject().await());
         });
     }
+
+    /**
+     * Get the authenticated user in the response with only the provided properties. Only the
+     * requested properties will be parsed from the response's body.
+     * <p>
+     * The returned {@link GitHubUser} only contains the requested properties, so its getters
+     * for any other property return null, just like they do for a property that isn't in the
+     * response.
+     * @param propertyNames The names of the user properties to read, such as
+     *                      {@link GitHubUser#loginPropertyName}.
+     * @return The authenticated user in the response with only the provided properties.
+     */
+    public Result<GitHubUser> getAuthenticatedUser(String... propertyNames)
+    {
+        PreCondition.assertNotNull(propertyNames, "propertyNames");
+
+        return Result.create(() ->
+        {
+            this.throwIfErrorResponse();
+
+            return GitHubUser.create(this.getBodyLazyJsonObject().await().toJson(propertyNames));
+        });
+    }
 }
@@ -0,0 +1,257 @@
+package qub;
+
+/**
+ * The parameters for listing the {@link GitHubRepository}s that the authenticated
+ * {@link GitHubUser} has permission to access. Every parameter that is set is sent to GitHub as
+ * a query parameter so that repositories are filtered before they are sent back.
+ */
+public class GetRepositoriesForAuthenticatedUserParameters extends JSONObjectWrapperBase
+{
+    private static final String visibilityPropertyName = "visibility";
+    private static final String affiliationPropertyName = "affiliation";
+    private static final String typePropertyName = "type";
+    private static final String sortPropertyName = "sort";
+    private static final String directionPropertyName = "direction";
+    private static final String sincePropertyName = "since";
+    private static final String perPagePropertyName = "per_page";
+
+    /**
+     * The maximum number of repositories that GitHub will return in a single page.
+     */
+    public static final int maximumPerPage = 100;
+
+    protected GetRepositoriesForAuthenticatedUserParameters(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static GetRepositoriesForAuthenticatedUserParameters create()
+    {
+        return new GetRepositoriesForAuthenticatedUserParameters(JSONObject.create());
+    }
+
+    /**
+     * Get the visibility of the repositories that will be listed, either "all", "public", or
+     * "private".
+     * @return The visibility of the repositories that will be listed.
+     */
+    public String getVisibility()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.visibilityPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the visibility of the repositories that will be listed, either "all", "public", or
+     * "private". GitHub rejects requests that set both this and the type.
+     * @param visibility The visibility of the repositories that will be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setVisibility(String visibility)
+    {
+        PreCondition.assertNotNullAndNotEmpty(visibility, "visibility");
+
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.visibilityPropertyName, visibility);
+
+        return this;
+    }
+
+    /**
+     * Get the comma-separated relationships that the authenticated user must have with the
+     * repositories that will be listed, such as "owner,collaborator".
+     * @return The comma-separated relationships that the authenticated user must have with the
+     * repositories that will be listed.
+     */
+    public String getAffiliation()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.affiliationPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the relationships that the authenticated user must have with the repositories that
+     * will be listed. Each affiliation is one of "owner", "collaborator", or
+     * "organization_member". GitHub rejects requests that set both this and the type.
+     * @param affiliations The relationships that the authenticated user must have with the
+     *                     repositories that will be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setAffiliation(String... affiliations)
+    {
+        PreCondition.assertNotNull(affiliations, "affiliations");
+        PreCondition.assertGreaterThan(affiliations.length, 0, "affiliations.length");
+
+        final StringBuilder builder = new StringBuilder();
+        for (final String affiliation : affiliations)
+        {
+            PreCondition.assertNotNullAndNotEmpty(affiliation, "affiliation");
+
+            if (builder.length() > 0)
+            {
+                builder.append(',');
+            }
+            builder.append(affiliation);
+        }
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.affiliationPropertyName, builder.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the type of repositories that will be listed, such as "all", "owner", "public",
+     * "private", or "member".
+     * @return The type of repositories that will be listed.
+     */
+    public String getType()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.typePropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the type of repositories that will be listed, such as "all", "owner", "public",
+     * "private", or "member". GitHub rejects requests that set both this and either the
+     * visibility or the affiliation.
+     * @param type The type of repositories that will be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setType(String type)
+    {
+        PreCondition.assertNotNullAndNotEmpty(type, "type");
+
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.typePropertyName, type);
+
+        return this;
+    }
+
+    /**
+     * Get the property that the repositories will be sorted by, such as "created", "updated",
+     * "pushed", or "full_name".
+     * @return The property that the repositories will be sorted by.
+     */
+    public String getSort()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.sortPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the property that the repositories will be sorted by, such as "created", "updated",
+     * "pushed", or "full_name".
+     * @param sort The property that the repositories will be sorted by.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setSort(String sort)
+    {
+        PreCondition.assertNotNullAndNotEmpty(sort, "sort");
+
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.sortPropertyName, sort);
+
+        return this;
+    }
+
+    /**
+     * Get the direction that the repositories will be sorted in, either "asc" or "desc".
+     * @return The direction that the repositories will be sorted in.
+     */
+    public String getDirection()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.directionPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the direction that the repositories will be sorted in, either "asc" or "desc".
+     * @param direction The direction that the repositories will be sorted in.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setDirection(String direction)
+    {
+        PreCondition.assertNotNullAndNotEmpty(direction, "direction");
+
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.directionPropertyName, direction);
+
+        return this;
+    }
+
+    /**
+     * Get the time after which repositories must have been updated to be listed.
+     * @return The time after which repositories must have been updated to be listed.
+     */
+    public java.time.Instant getSince()
+    {
+        return this.toJson().getString(GetRepositoriesForAuthenticatedUserParameters.sincePropertyName)
+            .then((String since) -> java.time.Instant.parse(since))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the time after which repositories must have been updated to be listed.
+     * @param since The time after which repositories must have been updated to be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setSince(java.time.Instant since)
+    {
+        PreCondition.assertNotNull(since, "since");
+
+        this.toJson().setString(GetRepositoriesForAuthenticatedUserParameters.sincePropertyName, since.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the number of repositories that will be requested in each page, or null if GitHub's
+     * default page size will be used.
+     * @return The number of repositories that will be requested in each page.
+     */
+    public Integer getPerPage()
+    {
+        return this.toJson().get(GetRepositoriesForAuthenticatedUserParameters.perPagePropertyName)
+            .then((JSONSegment perPageJson) -> new java.math.BigDecimal(perPageJson.toString()).intValueExact())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the number of repositories that will be requested in each page.
+     * @param perPage The number of repositories that will be requested in each page.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForAuthenticatedUserParameters setPerPage(int perPage)
+    {
+        PreCondition.assertBetween(1, perPage, GetRepositoriesForAuthenticatedUserParameters.maximumPerPage, "perPage");
+
+        this.toJson().setNumber(GetRepositoriesForAuthenticatedUserParameters.perPagePropertyName, perPage);
+
+        return this;
+    }
+
+    /**
+     * Create the {@link GitHubRequest} for the first page of repositories. Only the parameters
+     * that have been set are added to the request's query string.
+     * @return The {@link GitHubRequest} for the first page of repositories.
+     */
+    public GitHubRequest createFirstPageRequest()
+    {
+        final GitHubRequest result = GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.authenticatedUserRepositoriesRoute);
+        for (final JSONProperty property : this.toJson())
+        {
+            final JSONSegment value = property.getValue();
+            result.setQueryParameter(property.getName(), value instanceof JSONString
+                ? ((JSONString)value).getValue()
+                : value.toString());
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
@@ -18,13 +18,44 @@ public class GetRepositoriesForAuthenticatedUserResponse extends GitHubResponse
      */
     public Result<Iterable<GitHubRepository>> getRepositories()
     {
+        return this.getBodyRepositories();
+    }
+
+    /**
+     * Get the repositories in the response. Repositories with the same owner share one owner
+     * object through the provided {@link GitHubJSONInterner}, so the returned repositories must
+     * not be modified.
+     * @param interner The {@link GitHubJSONInterner} that will deduplicate the owners.
+     * @return The repositories in the response.
+     */
+    public Result<Iterable<GitHubRepository>> getRepositories(GitHubJSONInterner interner)
+    {
+        return this.getBodyRepositories(interner);
+    }
+
+    /**
+     * Get the repositories in the response with only the provided properties. Only the
+     * requested properties of each repository will be parsed from the response's body.
+     * <p>
+     * Each returned {@link GitHubRepository} only contains the requested properties, so its
+     * getters for any other property return null, just like they do for a property that isn't
+     * in the response.
+     * @param propertyNames The names of the repository properties to read, such as
+     *                      {@link GitHubRepository#fullNamePropertyName}.
+     * @return The repositories in the response with only the provided properties.
+     */
+    public Result<Iterable<GitHubRepository>> getRepositories(String... propertyNames)
+    {
+        PreCondition.assertNotNull(propertyNames, "propertyNames");
+
         return Result.create(() ->
         {
             this.throwIfErrorResponse();
 
-            final JSONArray bodyJson = this.getBodyJsonArray().await();
-            final Iterable<GitHubRepository> result = bodyJson.instanceOf(JSONObject.class)
-                .map((JSONObject repositoryJson) -> GitHubRepository.create(repositoryJson));
+            final LazyJSONArray bodyJson = this.getBodyLazyJsonArray().await();
+            final Iterable<GitHubRepository> result = bodyJson.getObjects()
+                .map((LazyJSONObject repositoryJson) -> GitHubRepository.create(repositoryJson.toJson(propertyNames)))
+                .toList();
 
             PostCondition.assertNotNull(result, "result");
 
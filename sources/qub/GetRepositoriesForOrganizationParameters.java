@@ -0,0 +1,250 @@
+package qub;
+
+/**
+ * The parameters for listing the {@link GitHubRepository}s that belong to an organization.
+ */
+public class GetRepositoriesForOrganizationParameters extends JSONObjectWrapperBase
+{
+    private static final String organizationPropertyName = "org";
+    private static final String typePropertyName = "type";
+    private static final String sortPropertyName = "sort";
+    private static final String directionPropertyName = "direction";
+    private static final String perPagePropertyName = "per_page";
+    private static final String pushedAfterPropertyName = "pushed_after";
+
+    /**
+     * The value of the sort parameter that orders repositories by the last time that they were
+     * pushed to.
+     */
+    public static final String sortByPushed = "pushed";
+
+    /**
+     * The value of the direction parameter that orders repositories from newest to oldest.
+     */
+    public static final String descendingDirection = "desc";
+
+    /**
+     * The maximum number of repositories that GitHub will return in a single page.
+     */
+    public static final int maximumPerPage = 100;
+
+    protected GetRepositoriesForOrganizationParameters(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static GetRepositoriesForOrganizationParameters create()
+    {
+        return new GetRepositoriesForOrganizationParameters(JSONObject.create());
+    }
+
+    /**
+     * Get the name of the organization whose repositories will be listed.
+     * @return The name of the organization whose repositories will be listed.
+     */
+    public String getOrganization()
+    {
+        return this.toJson().getString(GetRepositoriesForOrganizationParameters.organizationPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the name of the organization whose repositories will be listed.
+     * @param organization The name of the organization whose repositories will be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setOrganization(String organization)
+    {
+        PreCondition.assertNotNullAndNotEmpty(organization, "organization");
+
+        this.toJson().setString(GetRepositoriesForOrganizationParameters.organizationPropertyName, organization);
+
+        return this;
+    }
+
+    /**
+     * Get the type of repositories that will be listed, such as "all", "public", "private",
+     * "forks", "sources", or "member".
+     * @return The type of repositories that will be listed.
+     */
+    public String getType()
+    {
+        return this.toJson().getString(GetRepositoriesForOrganizationParameters.typePropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the type of repositories that will be listed, such as "all", "public", "private",
+     * "forks", "sources", or "member".
+     * @param type The type of repositories that will be listed.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setType(String type)
+    {
+        PreCondition.assertNotNullAndNotEmpty(type, "type");
+
+        this.toJson().setString(GetRepositoriesForOrganizationParameters.typePropertyName, type);
+
+        return this;
+    }
+
+    /**
+     * Get the property that the repositories will be sorted by, such as "created", "updated",
+     * "pushed", or "full_name".
+     * @return The property that the repositories will be sorted by.
+     */
+    public String getSort()
+    {
+        return this.toJson().getString(GetRepositoriesForOrganizationParameters.sortPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the property that the repositories will be sorted by, such as "created", "updated",
+     * "pushed", or "full_name".
+     * @param sort The property that the repositories will be sorted by.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setSort(String sort)
+    {
+        PreCondition.assertNotNullAndNotEmpty(sort, "sort");
+
+        this.toJson().setString(GetRepositoriesForOrganizationParameters.sortPropertyName, sort);
+
+        return this;
+    }
+
+    /**
+     * Get the direction that the repositories will be sorted in, either "asc" or "desc".
+     * @return The direction that the repositories will be sorted in.
+     */
+    public String getDirection()
+    {
+        return this.toJson().getString(GetRepositoriesForOrganizationParameters.directionPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the direction that the repositories will be sorted in, either "asc" or "desc".
+     * @param direction The direction that the repositories will be sorted in.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setDirection(String direction)
+    {
+        PreCondition.assertNotNullAndNotEmpty(direction, "direction");
+
+        this.toJson().setString(GetRepositoriesForOrganizationParameters.directionPropertyName, direction);
+
+        return this;
+    }
+
+    /**
+     * Get the number of repositories that will be requested in each page. Defaults to the
+     * maximum of 100 so that large organizations take as few requests as possible.
+     * @return The number of repositories that will be requested in each page.
+     */
+    public int getPerPage()
+    {
+        final Integer perPage = this.toJson().get(GetRepositoriesForOrganizationParameters.perPagePropertyName)
+            .then((JSONSegment perPageJson) -> new java.math.BigDecimal(perPageJson.toString()).intValueExact())
+            .catchError()
+            .await();
+        return perPage == null ? GetRepositoriesForOrganizationParameters.maximumPerPage : perPage;
+    }
+
+    /**
+     * Set the number of repositories that will be requested in each page.
+     * @param perPage The number of repositories that will be requested in each page.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setPerPage(int perPage)
+    {
+        PreCondition.assertBetween(1, perPage, GetRepositoriesForOrganizationParameters.maximumPerPage, "perPage");
+
+        this.toJson().setNumber(GetRepositoriesForOrganizationParameters.perPagePropertyName, perPage);
+
+        return this;
+    }
+
+    /**
+     * Get the cutoff before which repositories are no longer returned. This isn't sent to GitHub.
+     * When the repositories are sorted by "pushed" in descending order, the listing stops at the
+     * first repository that was last pushed to before this cutoff instead of requesting the
+     * remaining pages.
+     * @return The cutoff before which repositories are no longer returned.
+     */
+    public java.time.Instant getPushedAfter()
+    {
+        return this.toJson().getString(GetRepositoriesForOrganizationParameters.pushedAfterPropertyName)
+            .then((String pushedAfter) -> java.time.Instant.parse(pushedAfter))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the cutoff before which repositories are no longer returned. This also sets the sort
+     * to "pushed" and the direction to "desc", since the listing can only stop early when the
+     * most recently pushed repositories come first.
+     * @param pushedAfter The cutoff before which repositories are no longer returned.
+     * @return This object for method chaining.
+     */
+    public GetRepositoriesForOrganizationParameters setPushedAfter(java.time.Instant pushedAfter)
+    {
+        PreCondition.assertNotNull(pushedAfter, "pushedAfter");
+
+        this.toJson().setString(GetRepositoriesForOrganizationParameters.pushedAfterPropertyName, pushedAfter.toString());
+        this.setSort(GetRepositoriesForOrganizationParameters.sortByPushed);
+        this.setDirection(GetRepositoriesForOrganizationParameters.descendingDirection);
+
+        return this;
+    }
+
+    /**
+     * Get whether the listing can stop before the last page because the repositories are sorted
+     * from most to least recently pushed and a pushed-after cutoff has been set.
+     * @return Whether the listing can stop before the last page.
+     */
+    public boolean canStopEarly()
+    {
+        return this.getPushedAfter() != null &&
+            GetRepositoriesForOrganizationParameters.sortByPushed.equals(this.getSort()) &&
+            GetRepositoriesForOrganizationParameters.descendingDirection.equals(this.getDirection());
+    }
+
+    /**
+     * Create the {@link GitHubRequest} for the first page of repositories.
+     * @return The {@link GitHubRequest} for the first page of repositories.
+     */
+    public GitHubRequest createFirstPageRequest()
+    {
+        PreCondition.assertNotNullAndNotEmpty(this.getOrganization(), "this.getOrganization()");
+
+        final GitHubRequest result = GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.organizationRepositoriesRoute, this.getOrganization())
+            .setQueryParameter(GitHubPagination.pageSizeQueryParameterName, this.getPerPage());
+        final String type = this.getType();
+        if (!Strings.isNullOrEmpty(type))
+        {
+            result.setQueryParameter(GetRepositoriesForOrganizationParameters.typePropertyName, type);
+        }
+        final String sort = this.getSort();
+        if (!Strings.isNullOrEmpty(sort))
+        {
+            result.setQueryParameter(GetRepositoriesForOrganizationParameters.sortPropertyName, sort);
+        }
+        final String direction = this.getDirection();
+        if (!Strings.isNullOrEmpty(direction))
+        {
+            result.setQueryParameter(GetRepositoriesForOrganizationParameters.directionPropertyName, direction);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
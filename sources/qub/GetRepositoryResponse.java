@@ -25,4 +25,27 @@ public class GetRepositoryResponse extends GitHubResponse
             return GitHubRepository.create(this.getBodyJsonObject().await());
         });
     }
+
+    /**
+     * Get the repository in the response with only the provided properties. Only the requested
+     * properties will be parsed from the response's body.
+     * <p>
+     * The returned {@link GitHubRepository} only contains the requested properties, so its
+     * getters for any other property return null, just like they do for a property that isn't
+     * in the response.
+     * @param propertyNames The names of the repository properties to read, such as
+     *                      {@link GitHubRepository#fullNamePropertyName}.
+     * @return The repository in the response with only the provided properties.
+     */
+    public Result<GitHubRepository> getRepository(String... propertyNames)
+    {
+        PreCondition.assertNotNull(propertyNames, "propertyNames");
+
+        return Result.create(() ->
+        {
+            this.throwIfErrorResponse();
+
+            return GitHubRepository.create(this.getBodyLazyJsonObject().await().toJson(propertyNames));
+        });
+    }
 }
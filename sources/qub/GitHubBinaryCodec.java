@@ -0,0 +1,603 @@
+package qub;
+
+/**
+ * A compact binary encoding of the JSON that backs {@link GitHubRepository}s, {@link GitHubUser}s,
+ * and {@link GitHubErrorResponse}s, intended for caches that would otherwise store and re-parse
+ * JSON text. Lengths and counts are written as varints, integral numbers are written as zig-zag
+ * varints, and every string is written to a dictionary the first time it appears so that
+ * repeated property names, owner logins, and values are written as a small index afterward.
+ * URLs are split into a prefix and a last path segment so that the many API URLs that a
+ * repository shares with its owner and its other URLs share dictionary entries too.
+ * <p>
+ * The dictionary is scoped to a single encoded buffer, so encoding many objects together with
+ * one of the list methods produces much smaller output than encoding each object on its own.
+ * <p>
+ * Decoding stops with a {@link ParseException} at objects and arrays that are nested more than
+ * {@link #maximumDepth} levels deep, so corrupted or hostile bytes can't overflow the stack.
+ */
+public class GitHubBinaryCodec
+{
+    /**
+     * The deepest that objects and arrays can be nested inside each other in decoded bytes. The
+     * top-level object is at depth 1. GitHub's JSON is only a few levels deep.
+     */
+    public static final int maximumDepth = 64;
+
+    private static final int magicByte0 = 'Q';
+    private static final int magicByte1 = 'B';
+    private static final int formatVersion = 1;
+
+    private static final int nullTag = 0;
+    private static final int falseTag = 1;
+    private static final int trueTag = 2;
+    private static final int integerTag = 3;
+    private static final int numberTag = 4;
+    private static final int stringTag = 5;
+    private static final int splitStringTag = 6;
+    private static final int objectTag = 7;
+    private static final int arrayTag = 8;
+
+    private GitHubBinaryCodec()
+    {
+    }
+
+    public static GitHubBinaryCodec create()
+    {
+        return new GitHubBinaryCodec();
+    }
+
+    /**
+     * Encode the provided repository.
+     * @param repository The repository to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeRepository(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+
+        return this.encodeRepositories(Iterable.create(repository));
+    }
+
+    /**
+     * Encode the provided repositories into a single buffer that shares one string dictionary.
+     * @param repositories The repositories to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeRepositories(Iterable<GitHubRepository> repositories)
+    {
+        PreCondition.assertNotNull(repositories, "repositories");
+
+        return this.encodeObjects(repositories.map(GitHubRepository::toJson));
+    }
+
+    /**
+     * Decode the single repository in the provided buffer.
+     * @param bytes The bytes that were created by {@link #encodeRepository(GitHubRepository)}.
+     * @return The decoded repository, or a {@link ParseException} if the bytes are not a valid
+     * encoding of exactly one object.
+     */
+    public Result<GitHubRepository> decodeRepository(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return this.decodeSingleObject(bytes).then(GitHubRepository::create);
+    }
+
+    /**
+     * Decode the repositories in the provided buffer.
+     * @param bytes The bytes that were created by {@link #encodeRepositories(Iterable)}.
+     * @return The decoded repositories, or a {@link ParseException} if the bytes are not a valid
+     * encoding.
+     */
+    public Result<Iterable<GitHubRepository>> decodeRepositories(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return this.decodeObjects(bytes).then((Iterable<JSONObject> objects) -> objects.map(GitHubRepository::create).toList());
+    }
+
+    /**
+     * Encode the provided user.
+     * @param user The user to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeUser(GitHubUser user)
+    {
+        PreCondition.assertNotNull(user, "user");
+
+        return this.encodeUsers(Iterable.create(user));
+    }
+
+    /**
+     * Encode the provided users into a single buffer that shares one string dictionary.
+     * @param users The users to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeUsers(Iterable<GitHubUser> users)
+    {
+        PreCondition.assertNotNull(users, "users");
+
+        return this.encodeObjects(users.map(GitHubUser::toJson));
+    }
+
+    /**
+     * Decode the single user in the provided buffer.
+     * @param bytes The bytes that were created by {@link #encodeUser(GitHubUser)}.
+     * @return The decoded user, or a {@link ParseException} if the bytes are not a valid encoding
+     * of exactly one object.
+     */
+    public Result<GitHubUser> decodeUser(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return this.decodeSingleObject(bytes).then(GitHubUser::create);
+    }
+
+    /**
+     * Decode the users in the provided buffer.
+     * @param bytes The bytes that were created by {@link #encodeUsers(Iterable)}.
+     * @return The decoded users, or a {@link ParseException} if the bytes are not a valid
+     * encoding.
+     */
+    public Result<Iterable<GitHubUser>> decodeUsers(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return this.decodeObjects(bytes).then((Iterable<JSONObject> objects) -> objects.map(GitHubUser::create).toList());
+    }
+
+    /**
+     * Encode the provided error response.
+     * @param errorResponse The error response to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeErrorResponse(GitHubErrorResponse errorResponse)
+    {
+        PreCondition.assertNotNull(errorResponse, "errorResponse");
+
+        return this.encodeObjects(Iterable.create(errorResponse.toJson()));
+    }
+
+    /**
+     * Decode the single error response in the provided buffer.
+     * @param bytes The bytes that were created by
+     *              {@link #encodeErrorResponse(GitHubErrorResponse)}.
+     * @return The decoded error response, or a {@link ParseException} if the bytes are not a
+     * valid encoding of exactly one object.
+     */
+    public Result<GitHubErrorResponse> decodeErrorResponse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return this.decodeSingleObject(bytes).then(GitHubErrorResponse::create);
+    }
+
+    /**
+     * Encode the provided JSON objects into a single buffer that shares one string dictionary.
+     * @param objects The JSON objects to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encodeObjects(Iterable<JSONObject> objects)
+    {
+        PreCondition.assertNotNull(objects, "objects");
+
+        final Writer writer = new Writer();
+        writer.writeByte(GitHubBinaryCodec.magicByte0);
+        writer.writeByte(GitHubBinaryCodec.magicByte1);
+        writer.writeByte(GitHubBinaryCodec.formatVersion);
+        writer.writeVarint(objects.getCount());
+        for (final JSONObject object : objects)
+        {
+            PreCondition.assertNotNull(object, "object");
+
+            writer.writeSegment(object);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decode the JSON objects in the provided buffer.
+     * @param bytes The bytes that were created by {@link #encodeObjects(Iterable)}.
+     * @return The decoded JSON objects.
+     */
+    public Result<Iterable<JSONObject>> decodeObjects(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return Result.create(() ->
+        {
+            final Reader reader = new Reader(bytes);
+            if (reader.readByte() != GitHubBinaryCodec.magicByte0 || reader.readByte() != GitHubBinaryCodec.magicByte1)
+            {
+                throw new ParseException("The bytes don't start with the " + Types.getTypeName(GitHubBinaryCodec.class) + " header.");
+            }
+            final int version = reader.readByte();
+            if (version != GitHubBinaryCodec.formatVersion)
+            {
+                throw new ParseException("Unsupported " + Types.getTypeName(GitHubBinaryCodec.class) + " format version: " + version);
+            }
+
+            final int objectCount = reader.readLength();
+            final List<JSONObject> result = List.create();
+            for (int i = 0; i < objectCount; ++i)
+            {
+                final JSONSegment segment = reader.readSegment(0);
+                if (!(segment instanceof JSONObject))
+                {
+                    throw new ParseException("Expected a " + Types.getTypeName(JSONObject.class) + " at byte index " + reader.index + ", but found " + Types.getTypeName(segment) + " instead.");
+                }
+                result.add((JSONObject)segment);
+            }
+            if (reader.index != bytes.length)
+            {
+                throw new ParseException("Expected the end of the encoded bytes at byte index " + reader.index + ".");
+            }
+            return result;
+        });
+    }
+
+    private Result<JSONObject> decodeSingleObject(byte[] bytes)
+    {
+        return Result.create(() ->
+        {
+            final Iterable<JSONObject> objects = this.decodeObjects(bytes).await();
+            if (objects.getCount() != 1)
+            {
+                throw new ParseException("Expected 1 encoded object, but found " + objects.getCount() + ".");
+            }
+            return objects.first();
+        });
+    }
+
+    /**
+     * Get the index that a string should be split at so that its prefix can be shared with
+     * other strings, or -1 if the string shouldn't be split. URLs are split after the last '/'
+     * that comes before any URI template expression, so
+     * "https://api.github.com/repos/octocat/hello/issues{/number}" is split into
+     * "https://api.github.com/repos/octocat/hello/" and "issues{/number}".
+     */
+    static int getSplitIndex(String value)
+    {
+        int result = -1;
+        if (value.startsWith("https://") || value.startsWith("http://") || value.startsWith("git://") || value.startsWith("git@"))
+        {
+            int searchEndIndex = value.indexOf('{');
+            if (searchEndIndex == -1)
+            {
+                searchEndIndex = value.length();
+            }
+            final int lastSlashIndex = value.lastIndexOf('/', searchEndIndex - 1);
+            if (lastSlashIndex > 0 && lastSlashIndex < value.length() - 1)
+            {
+                result = lastSlashIndex + 1;
+            }
+        }
+        return result;
+    }
+
+    private static class Writer
+    {
+        private byte[] buffer;
+        private int byteCount;
+        private final java.util.HashMap<String,Integer> dictionary;
+
+        private Writer()
+        {
+            this.buffer = new byte[256];
+            this.dictionary = new java.util.HashMap<>();
+        }
+
+        private void ensureCapacity(int additionalBytes)
+        {
+            final int requiredCapacity = this.byteCount + additionalBytes;
+            if (requiredCapacity > this.buffer.length)
+            {
+                this.buffer = java.util.Arrays.copyOf(this.buffer, Math.max(requiredCapacity, this.buffer.length * 2));
+            }
+        }
+
+        private void writeByte(int value)
+        {
+            this.ensureCapacity(1);
+            this.buffer[this.byteCount++] = (byte)value;
+        }
+
+        private void writeVarint(long value)
+        {
+            this.ensureCapacity(10);
+            while ((value & ~0x7FL) != 0)
+            {
+                this.buffer[this.byteCount++] = (byte)((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.buffer[this.byteCount++] = (byte)value;
+        }
+
+        /**
+         * Write a dictionary reference to the provided string. A reference of 0 means that the
+         * string is new and its UTF-8 bytes follow; any other reference is the dictionary index
+         * plus one.
+         */
+        private void writeDictionaryString(String value)
+        {
+            final Integer dictionaryIndex = this.dictionary.get(value);
+            if (dictionaryIndex != null)
+            {
+                this.writeVarint(dictionaryIndex + 1);
+            }
+            else
+            {
+                this.dictionary.put(value, this.dictionary.size());
+                this.writeVarint(0);
+                final byte[] utf8Bytes = value.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                this.writeVarint(utf8Bytes.length);
+                this.ensureCapacity(utf8Bytes.length);
+                System.arraycopy(utf8Bytes, 0, this.buffer, this.byteCount, utf8Bytes.length);
+                this.byteCount += utf8Bytes.length;
+            }
+        }
+
+        private void writeSegment(JSONSegment json)
+        {
+            if (json instanceof JSONObject)
+            {
+                final JSONObject object = (JSONObject)json;
+                this.writeByte(GitHubBinaryCodec.objectTag);
+                this.writeVarint(object.getCount());
+                for (final JSONProperty property : object)
+                {
+                    this.writeDictionaryString(property.getName());
+                    this.writeSegment(property.getValue());
+                }
+            }
+            else if (json instanceof JSONArray)
+            {
+                final JSONArray array = (JSONArray)json;
+                this.writeByte(GitHubBinaryCodec.arrayTag);
+                this.writeVarint(array.getCount());
+                for (final JSONSegment element : array)
+                {
+                    this.writeSegment(element);
+                }
+            }
+            else if (json instanceof JSONString)
+            {
+                final String value = ((JSONString)json).getValue();
+                final int splitIndex = GitHubBinaryCodec.getSplitIndex(value);
+                if (splitIndex == -1)
+                {
+                    this.writeByte(GitHubBinaryCodec.stringTag);
+                    this.writeDictionaryString(value);
+                }
+                else
+                {
+                    this.writeByte(GitHubBinaryCodec.splitStringTag);
+                    this.writeDictionaryString(value.substring(0, splitIndex));
+                    this.writeDictionaryString(value.substring(splitIndex));
+                }
+            }
+            else
+            {
+                final String literal = json.toString();
+                if ("null".equals(literal))
+                {
+                    this.writeByte(GitHubBinaryCodec.nullTag);
+                }
+                else if ("false".equals(literal))
+                {
+                    this.writeByte(GitHubBinaryCodec.falseTag);
+                }
+                else if ("true".equals(literal))
+                {
+                    this.writeByte(GitHubBinaryCodec.trueTag);
+                }
+                else
+                {
+                    final Long integer = GitHubBinaryCodec.parseIntegerLiteral(literal);
+                    if (integer != null)
+                    {
+                        this.writeByte(GitHubBinaryCodec.integerTag);
+                        this.writeVarint((integer << 1) ^ (integer >> 63));
+                    }
+                    else
+                    {
+                        this.writeByte(GitHubBinaryCodec.numberTag);
+                        this.writeDictionaryString(literal);
+                    }
+                }
+            }
+        }
+
+        private byte[] toByteArray()
+        {
+            return java.util.Arrays.copyOf(this.buffer, this.byteCount);
+        }
+    }
+
+    /**
+     * Parse the provided number literal if it is an integer that fits in a long and that would
+     * be written back out as the same text.
+     */
+    private static Long parseIntegerLiteral(String literal)
+    {
+        Long result = null;
+        final int literalLength = literal.length();
+        if (1 <= literalLength && literalLength <= 20)
+        {
+            int i = (literal.charAt(0) == '-') ? 1 : 0;
+            boolean isInteger = (i < literalLength) && (literal.charAt(i) != '0' || literalLength == i + 1);
+            for (; isInteger && i < literalLength; ++i)
+            {
+                final char c = literal.charAt(i);
+                isInteger = ('0' <= c && c <= '9');
+            }
+            if (isInteger && !"-0".equals(literal))
+            {
+                try
+                {
+                    result = Long.parseLong(literal);
+                }
+                catch (NumberFormatException e)
+                {
+                    // The literal is too large for a long, so it is written as text instead.
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class Reader
+    {
+        private final byte[] bytes;
+        private int index;
+        private final java.util.ArrayList<String> dictionary;
+
+        private Reader(byte[] bytes)
+        {
+            this.bytes = bytes;
+            this.dictionary = new java.util.ArrayList<>();
+        }
+
+        private int readByte()
+        {
+            if (this.index >= this.bytes.length)
+            {
+                throw new ParseException("Unexpected end of the encoded bytes at byte index " + this.index + ".");
+            }
+            return this.bytes[this.index++] & 0xFF;
+        }
+
+        private long readVarint()
+        {
+            long result = 0;
+            int shift = 0;
+            while (true)
+            {
+                final int b = this.readByte();
+                result |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    break;
+                }
+                shift += 7;
+                if (shift >= 64)
+                {
+                    throw new ParseException("Malformed varint at byte index " + this.index + ".");
+                }
+            }
+            return result;
+        }
+
+        private int readLength()
+        {
+            final long result = this.readVarint();
+            if (result < 0 || result > this.bytes.length - this.index)
+            {
+                // Every element takes at least one byte, so a count or length larger than the
+                // remaining bytes can only come from corrupted input.
+                throw new ParseException("Invalid length " + result + " at byte index " + this.index + ".");
+            }
+            return (int)result;
+        }
+
+        private String readDictionaryString()
+        {
+            final long reference = this.readVarint();
+            final String result;
+            if (reference == 0)
+            {
+                final int byteLength = this.readLength();
+                result = new String(this.bytes, this.index, byteLength, java.nio.charset.StandardCharsets.UTF_8);
+                this.index += byteLength;
+                this.dictionary.add(result);
+            }
+            else if (reference <= this.dictionary.size())
+            {
+                result = this.dictionary.get((int)(reference - 1));
+            }
+            else
+            {
+                throw new ParseException("Invalid string dictionary reference " + reference + " at byte index " + this.index + ".");
+            }
+            return result;
+        }
+
+        /**
+         * Read the next value.
+         * @param depth The number of objects and arrays that the value is nested inside of.
+         */
+        private JSONSegment readSegment(int depth)
+        {
+            final JSONSegment result;
+            final int tag = this.readByte();
+            if ((tag == GitHubBinaryCodec.objectTag || tag == GitHubBinaryCodec.arrayTag) && depth >= GitHubBinaryCodec.maximumDepth)
+            {
+                throw new ParseException("The value at byte index " + (this.index - 1) + " is nested more than " + GitHubBinaryCodec.maximumDepth + " levels deep.");
+            }
+            switch (tag)
+            {
+                case GitHubBinaryCodec.nullTag:
+                    result = JSONNull.segment;
+                    break;
+
+                case GitHubBinaryCodec.falseTag:
+                    result = JSONBoolean.falseSegment;
+                    break;
+
+                case GitHubBinaryCodec.trueTag:
+                    result = JSONBoolean.trueSegment;
+                    break;
+
+                case GitHubBinaryCodec.integerTag:
+                    final long zigZag = this.readVarint();
+                    result = JSONNumber.get((zigZag >>> 1) ^ -(zigZag & 1));
+                    break;
+
+                case GitHubBinaryCodec.numberTag:
+                    // Parse the literal exactly as it was written instead of going through a
+                    // double, so that integers beyond a long and precise decimals keep every digit.
+                    final String literal = this.readDictionaryString();
+                    result = JSON.parse(literal).catchError().await();
+                    if (!(result instanceof JSONNumber))
+                    {
+                        throw new ParseException("Invalid number literal " + Strings.escapeAndQuote(literal) + " at byte index " + this.index + ".");
+                    }
+                    break;
+
+                case GitHubBinaryCodec.stringTag:
+                    result = JSONString.get(this.readDictionaryString());
+                    break;
+
+                case GitHubBinaryCodec.splitStringTag:
+                    final String prefix = this.readDictionaryString();
+                    result = JSONString.get(prefix + this.readDictionaryString());
+                    break;
+
+                case GitHubBinaryCodec.objectTag:
+                    final JSONObject object = JSONObject.create();
+                    final int propertyCount = this.readLength();
+                    for (int i = 0; i < propertyCount; ++i)
+                    {
+                        final String propertyName = this.readDictionaryString();
+                        object.set(propertyName, this.readSegment(depth + 1));
+                    }
+                    result = object;
+                    break;
+
+                case GitHubBinaryCodec.arrayTag:
+                    final JSONArray array = JSONArray.create();
+                    final int elementCount = this.readLength();
+                    for (int i = 0; i < elementCount; ++i)
+                    {
+                        array.add(this.readSegment(depth + 1));
+                    }
+                    result = array;
+                    break;
+
+                default:
+                    throw new ParseException("Unknown value tag " + tag + " at byte index " + (this.index - 1) + ".");
+            }
+            return result;
+        }
+    }
+}
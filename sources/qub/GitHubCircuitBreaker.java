@@ -0,0 +1,517 @@
+package qub;
+
+/**
+ * A set of circuit breakers that stop a {@link GitHubClient} from sending requests to a base URL
+ * or route that is failing or responding slowly. Each circuit is identified by a key and tracks
+ * the outcomes of its most recent requests in a sliding window.
+ * <ul>
+ *     <li>A closed circuit allows every request. It opens when the window holds at least the
+ *     minimum number of calls and either the failure rate or the slow call rate reaches its
+ *     threshold.</li>
+ *     <li>An open circuit rejects every request with a
+ *     {@link GitHubCircuitBreakerOpenException} until the open duration has passed, and then
+ *     becomes half-open.</li>
+ *     <li>A half-open circuit allows a limited number of trial requests. If they all succeed,
+ *     then the circuit closes. If any of them fail, then the circuit opens again.</li>
+ * </ul>
+ * A request fails when it throws or when its response has a 5xx status code. 4xx responses are
+ * caused by the request rather than by the server, so they count as successes.
+ */
+public class GitHubCircuitBreaker
+{
+    /**
+     * The states that a circuit can be in.
+     */
+    public enum State
+    {
+        Closed,
+        Open,
+        HalfOpen,
+    }
+
+    private static final byte failedOutcome = 1;
+    private static final byte slowOutcome = 2;
+
+    private final java.util.HashMap<String,Circuit> circuits;
+    private final long[] transitionCounts;
+    private long rejectedCount;
+    private Function0<Long> clock;
+    private double failureRateThreshold;
+    private double slowCallRateThreshold;
+    private long slowCallMilliseconds;
+    private int windowSize;
+    private int minimumCallCount;
+    private long openMilliseconds;
+    private int halfOpenTrialCount;
+
+    private GitHubCircuitBreaker()
+    {
+        this.circuits = new java.util.HashMap<>();
+        this.transitionCounts = new long[State.values().length];
+        this.clock = () -> System.nanoTime() / 1000000;
+        this.failureRateThreshold = 0.5;
+        this.slowCallRateThreshold = 0.8;
+        this.slowCallMilliseconds = 10000;
+        this.windowSize = 20;
+        this.minimumCallCount = 10;
+        this.openMilliseconds = 30000;
+        this.halfOpenTrialCount = 3;
+    }
+
+    public static GitHubCircuitBreaker create()
+    {
+        return new GitHubCircuitBreaker();
+    }
+
+    /**
+     * Get the key of the circuit that tracks every request sent to the provided base URL.
+     * @param baseUrl The base URL.
+     * @return The key of the circuit for the provided base URL.
+     */
+    public static String getBaseUrlCircuitKey(URL baseUrl)
+    {
+        PreCondition.assertNotNull(baseUrl, "baseUrl");
+
+        return baseUrl.toString();
+    }
+
+    /**
+     * Get the key of the circuit that tracks the requests sent to the provided route of the
+     * provided base URL.
+     * @param baseUrl The base URL.
+     * @param routeKey The route key of the requests, such as "/repos/{owner}/{repo}".
+     * @return The key of the circuit for the provided base URL and route.
+     */
+    public static String getRouteCircuitKey(URL baseUrl, String routeKey)
+    {
+        PreCondition.assertNotNull(baseUrl, "baseUrl");
+        PreCondition.assertNotNullAndNotEmpty(routeKey, "routeKey");
+
+        return GitHubCircuitBreaker.getBaseUrlCircuitKey(baseUrl) + " " + routeKey;
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds. The returned values only
+     * need to be comparable to each other, not to the wall clock.
+     * @param clock The function that returns the current time in milliseconds.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.clock = clock;
+
+        return this;
+    }
+
+    public synchronized double getFailureRateThreshold()
+    {
+        return this.failureRateThreshold;
+    }
+
+    /**
+     * Set the fraction of the calls in the window that must fail for a circuit to open.
+     * @param failureRateThreshold The fraction of the calls in the window that must fail for a
+     *                             circuit to open.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setFailureRateThreshold(double failureRateThreshold)
+    {
+        PreCondition.assertBetween(0.01, failureRateThreshold, 1.0, "failureRateThreshold");
+
+        this.failureRateThreshold = failureRateThreshold;
+
+        return this;
+    }
+
+    public synchronized double getSlowCallRateThreshold()
+    {
+        return this.slowCallRateThreshold;
+    }
+
+    /**
+     * Set the fraction of the calls in the window that must be slow for a circuit to open.
+     * @param slowCallRateThreshold The fraction of the calls in the window that must be slow for
+     *                              a circuit to open.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setSlowCallRateThreshold(double slowCallRateThreshold)
+    {
+        PreCondition.assertBetween(0.01, slowCallRateThreshold, 1.0, "slowCallRateThreshold");
+
+        this.slowCallRateThreshold = slowCallRateThreshold;
+
+        return this;
+    }
+
+    public synchronized long getSlowCallMilliseconds()
+    {
+        return this.slowCallMilliseconds;
+    }
+
+    /**
+     * Set how long a call must take before it counts as a slow call.
+     * @param slowCallMilliseconds The number of milliseconds that a call must take before it
+     *                             counts as a slow call.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setSlowCallMilliseconds(long slowCallMilliseconds)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(slowCallMilliseconds, 1, "slowCallMilliseconds");
+
+        this.slowCallMilliseconds = slowCallMilliseconds;
+
+        return this;
+    }
+
+    public synchronized int getWindowSize()
+    {
+        return this.windowSize;
+    }
+
+    /**
+     * Set the number of most recent calls that each circuit uses to compute its failure and slow
+     * call rates. This only affects circuits that are created after it is set.
+     * @param windowSize The number of most recent calls that each circuit tracks.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setWindowSize(int windowSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(windowSize, 1, "windowSize");
+
+        this.windowSize = windowSize;
+        this.minimumCallCount = Math.min(this.minimumCallCount, windowSize);
+
+        return this;
+    }
+
+    public synchronized int getMinimumCallCount()
+    {
+        return this.minimumCallCount;
+    }
+
+    /**
+     * Set the number of calls that a circuit's window must hold before the circuit can open.
+     * @param minimumCallCount The number of calls that a circuit's window must hold before the
+     *                         circuit can open.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setMinimumCallCount(int minimumCallCount)
+    {
+        PreCondition.assertBetween(1, minimumCallCount, this.windowSize, "minimumCallCount");
+
+        this.minimumCallCount = minimumCallCount;
+
+        return this;
+    }
+
+    public synchronized long getOpenMilliseconds()
+    {
+        return this.openMilliseconds;
+    }
+
+    /**
+     * Set how long an open circuit rejects requests before it allows trial requests.
+     * @param openMilliseconds The number of milliseconds that an open circuit rejects requests.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setOpenMilliseconds(long openMilliseconds)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(openMilliseconds, 1, "openMilliseconds");
+
+        this.openMilliseconds = openMilliseconds;
+
+        return this;
+    }
+
+    public synchronized int getHalfOpenTrialCount()
+    {
+        return this.halfOpenTrialCount;
+    }
+
+    /**
+     * Set the number of trial requests that must succeed for a half-open circuit to close.
+     * @param halfOpenTrialCount The number of trial requests that must succeed for a half-open
+     *                           circuit to close.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubCircuitBreaker setHalfOpenTrialCount(int halfOpenTrialCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(halfOpenTrialCount, 1, "halfOpenTrialCount");
+
+        this.halfOpenTrialCount = halfOpenTrialCount;
+
+        return this;
+    }
+
+    /**
+     * Get the current state of the circuit with the provided key. Circuits that haven't been
+     * used yet are closed.
+     * @param circuitKey The key of the circuit.
+     * @return The current state of the circuit.
+     */
+    public synchronized State getState(String circuitKey)
+    {
+        PreCondition.assertNotNullAndNotEmpty(circuitKey, "circuitKey");
+
+        final Circuit circuit = this.circuits.get(circuitKey);
+        if (circuit != null)
+        {
+            this.updateState(circuit, this.clock.run());
+        }
+        return circuit == null ? State.Closed : circuit.state;
+    }
+
+    /**
+     * Get the number of times that any circuit has moved into the provided state.
+     * @param state The state.
+     * @return The number of times that any circuit has moved into the provided state.
+     */
+    public synchronized long getTransitionCount(State state)
+    {
+        PreCondition.assertNotNull(state, "state");
+
+        return this.transitionCounts[state.ordinal()];
+    }
+
+    /**
+     * Get the number of requests that have been rejected because a circuit was open.
+     * @return The number of requests that have been rejected because a circuit was open.
+     */
+    public synchronized long getRejectedCount()
+    {
+        return this.rejectedCount;
+    }
+
+    /**
+     * Get permission to send a request through each of the circuits with the provided keys.
+     * @param circuitKeys The keys of the circuits that the request goes through.
+     * @return The {@link Permit} that must be completed with the outcome of the request.
+     * @throws GitHubCircuitBreakerOpenException if any of the circuits doesn't allow the request.
+     */
+    public synchronized Permit acquire(String... circuitKeys)
+    {
+        PreCondition.assertNotNull(circuitKeys, "circuitKeys");
+        PreCondition.assertGreaterThan(circuitKeys.length, 0, "circuitKeys.length");
+
+        final long now = this.clock.run();
+        final Circuit[] circuits = new Circuit[circuitKeys.length];
+        final long[] generations = new long[circuitKeys.length];
+        for (int i = 0; i < circuitKeys.length; ++i)
+        {
+            final Circuit circuit = this.circuits.computeIfAbsent(circuitKeys[i], (String key) -> new Circuit(this.windowSize));
+            this.updateState(circuit, now);
+
+            final boolean allowed;
+            if (circuit.state == State.Closed)
+            {
+                allowed = true;
+            }
+            else if (circuit.state == State.HalfOpen)
+            {
+                allowed = circuit.trialsInFlight + circuit.trialSuccesses < this.halfOpenTrialCount;
+                if (allowed)
+                {
+                    ++circuit.trialsInFlight;
+                }
+            }
+            else
+            {
+                allowed = false;
+            }
+
+            if (!allowed)
+            {
+                for (int j = 0; j < i; ++j)
+                {
+                    if (circuits[j].state == State.HalfOpen && circuits[j].generation == generations[j])
+                    {
+                        --circuits[j].trialsInFlight;
+                    }
+                }
+                ++this.rejectedCount;
+                final long remainingOpenMilliseconds = circuit.state == State.Open
+                    ? Math.max(0, circuit.openedAt + this.openMilliseconds - now)
+                    : 0;
+                throw new GitHubCircuitBreakerOpenException(circuitKeys[i], remainingOpenMilliseconds);
+            }
+
+            circuits[i] = circuit;
+            generations[i] = circuit.generation;
+        }
+        return new Permit(this, circuits, generations, now);
+    }
+
+    private void updateState(Circuit circuit, long now)
+    {
+        if (circuit.state == State.Open && now - circuit.openedAt >= this.openMilliseconds)
+        {
+            this.transition(circuit, State.HalfOpen, now);
+        }
+    }
+
+    private void transition(Circuit circuit, State state, long now)
+    {
+        circuit.state = state;
+        ++circuit.generation;
+        circuit.trialsInFlight = 0;
+        circuit.trialSuccesses = 0;
+        if (state == State.Open)
+        {
+            circuit.openedAt = now;
+        }
+        else if (state == State.Closed)
+        {
+            circuit.clearWindow();
+        }
+        ++this.transitionCounts[state.ordinal()];
+    }
+
+    private synchronized void complete(Permit permit, boolean failed)
+    {
+        final long now = this.clock.run();
+        final boolean slow = now - permit.startedAt >= this.slowCallMilliseconds;
+        for (int i = 0; i < permit.circuits.length; ++i)
+        {
+            final Circuit circuit = permit.circuits[i];
+            if (circuit.generation == permit.generations[i])
+            {
+                if (circuit.state == State.HalfOpen)
+                {
+                    --circuit.trialsInFlight;
+                    if (failed || slow)
+                    {
+                        this.transition(circuit, State.Open, now);
+                    }
+                    else if (++circuit.trialSuccesses >= this.halfOpenTrialCount)
+                    {
+                        this.transition(circuit, State.Closed, now);
+                    }
+                }
+                else if (circuit.state == State.Closed)
+                {
+                    circuit.record((byte)((failed ? GitHubCircuitBreaker.failedOutcome : 0) | (slow ? GitHubCircuitBreaker.slowOutcome : 0)));
+                    if (circuit.callCount >= this.minimumCallCount &&
+                        (circuit.failedCount >= this.failureRateThreshold * circuit.callCount ||
+                         circuit.slowCount >= this.slowCallRateThreshold * circuit.callCount))
+                    {
+                        this.transition(circuit, State.Open, now);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Permission to send one request through a set of circuits. Exactly one of the completion
+     * methods must be called when the request finishes.
+     */
+    public static class Permit
+    {
+        private final GitHubCircuitBreaker circuitBreaker;
+        private final Circuit[] circuits;
+        private final long[] generations;
+        private final long startedAt;
+        private boolean completed;
+
+        private Permit(GitHubCircuitBreaker circuitBreaker, Circuit[] circuits, long[] generations, long startedAt)
+        {
+            this.circuitBreaker = circuitBreaker;
+            this.circuits = circuits;
+            this.generations = generations;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * Record that the request received a response with the provided status code.
+         * @param statusCode The status code of the response.
+         */
+        public void onResponse(int statusCode)
+        {
+            this.complete(500 <= statusCode && statusCode <= 599);
+        }
+
+        /**
+         * Record that the request failed without receiving a response.
+         */
+        public void onFailure()
+        {
+            this.complete(true);
+        }
+
+        private void complete(boolean failed)
+        {
+            synchronized (this.circuitBreaker)
+            {
+                if (!this.completed)
+                {
+                    this.completed = true;
+                    this.circuitBreaker.complete(this, failed);
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of one circuit and a ring buffer of the outcomes of its most recent calls.
+     */
+    private static class Circuit
+    {
+        private final byte[] outcomes;
+        private int nextOutcomeIndex;
+        private int callCount;
+        private int failedCount;
+        private int slowCount;
+        private State state;
+        private long generation;
+        private long openedAt;
+        private int trialsInFlight;
+        private int trialSuccesses;
+
+        private Circuit(int windowSize)
+        {
+            this.outcomes = new byte[windowSize];
+            this.state = State.Closed;
+        }
+
+        private void record(byte outcome)
+        {
+            if (this.callCount == this.outcomes.length)
+            {
+                final byte evictedOutcome = this.outcomes[this.nextOutcomeIndex];
+                if ((evictedOutcome & GitHubCircuitBreaker.failedOutcome) != 0)
+                {
+                    --this.failedCount;
+                }
+                if ((evictedOutcome & GitHubCircuitBreaker.slowOutcome) != 0)
+                {
+                    --this.slowCount;
+                }
+            }
+            else
+            {
+                ++this.callCount;
+            }
+
+            this.outcomes[this.nextOutcomeIndex] = outcome;
+            this.nextOutcomeIndex = (this.nextOutcomeIndex + 1) % this.outcomes.length;
+            if ((outcome & GitHubCircuitBreaker.failedOutcome) != 0)
+            {
+                ++this.failedCount;
+            }
+            if ((outcome & GitHubCircuitBreaker.slowOutcome) != 0)
+            {
+                ++this.slowCount;
+            }
+        }
+
+        private void clearWindow()
+        {
+            this.nextOutcomeIndex = 0;
+            this.callCount = 0;
+            this.failedCount = 0;
+            this.slowCount = 0;
+        }
+    }
+}
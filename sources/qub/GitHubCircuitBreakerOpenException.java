@@ -0,0 +1,46 @@
+package qub;
+
+/**
+ * An exception that is thrown instead of sending a request when the
+ * {@link GitHubCircuitBreaker} for the request's base URL or route is open.
+ */
+public class GitHubCircuitBreakerOpenException extends RuntimeException
+{
+    private final String circuitKey;
+    private final long remainingOpenMilliseconds;
+
+    public GitHubCircuitBreakerOpenException(String circuitKey, long remainingOpenMilliseconds)
+    {
+        super(GitHubCircuitBreakerOpenException.getMessage(circuitKey, remainingOpenMilliseconds));
+
+        this.circuitKey = circuitKey;
+        this.remainingOpenMilliseconds = remainingOpenMilliseconds;
+    }
+
+    private static String getMessage(String circuitKey, long remainingOpenMilliseconds)
+    {
+        PreCondition.assertNotNullAndNotEmpty(circuitKey, "circuitKey");
+        PreCondition.assertGreaterThanOrEqualTo(remainingOpenMilliseconds, 0, "remainingOpenMilliseconds");
+
+        return "The circuit for " + Strings.escapeAndQuote(circuitKey) + " is open. Requests will be allowed again in " + remainingOpenMilliseconds + " milliseconds.";
+    }
+
+    /**
+     * Get the key of the circuit that is open.
+     * @return The key of the circuit that is open.
+     */
+    public String getCircuitKey()
+    {
+        return this.circuitKey;
+    }
+
+    /**
+     * Get the number of milliseconds until the circuit will allow trial requests. If trial
+     * requests are already being sent, then this will be 0.
+     * @return The number of milliseconds until the circuit will allow trial requests.
+     */
+    public long getRemainingOpenMilliseconds()
+    {
+        return this.remainingOpenMilliseconds;
+    }
+}
@@ -5,6 +5,35 @@ package qub;
  */
 public interface GitHubClient
 {
+    /**
+     * The {@link GitHubRoute} for the authenticated {@link GitHubUser}.
+     */
+    GitHubRoute authenticatedUserRoute = GitHubRoute.create("/user");
+
+    /**
+     * The {@link GitHubRoute} for the {@link GitHubRepository}s of the authenticated
+     * {@link GitHubUser}.
+     */
+    GitHubRoute authenticatedUserRepositoriesRoute = GitHubRoute.create("/user/repos");
+
+    /**
+     * The {@link GitHubRoute} for a single {@link GitHubRepository}.
+     */
+    GitHubRoute repositoryRoute = GitHubRoute.create("/repos/{owner}/{repo}");
+
+    /**
+     * The {@link GitHubRoute} for the {@link GitHubRepository}s of an organization.
+     */
+    GitHubRoute organizationRepositoriesRoute = GitHubRoute.create("/orgs/{org}/repos");
+
+    /**
+     * The least amount of time that
+     * {@link #createRepository(CreateRepositoryParameters, java.time.Instant, boolean)} gives the
+     * requests that find out whether an ambiguously failed create request created the
+     * repository. The create request's own deadline is used instead if it is later.
+     */
+    java.time.Duration ambiguousFailureConfirmationTimeout = java.time.Duration.ofSeconds(10);
+
     public static BasicGitHubClient create(Network network)
     {
         return BasicGitHubClient.create(network);
@@ -70,12 +99,27 @@ public interface GitHubClient
      * to.
      */
     public default Result<GetAuthenticatedUserResponse> sendGetAuthenticatedUserRequest()
+    {
+        return this.sendGetAuthenticatedUserRequest(null);
+    }
+
+    /**
+     * Get the details about the {@link GitHubUser} that this {@link GitHubClient} is authenticated
+     * to.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     */
+    public default Result<GetAuthenticatedUserResponse> sendGetAuthenticatedUserRequest(java.time.Instant deadline)
     {
         return Result.create(() ->
         {
             final GitHubRequest gitHubRequest = GitHubRequest.create()
                 .setHttpMethod(HttpMethod.GET)
-                .setUrlPath("/user");
+                .setRoute(GitHubClient.authenticatedUserRoute);
+            if (deadline != null)
+            {
+                gitHubRequest.setDeadline(deadline);
+            }
             final GitHubResponse gitHubResponse = this.sendRequest(gitHubRequest).await();
             final GetAuthenticatedUserResponse result = GetAuthenticatedUserResponse.create(gitHubResponse);
 
@@ -102,12 +146,52 @@ public interface GitHubClient
         });
     }
 
+    /**
+     * Get the login of the {@link GitHubUser} that this {@link GitHubClient} is authenticated
+     * to. Only the login property is parsed from the response.
+     */
+    public default Result<String> getAuthenticatedUserLogin()
+    {
+        return this.getAuthenticatedUserLogin(null);
+    }
+
+    /**
+     * Get the login of the {@link GitHubUser} that this {@link GitHubClient} is authenticated
+     * to. Only the login property is parsed from the response.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     */
+    public default Result<String> getAuthenticatedUserLogin(java.time.Instant deadline)
+    {
+        return Result.create(() ->
+        {
+            String result;
+            try (final GetAuthenticatedUserResponse response = this.sendGetAuthenticatedUserRequest(deadline).await())
+            {
+                result = response.getAuthenticatedUser(GitHubUser.loginPropertyName).await().getLogin();
+            }
+            return result;
+        });
+    }
+
     /**
      * Get the {@link GitHubRepository} that matches the provided {@link GetRepositoryParameters}.
      * @param parameters The {@link GetRepositoryParameters} that describe the
      * {@link GitHubRepository} to return.
      */
     public default Result<GetRepositoryResponse> getRepository(GetRepositoryParameters parameters)
+    {
+        return this.getRepository(parameters, null);
+    }
+
+    /**
+     * Get the {@link GitHubRepository} that matches the provided {@link GetRepositoryParameters}.
+     * @param parameters The {@link GetRepositoryParameters} that describe the
+     * {@link GitHubRepository} to return.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     */
+    public default Result<GetRepositoryResponse> getRepository(GetRepositoryParameters parameters, java.time.Instant deadline)
     {
         PreCondition.assertNotNull(parameters, "parameters");
         PreCondition.assertNotNullAndNotEmpty(parameters.getOwner(), "parameters.getOwner()");
@@ -117,7 +201,11 @@ public interface GitHubClient
         {
             final GitHubRequest gitHubRequest = GitHubRequest.create()
                 .setHttpMethod(HttpMethod.GET)
-                .setUrlPath("/repos/" + parameters.getOwner() + "/" + parameters.getName());
+                .setRoute(GitHubClient.repositoryRoute, parameters.getOwner(), parameters.getName());
+            if (deadline != null)
+            {
+                gitHubRequest.setDeadline(deadline);
+            }
             final GitHubResponse gitHubResponse = this.sendRequest(gitHubRequest).await();
             final GetRepositoryResponse result = GetRepositoryResponse.create(gitHubResponse);
 
@@ -127,17 +215,170 @@ public interface GitHubClient
         });
     }
 
+    /**
+     * Send a HEAD version of the provided {@link GitHubRequest}. GitHub answers a HEAD request
+     * with the same status code and headers as the matching GET request, but without a body, so
+     * this is a cheap way to check whether a resource exists or has changed. The provided
+     * request isn't modified.
+     * @param request The request to send as a HEAD request. It must not have a body.
+     * @return The status code and headers of the response.
+     */
+    public default Result<GitHubHeadResponse> sendHeadRequest(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertTrue(request.getBody() == null, "request.getBody() == null");
+
+        return Result.create(() ->
+        {
+            final GitHubRequest headRequest = request.clone()
+                .setHttpMethod(GitHubRequest.headHttpMethod);
+            try (final GitHubResponse response = this.sendRequest(headRequest).await())
+            {
+                final GitHubHeadResponse result = GitHubHeadResponse.create(response);
+
+                PostCondition.assertNotNull(result, "result");
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Send a conditional HEAD version of the provided {@link GitHubRequest} to find out whether
+     * a previously cached response is still current. GitHub answers with a 304 (Not Modified)
+     * response if the resource still has the provided entity tag, and 304 responses don't count
+     * against the rate limit. The provided request isn't modified.
+     * @param request The request that the cached response was returned for. It must not have a
+     *                body.
+     * @param eTag The entity tag of the cached response.
+     * @return The status code and headers of the response.
+     */
+    public default Result<GitHubHeadResponse> sendRevalidationRequest(GitHubRequest request, String eTag)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertTrue(request.getBody() == null, "request.getBody() == null");
+        PreCondition.assertNotNullAndNotEmpty(eTag, "eTag");
+
+        return Result.create(() ->
+        {
+            return this.sendHeadRequest(request.clone()
+                .setIfNoneMatch(eTag)).await();
+        });
+    }
+
+    /**
+     * Get whether the {@link GitHubRepository} that matches the provided
+     * {@link GetRepositoryParameters} exists, without downloading the repository.
+     * @param parameters The {@link GetRepositoryParameters} that describe the
+     * {@link GitHubRepository} to look for.
+     */
+    public default Result<Boolean> repositoryExists(GetRepositoryParameters parameters)
+    {
+        return this.repositoryExists(parameters, null);
+    }
+
+    /**
+     * Get whether the {@link GitHubRepository} that matches the provided
+     * {@link GetRepositoryParameters} exists, without downloading the repository. A repository
+     * that has been renamed or transferred (a redirect response) still exists.
+     * @param parameters The {@link GetRepositoryParameters} that describe the
+     * {@link GitHubRepository} to look for.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     */
+    public default Result<Boolean> repositoryExists(GetRepositoryParameters parameters, java.time.Instant deadline)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNullAndNotEmpty(parameters.getOwner(), "parameters.getOwner()");
+        PreCondition.assertNotNullAndNotEmpty(parameters.getName(), "parameters.getName()");
+
+        return Result.create(() ->
+        {
+            final GitHubRequest gitHubRequest = GitHubRequest.create()
+                .setHttpMethod(GitHubRequest.headHttpMethod)
+                .setRoute(GitHubClient.repositoryRoute, parameters.getOwner(), parameters.getName());
+            if (deadline != null)
+            {
+                gitHubRequest.setDeadline(deadline);
+            }
+            final GitHubHeadResponse response = this.sendHeadRequest(gitHubRequest).await();
+
+            final boolean result;
+            if (response.isNotFoundResponse())
+            {
+                result = false;
+            }
+            else
+            {
+                response.throwIfErrorResponse();
+                result = true;
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get whether the {@link GitHubRepository} that matches the provided
+     * {@link GetRepositoryParameters} has changed since it was returned with the provided entity
+     * tag, without downloading the repository. A repository that no longer exists has changed.
+     * @param parameters The {@link GetRepositoryParameters} that describe the
+     * {@link GitHubRepository} to check.
+     * @param eTag The entity tag of the previously returned {@link GetRepositoryResponse}.
+     */
+    public default Result<Boolean> hasRepositoryChanged(GetRepositoryParameters parameters, String eTag)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNullAndNotEmpty(parameters.getOwner(), "parameters.getOwner()");
+        PreCondition.assertNotNullAndNotEmpty(parameters.getName(), "parameters.getName()");
+        PreCondition.assertNotNullAndNotEmpty(eTag, "eTag");
+
+        return Result.create(() ->
+        {
+            final GitHubRequest gitHubRequest = GitHubRequest.create()
+                .setHttpMethod(HttpMethod.GET)
+                .setRoute(GitHubClient.repositoryRoute, parameters.getOwner(), parameters.getName());
+            final GitHubHeadResponse response = this.sendRevalidationRequest(gitHubRequest, eTag).await();
+
+            final boolean result;
+            if (response.isNotModifiedResponse())
+            {
+                result = false;
+            }
+            else if (response.isNotFoundResponse())
+            {
+                result = true;
+            }
+            else
+            {
+                response.throwIfErrorResponse();
+                result = !eTag.equals(response.getETag());
+            }
+            return result;
+        });
+    }
+
     /**
      * Get the {@link GitHubRepository}s the authenticated {@link GitHubUser} has permission to
      * access.
      */
     public default Result<GetRepositoriesForAuthenticatedUserResponse> sendGetRepositoriesForAuthenticatedUserRequest()
     {
+        return this.sendGetRepositoriesForAuthenticatedUserRequest(GetRepositoriesForAuthenticatedUserParameters.create());
+    }
+
+    /**
+     * Get the {@link GitHubRepository}s the authenticated {@link GitHubUser} has permission to
+     * access that match the provided {@link GetRepositoriesForAuthenticatedUserParameters}.
+     * @param parameters The {@link GetRepositoriesForAuthenticatedUserParameters} that filter the
+     * {@link GitHubRepository}s to return.
+     */
+    public default Result<GetRepositoriesForAuthenticatedUserResponse> sendGetRepositoriesForAuthenticatedUserRequest(GetRepositoriesForAuthenticatedUserParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
         return Result.create(() ->
         {
-            final GitHubRequest gitHubRequest = GitHubRequest.create()
-                .setHttpMethod(HttpMethod.GET)
-                .setUrlPath("/user/repos");
+            final GitHubRequest gitHubRequest = parameters.createFirstPageRequest();
             final GitHubResponse gitHubResponse = this.sendRequest(gitHubRequest).await();
             final GetRepositoriesForAuthenticatedUserResponse result = GetRepositoriesForAuthenticatedUserResponse.create(gitHubResponse);
 
@@ -153,10 +394,23 @@ public interface GitHubClient
      */
     public default Result<Iterable<GitHubRepository>> getRepositoriesForAuthenticatedUser()
     {
+        return this.getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters.create());
+    }
+
+    /**
+     * Get the {@link GitHubRepository}s the authenticated {@link GitHubUser} has permission to
+     * access that match the provided {@link GetRepositoriesForAuthenticatedUserParameters}.
+     * @param parameters The {@link GetRepositoriesForAuthenticatedUserParameters} that filter the
+     * {@link GitHubRepository}s to return.
+     */
+    public default Result<Iterable<GitHubRepository>> getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
         return Result.create(() ->
         {
             Iterable<GitHubRepository> result;
-            try (final GetRepositoriesForAuthenticatedUserResponse response = this.sendGetRepositoriesForAuthenticatedUserRequest().await())
+            try (final GetRepositoriesForAuthenticatedUserResponse response = this.sendGetRepositoriesForAuthenticatedUserRequest(parameters).await())
             {
                 result = response.getRepositories().await();
             }
@@ -164,12 +418,134 @@ public interface GitHubClient
         });
     }
 
+    /**
+     * Get the {@link GitHubRepository}s the authenticated {@link GitHubUser} has permission to
+     * access that match the provided {@link GetRepositoriesForAuthenticatedUserParameters}.
+     * Repositories with the same owner share one owner object through the provided
+     * {@link GitHubJSONInterner}, so the returned repositories must not be modified.
+     * @param parameters The {@link GetRepositoriesForAuthenticatedUserParameters} that filter the
+     * {@link GitHubRepository}s to return.
+     * @param interner The {@link GitHubJSONInterner} that will deduplicate the owners.
+     */
+    public default Result<Iterable<GitHubRepository>> getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters parameters, GitHubJSONInterner interner)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNull(interner, "interner");
+
+        return Result.create(() ->
+        {
+            Iterable<GitHubRepository> result;
+            try (final GetRepositoriesForAuthenticatedUserResponse response = this.sendGetRepositoriesForAuthenticatedUserRequest(parameters).await())
+            {
+                result = response.getRepositories(interner).await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get every page of the {@link GitHubRepository}s the authenticated {@link GitHubUser} has
+     * permission to access.
+     * @param pagination The {@link GitHubPagination} strategy that will be used to fetch the
+     *                   pages.
+     */
+    public default Result<Iterable<GitHubRepository>> getRepositoriesForAuthenticatedUser(GitHubPagination pagination)
+    {
+        PreCondition.assertNotNull(pagination, "pagination");
+
+        return pagination.getRepositories(this, GitHubClient.createAuthenticatedUserRepositoriesFirstPageRequest());
+    }
+
+    /**
+     * Get every page of the {@link GitHubRepository}s the authenticated {@link GitHubUser} has
+     * permission to access. Repositories with the same owner share one owner object through the
+     * provided {@link GitHubJSONInterner}, so the returned repositories must not be modified.
+     * @param pagination The {@link GitHubPagination} strategy that will be used to fetch the
+     *                   pages.
+     * @param interner The {@link GitHubJSONInterner} that will deduplicate the owners.
+     */
+    public default Result<Iterable<GitHubRepository>> getRepositoriesForAuthenticatedUser(GitHubPagination pagination, GitHubJSONInterner interner)
+    {
+        PreCondition.assertNotNull(pagination, "pagination");
+        PreCondition.assertNotNull(interner, "interner");
+
+        return pagination.getRepositories(this, GitHubClient.createAuthenticatedUserRepositoriesFirstPageRequest(), interner);
+    }
+
+    /**
+     * Create the request for the first page of the {@link GitHubRepository}s the authenticated
+     * {@link GitHubUser} has permission to access, with the largest page size.
+     * @return The request for the first page.
+     */
+    public static GitHubRequest createAuthenticatedUserRepositoriesFirstPageRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.authenticatedUserRepositoriesRoute)
+            .setQueryParameter(GitHubPagination.pageSizeQueryParameterName, GitHubRepositoryPublisher.defaultPageSize);
+    }
+
+    /**
+     * Get the {@link GitHubRepository}s that belong to an organization. No requests are sent
+     * until the returned {@link Iterator} is advanced, and each following page is only
+     * requested once the previous page has been iterated over. If the parameters have a
+     * pushed-after cutoff, then the iteration ends at the first repository that was last pushed
+     * to before the cutoff. Repositories that have never been pushed to don't end the iteration.
+     * @param parameters The {@link GetRepositoriesForOrganizationParameters} that describe the
+     * {@link GitHubRepository}s to return.
+     */
+    public default GitHubRepositoryIterator getRepositoriesForOrganization(GetRepositoriesForOrganizationParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNullAndNotEmpty(parameters.getOrganization(), "parameters.getOrganization()");
+
+        final GitHubRepositoryIterator result = GitHubRepositoryIterator.create(this, parameters.createFirstPageRequest());
+        if (parameters.canStopEarly())
+        {
+            final java.time.Instant pushedAfter = parameters.getPushedAfter();
+            result.setStopCondition((GitHubRepository repository) ->
+            {
+                // Repositories that have never been pushed to don't have a pushed time, so they
+                // don't say anything about where the cutoff is and don't stop the iteration.
+                final java.time.Instant pushedAt = repository.getPushedAt();
+                return pushedAt != null && pushedAt.isBefore(pushedAfter);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Get a {@link java.util.concurrent.Flow.Publisher} of the {@link GitHubRepository}s the
+     * authenticated {@link GitHubUser} has permission to access. Pages of repositories are only
+     * requested as subscribers request more repositories.
+     */
+    public default GitHubRepositoryPublisher publishRepositoriesForAuthenticatedUser()
+    {
+        final GitHubRequest firstPageRequest = GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.authenticatedUserRepositoriesRoute)
+            .setQueryParameter(GitHubPagination.pageSizeQueryParameterName, GitHubRepositoryPublisher.defaultPageSize);
+        return GitHubRepositoryPublisher.create(this, firstPageRequest);
+    }
+
     /**
      * Create a new {@link GitHubRepository}.
      * @param parameters The {@link CreateRepositoryParameters} for the {@link GitHubRequest}.
      * @return The newly created {@link GitHubRepository}.
      */
     public default Result<CreateRepositoryResponse> sendCreateRepositoryRequest(CreateRepositoryParameters parameters)
+    {
+        return this.sendCreateRepositoryRequest(parameters, null);
+    }
+
+    /**
+     * Create a new {@link GitHubRepository}.
+     * @param parameters The {@link CreateRepositoryParameters} for the {@link GitHubRequest}.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     * @return The newly created {@link GitHubRepository}.
+     */
+    public default Result<CreateRepositoryResponse> sendCreateRepositoryRequest(CreateRepositoryParameters parameters, java.time.Instant deadline)
     {
         PreCondition.assertNotNull(parameters, "parameters");
         PreCondition.assertNotNullAndNotEmpty(parameters.getName(), "parameters.getName()");
@@ -178,8 +554,12 @@ public interface GitHubClient
         {
             final GitHubRequest gitHubRequest = GitHubRequest.create()
                 .setHttpMethod(HttpMethod.POST)
-                .setUrlPath("/user/repos")
-                .setBody(parameters.toJson()).await();
+                .setRoute(GitHubClient.authenticatedUserRepositoriesRoute)
+                .setBody(parameters).await();
+            if (deadline != null)
+            {
+                gitHubRequest.setDeadline(deadline);
+            }
             final GitHubResponse gitHubResponse = this.sendRequest(gitHubRequest).await();
             final CreateRepositoryResponse result = CreateRepositoryResponse.create(gitHubResponse);
 
@@ -195,21 +575,127 @@ public interface GitHubClient
      * @return The newly created {@link GitHubRepository}.
      */
     public default Result<GitHubRepository> createRepository(CreateRepositoryParameters parameters)
+    {
+        return this.createRepository(parameters, null);
+    }
+
+    /**
+     * Create a new {@link GitHubRepository}.
+     * @param parameters The {@link CreateRepositoryParameters} for the {@link GitHubRequest}.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     * @return The newly created {@link GitHubRepository}.
+     */
+    public default Result<GitHubRepository> createRepository(CreateRepositoryParameters parameters, java.time.Instant deadline)
+    {
+        return this.createRepository(parameters, deadline, false);
+    }
+
+    /**
+     * Create a new {@link GitHubRepository}. If confirmAmbiguousFailures is true and the create
+     * request fails in a way that doesn't say whether the repository was created (the deadline
+     * passes or the connection fails after the request was sent, or GitHub responds with a 5xx
+     * status code), then this looks for the repository with GET /repos/{owner}/{name} under the
+     * authenticated user and returns it if it exists. This makes it safe to retry a create
+     * request that failed ambiguously without having to clean up after it. Note that a
+     * repository with the same name that existed before this request was sent is also treated
+     * as a match. The requests that look for the repository must finish by the create request's
+     * deadline or {@link #ambiguousFailureConfirmationTimeout} from when they start, whichever
+     * is later.
+     * @param parameters The {@link CreateRepositoryParameters} for the {@link GitHubRequest}.
+     * @param deadline The time by which the response must be received, or null if the request
+     *                 can take as long as it needs.
+     * @param confirmAmbiguousFailures Whether to look for the repository when the create request
+     *                                 fails ambiguously.
+     * @return The newly created {@link GitHubRepository}.
+     */
+    public default Result<GitHubRepository> createRepository(CreateRepositoryParameters parameters, java.time.Instant deadline, boolean confirmAmbiguousFailures)
     {
         PreCondition.assertNotNull(parameters, "parameters");
         PreCondition.assertNotNullAndNotEmpty(parameters.getName(), "parameters.getName()");
 
         return Result.create(() ->
         {
-            final GitHubRepository result;
-            try (final CreateRepositoryResponse response = this.sendCreateRepositoryRequest(parameters).await())
+            GitHubRepository result;
+            try (final CreateRepositoryResponse response = this.sendCreateRepositoryRequest(parameters, deadline).await())
             {
+                // getRepository() only rejects 4xx responses, so a 5xx response has to be turned
+                // into an error here or its body would be parsed as the new repository.
+                response.throwIfServerErrorResponse();
                 result = response.getRepository().await();
             }
+            catch (Throwable error)
+            {
+                if (!confirmAmbiguousFailures || !GitHubClient.isAmbiguousFailure(error))
+                {
+                    throw error;
+                }
+
+                try
+                {
+                    // The create request's deadline has usually passed by now, so the lookups get
+                    // a fresh budget of their own instead of running without any bound.
+                    java.time.Instant confirmationDeadline = java.time.Instant.now().plus(GitHubClient.ambiguousFailureConfirmationTimeout);
+                    if (deadline != null && deadline.isAfter(confirmationDeadline))
+                    {
+                        confirmationDeadline = deadline;
+                    }
+                    final String owner = this.getAuthenticatedUserLogin(confirmationDeadline).await();
+                    try (final GetRepositoryResponse response = this.getRepository(GetRepositoryParameters.create()
+                        .setOwner(owner)
+                        .setName(parameters.getName()), confirmationDeadline).await())
+                    {
+                        result = response.getStatusCode() == 404
+                            ? null
+                            : response.getRepository().await();
+                    }
+                }
+                catch (Throwable confirmError)
+                {
+                    error.addSuppressed(confirmError);
+                    result = null;
+                }
+
+                if (result == null)
+                {
+                    throw error;
+                }
+            }
             return result;
         });
     }
 
+    /**
+     * Get whether the provided error from sending a mutating request leaves it unknown whether
+     * GitHub applied the request. Errors that are raised before the request is sent (such as
+     * precondition failures, open circuits, rejected requests and deadlines that pass while
+     * waiting to send) and GitHub error responses other than 5xx responses aren't ambiguous.
+     * @param error The error from sending the request.
+     * @return Whether the provided error leaves it unknown whether GitHub applied the request.
+     */
+    public static boolean isAmbiguousFailure(Throwable error)
+    {
+        PreCondition.assertNotNull(error, "error");
+
+        boolean result;
+        if (error instanceof GitHubException)
+        {
+            final int statusCode = ((GitHubException)error).getStatusCode();
+            result = 500 <= statusCode && statusCode <= 599;
+        }
+        else if (error instanceof GitHubDeadlineExceededException)
+        {
+            result = ((GitHubDeadlineExceededException)error).isAfterRequestSent();
+        }
+        else
+        {
+            result = !(error instanceof PreConditionFailure ||
+                error instanceof GitHubCircuitBreakerOpenException ||
+                error instanceof GitHubRequestRejectedException);
+        }
+        return result;
+    }
+
     /**
      * Delete an existing {@link GitHubRepository}.
      * @param parameters The {@link DeleteRepositoryParameters} for the {@link GitHubRequest}.
@@ -224,7 +710,7 @@ public interface GitHubClient
         {
             final GitHubRequest gitHubRequest = GitHubRequest.create()
                 .setHttpMethod(HttpMethod.DELETE)
-                .setUrlPath("/repos/" + parameters.getOwner() + "/" + parameters.getName());
+                .setRoute(GitHubClient.repositoryRoute, parameters.getOwner(), parameters.getName());
             final GitHubResponse result = this.sendRequest(gitHubRequest).await();
 
             PostCondition.assertNotNull(result, "result");
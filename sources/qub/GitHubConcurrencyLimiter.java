@@ -0,0 +1,424 @@
+package qub;
+
+/**
+ * An adaptive limit on the number of requests that a {@link GitHubClient} has in flight at the
+ * same time. GitHub's secondary rate limits reject bursts of concurrent requests, and they
+ * aren't reflected in the X-RateLimit-Remaining header, so the only way to stay under them is to
+ * react to how GitHub responds.
+ * <p>
+ * Each limit follows additive-increase/multiplicative-decrease. Every healthy response raises
+ * the limit by one divided by the current limit, so the limit grows by about one request per
+ * round of requests. A secondary rate limit response cuts the limit by the backoff ratio, and a
+ * response whose latency is more than the latency tolerance times the recent average latency
+ * cuts the limit by the smaller latency backoff ratio. Only responses to requests that were
+ * started after the previous cut can cut the limit again, so a burst of rejected requests only
+ * counts once.
+ * <p>
+ * Mutating requests (everything except GET and HEAD) are limited separately from read
+ * requests, since GitHub limits content-creating requests much more strictly.
+ * <p>
+ * While an {@link GitHubRequest.Priority#Interactive} request is waiting for a permit, background
+ * requests under the same limit wait behind it, so background traffic can't take every permit
+ * that frees up.
+ */
+public class GitHubConcurrencyLimiter
+{
+    private final Limit readLimit;
+    private final Limit mutatingLimit;
+    private Function0<Long> clock;
+    private double backoffRatio;
+    private double latencyBackoffRatio;
+    private double latencyTolerance;
+
+    private GitHubConcurrencyLimiter()
+    {
+        this.readLimit = new Limit(10, 1, 100);
+        this.mutatingLimit = new Limit(2, 1, 10);
+        this.clock = () -> System.nanoTime() / 1000000;
+        this.backoffRatio = 0.5;
+        this.latencyBackoffRatio = 0.9;
+        this.latencyTolerance = 2.0;
+    }
+
+    public static GitHubConcurrencyLimiter create()
+    {
+        return new GitHubConcurrencyLimiter();
+    }
+
+    /**
+     * Get whether the provided request is a mutating request that is limited by the mutating
+     * limit instead of the read limit.
+     * @param request The request.
+     * @return Whether the provided request is a mutating request.
+     */
+    public static boolean isMutatingRequest(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        final String httpMethod = request.getHttpMethod();
+        return !HttpMethod.GET.toString().equalsIgnoreCase(httpMethod) && !GitHubRequest.headHttpMethod.equalsIgnoreCase(httpMethod);
+    }
+
+    private Limit getLimit(boolean mutating)
+    {
+        return mutating ? this.mutatingLimit : this.readLimit;
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds.
+     * @param clock The function that returns the current time in milliseconds.
+     * @return This object for method chaining.
+     */
+    public GitHubConcurrencyLimiter setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        synchronized (this)
+        {
+            this.clock = clock;
+        }
+
+        return this;
+    }
+
+    /**
+     * Set the range that the read or mutating limit can move within, and reset the limit to the
+     * provided initial value.
+     * @param mutating Whether to set the mutating limit instead of the read limit.
+     * @param initialLimit The number of concurrent requests to start with.
+     * @param minimumLimit The smallest number of concurrent requests to allow.
+     * @param maximumLimit The largest number of concurrent requests to allow.
+     * @return This object for method chaining.
+     */
+    public GitHubConcurrencyLimiter setLimits(boolean mutating, int initialLimit, int minimumLimit, int maximumLimit)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(minimumLimit, 1, "minimumLimit");
+        PreCondition.assertGreaterThanOrEqualTo(maximumLimit, minimumLimit, "maximumLimit");
+        PreCondition.assertBetween(minimumLimit, initialLimit, maximumLimit, "initialLimit");
+
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            limit.limit = initialLimit;
+            limit.minimumLimit = minimumLimit;
+            limit.maximumLimit = maximumLimit;
+            limit.notifyAll();
+        }
+
+        return this;
+    }
+
+    /**
+     * Set the ratio that a limit is multiplied by when GitHub responds with a secondary rate
+     * limit response.
+     * @param backoffRatio The ratio that a limit is multiplied by.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubConcurrencyLimiter setBackoffRatio(double backoffRatio)
+    {
+        PreCondition.assertBetween(0.1, backoffRatio, 0.95, "backoffRatio");
+
+        this.backoffRatio = backoffRatio;
+
+        return this;
+    }
+
+    /**
+     * Set the ratio that a limit is multiplied by when a response's latency spikes.
+     * @param latencyBackoffRatio The ratio that a limit is multiplied by.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubConcurrencyLimiter setLatencyBackoffRatio(double latencyBackoffRatio)
+    {
+        PreCondition.assertBetween(0.1, latencyBackoffRatio, 0.99, "latencyBackoffRatio");
+
+        this.latencyBackoffRatio = latencyBackoffRatio;
+
+        return this;
+    }
+
+    /**
+     * Set how many times the recent average latency a response can take before it counts as a
+     * latency spike.
+     * @param latencyTolerance The multiple of the recent average latency that counts as a spike.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubConcurrencyLimiter setLatencyTolerance(double latencyTolerance)
+    {
+        PreCondition.assertGreaterThan(latencyTolerance, 1.0, "latencyTolerance");
+
+        this.latencyTolerance = latencyTolerance;
+
+        return this;
+    }
+
+    /**
+     * Get the current read or mutating limit, rounded down to a whole number of requests.
+     * @param mutating Whether to get the mutating limit instead of the read limit.
+     * @return The current limit.
+     */
+    public int getLimit(boolean mutating)
+    {
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            return limit.getPermitCount();
+        }
+    }
+
+    /**
+     * Get the number of read or mutating requests that are currently in flight.
+     * @param mutating Whether to get the mutating count instead of the read count.
+     * @return The number of requests that are currently in flight.
+     */
+    public int getInFlightCount(boolean mutating)
+    {
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            return limit.inFlightCount;
+        }
+    }
+
+    /**
+     * Get the number of times that the read or mutating limit has been cut.
+     * @param mutating Whether to get the mutating count instead of the read count.
+     * @return The number of times that the limit has been cut.
+     */
+    public long getDecreaseCount(boolean mutating)
+    {
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            return limit.decreaseCount;
+        }
+    }
+
+    /**
+     * Get the number of secondary rate limit responses that read or mutating requests have
+     * received.
+     * @param mutating Whether to get the mutating count instead of the read count.
+     * @return The number of secondary rate limit responses.
+     */
+    public long getSecondaryRateLimitCount(boolean mutating)
+    {
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            return limit.secondaryRateLimitCount;
+        }
+    }
+
+    /**
+     * Get the number of interactive read or mutating requests that are waiting for a permit.
+     * @param mutating Whether to get the mutating count instead of the read count.
+     * @return The number of interactive requests that are waiting for a permit.
+     */
+    public int getWaitingInteractiveCount(boolean mutating)
+    {
+        final Limit limit = this.getLimit(mutating);
+        synchronized (limit)
+        {
+            return limit.waitingInteractiveCount;
+        }
+    }
+
+    /**
+     * Wait until the provided request can be sent without going over its limit. Background
+     * requests also wait while an interactive request is waiting. If the request has a deadline,
+     * then this only waits until the deadline.
+     * @param request The request that will be sent.
+     * @return The {@link Permit} that must be completed when the request finishes.
+     * @throws GitHubDeadlineExceededException if the request's deadline passes before it can be
+     * sent.
+     */
+    public Permit acquire(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        final java.time.Instant deadline = request.getDeadline();
+        final boolean interactive = request.getPriority() == GitHubRequest.Priority.Interactive;
+        final Limit limit = this.getLimit(GitHubConcurrencyLimiter.isMutatingRequest(request));
+        synchronized (limit)
+        {
+            if (interactive)
+            {
+                ++limit.waitingInteractiveCount;
+            }
+            try
+            {
+                while (limit.inFlightCount >= limit.getPermitCount() || (!interactive && limit.waitingInteractiveCount > 0))
+                {
+                    long waitMilliseconds = 0;
+                    if (deadline != null)
+                    {
+                        waitMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+                        if (waitMilliseconds <= 0)
+                        {
+                            throw new GitHubDeadlineExceededException(deadline, "waiting for a concurrency permit");
+                        }
+                    }
+                    try
+                    {
+                        limit.wait(waitMilliseconds);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+            finally
+            {
+                if (interactive && --limit.waitingInteractiveCount == 0)
+                {
+                    // Background requests that were waiting behind this one may be able to go now.
+                    limit.notifyAll();
+                }
+            }
+            ++limit.inFlightCount;
+            return new Permit(this, limit, limit.decreaseCount, this.getTime());
+        }
+    }
+
+    private synchronized long getTime()
+    {
+        return this.clock.run();
+    }
+
+    private void complete(Permit permit, GitHubResponse response)
+    {
+        final long latency = Math.max(0, this.getTime() - permit.startedAt);
+        final double backoffRatio;
+        final double latencyBackoffRatio;
+        final double latencyTolerance;
+        synchronized (this)
+        {
+            backoffRatio = this.backoffRatio;
+            latencyBackoffRatio = this.latencyBackoffRatio;
+            latencyTolerance = this.latencyTolerance;
+        }
+
+        final Limit limit = permit.limit;
+        final boolean isSecondaryRateLimit = response != null && response.isSecondaryRateLimitResponse();
+        synchronized (limit)
+        {
+            --limit.inFlightCount;
+            // Only requests that were started after the most recent cut may cut the limit again.
+            final boolean canDecrease = permit.decreaseCount == limit.decreaseCount;
+            if (isSecondaryRateLimit)
+            {
+                ++limit.secondaryRateLimitCount;
+                if (canDecrease)
+                {
+                    limit.decrease(backoffRatio);
+                }
+            }
+            else if (response != null && !response.isServerErrorResponse())
+            {
+                if (limit.averageLatency > 0 && latency > latencyTolerance * limit.averageLatency)
+                {
+                    if (canDecrease)
+                    {
+                        limit.decrease(latencyBackoffRatio);
+                    }
+                }
+                else
+                {
+                    limit.increase();
+                }
+                limit.averageLatency = limit.averageLatency == 0
+                    ? Math.max(1, latency)
+                    : (0.9 * limit.averageLatency) + (0.1 * latency);
+            }
+            limit.notifyAll();
+        }
+    }
+
+    /**
+     * Permission to send one request. Exactly one of the completion methods must be called when
+     * the request finishes.
+     */
+    public static class Permit
+    {
+        private final GitHubConcurrencyLimiter limiter;
+        private final Limit limit;
+        private final long decreaseCount;
+        private final long startedAt;
+        private final java.util.concurrent.atomic.AtomicBoolean completed;
+
+        private Permit(GitHubConcurrencyLimiter limiter, Limit limit, long decreaseCount, long startedAt)
+        {
+            this.limiter = limiter;
+            this.limit = limit;
+            this.decreaseCount = decreaseCount;
+            this.startedAt = startedAt;
+            this.completed = new java.util.concurrent.atomic.AtomicBoolean();
+        }
+
+        /**
+         * Record that the request received the provided response.
+         * @param response The response to the request.
+         */
+        public void onResponse(GitHubResponse response)
+        {
+            PreCondition.assertNotNull(response, "response");
+
+            if (this.completed.compareAndSet(false, true))
+            {
+                this.limiter.complete(this, response);
+            }
+        }
+
+        /**
+         * Record that the request failed without receiving a response. This releases the permit
+         * without changing the limit.
+         */
+        public void onFailure()
+        {
+            if (this.completed.compareAndSet(false, true))
+            {
+                this.limiter.complete(this, null);
+            }
+        }
+    }
+
+    /**
+     * One adaptive limit and the requests that are in flight under it.
+     */
+    private static class Limit
+    {
+        private double limit;
+        private int minimumLimit;
+        private int maximumLimit;
+        private int inFlightCount;
+        private int waitingInteractiveCount;
+        private double averageLatency;
+        private long decreaseCount;
+        private long secondaryRateLimitCount;
+
+        private Limit(int initialLimit, int minimumLimit, int maximumLimit)
+        {
+            this.limit = initialLimit;
+            this.minimumLimit = minimumLimit;
+            this.maximumLimit = maximumLimit;
+        }
+
+        private int getPermitCount()
+        {
+            return (int)this.limit;
+        }
+
+        private void increase()
+        {
+            this.limit = Math.min(this.maximumLimit, this.limit + (1.0 / this.limit));
+        }
+
+        private void decrease(double ratio)
+        {
+            this.limit = Math.max(this.minimumLimit, this.limit * ratio);
+            ++this.decreaseCount;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package qub;
+
+/**
+ * An exception that is thrown when a {@link GitHubRequest}'s deadline passes before its
+ * response has been received.
+ */
+public class GitHubDeadlineExceededException extends RuntimeException
+{
+    /**
+     * The operation of a request whose deadline passed after it was sent, while waiting for the
+     * response's status line and headers.
+     */
+    public static final String waitingForResponseHeadersOperation = "waiting for the response headers";
+
+    /**
+     * The operation of a request whose deadline passed after its response headers arrived, while
+     * reading the response's body.
+     */
+    public static final String readingResponseBodyOperation = "reading the response body";
+
+    private final java.time.Instant deadline;
+    private final String operation;
+
+    public GitHubDeadlineExceededException(java.time.Instant deadline, String operation)
+    {
+        super(GitHubDeadlineExceededException.getMessage(deadline, operation));
+
+        this.deadline = deadline;
+        this.operation = operation;
+    }
+
+    private static String getMessage(java.time.Instant deadline, String operation)
+    {
+        PreCondition.assertNotNull(deadline, "deadline");
+        PreCondition.assertNotNullAndNotEmpty(operation, "operation");
+
+        return "The request's deadline (" + deadline + ") passed while " + operation + ".";
+    }
+
+    /**
+     * Get the deadline that passed.
+     * @return The deadline that passed.
+     */
+    public java.time.Instant getDeadline()
+    {
+        return this.deadline;
+    }
+
+    /**
+     * Get a description of what the request was doing when its deadline passed, such as
+     * "waiting for the response headers".
+     * @return A description of what the request was doing when its deadline passed.
+     */
+    public String getOperation()
+    {
+        return this.operation;
+    }
+
+    /**
+     * Get whether the request's deadline passed after the request was sent, in which case GitHub
+     * may or may not have processed the request.
+     * @return Whether the request's deadline passed after the request was sent.
+     */
+    public boolean isAfterRequestSent()
+    {
+        return GitHubDeadlineExceededException.waitingForResponseHeadersOperation.equals(this.operation) ||
+            GitHubDeadlineExceededException.readingResponseBodyOperation.equals(this.operation);
+    }
+}
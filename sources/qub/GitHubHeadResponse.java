@@ -0,0 +1,148 @@
+package qub;
+
+/**
+ * The status code and headers of a response to a HEAD request. A HEAD response doesn't have a
+ * body, so everything that can be learned from it is captured here and the underlying
+ * connection doesn't need to be kept open.
+ */
+public class GitHubHeadResponse
+{
+    private final int statusCode;
+    private final String eTag;
+    private final String location;
+    private final Long rateLimitLimit;
+    private final Long rateLimitRemaining;
+    private final java.time.Instant rateLimitReset;
+
+    private GitHubHeadResponse(GitHubResponse response)
+    {
+        PreCondition.assertNotNull(response, "response");
+
+        this.statusCode = response.getStatusCode();
+        this.eTag = response.getETag();
+        this.location = response.getLocation();
+        this.rateLimitLimit = response.getRateLimitLimit();
+        this.rateLimitRemaining = response.getRateLimitRemaining();
+        this.rateLimitReset = response.getRateLimitReset();
+    }
+
+    /**
+     * Create a new {@link GitHubHeadResponse} from the status code and headers of the provided
+     * {@link GitHubResponse}. The provided response's body is not read.
+     * @param response The response to a HEAD request.
+     * @return The new {@link GitHubHeadResponse}.
+     */
+    public static GitHubHeadResponse create(GitHubResponse response)
+    {
+        return new GitHubHeadResponse(response);
+    }
+
+    /**
+     * Get the status code of the response.
+     * @return The status code of the response.
+     */
+    public int getStatusCode()
+    {
+        return this.statusCode;
+    }
+
+    /**
+     * Get whether the response has a 2xx status code.
+     * @return Whether the response has a 2xx status code.
+     */
+    public boolean isSuccessResponse()
+    {
+        return 200 <= this.statusCode && this.statusCode <= 299;
+    }
+
+    /**
+     * Get whether the response has a 404 (Not Found) status code.
+     * @return Whether the response has a 404 (Not Found) status code.
+     */
+    public boolean isNotFoundResponse()
+    {
+        return this.statusCode == 404;
+    }
+
+    /**
+     * Get whether this is a 304 (Not Modified) response to a conditional request, which means
+     * that the previously returned body is still current.
+     * @return Whether this is a 304 (Not Modified) response.
+     */
+    public boolean isNotModifiedResponse()
+    {
+        return this.statusCode == 304;
+    }
+
+    /**
+     * Get whether this is a 301, 302, 307 or 308 response, which means that the requested
+     * resource is at a different location.
+     * @return Whether this is a redirect response.
+     */
+    public boolean isRedirectResponse()
+    {
+        return this.statusCode == 301 || this.statusCode == 302 || this.statusCode == 307 || this.statusCode == 308;
+    }
+
+    /**
+     * Get the entity tag of the resource that the HEAD request was sent to.
+     * @return The entity tag of the resource, or null if the response didn't have one.
+     */
+    public String getETag()
+    {
+        return this.eTag;
+    }
+
+    /**
+     * Get the location that the response redirects to.
+     * @return The value of the response's Location header, or null if the response didn't have
+     * one.
+     */
+    public String getLocation()
+    {
+        return this.location;
+    }
+
+    /**
+     * Get the number of requests that are allowed in the current rate limit window.
+     * @return The value of the response's X-RateLimit-Limit header, or null if the response
+     * didn't have a valid X-RateLimit-Limit header.
+     */
+    public Long getRateLimitLimit()
+    {
+        return this.rateLimitLimit;
+    }
+
+    /**
+     * Get the number of requests that are left in the current rate limit window.
+     * @return The value of the response's X-RateLimit-Remaining header, or null if the response
+     * didn't have a valid X-RateLimit-Remaining header.
+     */
+    public Long getRateLimitRemaining()
+    {
+        return this.rateLimitRemaining;
+    }
+
+    /**
+     * Get the time when the current rate limit window resets.
+     * @return The time from the response's X-RateLimit-Reset header, or null if the response
+     * didn't have a valid X-RateLimit-Reset header.
+     */
+    public java.time.Instant getRateLimitReset()
+    {
+        return this.rateLimitReset;
+    }
+
+    /**
+     * Throw a {@link GitHubException} if the response has a 4xx or 5xx status code. HEAD
+     * responses don't have a body, so the exception's message only describes the status code.
+     */
+    public void throwIfErrorResponse()
+    {
+        if (this.statusCode >= 400)
+        {
+            throw new GitHubException(this.statusCode, GitHubErrorResponse.create()
+                .setMessage("The HEAD request failed with a " + this.statusCode + " response."));
+        }
+    }
+}
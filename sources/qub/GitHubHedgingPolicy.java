@@ -0,0 +1,486 @@
+package qub;
+
+/**
+ * A policy that sends a second attempt of an idempotent request when the first attempt is
+ * taking longer than most recent requests to the same route did, and then uses whichever
+ * attempt finishes first. This trims the latency tail that is caused by an occasional slow
+ * server without doubling the load on every request.
+ * <p>
+ * The hedge delay for a route is the configured percentile of the route's most recently
+ * observed latencies. Routes that don't have enough observations yet are never hedged. Hedges
+ * are paid for from a budget that earns a fraction of a token for each request and spends a
+ * whole token for each hedge, so hedges can never be more than that fraction of the requests.
+ * <p>
+ * A blocking HTTP send can't be interrupted, so the attempt that loses is not aborted. Its
+ * response is disposed as soon as it arrives instead.
+ * <p>
+ * Attempts block while they wait for their response, so by default they run on a dedicated,
+ * bounded pool of daemon threads instead of the common fork-join pool, which they would starve.
+ * An attempt's latency and the first attempt's hedge delay are measured from when the attempt
+ * starts running on that pool, so time spent waiting in the pool's queue doesn't make routes
+ * look slower than they are.
+ */
+public class GitHubHedgingPolicy
+{
+    /**
+     * The maximum number of threads that the default executor runs attempts on. Attempts that
+     * are started while every thread is busy wait in a queue.
+     */
+    public static final int defaultExecutorThreadCount = 64;
+
+    private static final java.util.concurrent.ThreadPoolExecutor defaultExecutor = GitHubHedgingPolicy.createDefaultExecutor();
+
+    private final java.util.HashMap<String,LatencyWindow> latencyWindows;
+    private java.util.concurrent.Executor executor;
+    private Function0<Long> clock;
+    private double percentile;
+    private int latencyWindowSize;
+    private int minimumSampleCount;
+    private double budgetRatio;
+    private double maximumBudget;
+    private double budget;
+    private long requestCount;
+    private long hedgeCount;
+    private long hedgeWinCount;
+    private long budgetExhaustedCount;
+
+    private GitHubHedgingPolicy()
+    {
+        this.latencyWindows = new java.util.HashMap<>();
+        this.executor = GitHubHedgingPolicy.defaultExecutor;
+        this.clock = () -> System.nanoTime() / 1000000;
+        this.percentile = 0.95;
+        this.latencyWindowSize = 100;
+        this.minimumSampleCount = 20;
+        this.budgetRatio = 0.1;
+        this.maximumBudget = 10;
+    }
+
+    public static GitHubHedgingPolicy create()
+    {
+        return new GitHubHedgingPolicy();
+    }
+
+    private static java.util.concurrent.ThreadPoolExecutor createDefaultExecutor()
+    {
+        final java.util.concurrent.ThreadPoolExecutor result = new java.util.concurrent.ThreadPoolExecutor(
+            GitHubHedgingPolicy.defaultExecutorThreadCount,
+            GitHubHedgingPolicy.defaultExecutorThreadCount,
+            60,
+            java.util.concurrent.TimeUnit.SECONDS,
+            new java.util.concurrent.LinkedBlockingQueue<>(),
+            (Runnable runnable) ->
+            {
+                final Thread thread = new Thread(runnable, "qub-github-hedging");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Idle threads exit, so the pool only holds threads while requests are being hedged.
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Get whether the provided request can be hedged. Only GET requests without a body are
+     * hedged, since sending them twice has no side effects.
+     * @param request The request.
+     * @return Whether the provided request can be hedged.
+     */
+    public static boolean canHedge(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        return HttpMethod.GET.toString().equalsIgnoreCase(request.getHttpMethod()) && request.getBody() == null;
+    }
+
+    /**
+     * Set the {@link java.util.concurrent.Executor} that attempts will be run on. Attempts block
+     * while they wait for their response, so this should not be a pool that is shared with
+     * non-blocking work, such as the common fork-join pool.
+     * @param executor The {@link java.util.concurrent.Executor} that attempts will be run on.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setExecutor(java.util.concurrent.Executor executor)
+    {
+        PreCondition.assertNotNull(executor, "executor");
+
+        this.executor = executor;
+
+        return this;
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds.
+     * @param clock The function that returns the current time in milliseconds.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.clock = clock;
+
+        return this;
+    }
+
+    public synchronized double getPercentile()
+    {
+        return this.percentile;
+    }
+
+    /**
+     * Set the percentile of recently observed latency that a first attempt must take before a
+     * second attempt is sent.
+     * @param percentile The percentile, between 0.5 and 0.999.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setPercentile(double percentile)
+    {
+        PreCondition.assertBetween(0.5, percentile, 0.999, "percentile");
+
+        this.percentile = percentile;
+
+        return this;
+    }
+
+    public synchronized int getLatencyWindowSize()
+    {
+        return this.latencyWindowSize;
+    }
+
+    /**
+     * Set the number of most recent latencies that are kept for each route. This only affects
+     * routes that are observed for the first time after it is set.
+     * @param latencyWindowSize The number of most recent latencies that are kept for each route.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setLatencyWindowSize(int latencyWindowSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(latencyWindowSize, 1, "latencyWindowSize");
+
+        this.latencyWindowSize = latencyWindowSize;
+        this.minimumSampleCount = Math.min(this.minimumSampleCount, latencyWindowSize);
+
+        return this;
+    }
+
+    public synchronized int getMinimumSampleCount()
+    {
+        return this.minimumSampleCount;
+    }
+
+    /**
+     * Set the number of latencies that must be observed for a route before its requests are
+     * hedged.
+     * @param minimumSampleCount The number of latencies that must be observed for a route.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setMinimumSampleCount(int minimumSampleCount)
+    {
+        PreCondition.assertBetween(1, minimumSampleCount, this.latencyWindowSize, "minimumSampleCount");
+
+        this.minimumSampleCount = minimumSampleCount;
+
+        return this;
+    }
+
+    public synchronized double getBudgetRatio()
+    {
+        return this.budgetRatio;
+    }
+
+    /**
+     * Set the largest fraction of requests that can be hedged over time.
+     * @param budgetRatio The largest fraction of requests that can be hedged.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setBudgetRatio(double budgetRatio)
+    {
+        PreCondition.assertBetween(0.0, budgetRatio, 1.0, "budgetRatio");
+
+        this.budgetRatio = budgetRatio;
+
+        return this;
+    }
+
+    public synchronized double getMaximumBudget()
+    {
+        return this.maximumBudget;
+    }
+
+    /**
+     * Set the largest number of hedges that can be saved up while requests are fast and then
+     * spent in a burst when they become slow.
+     * @param maximumBudget The largest number of hedges that can be saved up.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubHedgingPolicy setMaximumBudget(double maximumBudget)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumBudget, 1.0, "maximumBudget");
+
+        this.maximumBudget = maximumBudget;
+        this.budget = Math.min(this.budget, maximumBudget);
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests that have been sent through this policy.
+     * @return The number of requests that have been sent through this policy.
+     */
+    public synchronized long getRequestCount()
+    {
+        return this.requestCount;
+    }
+
+    /**
+     * Get the number of second attempts that have been sent.
+     * @return The number of second attempts that have been sent.
+     */
+    public synchronized long getHedgeCount()
+    {
+        return this.hedgeCount;
+    }
+
+    /**
+     * Get the number of second attempts that finished before their first attempt.
+     * @return The number of second attempts that finished before their first attempt.
+     */
+    public synchronized long getHedgeWinCount()
+    {
+        return this.hedgeWinCount;
+    }
+
+    /**
+     * Get the number of second attempts that weren't sent because the budget was spent.
+     * @return The number of second attempts that weren't sent because the budget was spent.
+     */
+    public synchronized long getBudgetExhaustedCount()
+    {
+        return this.budgetExhaustedCount;
+    }
+
+    /**
+     * Record that a request to the provided route took the provided number of milliseconds.
+     * @param routeKey The route key of the request.
+     * @param latencyMilliseconds The number of milliseconds that the request took.
+     */
+    public synchronized void recordLatency(String routeKey, long latencyMilliseconds)
+    {
+        PreCondition.assertNotNullAndNotEmpty(routeKey, "routeKey");
+        PreCondition.assertGreaterThanOrEqualTo(latencyMilliseconds, 0, "latencyMilliseconds");
+
+        this.latencyWindows.computeIfAbsent(routeKey, (String key) -> new LatencyWindow(this.latencyWindowSize))
+            .add(latencyMilliseconds);
+    }
+
+    /**
+     * Get the number of milliseconds that a first attempt to the provided route will be given
+     * before a second attempt is sent.
+     * @param routeKey The route key.
+     * @return The hedge delay for the provided route, or null if not enough latencies have been
+     * observed for the route yet.
+     */
+    public synchronized Long getHedgeDelayMilliseconds(String routeKey)
+    {
+        PreCondition.assertNotNullAndNotEmpty(routeKey, "routeKey");
+
+        final LatencyWindow latencyWindow = this.latencyWindows.get(routeKey);
+        return latencyWindow == null || latencyWindow.count < this.minimumSampleCount
+            ? null
+            : latencyWindow.getPercentile(this.percentile);
+    }
+
+    private synchronized Long startRequest(String routeKey)
+    {
+        ++this.requestCount;
+        this.budget = Math.min(this.maximumBudget, this.budget + this.budgetRatio);
+        return this.getHedgeDelayMilliseconds(routeKey);
+    }
+
+    private synchronized boolean tryStartHedge()
+    {
+        final boolean result = this.budget >= 1.0;
+        if (result)
+        {
+            this.budget -= 1.0;
+            ++this.hedgeCount;
+        }
+        else
+        {
+            ++this.budgetExhaustedCount;
+        }
+        return result;
+    }
+
+    private synchronized void onHedgeWon()
+    {
+        ++this.hedgeWinCount;
+    }
+
+    /**
+     * Send the provided request with the provided attempt function, and send a second attempt
+     * if the first attempt takes longer than the route's hedge delay.
+     * @param request The request to send. This must be a request that {@link #canHedge(GitHubRequest)}.
+     * @param attempt The function that sends one attempt of a request.
+     * @return The response from the attempt that finished first.
+     */
+    public Result<GitHubResponse> send(GitHubRequest request, Function1<GitHubRequest,GitHubResponse> attempt)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertTrue(GitHubHedgingPolicy.canHedge(request), "GitHubHedgingPolicy.canHedge(request)");
+        PreCondition.assertNotNull(attempt, "attempt");
+
+        return Result.create(() ->
+        {
+            final String routeKey = request.getRouteKey();
+            final Long hedgeDelayMilliseconds = this.startRequest(routeKey);
+            if (hedgeDelayMilliseconds == null)
+            {
+                final long startTime = this.clock.run();
+                final GitHubResponse result = attempt.run(request);
+                this.recordLatency(routeKey, Math.max(0, this.clock.run() - startTime));
+                return result;
+            }
+
+            final java.util.concurrent.CompletableFuture<GitHubResponse> result = new java.util.concurrent.CompletableFuture<>();
+            final java.util.concurrent.CompletableFuture<Long> firstAttemptStarted = new java.util.concurrent.CompletableFuture<>();
+            final java.util.concurrent.atomic.AtomicInteger failedAttempts = new java.util.concurrent.atomic.AtomicInteger();
+            final java.util.concurrent.atomic.AtomicInteger startedAttempts = new java.util.concurrent.atomic.AtomicInteger(1);
+            this.startAttempt(request, routeKey, attempt, false, firstAttemptStarted, result, startedAttempts, failedAttempts);
+
+            GitHubResponse response;
+            try
+            {
+                // The hedge delay starts when the first attempt starts running, not when it is
+                // queued, so a busy pool doesn't cause hedges that the route's latency doesn't
+                // call for.
+                final long firstAttemptStartTime = firstAttemptStarted.get();
+                final long remainingDelayMilliseconds = Math.max(0, hedgeDelayMilliseconds - (this.clock.run() - firstAttemptStartTime));
+                response = result.get(remainingDelayMilliseconds, java.util.concurrent.TimeUnit.MILLISECONDS);
+            }
+            catch (java.util.concurrent.TimeoutException e)
+            {
+                if (this.tryStartHedge())
+                {
+                    startedAttempts.incrementAndGet();
+                    this.startAttempt(request.clone(), routeKey, attempt, true, null, result, startedAttempts, failedAttempts);
+                }
+                response = GitHubHedgingPolicy.join(result);
+            }
+            catch (java.util.concurrent.ExecutionException e)
+            {
+                response = GitHubHedgingPolicy.join(result);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            return response;
+        });
+    }
+
+    private void startAttempt(GitHubRequest request, String routeKey, Function1<GitHubRequest,GitHubResponse> attempt, boolean isHedge, java.util.concurrent.CompletableFuture<Long> started, java.util.concurrent.CompletableFuture<GitHubResponse> result, java.util.concurrent.atomic.AtomicInteger startedAttempts, java.util.concurrent.atomic.AtomicInteger failedAttempts)
+    {
+        // Written by the attempt before it completes, so it is visible in whenComplete().
+        final long[] startTime = new long[1];
+        java.util.concurrent.CompletableFuture.supplyAsync(() ->
+            {
+                startTime[0] = this.clock.run();
+                if (started != null)
+                {
+                    started.complete(startTime[0]);
+                }
+                return attempt.run(request);
+            }, this.executor)
+            .whenComplete((GitHubResponse response, Throwable error) ->
+            {
+                if (error == null)
+                {
+                    this.recordLatency(routeKey, Math.max(0, this.clock.run() - startTime[0]));
+                    if (result.complete(response))
+                    {
+                        if (isHedge)
+                        {
+                            this.onHedgeWon();
+                        }
+                    }
+                    else
+                    {
+                        response.dispose().catchError().await();
+                    }
+                }
+                else if (failedAttempts.incrementAndGet() == startedAttempts.get())
+                {
+                    // Only report a failure once every attempt that was started has failed, since
+                    // another attempt may still succeed.
+                    result.completeExceptionally(error instanceof java.util.concurrent.CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+            });
+    }
+
+    private static GitHubResponse join(java.util.concurrent.CompletableFuture<GitHubResponse> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch (java.util.concurrent.CompletionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A ring buffer of the most recent latencies that were observed for one route. The last
+     * percentile that was computed is cached until the next latency is added, so requests to a
+     * route only sort its window once per response instead of once per request.
+     */
+    private static class LatencyWindow
+    {
+        private final long[] latencies;
+        private final long[] sortedLatencies;
+        private int nextIndex;
+        private int count;
+        private double cachedPercentile;
+        private long cachedPercentileValue;
+
+        private LatencyWindow(int size)
+        {
+            this.latencies = new long[size];
+            this.sortedLatencies = new long[size];
+            this.cachedPercentile = Double.NaN;
+        }
+
+        private void add(long latencyMilliseconds)
+        {
+            this.latencies[this.nextIndex] = latencyMilliseconds;
+            this.nextIndex = (this.nextIndex + 1) % this.latencies.length;
+            this.count = Math.min(this.count + 1, this.latencies.length);
+            this.cachedPercentile = Double.NaN;
+        }
+
+        private long getPercentile(double percentile)
+        {
+            if (percentile != this.cachedPercentile)
+            {
+                System.arraycopy(this.latencies, 0, this.sortedLatencies, 0, this.count);
+                java.util.Arrays.sort(this.sortedLatencies, 0, this.count);
+                final int index = (int)Math.ceil(percentile * this.count) - 1;
+                this.cachedPercentileValue = this.sortedLatencies[Math.max(0, Math.min(this.count - 1, index))];
+                this.cachedPercentile = percentile;
+            }
+            return this.cachedPercentileValue;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package qub;
+
+/**
+ * A bounded canonicalizing map for the JSON objects and strings that repeat across the
+ * repositories in a listing, such as each repository's owner. Interning a user returns the first
+ * user object with the same id (or login) that was interned, so every repository with the same
+ * owner can share one owner object. When the map is full, the least recently used entries are evicted, which only
+ * means that later equal objects stop being shared with the evicted one.
+ * <p>
+ * Interned objects are shared by everything that was given them, so an interner should only be
+ * used for repositories that will be read but not modified, and it should be scoped to the work
+ * that owns those repositories (such as one listing) rather than shared across a process.
+ * Nothing in this library interns objects unless it is given an interner.
+ */
+public class GitHubJSONInterner
+{
+    /**
+     * The default maximum number of objects and strings that are remembered.
+     */
+    public static final int defaultMaximumCount = 4096;
+
+    private final int maximumCount;
+    private final java.util.LinkedHashMap<String,JSONObject> objects;
+    private final java.util.LinkedHashMap<String,String> strings;
+
+    private GitHubJSONInterner(int maximumCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+
+        this.maximumCount = maximumCount;
+        this.objects = new java.util.LinkedHashMap<String,JSONObject>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<String,JSONObject> eldest)
+            {
+                return this.size() > maximumCount;
+            }
+        };
+        this.strings = new java.util.LinkedHashMap<String,String>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<String,String> eldest)
+            {
+                return this.size() > maximumCount;
+            }
+        };
+    }
+
+    public static GitHubJSONInterner create()
+    {
+        return GitHubJSONInterner.create(GitHubJSONInterner.defaultMaximumCount);
+    }
+
+    public static GitHubJSONInterner create(int maximumCount)
+    {
+        return new GitHubJSONInterner(maximumCount);
+    }
+
+    /**
+     * Get the maximum number of objects and the maximum number of strings that are remembered.
+     * @return The maximum number of objects and the maximum number of strings that are
+     * remembered.
+     */
+    public int getMaximumCount()
+    {
+        return this.maximumCount;
+    }
+
+    /**
+     * Get the number of distinct user objects that are currently remembered.
+     * @return The number of distinct user objects that are currently remembered.
+     */
+    public synchronized int getObjectCount()
+    {
+        return this.objects.size();
+    }
+
+    /**
+     * Get the number of distinct strings that are currently remembered.
+     * @return The number of distinct strings that are currently remembered.
+     */
+    public synchronized int getStringCount()
+    {
+        return this.strings.size();
+    }
+
+    /**
+     * Get the canonical object for the user that the provided user JSON describes. Users are
+     * identified by their id, or by their login if they don't have an id, so the first user
+     * object that is interned with an id or login becomes the canonical object for every later
+     * user object with the same id or login. User JSON that has neither is returned as is.
+     * @param userJson The JSON of the user to intern.
+     * @return The canonical object for the user.
+     */
+    public JSONObject internUser(JSONObject userJson)
+    {
+        PreCondition.assertNotNull(userJson, "userJson");
+
+        // Keying on the id or login avoids serializing the whole object for every lookup.
+        final String key = GitHubJSONInterner.getUserKey(userJson);
+        JSONObject result = userJson;
+        if (key != null)
+        {
+            synchronized (this)
+            {
+                final JSONObject canonicalUserJson = this.objects.get(key);
+                if (canonicalUserJson == null)
+                {
+                    this.objects.put(key, userJson);
+                }
+                else
+                {
+                    result = canonicalUserJson;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the key that identifies the user that the provided user JSON describes, or null if it
+     * has neither an id nor a login.
+     */
+    private static String getUserKey(JSONObject userJson)
+    {
+        String result = userJson.get(GitHubUser.idPropertyName)
+            .then((JSONSegment idJson) -> "id:" + idJson.toString())
+            .catchError()
+            .await();
+        if (result == null)
+        {
+            final String login = userJson.getString(GitHubUser.loginPropertyName)
+                .catchError()
+                .await();
+            if (login != null)
+            {
+                result = "login:" + login;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the canonical string that is equal to the provided string.
+     * @param value The string to intern.
+     * @return The canonical string that is equal to the provided string.
+     */
+    public synchronized String intern(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        String result = this.strings.get(value);
+        if (result == null)
+        {
+            result = value;
+            this.strings.put(result, result);
+        }
+        return result;
+    }
+
+    /**
+     * Replace the owner of the provided repository JSON with the canonical owner that has the
+     * same id or login, and intern the owner's login.
+     * @param repositoryJson The JSON of the repository.
+     * @return The provided repository JSON.
+     */
+    public JSONObject internOwner(JSONObject repositoryJson)
+    {
+        PreCondition.assertNotNull(repositoryJson, "repositoryJson");
+
+        final JSONObject ownerJson = repositoryJson.getObject(GitHubRepository.ownerPropertyName)
+            .catchError()
+            .await();
+        if (ownerJson != null)
+        {
+            final String login = ownerJson.getString(GitHubUser.loginPropertyName)
+                .catchError()
+                .await();
+            final JSONObject canonicalOwnerJson = this.internUser(ownerJson);
+            if (canonicalOwnerJson == ownerJson && login != null)
+            {
+                // This is the first time that this owner has been seen, so its login becomes
+                // the canonical login string for any other object that refers to it.
+                ownerJson.setString(GitHubUser.loginPropertyName, this.intern(login));
+            }
+            if (canonicalOwnerJson != ownerJson)
+            {
+                repositoryJson.setObject(GitHubRepository.ownerPropertyName, canonicalOwnerJson);
+            }
+        }
+        return repositoryJson;
+    }
+}
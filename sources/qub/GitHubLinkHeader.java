@@ -0,0 +1,218 @@
+package qub;
+
+/**
+ * The parsed value of a GitHub response's Link header, which GitHub uses to describe the other
+ * pages of a paginated response. A Link header looks like:
+ * <pre>
+ * &lt;https://api.github.com/user/repos?page=2&gt;; rel="next", &lt;https://api.github.com/user/repos?page=5&gt;; rel="last"
+ * </pre>
+ */
+public class GitHubLinkHeader
+{
+    /**
+     * The name of the header that contains pagination links.
+     */
+    public static final String headerName = "Link";
+
+    public static final String nextRelation = "next";
+    public static final String lastRelation = "last";
+    public static final String firstRelation = "first";
+    public static final String previousRelation = "prev";
+
+    private final MutableMap<String,String> urls;
+
+    private GitHubLinkHeader(MutableMap<String,String> urls)
+    {
+        PreCondition.assertNotNull(urls, "urls");
+
+        this.urls = urls;
+    }
+
+    /**
+     * Create a new {@link GitHubLinkHeader} that doesn't contain any links.
+     * @return The new {@link GitHubLinkHeader}.
+     */
+    public static GitHubLinkHeader create()
+    {
+        return new GitHubLinkHeader(Map.create());
+    }
+
+    /**
+     * Parse the provided Link header value. Entries that aren't well-formed are ignored.
+     * @param headerValue The value of the Link header. This may be null or empty if the response
+     *                    didn't have a Link header.
+     * @return The parsed {@link GitHubLinkHeader}.
+     */
+    public static GitHubLinkHeader parse(String headerValue)
+    {
+        final GitHubLinkHeader result = GitHubLinkHeader.create();
+        if (!Strings.isNullOrEmpty(headerValue))
+        {
+            int index = 0;
+            final int headerValueLength = headerValue.length();
+            while (index < headerValueLength)
+            {
+                final int urlStartIndex = headerValue.indexOf('<', index);
+                if (urlStartIndex == -1)
+                {
+                    break;
+                }
+                final int urlEndIndex = headerValue.indexOf('>', urlStartIndex + 1);
+                if (urlEndIndex == -1)
+                {
+                    break;
+                }
+                int entryEndIndex = headerValue.indexOf('<', urlEndIndex + 1);
+                if (entryEndIndex == -1)
+                {
+                    entryEndIndex = headerValueLength;
+                }
+
+                final String url = headerValue.substring(urlStartIndex + 1, urlEndIndex).trim();
+                final String parameters = headerValue.substring(urlEndIndex + 1, entryEndIndex);
+                final int relIndex = parameters.indexOf("rel=");
+                if (relIndex != -1)
+                {
+                    int relValueStartIndex = relIndex + "rel=".length();
+                    int relValueEndIndex;
+                    if (relValueStartIndex < parameters.length() && parameters.charAt(relValueStartIndex) == '"')
+                    {
+                        ++relValueStartIndex;
+                        relValueEndIndex = parameters.indexOf('"', relValueStartIndex);
+                    }
+                    else
+                    {
+                        relValueEndIndex = relValueStartIndex;
+                        while (relValueEndIndex < parameters.length() && parameters.charAt(relValueEndIndex) != ';' && parameters.charAt(relValueEndIndex) != ',')
+                        {
+                            ++relValueEndIndex;
+                        }
+                    }
+
+                    if (relValueEndIndex != -1)
+                    {
+                        // A single link can have several space-separated relation types.
+                        for (final String relation : parameters.substring(relValueStartIndex, relValueEndIndex).trim().split(" +"))
+                        {
+                            if (!relation.isEmpty())
+                            {
+                                result.urls.set(relation, url);
+                            }
+                        }
+                    }
+                }
+
+                index = entryEndIndex;
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether this header contains a link with the provided relation type.
+     * @param relation The relation type, such as "next" or "last".
+     * @return Whether this header contains a link with the provided relation type.
+     */
+    public boolean contains(String relation)
+    {
+        PreCondition.assertNotNullAndNotEmpty(relation, "relation");
+
+        return this.urls.containsKey(relation);
+    }
+
+    /**
+     * Get the URL of the link with the provided relation type.
+     * @param relation The relation type, such as "next" or "last".
+     * @return The URL of the link, or null if this header doesn't have a link with the provided
+     * relation type.
+     */
+    public String getUrl(String relation)
+    {
+        PreCondition.assertNotNullAndNotEmpty(relation, "relation");
+
+        return this.urls.get(relation)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get the value of the "page" query parameter in the URL of the link with the provided
+     * relation type.
+     * @param relation The relation type, such as "next" or "last".
+     * @return The page number, or null if the link doesn't exist or doesn't have a page number.
+     */
+    public Integer getPageNumber(String relation)
+    {
+        PreCondition.assertNotNullAndNotEmpty(relation, "relation");
+
+        Integer result = null;
+        final String url = this.getUrl(relation);
+        if (url != null)
+        {
+            final int queryStartIndex = url.indexOf('?');
+            if (queryStartIndex != -1)
+            {
+                for (final String queryParameter : url.substring(queryStartIndex + 1).split("&"))
+                {
+                    if (queryParameter.startsWith("page="))
+                    {
+                        try
+                        {
+                            result = Integer.valueOf(queryParameter.substring("page=".length()));
+                        }
+                        catch (NumberFormatException e)
+                        {
+                            result = null;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get whether this header has a link to a next page.
+     * @return Whether this header has a link to a next page.
+     */
+    public boolean hasNextPage()
+    {
+        return this.contains(GitHubLinkHeader.nextRelation);
+    }
+
+    /**
+     * Get the page number of the next page.
+     * @return The page number of the next page, or null if there is no next page.
+     */
+    public Integer getNextPageNumber()
+    {
+        return this.getPageNumber(GitHubLinkHeader.nextRelation);
+    }
+
+    /**
+     * Get the page number of the last page.
+     * @return The page number of the last page, or null if the last page isn't known.
+     */
+    public Integer getLastPageNumber()
+    {
+        return this.getPageNumber(GitHubLinkHeader.lastRelation);
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (final MapEntry<String,String> entry : this.urls)
+        {
+            if (builder.length() > 0)
+            {
+                builder.append(", ");
+            }
+            builder.append('<').append(entry.getValue()).append(">; rel=\"").append(entry.getKey()).append('"');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,772 @@
+package qub;
+
+/**
+ * A store of {@link GitHubRepository} records that are kept in direct (off-heap) memory instead
+ * of as {@link JSONObject}s on the garbage collected heap. Each repository is written as a
+ * compact record into one of a series of fixed size direct {@link java.nio.ByteBuffer}
+ * segments, and a {@link LongLongMap} maps each repository id to its record's location, so the
+ * index doesn't hold a boxed object per repository. Only the properties that
+ * {@link GitHubRepository} models (id, name, full name, owner login, URLs and timestamps) are
+ * kept.
+ * <p>
+ * This store returns {@link RepositoryView}s, which are {@link GitHubRepository}s that decode
+ * each property from the backing record when it is requested, so they can be passed to code
+ * that works with {@link GitHubRepository}s. A view always reflects the current record for its
+ * repository id, so it sees later updates and returns null properties after its repository is
+ * removed. Setting a property on a view writes a new record for its repository. Use
+ * {@link RepositoryView#toRepository()} to get a detached on-heap copy instead.
+ * <p>
+ * Reads share a read lock, so views can be read from many threads at the same time. Adding,
+ * removing and compacting take the write lock.
+ */
+public class GitHubOffHeapRepositoryStore
+{
+    public static final int defaultSegmentSize = 1024 * 1024;
+    public static final int minimumSegmentSize = 64;
+
+    private static final int recordLengthOffset = 0;
+    private static final int idOffset = 4;
+    private static final int pushedAtSecondsOffset = 12;
+    private static final int pushedAtNanosOffset = 20;
+    private static final int updatedAtSecondsOffset = 24;
+    private static final int updatedAtNanosOffset = 32;
+    private static final int stringsOffset = 36;
+
+    private static final int nameStringIndex = 0;
+    private static final int fullNameStringIndex = 1;
+    private static final int ownerLoginStringIndex = 2;
+    private static final int gitUrlStringIndex = 3;
+    private static final int cloneUrlStringIndex = 4;
+
+    private final int segmentSize;
+    private final java.util.ArrayList<java.nio.ByteBuffer> segments;
+    private final LongLongMap index;
+    private final java.util.concurrent.locks.Lock readLock;
+    private final java.util.concurrent.locks.Lock writeLock;
+    private long liveByteCount;
+
+    private GitHubOffHeapRepositoryStore(int segmentSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(segmentSize, GitHubOffHeapRepositoryStore.minimumSegmentSize, "segmentSize");
+
+        this.segmentSize = segmentSize;
+        this.segments = new java.util.ArrayList<>();
+        this.index = LongLongMap.create();
+
+        final java.util.concurrent.locks.ReentrantReadWriteLock lock = new java.util.concurrent.locks.ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    public static GitHubOffHeapRepositoryStore create()
+    {
+        return GitHubOffHeapRepositoryStore.create(GitHubOffHeapRepositoryStore.defaultSegmentSize);
+    }
+
+    /**
+     * Create a new {@link GitHubOffHeapRepositoryStore} that allocates its direct memory in
+     * segments of the provided size. A record that is larger than a segment gets a segment of
+     * its own.
+     * @param segmentSize The number of bytes in each direct memory segment.
+     * @return The new {@link GitHubOffHeapRepositoryStore}.
+     */
+    public static GitHubOffHeapRepositoryStore create(int segmentSize)
+    {
+        return new GitHubOffHeapRepositoryStore(segmentSize);
+    }
+
+    private static int getSegmentIndex(long location)
+    {
+        return (int)(location >>> 32);
+    }
+
+    private static int getSegmentOffset(long location)
+    {
+        return (int)location;
+    }
+
+    private static long getLocation(int segmentIndex, int segmentOffset)
+    {
+        return ((long)segmentIndex << 32) | (segmentOffset & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the number of repositories in this store.
+     * @return The number of repositories in this store.
+     */
+    public int getCount()
+    {
+        this.readLock.lock();
+        try
+        {
+            return this.index.getCount();
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of direct memory segments that this store has allocated.
+     * @return The number of direct memory segments that this store has allocated.
+     */
+    public int getSegmentCount()
+    {
+        this.readLock.lock();
+        try
+        {
+            return this.segments.size();
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of bytes of direct memory that this store has allocated.
+     * @return The number of bytes of direct memory that this store has allocated.
+     */
+    public long getAllocatedByteCount()
+    {
+        this.readLock.lock();
+        try
+        {
+            long result = 0;
+            for (final java.nio.ByteBuffer segment : this.segments)
+            {
+                result += segment.capacity();
+            }
+            return result;
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of bytes that are used by the current record of each repository. Records
+     * that have been replaced or removed are not counted until {@link #compact()} reclaims them.
+     * @return The number of bytes that are used by the current record of each repository.
+     */
+    public long getLiveByteCount()
+    {
+        this.readLock.lock();
+        try
+        {
+            return this.liveByteCount;
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get whether this store contains the repository with the provided id.
+     * @param id The id of the repository.
+     * @return Whether this store contains the repository with the provided id.
+     */
+    public boolean contains(long id)
+    {
+        this.readLock.lock();
+        try
+        {
+            return this.index.containsKey(id);
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the ids of the repositories in this store, in no particular order.
+     * @return The ids of the repositories in this store.
+     */
+    public long[] getIds()
+    {
+        this.readLock.lock();
+        try
+        {
+            return this.index.getKeys();
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Write the provided repository into this store. If this store already contains a repository
+     * with the same id, then it is replaced.
+     * @param repository The repository to add. The repository must have an id.
+     * @return A view of the stored repository.
+     */
+    public RepositoryView add(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+        PreCondition.assertNotNull(repository.getId(), "repository.getId()");
+
+        final long id = repository.getId();
+        final byte[] record = GitHubOffHeapRepositoryStore.encodeRecord(id, repository);
+        this.writeLock.lock();
+        try
+        {
+            this.writeRecord(id, record);
+        }
+        finally
+        {
+            this.writeLock.unlock();
+        }
+        return new RepositoryView(this, id);
+    }
+
+    /**
+     * Write each of the provided repositories into this store. Repositories without an id are
+     * skipped.
+     * @param repositories The repositories to add.
+     * @return The number of repositories that were added.
+     */
+    public int addAll(Iterable<GitHubRepository> repositories)
+    {
+        PreCondition.assertNotNull(repositories, "repositories");
+
+        int result = 0;
+        for (final GitHubRepository repository : repositories)
+        {
+            if (repository != null && repository.getId() != null)
+            {
+                this.add(repository);
+                ++result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a view of the repository with the provided id.
+     * @param id The id of the repository.
+     * @return A view of the repository with the provided id.
+     */
+    public Result<RepositoryView> get(long id)
+    {
+        return Result.create(() ->
+        {
+            if (!this.contains(id))
+            {
+                throw new NotFoundException("No repository found with the id " + id + ".");
+            }
+            return new RepositoryView(this, id);
+        });
+    }
+
+    /**
+     * Remove the repository with the provided id.
+     * @param id The id of the repository to remove.
+     * @return An on-heap copy of the repository that was removed.
+     */
+    public Result<GitHubRepository> remove(long id)
+    {
+        return Result.create(() ->
+        {
+            this.writeLock.lock();
+            try
+            {
+                final long location = this.index.remove(id);
+                if (location == LongLongMap.noValue)
+                {
+                    throw new NotFoundException("No repository found with the id " + id + ".");
+                }
+                this.liveByteCount -= this.getRecordLength(location);
+                return GitHubRepository.create(this.decodeJson(location));
+            }
+            finally
+            {
+                this.writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Rewrite the current record of each repository into new segments so that the direct
+     * memory used by replaced and removed records can be reclaimed. The old segments are copied
+     * one at a time, directly into new direct memory segments, and each old segment is released
+     * as soon as its live records have been copied, so compacting never needs more than about one
+     * extra segment of memory.
+     */
+    public void compact()
+    {
+        this.writeLock.lock();
+        try
+        {
+            final java.nio.ByteBuffer[] oldSegments = this.segments.toArray(new java.nio.ByteBuffer[0]);
+            this.segments.clear();
+            for (int oldSegmentIndex = 0; oldSegmentIndex < oldSegments.length; ++oldSegmentIndex)
+            {
+                final java.nio.ByteBuffer oldSegment = oldSegments[oldSegmentIndex];
+                oldSegments[oldSegmentIndex] = null;
+
+                int oldSegmentOffset = 0;
+                while (oldSegmentOffset < oldSegment.position())
+                {
+                    final int recordLength = oldSegment.getInt(oldSegmentOffset + GitHubOffHeapRepositoryStore.recordLengthOffset);
+                    final long id = oldSegment.getLong(oldSegmentOffset + GitHubOffHeapRepositoryStore.idOffset);
+                    // Records are only ever appended, so a replaced record always comes before the
+                    // current record for the same id and is skipped here because the index still
+                    // points further ahead.
+                    if (this.index.get(id) == GitHubOffHeapRepositoryStore.getLocation(oldSegmentIndex, oldSegmentOffset))
+                    {
+                        final java.nio.ByteBuffer record = oldSegment.duplicate();
+                        record.limit(oldSegmentOffset + recordLength);
+                        record.position(oldSegmentOffset);
+
+                        final java.nio.ByteBuffer segment = this.getSegmentWithSpaceFor(recordLength);
+                        this.index.set(id, GitHubOffHeapRepositoryStore.getLocation(this.segments.size() - 1, segment.position()));
+                        segment.put(record);
+                    }
+                    oldSegmentOffset += recordLength;
+                }
+            }
+        }
+        finally
+        {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Get the last segment if it has room for a record of the provided length, or allocate a new
+     * segment for the record if it doesn't.
+     */
+    private java.nio.ByteBuffer getSegmentWithSpaceFor(int recordLength)
+    {
+        java.nio.ByteBuffer result = this.segments.isEmpty() ? null : this.segments.get(this.segments.size() - 1);
+        if (result == null || result.remaining() < recordLength)
+        {
+            result = java.nio.ByteBuffer.allocateDirect(Math.max(this.segmentSize, recordLength));
+            this.segments.add(result);
+        }
+        return result;
+    }
+
+    private void writeRecord(long id, byte[] record)
+    {
+        final java.nio.ByteBuffer segment = this.getSegmentWithSpaceFor(record.length);
+        final long location = GitHubOffHeapRepositoryStore.getLocation(this.segments.size() - 1, segment.position());
+        segment.put(record);
+
+        final long previousLocation = this.index.set(id, location);
+        if (previousLocation != LongLongMap.noValue)
+        {
+            this.liveByteCount -= this.getRecordLength(previousLocation);
+        }
+        this.liveByteCount += record.length;
+    }
+
+    /**
+     * Apply the provided change to an on-heap copy of the current record for the provided id,
+     * and then write the changed copy back as the repository's new record. If the change gives
+     * the repository a different id, then the record is moved to the new id.
+     * @return The id of the changed repository.
+     */
+    private long update(long id, Action1<GitHubRepository> change)
+    {
+        this.writeLock.lock();
+        try
+        {
+            final long location = this.index.get(id);
+            if (location == LongLongMap.noValue)
+            {
+                throw new NotFoundException("No repository found with the id " + id + ".");
+            }
+
+            final GitHubRepository repository = GitHubRepository.create(this.decodeJson(location));
+            change.run(repository);
+            final long result = repository.getId();
+            if (result != id)
+            {
+                this.index.remove(id);
+                this.liveByteCount -= this.getRecordLength(location);
+            }
+            this.writeRecord(result, GitHubOffHeapRepositoryStore.encodeRecord(result, repository));
+            return result;
+        }
+        finally
+        {
+            this.writeLock.unlock();
+        }
+    }
+
+    private int getRecordLength(long location)
+    {
+        return this.segments.get(GitHubOffHeapRepositoryStore.getSegmentIndex(location))
+            .getInt(GitHubOffHeapRepositoryStore.getSegmentOffset(location) + GitHubOffHeapRepositoryStore.recordLengthOffset);
+    }
+
+    private static byte[] encodeRecord(long id, GitHubRepository repository)
+    {
+        final JSONObject json = repository.toJson();
+        final GitHubUser owner = repository.getOwner();
+        final byte[][] strings = new byte[][]
+        {
+            GitHubOffHeapRepositoryStore.getUtf8Bytes(json.getString(GitHubRepository.namePropertyName).catchError().await()),
+            GitHubOffHeapRepositoryStore.getUtf8Bytes(json.getString(GitHubRepository.fullNamePropertyName).catchError().await()),
+            GitHubOffHeapRepositoryStore.getUtf8Bytes(owner == null ? null : owner.getLogin()),
+            GitHubOffHeapRepositoryStore.getUtf8Bytes(json.getString(GitHubRepository.gitUrlPropertyName).catchError().await()),
+            GitHubOffHeapRepositoryStore.getUtf8Bytes(json.getString(GitHubRepository.cloneUrlPropertyName).catchError().await()),
+        };
+
+        int recordLength = GitHubOffHeapRepositoryStore.stringsOffset;
+        for (final byte[] string : strings)
+        {
+            recordLength += 4 + (string == null ? 0 : string.length);
+        }
+
+        final java.nio.ByteBuffer record = java.nio.ByteBuffer.allocate(recordLength);
+        record.putInt(recordLength);
+        record.putLong(id);
+        GitHubOffHeapRepositoryStore.putInstant(record, repository.getPushedAt());
+        GitHubOffHeapRepositoryStore.putInstant(record, repository.getUpdatedAt());
+        for (final byte[] string : strings)
+        {
+            if (string == null)
+            {
+                record.putInt(-1);
+            }
+            else
+            {
+                record.putInt(string.length);
+                record.put(string);
+            }
+        }
+        return record.array();
+    }
+
+    private static byte[] getUtf8Bytes(String value)
+    {
+        return value == null ? null : value.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private static void putInstant(java.nio.ByteBuffer record, java.time.Instant instant)
+    {
+        if (instant == null)
+        {
+            record.putLong(0);
+            record.putInt(-1);
+        }
+        else
+        {
+            record.putLong(instant.getEpochSecond());
+            record.putInt(instant.getNano());
+        }
+    }
+
+    private Long readId(long id)
+    {
+        return this.contains(id) ? id : null;
+    }
+
+    private java.time.Instant readInstant(long id, int secondsOffset, int nanosOffset)
+    {
+        this.readLock.lock();
+        try
+        {
+            java.time.Instant result = null;
+            final long location = this.index.get(id);
+            if (location != LongLongMap.noValue)
+            {
+                final java.nio.ByteBuffer segment = this.segments.get(GitHubOffHeapRepositoryStore.getSegmentIndex(location));
+                final int segmentOffset = GitHubOffHeapRepositoryStore.getSegmentOffset(location);
+                final int nanos = segment.getInt(segmentOffset + nanosOffset);
+                if (nanos != -1)
+                {
+                    result = java.time.Instant.ofEpochSecond(segment.getLong(segmentOffset + secondsOffset), nanos);
+                }
+            }
+            return result;
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    private String readString(long id, int stringIndex)
+    {
+        this.readLock.lock();
+        try
+        {
+            final long location = this.index.get(id);
+            return location == LongLongMap.noValue ? null : this.readString(location, stringIndex);
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    private String readString(long location, int stringIndex)
+    {
+        final java.nio.ByteBuffer segment = this.segments.get(GitHubOffHeapRepositoryStore.getSegmentIndex(location));
+        int offset = GitHubOffHeapRepositoryStore.getSegmentOffset(location) + GitHubOffHeapRepositoryStore.stringsOffset;
+        for (int i = 0; i < stringIndex; ++i)
+        {
+            offset += 4 + Math.max(0, segment.getInt(offset));
+        }
+
+        String result = null;
+        final int length = segment.getInt(offset);
+        if (length != -1)
+        {
+            // Readers share the segment, so the bulk copy uses a duplicate with its own position.
+            final java.nio.ByteBuffer stringBytes = segment.duplicate();
+            stringBytes.position(offset + 4);
+            final byte[] bytes = new byte[length];
+            stringBytes.get(bytes);
+            result = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    private JSONObject readJson(long id)
+    {
+        this.readLock.lock();
+        try
+        {
+            final long location = this.index.get(id);
+            return location == LongLongMap.noValue ? JSONObject.create() : this.decodeJson(location);
+        }
+        finally
+        {
+            this.readLock.unlock();
+        }
+    }
+
+    private JSONObject decodeJson(long location)
+    {
+        final java.nio.ByteBuffer segment = this.segments.get(GitHubOffHeapRepositoryStore.getSegmentIndex(location));
+        final int segmentOffset = GitHubOffHeapRepositoryStore.getSegmentOffset(location);
+
+        final JSONObject result = JSONObject.create()
+            .setNumber(GitHubRepository.idPropertyName, segment.getLong(segmentOffset + GitHubOffHeapRepositoryStore.idOffset));
+        final String name = this.readString(location, GitHubOffHeapRepositoryStore.nameStringIndex);
+        if (name != null)
+        {
+            result.setString(GitHubRepository.namePropertyName, name);
+        }
+        final String fullName = this.readString(location, GitHubOffHeapRepositoryStore.fullNameStringIndex);
+        if (fullName != null)
+        {
+            result.setString(GitHubRepository.fullNamePropertyName, fullName);
+        }
+        final String ownerLogin = this.readString(location, GitHubOffHeapRepositoryStore.ownerLoginStringIndex);
+        if (ownerLogin != null)
+        {
+            result.setObject(GitHubRepository.ownerPropertyName, JSONObject.create()
+                .setString(GitHubUser.loginPropertyName, ownerLogin));
+        }
+        final String gitUrl = this.readString(location, GitHubOffHeapRepositoryStore.gitUrlStringIndex);
+        if (gitUrl != null)
+        {
+            result.setString(GitHubRepository.gitUrlPropertyName, gitUrl);
+        }
+        final String cloneUrl = this.readString(location, GitHubOffHeapRepositoryStore.cloneUrlStringIndex);
+        if (cloneUrl != null)
+        {
+            result.setString(GitHubRepository.cloneUrlPropertyName, cloneUrl);
+        }
+        final int pushedAtNanos = segment.getInt(segmentOffset + GitHubOffHeapRepositoryStore.pushedAtNanosOffset);
+        if (pushedAtNanos != -1)
+        {
+            result.setString(GitHubRepository.pushedAtPropertyName,
+                java.time.Instant.ofEpochSecond(segment.getLong(segmentOffset + GitHubOffHeapRepositoryStore.pushedAtSecondsOffset), pushedAtNanos).toString());
+        }
+        final int updatedAtNanos = segment.getInt(segmentOffset + GitHubOffHeapRepositoryStore.updatedAtNanosOffset);
+        if (updatedAtNanos != -1)
+        {
+            result.setString(GitHubRepository.updatedAtPropertyName,
+                java.time.Instant.ofEpochSecond(segment.getLong(segmentOffset + GitHubOffHeapRepositoryStore.updatedAtSecondsOffset), updatedAtNanos).toString());
+        }
+        return result;
+    }
+
+    /**
+     * A {@link GitHubRepository} that reads each of its properties from a
+     * {@link GitHubOffHeapRepositoryStore}'s current record for its repository id. Each setter
+     * writes a new record for the repository, so the change is seen by every view of the same
+     * repository. Setting a property on a view of a removed repository throws a
+     * {@link NotFoundException}.
+     */
+    public static class RepositoryView extends GitHubRepository
+    {
+        private final GitHubOffHeapRepositoryStore store;
+        private volatile long id;
+
+        private RepositoryView(GitHubOffHeapRepositoryStore store, long id)
+        {
+            super(JSONObject.create());
+
+            this.store = store;
+            this.id = id;
+        }
+
+        private URL readUrl(int stringIndex)
+        {
+            final String urlString = this.store.readString(this.id, stringIndex);
+            return urlString == null ? null : URL.parse(urlString).catchError().await();
+        }
+
+        private RepositoryView update(Action1<GitHubRepository> change)
+        {
+            this.id = this.store.update(this.id, change);
+            return this;
+        }
+
+        /**
+         * Get a detached copy of this repository's current record as JSON. Changes to the
+         * returned object are not written back to the store.
+         * @return A detached copy of this repository's current record as JSON.
+         */
+        @Override
+        public JSONObject toJson()
+        {
+            return this.store.readJson(this.id);
+        }
+
+        /**
+         * Get an on-heap copy of this repository's current record. Changes to the returned
+         * repository are not written back to the store.
+         * @return An on-heap copy of this repository's current record.
+         */
+        public GitHubRepository toRepository()
+        {
+            return GitHubRepository.create(this.toJson());
+        }
+
+        /**
+         * Get the id of this repository.
+         * @return The id of this repository, or null if it has been removed from the store.
+         */
+        @Override
+        public Long getId()
+        {
+            return this.store.readId(this.id);
+        }
+
+        /**
+         * Set the id of this repository. This moves the repository's record to the new id in
+         * the store, so other views of the old id will no longer find it.
+         * @param id The unique identifier of this repository.
+         * @return This object for method chaining.
+         */
+        @Override
+        public RepositoryView setId(long id)
+        {
+            PreCondition.assertGreaterThanOrEqualTo(id, 0, "id");
+
+            return this.update((GitHubRepository repository) -> repository.setId(id));
+        }
+
+        @Override
+        public String getName()
+        {
+            return this.store.readString(this.id, GitHubOffHeapRepositoryStore.nameStringIndex);
+        }
+
+        @Override
+        public RepositoryView setName(String name)
+        {
+            PreCondition.assertNotNullAndNotEmpty(name, "name");
+
+            return this.update((GitHubRepository repository) -> repository.setName(name));
+        }
+
+        @Override
+        public String getFullName()
+        {
+            return this.store.readString(this.id, GitHubOffHeapRepositoryStore.fullNameStringIndex);
+        }
+
+        @Override
+        public RepositoryView setFullName(String fullName)
+        {
+            PreCondition.assertNotNullAndNotEmpty(fullName, "fullName");
+
+            return this.update((GitHubRepository repository) -> repository.setFullName(fullName));
+        }
+
+        @Override
+        public GitHubUser getOwner()
+        {
+            final String ownerLogin = this.store.readString(this.id, GitHubOffHeapRepositoryStore.ownerLoginStringIndex);
+            return ownerLogin == null ? null : GitHubUser.create().setLogin(ownerLogin);
+        }
+
+        @Override
+        public RepositoryView setOwner(GitHubUser owner)
+        {
+            PreCondition.assertNotNull(owner, "owner");
+
+            return this.update((GitHubRepository repository) -> repository.setOwner(owner));
+        }
+
+        @Override
+        public URL getGitUrl()
+        {
+            return this.readUrl(GitHubOffHeapRepositoryStore.gitUrlStringIndex);
+        }
+
+        @Override
+        public RepositoryView setGitUrl(URL gitUrl)
+        {
+            PreCondition.assertNotNull(gitUrl, "gitUrl");
+
+            return this.update((GitHubRepository repository) -> repository.setGitUrl(gitUrl));
+        }
+
+        @Override
+        public URL getCloneUrl()
+        {
+            return this.readUrl(GitHubOffHeapRepositoryStore.cloneUrlStringIndex);
+        }
+
+        @Override
+        public RepositoryView setCloneUrl(URL cloneUrl)
+        {
+            PreCondition.assertNotNull(cloneUrl, "cloneUrl");
+
+            return this.update((GitHubRepository repository) -> repository.setCloneUrl(cloneUrl));
+        }
+
+        @Override
+        public java.time.Instant getPushedAt()
+        {
+            return this.store.readInstant(this.id, GitHubOffHeapRepositoryStore.pushedAtSecondsOffset, GitHubOffHeapRepositoryStore.pushedAtNanosOffset);
+        }
+
+        @Override
+        public RepositoryView setPushedAt(java.time.Instant pushedAt)
+        {
+            PreCondition.assertNotNull(pushedAt, "pushedAt");
+
+            return this.update((GitHubRepository repository) -> repository.setPushedAt(pushedAt));
+        }
+
+        @Override
+        public java.time.Instant getUpdatedAt()
+        {
+            return this.store.readInstant(this.id, GitHubOffHeapRepositoryStore.updatedAtSecondsOffset, GitHubOffHeapRepositoryStore.updatedAtNanosOffset);
+        }
+
+        @Override
+        public RepositoryView setUpdatedAt(java.time.Instant updatedAt)
+        {
+            PreCondition.assertNotNull(updatedAt, "updatedAt");
+
+            return this.update((GitHubRepository repository) -> repository.setUpdatedAt(updatedAt));
+        }
+    }
+}
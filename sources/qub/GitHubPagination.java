@@ -0,0 +1,132 @@
+package qub;
+
+/**
+ * A strategy for fetching all of the pages of a paginated GitHub endpoint.
+ */
+public interface GitHubPagination
+{
+    /**
+     * The name of the query parameter that selects which page of results GitHub returns.
+     */
+    String pageQueryParameterName = "page";
+
+    /**
+     * The name of the query parameter that selects how many results GitHub returns per page.
+     */
+    String pageSizeQueryParameterName = "per_page";
+
+    /**
+     * The number of results that GitHub returns per page when a request doesn't have a per_page
+     * query parameter.
+     */
+    int defaultPageSize = 30;
+
+    /**
+     * Create a {@link GitHubPagination} that fetches each page after the previous page has been
+     * handled by following the previous page's rel="next" link.
+     * @return The new {@link GitHubPagination}.
+     */
+    static SequentialGitHubPagination sequential()
+    {
+        return SequentialGitHubPagination.create();
+    }
+
+    /**
+     * Create a {@link GitHubPagination} that uses the first page's rel="last" link to fetch the
+     * remaining pages concurrently on the common fork-join pool.
+     * @param maximumPagesInFlight The maximum number of pages that can be fetched or waiting to
+     *                             be handled at the same time.
+     * @return The new {@link GitHubPagination}.
+     */
+    static ParallelGitHubPagination parallel(int maximumPagesInFlight)
+    {
+        return ParallelGitHubPagination.create(maximumPagesInFlight);
+    }
+
+    /**
+     * Create a {@link GitHubPagination} that uses the first page's rel="last" link to fetch the
+     * remaining pages concurrently on the provided {@link java.util.concurrent.Executor}.
+     * @param maximumPagesInFlight The maximum number of pages that can be fetched or waiting to
+     *                             be handled at the same time.
+     * @param executor The {@link java.util.concurrent.Executor} that the pages will be fetched on.
+     * @return The new {@link GitHubPagination}.
+     */
+    static ParallelGitHubPagination parallel(int maximumPagesInFlight, java.util.concurrent.Executor executor)
+    {
+        return ParallelGitHubPagination.create(maximumPagesInFlight, executor);
+    }
+
+    /**
+     * Create the request for the provided page by cloning the first page's request.
+     * @param firstPageRequest The request for the first page.
+     * @param pageNumber The number of the page to request.
+     * @return The request for the provided page.
+     */
+    static GitHubRequest createPageRequest(GitHubRequest firstPageRequest, int pageNumber)
+    {
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertGreaterThanOrEqualTo(pageNumber, 1, "pageNumber");
+
+        return firstPageRequest.clone()
+            .setQueryParameter(GitHubPagination.pageQueryParameterName, pageNumber);
+    }
+
+    /**
+     * Fetch each page of the provided request and pass the page's response to the provided
+     * action. Pages are always passed to the action one at a time and in page order, and each
+     * page's response is disposed after the action returns.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page.
+     * @param pageAction The action that will be run for each page's response.
+     */
+    Result<Void> forEachPage(GitHubClient client, GitHubRequest firstPageRequest, Action1<GitHubResponse> pageAction);
+
+    /**
+     * Fetch each page of the provided request and collect the {@link GitHubRepository}s from
+     * each page's body.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page.
+     * @return The {@link GitHubRepository}s from every page, in page order.
+     */
+    default Result<Iterable<GitHubRepository>> getRepositories(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+
+        return Result.create(() ->
+        {
+            final List<GitHubRepository> result = List.create();
+            this.forEachPage(client, firstPageRequest, (GitHubResponse pageResponse) ->
+            {
+                result.addAll(pageResponse.getBodyRepositories().await());
+            }).await();
+            return result;
+        });
+    }
+
+    /**
+     * Fetch each page of the provided request and collect the {@link GitHubRepository}s from
+     * each page's body. Repositories with equal owners share one owner object through the
+     * provided {@link GitHubJSONInterner}, so the returned repositories must not be modified.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page.
+     * @param interner The {@link GitHubJSONInterner} that will deduplicate the owners.
+     * @return The {@link GitHubRepository}s from every page, in page order.
+     */
+    default Result<Iterable<GitHubRepository>> getRepositories(GitHubClient client, GitHubRequest firstPageRequest, GitHubJSONInterner interner)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertNotNull(interner, "interner");
+
+        return Result.create(() ->
+        {
+            final List<GitHubRepository> result = List.create();
+            this.forEachPage(client, firstPageRequest, (GitHubResponse pageResponse) ->
+            {
+                result.addAll(pageResponse.getBodyRepositories(interner).await());
+            }).await();
+            return result;
+        });
+    }
+}
@@ -0,0 +1,399 @@
+package qub;
+
+/**
+ * Remembers where GitHub permanently redirected requests to, so that later requests for the same
+ * path go straight to the canonical location. When a repository is renamed or transferred,
+ * GitHub answers requests for its old owner/name path with a 301 response that points at
+ * /repositories/{id}, and without this cache every lookup by the old path pays for that extra
+ * round trip.
+ * <p>
+ * A {@link BasicGitHubClient} that has a redirect cache follows 301, 302, 307 and 308
+ * responses. Only permanent (301 and 308) redirects are cached. 301 and 302 redirects are only
+ * followed for GET and HEAD requests, and 307 and 308 redirects are only followed for requests
+ * without a body, since a request body can only be sent once. Redirects to a different scheme,
+ * host or port are never followed, because every request carries the client's Authorization
+ * header. Cached locations are only used for (and only recorded from) GET and HEAD requests, and
+ * they expire after the entry lifetime, because a renamed repository's old name can be reused by
+ * a new repository and a mutating request must not be retargeted to the old repository.
+ */
+public class GitHubRedirectCache
+{
+    private final java.util.LinkedHashMap<String,Entry> entries;
+    private Function0<Long> clock;
+    private int maximumEntryCount;
+    private long entryLifetimeMilliseconds;
+    private int maximumRedirectCount;
+    private long hitCount;
+    private long missCount;
+    private long followedCount;
+
+    private GitHubRedirectCache()
+    {
+        // Access order makes the map's first entry the least recently used one.
+        this.entries = new java.util.LinkedHashMap<>(16, 0.75f, true);
+        this.clock = () -> System.nanoTime() / 1000000;
+        this.maximumEntryCount = 1000;
+        this.entryLifetimeMilliseconds = 60 * 60 * 1000;
+        this.maximumRedirectCount = 5;
+    }
+
+    public static GitHubRedirectCache create()
+    {
+        return new GitHubRedirectCache();
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds.
+     * @param clock The function that returns the current time in milliseconds.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRedirectCache setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.clock = clock;
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of locations that this cache will remember.
+     * @return The maximum number of locations that this cache will remember.
+     */
+    public synchronized int getMaximumEntryCount()
+    {
+        return this.maximumEntryCount;
+    }
+
+    /**
+     * Set the maximum number of locations that this cache will remember. When the cache is full,
+     * the least recently used location is forgotten.
+     * @param maximumEntryCount The maximum number of locations that this cache will remember.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRedirectCache setMaximumEntryCount(int maximumEntryCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumEntryCount, 1, "maximumEntryCount");
+
+        this.maximumEntryCount = maximumEntryCount;
+        this.evict();
+
+        return this;
+    }
+
+    /**
+     * Get the number of milliseconds that a cached location is used for.
+     * @return The number of milliseconds that a cached location is used for.
+     */
+    public synchronized long getEntryLifetimeMilliseconds()
+    {
+        return this.entryLifetimeMilliseconds;
+    }
+
+    /**
+     * Set the number of milliseconds that a cached location is used for.
+     * @param entryLifetimeMilliseconds The number of milliseconds that a cached location is used
+     * for.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRedirectCache setEntryLifetimeMilliseconds(long entryLifetimeMilliseconds)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(entryLifetimeMilliseconds, 1L, "entryLifetimeMilliseconds");
+
+        this.entryLifetimeMilliseconds = entryLifetimeMilliseconds;
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of redirects that are followed for one request.
+     * @return The maximum number of redirects that are followed for one request.
+     */
+    public synchronized int getMaximumRedirectCount()
+    {
+        return this.maximumRedirectCount;
+    }
+
+    /**
+     * Set the maximum number of redirects that are followed for one request. When a request is
+     * redirected more times than this, the last redirect response is returned.
+     * @param maximumRedirectCount The maximum number of redirects that are followed for one
+     * request.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRedirectCache setMaximumRedirectCount(int maximumRedirectCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumRedirectCount, 1, "maximumRedirectCount");
+
+        this.maximumRedirectCount = maximumRedirectCount;
+
+        return this;
+    }
+
+    /**
+     * Get the number of locations that this cache currently remembers.
+     * @return The number of locations that this cache currently remembers.
+     */
+    public synchronized int getEntryCount()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Get the number of requests that were sent straight to a cached location.
+     * @return The number of requests that were sent straight to a cached location.
+     */
+    public synchronized long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    /**
+     * Get the number of requests that didn't have a cached location.
+     * @return The number of requests that didn't have a cached location.
+     */
+    public synchronized long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    /**
+     * Get the number of redirect responses that have been followed.
+     * @return The number of redirect responses that have been followed.
+     */
+    public synchronized long getFollowedCount()
+    {
+        return this.followedCount;
+    }
+
+    /**
+     * Get the key that identifies the location that a request is sent to. The key doesn't
+     * include the request's query parameters.
+     * @param baseUrl The base URL that the request is sent to.
+     * @param urlPath The URL path of the request.
+     * @return The key that identifies the location that a request is sent to.
+     */
+    public static String getKey(URL baseUrl, String urlPath)
+    {
+        PreCondition.assertNotNull(baseUrl, "baseUrl");
+        PreCondition.assertNotNullAndNotEmpty(urlPath, "urlPath");
+
+        return baseUrl.toString() + urlPath;
+    }
+
+    /**
+     * Get whether the provided status code is a permanent redirect that can be cached.
+     * @param statusCode The status code.
+     * @return Whether the provided status code is a permanent redirect.
+     */
+    public static boolean isPermanentRedirect(int statusCode)
+    {
+        return statusCode == 301 || statusCode == 308;
+    }
+
+    /**
+     * Get whether the provided request can be sent to a cached location, and whether the
+     * permanent redirects that it follows can be cached. Only GET and HEAD requests use the
+     * cache, since retargeting a mutating request based on an old redirect could apply it to a
+     * different repository than the one that now has the requested name.
+     * @param request The request.
+     * @return Whether the provided request can use the cache.
+     */
+    public static boolean canUseCache(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        final String httpMethod = request.getHttpMethod();
+        return HttpMethod.GET.toString().equalsIgnoreCase(httpMethod) || request.isHeadRequest();
+    }
+
+    /**
+     * Get whether the provided response is a redirect that can be followed for the provided
+     * request.
+     * @param request The request that got the response.
+     * @param response The response to the request.
+     * @return Whether the provided response can be followed.
+     */
+    public static boolean canFollow(GitHubRequest request, GitHubResponse response)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertNotNull(response, "response");
+
+        boolean result = false;
+        if (response.isRedirectResponse() && !Strings.isNullOrEmpty(response.getLocation()))
+        {
+            switch (response.getStatusCode())
+            {
+                case 301:
+                case 302:
+                    result = GitHubRedirectCache.canUseCache(request);
+                    break;
+
+                case 307:
+                case 308:
+                    result = request.getBody() == null;
+                    break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a copy of the provided request that is sent to the provided location instead. The
+     * location's query parameters are added to the request's query parameters.
+     * @param request The request to redirect.
+     * @param baseUrl The base URL that the request was sent to. Relative locations are resolved
+     *                against this.
+     * @param location The location to send the request to.
+     * @return The redirected request, or null if the location isn't a valid URL or if it has a
+     * different scheme, host or port than the provided base URL.
+     */
+    public static GitHubRequest redirect(GitHubRequest request, URL baseUrl, String location)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertNotNull(baseUrl, "baseUrl");
+        PreCondition.assertNotNullAndNotEmpty(location, "location");
+
+        GitHubRequest result = null;
+        try
+        {
+            final java.net.URI baseUri = new java.net.URI(baseUrl.toString());
+            final java.net.URI locationUri = baseUri.resolve(location);
+            // The raw path keeps the location's percent-encoding. Request paths are sent as is,
+            // so decoding it here would change what the path means.
+            final String path = locationUri.getRawPath();
+            if (GitHubRedirectCache.isSameOrigin(baseUri, locationUri) && !Strings.isNullOrEmpty(path))
+            {
+                result = request.clone()
+                    .setBaseUrl(locationUri.getScheme() + "://" + locationUri.getRawAuthority()).await()
+                    .setUrlPath(path);
+                final String query = locationUri.getRawQuery();
+                if (!Strings.isNullOrEmpty(query))
+                {
+                    for (final String queryParameter : query.split("&"))
+                    {
+                        final int equalsIndex = queryParameter.indexOf('=');
+                        final String name = equalsIndex < 0 ? queryParameter : queryParameter.substring(0, equalsIndex);
+                        final String value = equalsIndex < 0 ? "" : queryParameter.substring(equalsIndex + 1);
+                        if (!name.isEmpty())
+                        {
+                            result.setQueryParameter(
+                                java.net.URLDecoder.decode(name, "UTF-8"),
+                                java.net.URLDecoder.decode(value, "UTF-8"));
+                        }
+                    }
+                }
+            }
+        }
+        catch (java.net.URISyntaxException | java.io.UnsupportedEncodingException | IllegalArgumentException e)
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    private static boolean isSameOrigin(java.net.URI baseUri, java.net.URI locationUri)
+    {
+        return locationUri.getScheme() != null &&
+            locationUri.getRawAuthority() != null &&
+            locationUri.getScheme().equalsIgnoreCase(baseUri.getScheme()) &&
+            locationUri.getRawAuthority().equalsIgnoreCase(baseUri.getRawAuthority());
+    }
+
+    /**
+     * Get the cached location for the provided key.
+     * @param key The key of the location that a request would be sent to.
+     * @return The cached location, or null if there isn't one.
+     */
+    public synchronized String getLocation(String key)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+
+        String result = null;
+        final Entry entry = this.entries.get(key);
+        if (entry != null)
+        {
+            if (this.clock.run() < entry.expiresAt)
+            {
+                result = entry.location;
+            }
+            else
+            {
+                this.entries.remove(key);
+            }
+        }
+
+        if (result == null)
+        {
+            ++this.missCount;
+        }
+        else
+        {
+            ++this.hitCount;
+        }
+        return result;
+    }
+
+    /**
+     * Remember that requests for the provided key are permanently redirected to the provided
+     * location.
+     * @param key The key of the location that was redirected.
+     * @param location The location that it was redirected to.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRedirectCache put(String key, String location)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+        PreCondition.assertNotNullAndNotEmpty(location, "location");
+
+        this.entries.put(key, new Entry(location, this.clock.run() + this.entryLifetimeMilliseconds));
+        this.evict();
+
+        return this;
+    }
+
+    /**
+     * Forget the cached location for the provided key.
+     * @param key The key of the location to forget.
+     * @return Whether a location was forgotten.
+     */
+    public synchronized boolean remove(String key)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+
+        return this.entries.remove(key) != null;
+    }
+
+    /**
+     * Record that a redirect response was followed.
+     */
+    public synchronized void onFollowed()
+    {
+        ++this.followedCount;
+    }
+
+    private void evict()
+    {
+        final java.util.Iterator<String> keys = this.entries.keySet().iterator();
+        while (this.entries.size() > this.maximumEntryCount && keys.hasNext())
+        {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * A cached location and the time that it expires.
+     */
+    private static class Entry
+    {
+        private final String location;
+        private final long expiresAt;
+
+        private Entry(String location, long expiresAt)
+        {
+            this.location = location;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
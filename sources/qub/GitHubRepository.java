@@ -5,11 +5,14 @@ package qub;
  */
 public class GitHubRepository extends JSONObjectWrapperBase
 {
-    private static final String namePropertyName = "name";
-    private static final String fullNamePropertyName = "full_name";
-    private static final String ownerPropertyName = "owner";
-    private static final String gitUrlPropertyName = "git_url";
-    private static final String cloneUrlPropertyName = "clone_url";
+    public static final String namePropertyName = "name";
+    public static final String fullNamePropertyName = "full_name";
+    public static final String ownerPropertyName = "owner";
+    public static final String gitUrlPropertyName = "git_url";
+    public static final String cloneUrlPropertyName = "clone_url";
+    public static final String idPropertyName = "id";
+    public static final String pushedAtPropertyName = "pushed_at";
+    public static final String updatedAtPropertyName = "updated_at";
 
     protected GitHubRepository(JSONObject json)
     {
@@ -153,4 +156,85 @@ public class GitHubRepository extends JSONObjectWrapperBase
 
         return this;
     }
+
+    /**
+     * Get the unique identifier of this repository. Unlike the repository's name, this doesn't
+     * change when the repository is renamed or transferred.
+     * @return The unique identifier of this repository.
+     */
+    public Long getId()
+    {
+        return this.toJson().get(GitHubRepository.idPropertyName)
+            .then((JSONSegment idJson) -> new java.math.BigDecimal(idJson.toString()).longValueExact())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the unique identifier of this repository.
+     * @param id The unique identifier of this repository.
+     * @return This object for method chaining.
+     */
+    public GitHubRepository setId(long id)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(id, 0, "id");
+
+        this.toJson().setNumber(GitHubRepository.idPropertyName, id);
+
+        return this;
+    }
+
+    /**
+     * Get the last time that a commit was pushed to this repository.
+     * @return The last time that a commit was pushed to this repository.
+     */
+    public java.time.Instant getPushedAt()
+    {
+        return this.getInstant(GitHubRepository.pushedAtPropertyName);
+    }
+
+    /**
+     * Set the last time that a commit was pushed to this repository.
+     * @param pushedAt The last time that a commit was pushed to this repository.
+     * @return This object for method chaining.
+     */
+    public GitHubRepository setPushedAt(java.time.Instant pushedAt)
+    {
+        PreCondition.assertNotNull(pushedAt, "pushedAt");
+
+        this.toJson().setString(GitHubRepository.pushedAtPropertyName, pushedAt.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the last time that this repository was updated.
+     * @return The last time that this repository was updated.
+     */
+    public java.time.Instant getUpdatedAt()
+    {
+        return this.getInstant(GitHubRepository.updatedAtPropertyName);
+    }
+
+    /**
+     * Set the last time that this repository was updated.
+     * @param updatedAt The last time that this repository was updated.
+     * @return This object for method chaining.
+     */
+    public GitHubRepository setUpdatedAt(java.time.Instant updatedAt)
+    {
+        PreCondition.assertNotNull(updatedAt, "updatedAt");
+
+        this.toJson().setString(GitHubRepository.updatedAtPropertyName, updatedAt.toString());
+
+        return this;
+    }
+
+    private java.time.Instant getInstant(String propertyName)
+    {
+        return this.toJson().getString(propertyName)
+            .then((String instantString) -> java.time.Instant.parse(instantString))
+            .catchError()
+            .await();
+    }
 }
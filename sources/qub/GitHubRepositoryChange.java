@@ -0,0 +1,107 @@
+package qub;
+
+/**
+ * A change to a {@link GitHubRepository} that was found when a {@link GitHubRepositoryInventory}
+ * was synchronized.
+ */
+public class GitHubRepositoryChange
+{
+    /**
+     * The kinds of changes that can be found.
+     */
+    public enum Kind
+    {
+        /**
+         * The repository wasn't in the previous snapshot.
+         */
+        Added,
+        /**
+         * The repository was in the previous snapshot, but its properties have changed.
+         */
+        Changed,
+        /**
+         * The repository was in the previous snapshot, but it is no longer listed.
+         */
+        Removed
+    }
+
+    private final Kind kind;
+    private final long id;
+    private final String fullName;
+    private final GitHubRepository repository;
+
+    private GitHubRepositoryChange(Kind kind, long id, String fullName, GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(kind, "kind");
+
+        this.kind = kind;
+        this.id = id;
+        this.fullName = fullName;
+        this.repository = repository;
+    }
+
+    public static GitHubRepositoryChange added(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+        PreCondition.assertNotNull(repository.getId(), "repository.getId()");
+
+        return new GitHubRepositoryChange(Kind.Added, repository.getId(), repository.getFullName(), repository);
+    }
+
+    public static GitHubRepositoryChange changed(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+        PreCondition.assertNotNull(repository.getId(), "repository.getId()");
+
+        return new GitHubRepositoryChange(Kind.Changed, repository.getId(), repository.getFullName(), repository);
+    }
+
+    public static GitHubRepositoryChange removed(long id, String fullName)
+    {
+        return new GitHubRepositoryChange(Kind.Removed, id, fullName, null);
+    }
+
+    /**
+     * Get the kind of this change.
+     * @return The kind of this change.
+     */
+    public Kind getKind()
+    {
+        return this.kind;
+    }
+
+    /**
+     * Get the id of the repository that changed.
+     * @return The id of the repository that changed.
+     */
+    public long getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Get the full name of the repository that changed. For a removed repository, this is the
+     * full name that the repository had in the previous snapshot.
+     * @return The full name of the repository that changed.
+     */
+    public String getFullName()
+    {
+        return this.fullName;
+    }
+
+    /**
+     * Get the current state of the repository that changed.
+     * @return The current state of the repository that changed, or null if the repository was
+     * removed.
+     */
+    public GitHubRepository getRepository()
+    {
+        return this.repository;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.kind + " " + this.id + (this.fullName == null ? "" : " " + this.fullName);
+    }
+}
@@ -0,0 +1,343 @@
+package qub;
+
+/**
+ * A local snapshot of the {@link GitHubRepository}s that a repository listing returns, keyed by
+ * repository id. Each sync reports the repositories that were added, changed, or removed since
+ * the previous sync. Only a compact fingerprint and the full name of each repository are kept
+ * between syncs, and at most one page of repositories is parsed at a time, so the memory used
+ * doesn't depend on how large the repositories' JSON is.
+ */
+public class GitHubRepositoryInventory
+{
+    private final GitHubClient client;
+    private final GitHubRequest firstPageRequest;
+    private final int pageSize;
+    private final LongObjectMap<Entry> entries;
+    private java.util.ArrayList<Page> pages;
+    private long syncCount;
+    private java.time.Instant lastUpdatedAt;
+
+    private GitHubRepositoryInventory(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+
+        this.client = client;
+        this.firstPageRequest = firstPageRequest;
+        this.pageSize = GitHubRepositoryInventory.getPageSize(firstPageRequest);
+        this.entries = LongObjectMap.create();
+        this.pages = new java.util.ArrayList<>();
+    }
+
+    /**
+     * Get the number of repositories that GitHub will return in each page of the provided
+     * listing request.
+     */
+    private static int getPageSize(GitHubRequest firstPageRequest)
+    {
+        int result = GitHubPagination.defaultPageSize;
+        final String pageSizeText = firstPageRequest.getQueryParameter(GitHubPagination.pageSizeQueryParameterName).catchError().await();
+        if (!Strings.isNullOrEmpty(pageSizeText))
+        {
+            try
+            {
+                result = Integer.parseInt(pageSizeText);
+            }
+            catch (NumberFormatException e)
+            {
+                // GitHub ignores a per_page value that isn't a number.
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a new {@link GitHubRepositoryInventory} of the {@link GitHubRepository}s the
+     * authenticated {@link GitHubUser} has permission to access. The repositories are listed
+     * from oldest to newest so that creating a repository only changes the last page, which lets
+     * the other pages be answered with 304 (Not Modified) responses.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @return The new {@link GitHubRepositoryInventory}.
+     */
+    public static GitHubRepositoryInventory create(GitHubClient client)
+    {
+        return GitHubRepositoryInventory.create(client, GetRepositoriesForAuthenticatedUserParameters.create()
+            .setSort("created")
+            .setDirection("asc")
+            .setPerPage(GetRepositoriesForAuthenticatedUserParameters.maximumPerPage)
+            .createFirstPageRequest());
+    }
+
+    /**
+     * Create a new {@link GitHubRepositoryInventory} of the {@link GitHubRepository}s that the
+     * provided request lists. Listings with a stable order, such as sort=created, get the most
+     * out of the per-page entity tags.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page of repositories.
+     * @return The new {@link GitHubRepositoryInventory}.
+     */
+    public static GitHubRepositoryInventory create(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        return new GitHubRepositoryInventory(client, firstPageRequest);
+    }
+
+    /**
+     * Get the number of repositories in this inventory's snapshot.
+     * @return The number of repositories in this inventory's snapshot.
+     */
+    public int getCount()
+    {
+        return this.entries.getCount();
+    }
+
+    /**
+     * Get whether this inventory's snapshot contains the repository with the provided id.
+     * @param id The id of the repository.
+     * @return Whether this inventory's snapshot contains the repository with the provided id.
+     */
+    public boolean contains(long id)
+    {
+        return this.entries.containsKey(id);
+    }
+
+    /**
+     * Get the full name of the repository with the provided id.
+     * @param id The id of the repository.
+     * @return The full name of the repository, or null if the snapshot doesn't contain it.
+     */
+    public String getFullName(long id)
+    {
+        final Entry entry = this.entries.get(id);
+        return entry == null ? null : entry.fullName;
+    }
+
+    /**
+     * Get the most recent updated_at time of any repository that has been synced.
+     * @return The most recent updated_at time of any repository that has been synced, or null if
+     * no repositories have been synced.
+     */
+    public java.time.Instant getLastUpdatedAt()
+    {
+        return this.lastUpdatedAt;
+    }
+
+    /**
+     * Walk every page of the listing and report every repository that was added, changed, or
+     * removed since the previous sync. Each page is requested with the entity tag from the
+     * previous sync, and pages that GitHub reports as not modified aren't downloaded or parsed.
+     * Removals are only reported once every page has been walked. If the sync fails partway
+     * through, then the additions and changes that were already reported are kept.
+     * @param changeAction The action that will be run for each change.
+     */
+    public Result<Void> sync(Action1<GitHubRepositoryChange> changeAction)
+    {
+        PreCondition.assertNotNull(changeAction, "changeAction");
+
+        return Result.create(() ->
+        {
+            final long syncNumber = ++this.syncCount;
+            final java.util.ArrayList<Page> newPages = new java.util.ArrayList<>(this.pages.size());
+
+            int pageNumber = 1;
+            while (true)
+            {
+                final GitHubRequest pageRequest = pageNumber == 1
+                    ? this.firstPageRequest.clone()
+                    : GitHubPagination.createPageRequest(this.firstPageRequest, pageNumber);
+                final Page previousPage = pageNumber <= this.pages.size() ? this.pages.get(pageNumber - 1) : null;
+                if (previousPage != null && previousPage.eTag != null)
+                {
+                    pageRequest.setIfNoneMatch(previousPage.eTag);
+                }
+
+                final Page page;
+                try (final GitHubResponse pageResponse = this.client.sendRequest(pageRequest).await())
+                {
+                    if (previousPage != null && pageResponse.isNotModifiedResponse())
+                    {
+                        for (final long id : previousPage.ids)
+                        {
+                            final Entry entry = this.entries.get(id);
+                            if (entry != null)
+                            {
+                                entry.lastSeenSyncNumber = syncNumber;
+                            }
+                        }
+
+                        // An unchanged page can still be followed by a new page. When the last
+                        // page was full, a repository that was created since the previous sync
+                        // starts a new page without changing this one, so the next page is
+                        // requested whenever the 304 response's Link header says there is one,
+                        // or this page was full, or (if the response has no Link header) there
+                        // was a next page before.
+                        final boolean hasLinkHeader = pageResponse.getHeaderValue(GitHubLinkHeader.headerName).catchError().await() != null;
+                        final boolean hasNextPage = pageResponse.getLinkHeader().hasNextPage() ||
+                            (!hasLinkHeader && previousPage.hasNextPage) ||
+                            previousPage.ids.length >= this.pageSize;
+                        page = hasNextPage == previousPage.hasNextPage
+                            ? previousPage
+                            : new Page(previousPage.eTag, previousPage.ids, hasNextPage);
+                    }
+                    else
+                    {
+                        pageResponse.throwIfErrorResponse();
+
+                        final Iterable<GitHubRepository> repositories = pageResponse.getBodyRepositories().await();
+                        final long[] ids = new long[repositories.getCount()];
+                        int idCount = 0;
+                        for (final GitHubRepository repository : repositories)
+                        {
+                            if (this.apply(repository, syncNumber, changeAction))
+                            {
+                                ids[idCount++] = repository.getId();
+                            }
+                        }
+                        page = new Page(pageResponse.getETag(), java.util.Arrays.copyOf(ids, idCount), pageResponse.getLinkHeader().hasNextPage());
+                    }
+                }
+
+                newPages.add(page);
+                if (!page.hasNextPage)
+                {
+                    break;
+                }
+                ++pageNumber;
+            }
+            this.pages = newPages;
+
+            for (final long id : this.entries.getKeys())
+            {
+                final Entry entry = this.entries.get(id);
+                if (entry.lastSeenSyncNumber != syncNumber)
+                {
+                    this.entries.remove(id);
+                    changeAction.run(GitHubRepositoryChange.removed(id, entry.fullName));
+                }
+            }
+        });
+    }
+
+    /**
+     * Report the repositories that were added or changed since the most recent updated_at time
+     * that this inventory has seen. The listing is requested with sort=updated and
+     * direction=desc, and no more pages are requested once a repository that was updated before
+     * that time is found. Removed repositories can't be found this way, so a full
+     * {@link #sync(Action1)} is still needed to report removals. If nothing has been synced yet,
+     * then this does a full sync.
+     * @param changeAction The action that will be run for each change.
+     */
+    public Result<Void> syncRecentChanges(Action1<GitHubRepositoryChange> changeAction)
+    {
+        PreCondition.assertNotNull(changeAction, "changeAction");
+
+        return Result.create(() ->
+        {
+            final java.time.Instant updatedAfter = this.lastUpdatedAt;
+            if (updatedAfter == null)
+            {
+                this.sync(changeAction).await();
+            }
+            else
+            {
+                final long syncNumber = this.syncCount;
+                final GitHubRequest firstPageRequest = this.firstPageRequest.clone()
+                    .setQueryParameter("sort", "updated")
+                    .setQueryParameter("direction", "desc");
+                final GitHubRepositoryIterator repositories = GitHubRepositoryIterator.create(this.client, firstPageRequest)
+                    .setStopCondition((GitHubRepository repository) ->
+                    {
+                        final java.time.Instant updatedAt = repository.getUpdatedAt();
+                        return updatedAt == null || updatedAt.isBefore(updatedAfter);
+                    });
+                while (repositories.next())
+                {
+                    this.apply(repositories.getCurrent(), syncNumber, changeAction);
+                }
+            }
+        });
+    }
+
+    /**
+     * Update this inventory's snapshot with the provided repository.
+     * @return Whether the repository had an id and was applied.
+     */
+    private boolean apply(GitHubRepository repository, long syncNumber, Action1<GitHubRepositoryChange> changeAction)
+    {
+        final Long id = repository.getId();
+        final boolean result = (id != null);
+        if (result)
+        {
+            final long fingerprint = GitHubRepositoryInventory.getFingerprint(repository);
+            Entry entry = this.entries.get(id);
+            if (entry == null)
+            {
+                entry = new Entry();
+                entry.fingerprint = fingerprint;
+                entry.fullName = repository.getFullName();
+                this.entries.set(id, entry);
+                changeAction.run(GitHubRepositoryChange.added(repository));
+            }
+            else if (entry.fingerprint != fingerprint)
+            {
+                entry.fingerprint = fingerprint;
+                entry.fullName = repository.getFullName();
+                changeAction.run(GitHubRepositoryChange.changed(repository));
+            }
+            entry.lastSeenSyncNumber = syncNumber;
+
+            final java.time.Instant updatedAt = repository.getUpdatedAt();
+            if (updatedAt != null && (this.lastUpdatedAt == null || updatedAt.isAfter(this.lastUpdatedAt)))
+            {
+                this.lastUpdatedAt = updatedAt;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a 64-bit FNV-1a hash of the provided repository's JSON text.
+     * @param repository The repository to get the fingerprint of.
+     * @return The fingerprint of the provided repository.
+     */
+    static long getFingerprint(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+
+        final String text = repository.toJson().toString();
+        long result = 0xcbf29ce484222325L;
+        final int textLength = text.length();
+        for (int i = 0; i < textLength; ++i)
+        {
+            result ^= text.charAt(i);
+            result *= 0x100000001b3L;
+        }
+        return result;
+    }
+
+    /**
+     * What this inventory remembers about a repository between syncs.
+     */
+    private static class Entry
+    {
+        private long fingerprint;
+        private String fullName;
+        private long lastSeenSyncNumber;
+    }
+
+    /**
+     * What this inventory remembers about a page of the listing between syncs.
+     */
+    private static class Page
+    {
+        private final String eTag;
+        private final long[] ids;
+        private final boolean hasNextPage;
+
+        private Page(String eTag, long[] ids, boolean hasNextPage)
+        {
+            this.eTag = eTag;
+            this.ids = ids;
+            this.hasNextPage = hasNextPage;
+        }
+    }
+}
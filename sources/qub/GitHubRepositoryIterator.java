@@ -0,0 +1,152 @@
+package qub;
+
+/**
+ * An {@link Iterator} that lazily pages through a GitHub endpoint that lists
+ * {@link GitHubRepository}s. A page is only requested once every repository from the previous
+ * page has been iterated over, and no more pages are requested after the stop condition matches
+ * a repository. If a page can't be fetched, then the error is thrown from {@link #next()}, the
+ * iterator is marked as failed, and every later call to {@link #next()} throws the same error
+ * without requesting the page again.
+ */
+public class GitHubRepositoryIterator implements Iterator<GitHubRepository>
+{
+    private final GitHubClient client;
+    private final GitHubRequest firstPageRequest;
+    private final java.util.ArrayDeque<GitHubRepository> pageRepositories;
+    private Function1<GitHubRepository,Boolean> stopCondition;
+    private boolean hasStarted;
+    private GitHubRepository current;
+    private Integer nextPageNumber;
+    private boolean hasMorePages;
+    private RuntimeException error;
+
+    private GitHubRepositoryIterator(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+
+        this.client = client;
+        this.firstPageRequest = firstPageRequest;
+        this.pageRepositories = new java.util.ArrayDeque<>();
+        this.hasMorePages = true;
+    }
+
+    /**
+     * Create a new {@link GitHubRepositoryIterator} that will page through the responses to the
+     * provided request.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page.
+     * @return The new {@link GitHubRepositoryIterator}.
+     */
+    public static GitHubRepositoryIterator create(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        return new GitHubRepositoryIterator(client, firstPageRequest);
+    }
+
+    /**
+     * Set the condition that ends this iteration. When a repository matches this condition, that
+     * repository isn't returned and no more pages are requested.
+     * @param stopCondition The condition that ends this iteration.
+     * @return This object for method chaining.
+     */
+    public GitHubRepositoryIterator setStopCondition(Function1<GitHubRepository,Boolean> stopCondition)
+    {
+        PreCondition.assertNotNull(stopCondition, "stopCondition");
+        PreCondition.assertFalse(this.hasStarted(), "this.hasStarted()");
+
+        this.stopCondition = stopCondition;
+
+        return this;
+    }
+
+    @Override
+    public boolean hasStarted()
+    {
+        return this.hasStarted;
+    }
+
+    @Override
+    public boolean hasCurrent()
+    {
+        return this.current != null;
+    }
+
+    @Override
+    public GitHubRepository getCurrent()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+        return this.current;
+    }
+
+    /**
+     * Get whether fetching a page failed. A failed iterator doesn't request any more pages.
+     * @return Whether fetching a page failed.
+     */
+    public boolean hasFailed()
+    {
+        return this.error != null;
+    }
+
+    @Override
+    public boolean next()
+    {
+        this.hasStarted = true;
+        this.current = null;
+
+        if (this.error != null)
+        {
+            throw this.error;
+        }
+
+        while (this.current == null && (!this.pageRepositories.isEmpty() || this.hasMorePages))
+        {
+            if (this.pageRepositories.isEmpty())
+            {
+                this.fetchNextPage();
+            }
+            else
+            {
+                final GitHubRepository repository = this.pageRepositories.poll();
+                if (this.stopCondition != null && this.stopCondition.run(repository))
+                {
+                    this.pageRepositories.clear();
+                    this.hasMorePages = false;
+                }
+                else
+                {
+                    this.current = repository;
+                }
+            }
+        }
+
+        return this.current != null;
+    }
+
+    private void fetchNextPage()
+    {
+        final GitHubRequest pageRequest = this.nextPageNumber == null
+            ? this.firstPageRequest
+            : GitHubPagination.createPageRequest(this.firstPageRequest, this.nextPageNumber);
+        try (final GitHubResponse pageResponse = this.client.sendRequest(pageRequest).await())
+        {
+            final Iterable<GitHubRepository> repositories = pageResponse.getBodyRepositories().await();
+            final Integer nextPageNumber = pageResponse.getLinkHeader().getNextPageNumber();
+
+            for (final GitHubRepository repository : repositories)
+            {
+                this.pageRepositories.add(repository);
+            }
+            this.nextPageNumber = nextPageNumber;
+            this.hasMorePages = nextPageNumber != null;
+        }
+        catch (RuntimeException e)
+        {
+            // Retrying the page on the next call would hide the failure from a caller that
+            // keeps iterating, so the iterator stays failed instead.
+            this.error = e;
+            this.hasMorePages = false;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package qub;
+
+/**
+ * A search index over the names of cached {@link GitHubRepository}s that answers the prefix and
+ * substring queries that autocompletion needs without scanning every repository. Names are
+ * matched without regard to case.
+ * <p>
+ * Prefix queries use a sorted array that holds both the name and the full name of each
+ * repository, so "hel" finds "octocat/Hello-World" and "octo" finds every repository that
+ * octocat owns. Substring queries use a trigram index over full names: the posting lists for
+ * each three-character sequence in the query are intersected and the remaining candidates are
+ * checked against the query. Queries shorter than three characters can't use the trigram index
+ * and fall back to checking every repository.
+ */
+public class GitHubRepositoryNameIndex
+{
+    private final java.util.HashMap<String,Entry> entriesByFullName;
+    private final java.util.ArrayList<Entry> entries;
+    private final java.util.ArrayDeque<Integer> freeEntryIds;
+    private PrefixEntry[] prefixEntries;
+    private int prefixEntryCount;
+    private final LongObjectMap<IntList> postingLists;
+
+    private GitHubRepositoryNameIndex()
+    {
+        this.entriesByFullName = new java.util.HashMap<>();
+        this.entries = new java.util.ArrayList<>();
+        this.freeEntryIds = new java.util.ArrayDeque<>();
+        this.prefixEntries = new PrefixEntry[16];
+        this.postingLists = LongObjectMap.create();
+    }
+
+    public static GitHubRepositoryNameIndex create()
+    {
+        return new GitHubRepositoryNameIndex();
+    }
+
+    private static String getIndexKey(String value)
+    {
+        return value.toLowerCase(java.util.Locale.ROOT);
+    }
+
+    private static long getTrigram(String key, int startIndex)
+    {
+        return ((long)key.charAt(startIndex) << 32) | ((long)key.charAt(startIndex + 1) << 16) | key.charAt(startIndex + 2);
+    }
+
+    /**
+     * Get the number of repositories in this index.
+     * @return The number of repositories in this index.
+     */
+    public synchronized int getCount()
+    {
+        return this.entriesByFullName.size();
+    }
+
+    /**
+     * Get whether this index contains the repository with the provided full name.
+     * @param fullName The full name of the repository, such as "octocat/Hello-World".
+     * @return Whether this index contains the repository with the provided full name.
+     */
+    public synchronized boolean contains(String fullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullName, "fullName");
+
+        return this.entriesByFullName.containsKey(GitHubRepositoryNameIndex.getIndexKey(fullName));
+    }
+
+    /**
+     * Add the provided repository to this index. If this index already contains a repository
+     * with the same full name, then it is replaced.
+     * @param repository The repository to add. The repository must have a full name.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRepositoryNameIndex add(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+        PreCondition.assertNotNullAndNotEmpty(repository.getFullName(), "repository.getFullName()");
+
+        this.addEntry(repository, true);
+
+        return this;
+    }
+
+    /**
+     * Add each of the provided repositories to this index. Repositories without a full name are
+     * skipped. The prefix array is compacted and sorted once after all of the repositories are
+     * added, so this is much faster than adding the repositories one at a time, including when
+     * most of them replace repositories that are already in this index.
+     * @param repositories The repositories to add.
+     * @return The number of repositories that were added.
+     */
+    public synchronized int addAll(Iterable<GitHubRepository> repositories)
+    {
+        PreCondition.assertNotNull(repositories, "repositories");
+
+        int result = 0;
+        for (final GitHubRepository repository : repositories)
+        {
+            if (repository != null && !Strings.isNullOrEmpty(repository.getFullName()))
+            {
+                this.addEntry(repository, false);
+                ++result;
+            }
+        }
+
+        // Drop the prefix entries of the repositories that were replaced, and then sort the
+        // prefix entries that were appended.
+        int newPrefixEntryCount = 0;
+        for (int i = 0; i < this.prefixEntryCount; ++i)
+        {
+            final PrefixEntry prefixEntry = this.prefixEntries[i];
+            if (this.entries.get(prefixEntry.entry.id) == prefixEntry.entry)
+            {
+                this.prefixEntries[newPrefixEntryCount++] = prefixEntry;
+            }
+        }
+        java.util.Arrays.fill(this.prefixEntries, newPrefixEntryCount, this.prefixEntryCount, null);
+        this.prefixEntryCount = newPrefixEntryCount;
+        java.util.Arrays.sort(this.prefixEntries, 0, this.prefixEntryCount);
+        return result;
+    }
+
+    /**
+     * Add every repository that the provided listing request returns to this index.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page of the listing.
+     * @param pagination The {@link GitHubPagination} that will be used to fetch the pages.
+     * @return The number of repositories that were added.
+     */
+    public Result<Integer> load(GitHubClient client, GitHubRequest firstPageRequest, GitHubPagination pagination)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertNotNull(pagination, "pagination");
+
+        return Result.create(() ->
+        {
+            final java.util.concurrent.atomic.AtomicInteger result = new java.util.concurrent.atomic.AtomicInteger();
+            pagination.forEachPage(client, firstPageRequest, (GitHubResponse pageResponse) ->
+            {
+                result.addAndGet(this.addAll(pageResponse.getBodyRepositories().await()));
+            }).await();
+            return result.get();
+        });
+    }
+
+    /**
+     * Remove the repository with the provided full name from this index.
+     * @param fullName The full name of the repository, such as "octocat/Hello-World".
+     * @return Whether a repository was removed.
+     */
+    public synchronized boolean remove(String fullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullName, "fullName");
+
+        final Entry entry = this.entriesByFullName.remove(GitHubRepositoryNameIndex.getIndexKey(fullName));
+        if (entry != null)
+        {
+            this.removeEntry(entry, true);
+        }
+        return entry != null;
+    }
+
+    /**
+     * Find the repositories whose name or full name starts with the provided prefix, ordered by
+     * the name or full name that matched.
+     * @param prefix The prefix to look for.
+     * @param maximumCount The maximum number of repositories to return.
+     * @return The repositories whose name or full name starts with the provided prefix.
+     */
+    public synchronized Iterable<GitHubRepository> findByPrefix(String prefix, int maximumCount)
+    {
+        PreCondition.assertNotNull(prefix, "prefix");
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+
+        final String prefixKey = GitHubRepositoryNameIndex.getIndexKey(prefix);
+        final java.util.LinkedHashSet<Entry> matches = new java.util.LinkedHashSet<>();
+
+        int low = 0;
+        int high = this.prefixEntryCount;
+        while (low < high)
+        {
+            final int middle = (low + high) >>> 1;
+            if (this.prefixEntries[middle].key.compareTo(prefixKey) < 0)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        for (int i = low; i < this.prefixEntryCount && matches.size() < maximumCount; ++i)
+        {
+            final PrefixEntry prefixEntry = this.prefixEntries[i];
+            if (!prefixEntry.key.startsWith(prefixKey))
+            {
+                break;
+            }
+            matches.add(prefixEntry.entry);
+        }
+
+        return GitHubRepositoryNameIndex.getRepositories(matches);
+    }
+
+    /**
+     * Find the repositories whose full name contains the provided text, ordered by full name.
+     * @param text The text to look for.
+     * @param maximumCount The maximum number of repositories to return.
+     * @return The repositories whose full name contains the provided text.
+     */
+    public synchronized Iterable<GitHubRepository> findBySubstring(String text, int maximumCount)
+    {
+        PreCondition.assertNotNull(text, "text");
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+
+        final String textKey = GitHubRepositoryNameIndex.getIndexKey(text);
+        final java.util.ArrayList<Entry> matches = new java.util.ArrayList<>();
+        if (textKey.length() < 3)
+        {
+            for (final Entry entry : this.entriesByFullName.values())
+            {
+                if (entry.fullNameKey.contains(textKey))
+                {
+                    matches.add(entry);
+                }
+            }
+        }
+        else
+        {
+            final IntList[] postingLists = new IntList[textKey.length() - 2];
+            IntList shortestPostingList = null;
+            for (int i = 0; i < postingLists.length; ++i)
+            {
+                postingLists[i] = this.postingLists.get(GitHubRepositoryNameIndex.getTrigram(textKey, i));
+                if (postingLists[i] == null)
+                {
+                    shortestPostingList = null;
+                    break;
+                }
+                if (shortestPostingList == null || postingLists[i].count < shortestPostingList.count)
+                {
+                    shortestPostingList = postingLists[i];
+                }
+            }
+
+            if (shortestPostingList != null)
+            {
+                for (int i = 0; i < shortestPostingList.count; ++i)
+                {
+                    final int entryId = shortestPostingList.values[i];
+                    boolean isCandidate = true;
+                    for (final IntList postingList : postingLists)
+                    {
+                        if (postingList != shortestPostingList && !postingList.contains(entryId))
+                        {
+                            isCandidate = false;
+                            break;
+                        }
+                    }
+                    if (isCandidate)
+                    {
+                        final Entry entry = this.entries.get(entryId);
+                        if (entry.fullNameKey.contains(textKey))
+                        {
+                            matches.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+
+        matches.sort((Entry lhs, Entry rhs) -> lhs.fullNameKey.compareTo(rhs.fullNameKey));
+        return GitHubRepositoryNameIndex.getRepositories(matches.subList(0, Math.min(maximumCount, matches.size())));
+    }
+
+    private static Iterable<GitHubRepository> getRepositories(java.util.Collection<Entry> entries)
+    {
+        final List<GitHubRepository> result = List.create();
+        for (final Entry entry : entries)
+        {
+            result.add(entry.repository);
+        }
+        return result;
+    }
+
+    /**
+     * Add the provided repository to this index.
+     * @param repository The repository to add.
+     * @param keepPrefixEntriesSorted Whether the prefix array should be kept sorted. If this is
+     *                                false, then the new prefix entries are appended and the
+     *                                replaced repository's prefix entries are left in place, and
+     *                                the caller must compact and sort the prefix array.
+     */
+    private void addEntry(GitHubRepository repository, boolean keepPrefixEntriesSorted)
+    {
+        final String fullNameKey = GitHubRepositoryNameIndex.getIndexKey(repository.getFullName());
+        final Entry previousEntry = this.entriesByFullName.remove(fullNameKey);
+        if (previousEntry != null)
+        {
+            this.removeEntry(previousEntry, keepPrefixEntriesSorted);
+        }
+
+        String name = repository.getName();
+        if (Strings.isNullOrEmpty(name))
+        {
+            name = fullNameKey.substring(fullNameKey.lastIndexOf('/') + 1);
+        }
+
+        final Integer freeEntryId = this.freeEntryIds.poll();
+        final int entryId = freeEntryId != null ? freeEntryId : this.entries.size();
+        final Entry entry = new Entry(entryId, repository, GitHubRepositoryNameIndex.getIndexKey(name), fullNameKey);
+        if (freeEntryId != null)
+        {
+            this.entries.set(entryId, entry);
+        }
+        else
+        {
+            this.entries.add(entry);
+        }
+        this.entriesByFullName.put(fullNameKey, entry);
+
+        this.addPrefixEntry(new PrefixEntry(entry.nameKey, entry), keepPrefixEntriesSorted);
+        if (!entry.nameKey.equals(fullNameKey))
+        {
+            this.addPrefixEntry(new PrefixEntry(fullNameKey, entry), keepPrefixEntriesSorted);
+        }
+
+        for (int i = 0; i + 3 <= fullNameKey.length(); ++i)
+        {
+            final long trigram = GitHubRepositoryNameIndex.getTrigram(fullNameKey, i);
+            IntList postingList = this.postingLists.get(trigram);
+            if (postingList == null)
+            {
+                postingList = new IntList();
+                this.postingLists.set(trigram, postingList);
+            }
+            postingList.add(entryId);
+        }
+    }
+
+    private void addPrefixEntry(PrefixEntry prefixEntry, boolean keepPrefixEntriesSorted)
+    {
+        if (this.prefixEntryCount == this.prefixEntries.length)
+        {
+            this.prefixEntries = java.util.Arrays.copyOf(this.prefixEntries, this.prefixEntryCount * 2);
+        }
+
+        int insertIndex = this.prefixEntryCount;
+        if (keepPrefixEntriesSorted)
+        {
+            final int searchResult = java.util.Arrays.binarySearch(this.prefixEntries, 0, this.prefixEntryCount, prefixEntry);
+            insertIndex = searchResult < 0 ? -(searchResult + 1) : searchResult;
+            System.arraycopy(this.prefixEntries, insertIndex, this.prefixEntries, insertIndex + 1, this.prefixEntryCount - insertIndex);
+        }
+        this.prefixEntries[insertIndex] = prefixEntry;
+        ++this.prefixEntryCount;
+    }
+
+    private void removePrefixEntry(String key, Entry entry)
+    {
+        final int removeIndex = java.util.Arrays.binarySearch(this.prefixEntries, 0, this.prefixEntryCount, new PrefixEntry(key, entry));
+        if (removeIndex >= 0)
+        {
+            System.arraycopy(this.prefixEntries, removeIndex + 1, this.prefixEntries, removeIndex, this.prefixEntryCount - removeIndex - 1);
+            this.prefixEntries[--this.prefixEntryCount] = null;
+        }
+    }
+
+    /**
+     * Remove the provided entry from this index.
+     * @param entry The entry to remove.
+     * @param removePrefixEntries Whether the entry's prefix entries should be removed from the
+     *                            sorted prefix array. If this is false, then the caller must
+     *                            compact the prefix array.
+     */
+    private void removeEntry(Entry entry, boolean removePrefixEntries)
+    {
+        if (removePrefixEntries)
+        {
+            this.removePrefixEntry(entry.nameKey, entry);
+            if (!entry.nameKey.equals(entry.fullNameKey))
+            {
+                this.removePrefixEntry(entry.fullNameKey, entry);
+            }
+        }
+
+        for (int i = 0; i + 3 <= entry.fullNameKey.length(); ++i)
+        {
+            final long trigram = GitHubRepositoryNameIndex.getTrigram(entry.fullNameKey, i);
+            final IntList postingList = this.postingLists.get(trigram);
+            if (postingList != null)
+            {
+                postingList.remove(entry.id);
+                if (postingList.count == 0)
+                {
+                    this.postingLists.remove(trigram);
+                }
+            }
+        }
+
+        this.entries.set(entry.id, null);
+        this.freeEntryIds.push(entry.id);
+    }
+
+    private static class Entry
+    {
+        private final int id;
+        private final GitHubRepository repository;
+        private final String nameKey;
+        private final String fullNameKey;
+
+        private Entry(int id, GitHubRepository repository, String nameKey, String fullNameKey)
+        {
+            this.id = id;
+            this.repository = repository;
+            this.nameKey = nameKey;
+            this.fullNameKey = fullNameKey;
+        }
+    }
+
+    private static class PrefixEntry implements java.lang.Comparable<PrefixEntry>
+    {
+        private final String key;
+        private final Entry entry;
+
+        private PrefixEntry(String key, Entry entry)
+        {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(PrefixEntry other)
+        {
+            int result = this.key.compareTo(other.key);
+            if (result == 0)
+            {
+                result = Integer.compare(this.entry.id, other.entry.id);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A sorted set of entry ids stored in a growable primitive int array.
+     */
+    private static class IntList
+    {
+        private int[] values = new int[4];
+        private int count;
+
+        private boolean contains(int value)
+        {
+            return java.util.Arrays.binarySearch(this.values, 0, this.count, value) >= 0;
+        }
+
+        private void add(int value)
+        {
+            final int searchResult = java.util.Arrays.binarySearch(this.values, 0, this.count, value);
+            if (searchResult < 0)
+            {
+                final int insertIndex = -(searchResult + 1);
+                if (this.count == this.values.length)
+                {
+                    this.values = java.util.Arrays.copyOf(this.values, this.count * 2);
+                }
+                System.arraycopy(this.values, insertIndex, this.values, insertIndex + 1, this.count - insertIndex);
+                this.values[insertIndex] = value;
+                ++this.count;
+            }
+        }
+
+        private void remove(int value)
+        {
+            final int removeIndex = java.util.Arrays.binarySearch(this.values, 0, this.count, value);
+            if (removeIndex >= 0)
+            {
+                System.arraycopy(this.values, removeIndex + 1, this.values, removeIndex, this.count - removeIndex - 1);
+                --this.count;
+            }
+        }
+    }
+}
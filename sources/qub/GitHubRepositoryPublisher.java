@@ -0,0 +1,319 @@
+package qub;
+
+/**
+ * A {@link java.util.concurrent.Flow.Publisher} that pages through a GitHub endpoint that lists
+ * {@link GitHubRepository}s. Pages are only requested as the subscriber's demand requires them:
+ * the next page is fetched whenever the number of buffered repositories drops below the
+ * prefetch watermark, so a slow subscriber never causes more than one page beyond the watermark
+ * to be held in memory.
+ * <p>
+ * Page requests are blocking HTTP calls, so by default they and the subscriber signals run on a
+ * shared pool of daemon threads instead of on the thread that calls
+ * {@link java.util.concurrent.Flow.Subscription#request(long)}. Signals to a subscriber are
+ * always sent from one thread at a time.
+ */
+public class GitHubRepositoryPublisher implements java.util.concurrent.Flow.Publisher<GitHubRepository>
+{
+    /**
+     * The default number of repositories that GitHub will be asked to return in each page.
+     */
+    public static final int defaultPageSize = 100;
+
+    /**
+     * The number of threads in the pool that publishers use when no executor is set.
+     */
+    public static final int defaultExecutorThreadCount = 16;
+
+    private static final java.util.concurrent.ThreadPoolExecutor defaultExecutor = GitHubRepositoryPublisher.createDefaultExecutor();
+
+    private final GitHubClient client;
+    private final GitHubRequest firstPageRequest;
+    private java.util.concurrent.Executor executor;
+    private int prefetchWatermark;
+
+    private GitHubRepositoryPublisher(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+
+        this.client = client;
+        this.firstPageRequest = firstPageRequest;
+        this.executor = GitHubRepositoryPublisher.defaultExecutor;
+        this.prefetchWatermark = GitHubRepositoryPublisher.defaultPageSize / 2;
+    }
+
+    /**
+     * Create a new {@link GitHubRepositoryPublisher} that will page through the responses to the
+     * provided request.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page. Subsequent pages are requested by
+     *                         cloning this request and setting its "page" query parameter.
+     * @return The new {@link GitHubRepositoryPublisher}.
+     */
+    public static GitHubRepositoryPublisher create(GitHubClient client, GitHubRequest firstPageRequest)
+    {
+        return new GitHubRepositoryPublisher(client, firstPageRequest);
+    }
+
+    private static java.util.concurrent.ThreadPoolExecutor createDefaultExecutor()
+    {
+        final java.util.concurrent.ThreadPoolExecutor result = new java.util.concurrent.ThreadPoolExecutor(
+            GitHubRepositoryPublisher.defaultExecutorThreadCount,
+            GitHubRepositoryPublisher.defaultExecutorThreadCount,
+            60,
+            java.util.concurrent.TimeUnit.SECONDS,
+            new java.util.concurrent.LinkedBlockingQueue<>(),
+            (Runnable runnable) ->
+            {
+                final Thread thread = new Thread(runnable, "qub-github-publisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Idle threads exit, so the pool only holds threads while pages are being published.
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Set the {@link java.util.concurrent.Executor} that page requests and subscriber signals
+     * will be run on. By default these are run on a shared pool of
+     * {@link #defaultExecutorThreadCount} daemon threads. Passing an executor that runs tasks
+     * on the calling thread (such as Runnable::run) makes
+     * {@link java.util.concurrent.Flow.Subscription#request(long)} block while pages are
+     * fetched, which the Reactive Streams rules don't allow.
+     * @param executor The {@link java.util.concurrent.Executor} to use.
+     * @return This object for method chaining.
+     */
+    public GitHubRepositoryPublisher setExecutor(java.util.concurrent.Executor executor)
+    {
+        PreCondition.assertNotNull(executor, "executor");
+
+        this.executor = executor;
+
+        return this;
+    }
+
+    /**
+     * Get the number of buffered repositories below which the next page will be fetched.
+     * @return The number of buffered repositories below which the next page will be fetched.
+     */
+    public int getPrefetchWatermark()
+    {
+        return this.prefetchWatermark;
+    }
+
+    /**
+     * Set the number of buffered repositories below which the next page will be fetched.
+     * @param prefetchWatermark The number of buffered repositories below which the next page will
+     *                          be fetched.
+     * @return This object for method chaining.
+     */
+    public GitHubRepositoryPublisher setPrefetchWatermark(int prefetchWatermark)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(prefetchWatermark, 1, "prefetchWatermark");
+
+        this.prefetchWatermark = prefetchWatermark;
+
+        return this;
+    }
+
+    @Override
+    public void subscribe(java.util.concurrent.Flow.Subscriber<? super GitHubRepository> subscriber)
+    {
+        PreCondition.assertNotNull(subscriber, "subscriber");
+
+        final PageSubscription subscription = new PageSubscription(
+            this.client,
+            this.firstPageRequest.clone(),
+            this.executor,
+            this.prefetchWatermark,
+            subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * The state of a single subscriber's traversal of the pages.
+     */
+    private static class PageSubscription implements java.util.concurrent.Flow.Subscription
+    {
+        private final GitHubClient client;
+        private final GitHubRequest firstPageRequest;
+        private final java.util.concurrent.Executor executor;
+        private final int prefetchWatermark;
+        private final java.util.concurrent.Flow.Subscriber<? super GitHubRepository> subscriber;
+
+        /**
+         * The repositories that have been fetched but not yet delivered. This is only accessed
+         * by the drain loop, which never runs on more than one thread at a time.
+         */
+        private final java.util.ArrayDeque<GitHubRepository> buffer;
+        private final java.util.concurrent.atomic.AtomicLong demand;
+        private final java.util.concurrent.atomic.AtomicInteger pendingDrains;
+        private final java.util.concurrent.atomic.AtomicReference<GitHubResponse> inFlightResponse;
+        /**
+         * The error from a call to request() with a non-positive count. The drain loop delivers
+         * it, so that onError() is never called at the same time as another signal.
+         */
+        private final java.util.concurrent.atomic.AtomicReference<Throwable> requestError;
+        private volatile boolean cancelled;
+        private boolean done;
+        private Integer nextPageNumber;
+        private boolean hasMorePages;
+
+        private PageSubscription(GitHubClient client, GitHubRequest firstPageRequest, java.util.concurrent.Executor executor, int prefetchWatermark, java.util.concurrent.Flow.Subscriber<? super GitHubRepository> subscriber)
+        {
+            this.client = client;
+            this.firstPageRequest = firstPageRequest;
+            this.executor = executor;
+            this.prefetchWatermark = prefetchWatermark;
+            this.subscriber = subscriber;
+
+            this.buffer = new java.util.ArrayDeque<>();
+            this.demand = new java.util.concurrent.atomic.AtomicLong();
+            this.pendingDrains = new java.util.concurrent.atomic.AtomicInteger();
+            this.inFlightResponse = new java.util.concurrent.atomic.AtomicReference<>();
+            this.requestError = new java.util.concurrent.atomic.AtomicReference<>();
+            this.hasMorePages = true;
+        }
+
+        @Override
+        public void request(long n)
+        {
+            if (n <= 0)
+            {
+                if (!this.cancelled && this.requestError.compareAndSet(null, new java.lang.IllegalArgumentException("The number of requested repositories (" + n + ") must be greater than 0.")))
+                {
+                    this.scheduleDrain();
+                }
+            }
+            else if (!this.cancelled && this.requestError.get() == null)
+            {
+                this.demand.getAndUpdate((long currentDemand) ->
+                {
+                    final long result = currentDemand + n;
+                    return result < 0 ? Long.MAX_VALUE : result;
+                });
+                this.scheduleDrain();
+            }
+        }
+
+        @Override
+        public void cancel()
+        {
+            this.cancelled = true;
+
+            final GitHubResponse response = this.inFlightResponse.getAndSet(null);
+            if (response != null)
+            {
+                response.dispose().catchError().await();
+            }
+        }
+
+        private void scheduleDrain()
+        {
+            if (this.pendingDrains.getAndIncrement() == 0)
+            {
+                this.executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Deliver buffered repositories and fetch pages until either the subscriber's demand is
+         * met and the buffer is above the prefetch watermark, or there are no more repositories.
+         * Calls to request() that happen while this is running are picked up before it returns.
+         */
+        private void drain()
+        {
+            int missedDrains = 1;
+            while (true)
+            {
+                while (!this.cancelled && !this.done)
+                {
+                    while (!this.cancelled && this.requestError.get() == null && this.demand.get() > 0 && !this.buffer.isEmpty())
+                    {
+                        this.demand.decrementAndGet();
+                        this.subscriber.onNext(this.buffer.poll());
+                    }
+
+                    final Throwable requestError = this.requestError.get();
+                    if (this.cancelled)
+                    {
+                        this.buffer.clear();
+                    }
+                    else if (requestError != null)
+                    {
+                        // A subscription that signalled onError() is cancelled (rule 3.9).
+                        this.done = true;
+                        this.cancelled = true;
+                        this.buffer.clear();
+                        this.subscriber.onError(requestError);
+                    }
+                    else if (this.buffer.isEmpty() && !this.hasMorePages)
+                    {
+                        this.done = true;
+                        this.subscriber.onComplete();
+                    }
+                    else if (this.hasMorePages && this.buffer.size() < this.prefetchWatermark)
+                    {
+                        try
+                        {
+                            this.fetchNextPage();
+                        }
+                        catch (Throwable error)
+                        {
+                            this.done = true;
+                            this.buffer.clear();
+                            if (!this.cancelled)
+                            {
+                                this.subscriber.onError(error);
+                            }
+                        }
+                    }
+                    else
+                    {
+                        break;
+                    }
+                }
+
+                missedDrains = this.pendingDrains.addAndGet(-missedDrains);
+                if (missedDrains == 0)
+                {
+                    break;
+                }
+            }
+        }
+
+        private void fetchNextPage()
+        {
+            final GitHubRequest pageRequest = this.firstPageRequest.clone();
+            if (this.nextPageNumber != null)
+            {
+                pageRequest.setQueryParameter(GitHubPagination.pageQueryParameterName, this.nextPageNumber);
+            }
+
+            final GitHubResponse response = this.client.sendRequest(pageRequest).await();
+            this.inFlightResponse.set(response);
+            try
+            {
+                if (!this.cancelled)
+                {
+                    final Iterable<GitHubRepository> repositories = response.getBodyRepositories().await();
+                    for (final GitHubRepository repository : repositories)
+                    {
+                        this.buffer.add(repository);
+                    }
+
+                    this.nextPageNumber = response.getLinkHeader().getNextPageNumber();
+                    this.hasMorePages = this.nextPageNumber != null;
+                }
+            }
+            finally
+            {
+                if (this.inFlightResponse.compareAndSet(response, null))
+                {
+                    response.dispose().catchError().await();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package qub;
+
+/**
+ * An in-memory store of {@link GitHubRepository}s keyed by repository id, with secondary
+ * indexes by full name and by owner login. Full names and owner logins are matched without
+ * regard to case, the same way that GitHub matches them.
+ */
+public class GitHubRepositoryStore
+{
+    private final LongObjectMap<Entry> entriesById;
+    private final java.util.HashMap<String,GitHubRepository> repositoriesByFullName;
+    private final java.util.HashMap<String,LongList> repositoryIdsByOwnerLogin;
+
+    private GitHubRepositoryStore()
+    {
+        this.entriesById = LongObjectMap.create();
+        this.repositoriesByFullName = new java.util.HashMap<>();
+        this.repositoryIdsByOwnerLogin = new java.util.HashMap<>();
+    }
+
+    public static GitHubRepositoryStore create()
+    {
+        return new GitHubRepositoryStore();
+    }
+
+    private static String getIndexKey(String value)
+    {
+        return value.toLowerCase(java.util.Locale.ROOT);
+    }
+
+    private static String getOwnerLogin(GitHubRepository repository)
+    {
+        final GitHubUser owner = repository.getOwner();
+        return owner == null ? null : owner.getLogin();
+    }
+
+    /**
+     * Get the number of repositories in this store.
+     * @return The number of repositories in this store.
+     */
+    public int getCount()
+    {
+        return this.entriesById.getCount();
+    }
+
+    /**
+     * Get whether this store contains the repository with the provided id.
+     * @param id The id of the repository.
+     * @return Whether this store contains the repository with the provided id.
+     */
+    public boolean contains(long id)
+    {
+        return this.entriesById.containsKey(id);
+    }
+
+    /**
+     * Add the provided repository to this store. If this store already contains a repository
+     * with the same id, then it is replaced.
+     * @param repository The repository to add. The repository must have an id.
+     * @return This object for method chaining.
+     */
+    public GitHubRepositoryStore add(GitHubRepository repository)
+    {
+        PreCondition.assertNotNull(repository, "repository");
+        PreCondition.assertNotNull(repository.getId(), "repository.getId()");
+
+        final long id = repository.getId();
+        final Entry entry = new Entry(repository);
+        final Entry previousEntry = this.entriesById.set(id, entry);
+        if (previousEntry != null)
+        {
+            this.removeFromIndexes(previousEntry);
+        }
+
+        final String fullName = repository.getFullName();
+        if (fullName != null)
+        {
+            entry.fullNameKey = GitHubRepositoryStore.getIndexKey(fullName);
+            this.repositoriesByFullName.put(entry.fullNameKey, repository);
+        }
+        final String ownerLogin = GitHubRepositoryStore.getOwnerLogin(repository);
+        if (ownerLogin != null)
+        {
+            entry.ownerLoginKey = GitHubRepositoryStore.getIndexKey(ownerLogin);
+            final LongList ownerIds = this.repositoryIdsByOwnerLogin.computeIfAbsent(entry.ownerLoginKey, (String key) -> new LongList());
+            entry.ownerIndex = ownerIds.count;
+            ownerIds.add(id);
+        }
+
+        return this;
+    }
+
+    /**
+     * Add each of the provided repositories to this store. Repositories without an id are
+     * skipped.
+     * @param repositories The repositories to add.
+     * @return The number of repositories that were added.
+     */
+    public int addAll(Iterable<GitHubRepository> repositories)
+    {
+        PreCondition.assertNotNull(repositories, "repositories");
+
+        int result = 0;
+        for (final GitHubRepository repository : repositories)
+        {
+            if (repository != null && repository.getId() != null)
+            {
+                this.add(repository);
+                ++result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add every repository that the provided listing request returns to this store.
+     * @param client The {@link GitHubClient} that will send the page requests.
+     * @param firstPageRequest The request for the first page of the listing.
+     * @param pagination The {@link GitHubPagination} that will be used to fetch the pages.
+     * @return The number of repositories that were added.
+     */
+    public Result<Integer> load(GitHubClient client, GitHubRequest firstPageRequest, GitHubPagination pagination)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertNotNull(pagination, "pagination");
+
+        return Result.create(() ->
+        {
+            final java.util.concurrent.atomic.AtomicInteger result = new java.util.concurrent.atomic.AtomicInteger();
+            pagination.forEachPage(client, firstPageRequest, (GitHubResponse pageResponse) ->
+            {
+                final Iterable<GitHubRepository> pageRepositories = pageResponse.getBodyRepositories().await();
+                this.entriesById.ensureCapacity(this.getCount() + pageRepositories.getCount());
+                result.addAndGet(this.addAll(pageRepositories));
+            }).await();
+            return result.get();
+        });
+    }
+
+    /**
+     * Get the repository with the provided id.
+     * @param id The id of the repository.
+     * @return The repository with the provided id.
+     */
+    public Result<GitHubRepository> get(long id)
+    {
+        return Result.create(() ->
+        {
+            final Entry entry = this.entriesById.get(id);
+            if (entry == null)
+            {
+                throw new NotFoundException("No repository found with the id " + id + ".");
+            }
+            return entry.repository;
+        });
+    }
+
+    /**
+     * Get the repository with the provided full name, such as "octocat/Hello-World".
+     * @param fullName The full name of the repository.
+     * @return The repository with the provided full name.
+     */
+    public Result<GitHubRepository> getByFullName(String fullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullName, "fullName");
+
+        return Result.create(() ->
+        {
+            final GitHubRepository repository = this.repositoriesByFullName.get(GitHubRepositoryStore.getIndexKey(fullName));
+            if (repository == null)
+            {
+                throw new NotFoundException("No repository found with the full name " + Strings.escapeAndQuote(fullName) + ".");
+            }
+            return repository;
+        });
+    }
+
+    /**
+     * Get the repositories that are owned by the user or organization with the provided login.
+     * @param ownerLogin The login of the owner.
+     * @return The repositories that are owned by the provided owner.
+     */
+    public Iterable<GitHubRepository> getByOwner(String ownerLogin)
+    {
+        PreCondition.assertNotNullAndNotEmpty(ownerLogin, "ownerLogin");
+
+        final List<GitHubRepository> result = List.create();
+        final LongList ids = this.repositoryIdsByOwnerLogin.get(GitHubRepositoryStore.getIndexKey(ownerLogin));
+        if (ids != null)
+        {
+            for (int i = 0; i < ids.count; ++i)
+            {
+                result.add(this.entriesById.get(ids.values[i]).repository);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove the repository with the provided id.
+     * @param id The id of the repository to remove.
+     * @return The repository that was removed.
+     */
+    public Result<GitHubRepository> remove(long id)
+    {
+        return Result.create(() ->
+        {
+            final Entry entry = this.entriesById.remove(id);
+            if (entry == null)
+            {
+                throw new NotFoundException("No repository found with the id " + id + ".");
+            }
+            this.removeFromIndexes(entry);
+            return entry.repository;
+        });
+    }
+
+    /**
+     * Remove the provided entry from the full name and owner indexes. The keys that the entry
+     * was indexed under are used rather than the repository's current properties, because the
+     * repository may have been modified since it was added.
+     */
+    private void removeFromIndexes(Entry entry)
+    {
+        if (entry.fullNameKey != null && this.repositoriesByFullName.get(entry.fullNameKey) == entry.repository)
+        {
+            this.repositoriesByFullName.remove(entry.fullNameKey);
+        }
+        if (entry.ownerLoginKey != null)
+        {
+            final LongList ids = this.repositoryIdsByOwnerLogin.get(entry.ownerLoginKey);
+            if (ids != null && entry.ownerIndex >= 0)
+            {
+                // Move the owner's last id into the removed id's position, and tell the moved
+                // id's entry where it is now, so that removal doesn't have to search the list.
+                final long movedId = ids.values[--ids.count];
+                if (entry.ownerIndex < ids.count)
+                {
+                    ids.values[entry.ownerIndex] = movedId;
+                    this.entriesById.get(movedId).ownerIndex = entry.ownerIndex;
+                }
+                entry.ownerIndex = -1;
+                if (ids.count == 0)
+                {
+                    this.repositoryIdsByOwnerLogin.remove(entry.ownerLoginKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * A repository in this store, the keys that it was indexed under, and the position of its id
+     * in its owner's id list.
+     */
+    private static class Entry
+    {
+        private final GitHubRepository repository;
+        private String fullNameKey;
+        private String ownerLoginKey;
+        private int ownerIndex;
+
+        private Entry(GitHubRepository repository)
+        {
+            this.repository = repository;
+            this.ownerIndex = -1;
+        }
+    }
+
+    /**
+     * A growable array of primitive longs. Values are removed by moving the last value into the
+     * removed value's position, so the order of the values isn't preserved.
+     */
+    private static class LongList
+    {
+        private long[] values = new long[4];
+        private int count;
+
+        private void add(long value)
+        {
+            if (this.count == this.values.length)
+            {
+                this.values = java.util.Arrays.copyOf(this.values, this.count * 2);
+            }
+            this.values[this.count++] = value;
+        }
+    }
+}
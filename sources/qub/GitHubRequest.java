@@ -2,16 +2,53 @@ package qub;
 
 public class GitHubRequest
 {
+    /**
+     * The priorities that a request can be sent with.
+     */
+    public enum Priority
+    {
+        /**
+         * A request that someone is waiting on, such as a request made for a user interface.
+         * Interactive requests are sent before background requests and can use the part of the
+         * rate limit that is reserved for them.
+         */
+        Interactive,
+        /**
+         * A request made by bulk or scheduled work that can wait for interactive requests.
+         */
+        Background
+    }
+
+    /**
+     * The HTTP method for requests that only want a response's status code and headers.
+     */
+    public static final String headHttpMethod = "HEAD";
+
+    private static final ThreadLocal<JSONBodyEncoder> bodyEncoders = ThreadLocal.withInitial(JSONBodyEncoder::create);
+    /**
+     * The headers that every new request starts with. They are read-only because every request
+     * shares them until it sets its first header.
+     */
+    private static final HttpHeaders emptyHeaders = ReadOnlyHttpHeaders.create(HttpHeaders.create());
+
     private String httpMethod;
     private URL baseUrl;
     private String urlPath;
-    private final MutableHttpHeaders httpHeaders;
+    private String routeKey;
+    private MutableMap<String,String> queryParameters;
+    private HttpHeaders httpHeaders;
+    private boolean httpHeadersShared;
     private long bodyLength;
     private ByteReadStream body;
+    private java.time.Instant deadline;
+    private Priority priority;
+    private String tenant;
 
     protected GitHubRequest()
     {
-        this.httpHeaders = HttpHeaders.create();
+        this.httpHeaders = GitHubRequest.emptyHeaders;
+        this.httpHeadersShared = true;
+        this.priority = Priority.Interactive;
     }
 
     public static GitHubRequest create()
@@ -35,11 +72,27 @@ public class GitHubRequest
         {
             result.setUrlPath(this.urlPath);
         }
-        result.setHeaders(this.httpHeaders);
+        result.routeKey = this.routeKey;
+        if (this.queryParameters != null)
+        {
+            for (final MapEntry<String,String> queryParameter : this.queryParameters)
+            {
+                result.setQueryParameter(queryParameter.getKey(), queryParameter.getValue());
+            }
+        }
+        // The headers are shared until either request modifies them.
+        result.httpHeaders = this.httpHeaders;
+        result.httpHeadersShared = true;
+        this.httpHeadersShared = true;
         if (this.body != null)
         {
             result.setBody(this.bodyLength, body);
         }
+        // Requests that are cloned for pagination and retries must finish within the original
+        // request's deadline.
+        result.deadline = this.deadline;
+        result.priority = this.priority;
+        result.tenant = this.tenant;
 
         PostCondition.assertNotNull(result, "result");
 
@@ -67,6 +120,16 @@ public class GitHubRequest
         return this.setHttpMethod(httpMethod.toString());
     }
 
+    /**
+     * Get whether this is a HEAD request. GitHub doesn't send a body in the response to a HEAD
+     * request, so its response only has a status code and headers.
+     * @return Whether this is a HEAD request.
+     */
+    public boolean isHeadRequest()
+    {
+        return GitHubRequest.headHttpMethod.equalsIgnoreCase(this.httpMethod);
+    }
+
     public URL getBaseUrl()
     {
         return this.baseUrl;
@@ -96,15 +159,104 @@ public class GitHubRequest
         return this.urlPath;
     }
 
+    /**
+     * Set the URL path of this request. The path must already be percent-encoded, since it is
+     * sent as is.
+     * @param urlPath The percent-encoded URL path of this request.
+     * @return This object for method chaining.
+     */
     public GitHubRequest setUrlPath(String urlPath)
     {
         PreCondition.assertNotNullAndNotEmpty(urlPath, "urlPath");
 
         this.urlPath = urlPath;
+        this.routeKey = null;
+
+        return this;
+    }
+
+    /**
+     * Set the URL path of this request by expanding the provided {@link GitHubRoute} with the
+     * provided parameter values. The route's template will be used as this request's route key.
+     * @param route The {@link GitHubRoute} that this request targets.
+     * @param parameterValues The values for the route's parameters.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setRoute(GitHubRoute route, String... parameterValues)
+    {
+        PreCondition.assertNotNull(route, "route");
+        PreCondition.assertNotNull(parameterValues, "parameterValues");
+
+        final String urlPath = route.expand(parameterValues);
+        this.urlPath = urlPath;
+        this.routeKey = route.getTemplate();
 
         return this;
     }
 
+    /**
+     * Get a normalized key that identifies the endpoint that this request targets without any
+     * of its parameter values. If this request's URL path was set from a {@link GitHubRoute},
+     * then this will be the route's template. Otherwise this will be the URL path itself.
+     * @return The normalized key that identifies the endpoint that this request targets.
+     */
+    public String getRouteKey()
+    {
+        return this.routeKey != null ? this.routeKey : this.urlPath;
+    }
+
+    /**
+     * Get the query parameters that will be added to this request's URL.
+     * @return The query parameters that will be added to this request's URL.
+     */
+    public Map<String,String> getQueryParameters()
+    {
+        return this.queryParameters != null ? this.queryParameters : Map.create();
+    }
+
+    /**
+     * Get the value of the query parameter with the provided name.
+     * @param queryParameterName The name of the query parameter.
+     * @return The value of the query parameter with the provided name.
+     */
+    public Result<String> getQueryParameter(String queryParameterName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(queryParameterName, "queryParameterName");
+
+        return this.getQueryParameters().get(queryParameterName);
+    }
+
+    /**
+     * Set a query parameter that will be added to this request's URL.
+     * @param queryParameterName The name of the query parameter.
+     * @param queryParameterValue The value of the query parameter.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setQueryParameter(String queryParameterName, String queryParameterValue)
+    {
+        PreCondition.assertNotNullAndNotEmpty(queryParameterName, "queryParameterName");
+        PreCondition.assertNotNull(queryParameterValue, "queryParameterValue");
+
+        if (this.queryParameters == null)
+        {
+            this.queryParameters = Map.create();
+        }
+        this.queryParameters.set(queryParameterName, queryParameterValue);
+
+        return this;
+    }
+
+    /**
+     * Set a query parameter that will be added to this request's URL.
+     * @param queryParameterName The name of the query parameter.
+     * @param queryParameterValue The value of the query parameter.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setQueryParameter(String queryParameterName, int queryParameterValue)
+    {
+        return this.setQueryParameter(queryParameterName, Integer.toString(queryParameterValue));
+    }
+
     public HttpHeaders getHeaders()
     {
         return this.httpHeaders;
@@ -115,23 +267,145 @@ public class GitHubRequest
         return this.httpHeaders.getValue(headerName);
     }
 
+    /**
+     * Get the headers of this request so that they can be modified. If the headers are currently
+     * shared with another request (or are the shared empty headers), then they will be copied
+     * first.
+     * @return The headers of this request that can be modified.
+     */
+    private MutableHttpHeaders getMutableHeaders()
+    {
+        if (this.httpHeadersShared)
+        {
+            final MutableHttpHeaders headersCopy = HttpHeaders.create();
+            headersCopy.setAll(this.httpHeaders);
+            this.httpHeaders = headersCopy;
+            this.httpHeadersShared = false;
+        }
+        return (MutableHttpHeaders)this.httpHeaders;
+    }
+
     public GitHubRequest setHeader(String headerName, String headerValue)
     {
-        this.httpHeaders.set(headerName, headerValue);
+        this.getMutableHeaders().set(headerName, headerValue);
 
         return this;
     }
 
     public GitHubRequest setHeader(String headerName, int headerValue)
     {
-        this.httpHeaders.set(headerName, headerValue);
+        this.getMutableHeaders().set(headerName, headerValue);
 
         return this;
     }
 
     public GitHubRequest setHeader(String headerName, long headerValue)
     {
-        this.httpHeaders.set(headerName, headerValue);
+        this.getMutableHeaders().set(headerName, headerValue);
+
+        return this;
+    }
+
+    /**
+     * Make this a conditional request that GitHub will answer with a 304 (Not Modified) response
+     * if the requested resource still has the provided entity tag.
+     * @param eTag The entity tag from a previous response for the same resource.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setIfNoneMatch(String eTag)
+    {
+        PreCondition.assertNotNullAndNotEmpty(eTag, "eTag");
+
+        return this.setHeader("If-None-Match", eTag);
+    }
+
+    /**
+     * Get the time by which this request's response, including its body, must be received.
+     * @return The time by which this request's response must be received, or null if this
+     * request doesn't have a deadline.
+     */
+    public java.time.Instant getDeadline()
+    {
+        return this.deadline;
+    }
+
+    /**
+     * Set the time by which this request's response, including its body, must be received. If
+     * the deadline passes first, then sending the request fails with a
+     * {@link GitHubDeadlineExceededException}. The caller is released at the deadline, but an
+     * exchange that is still waiting for its response headers can't be cancelled, so it keeps a
+     * thread and a connection until the server responds or the connection fails (see
+     * {@link BasicGitHubClient#maximumDeadlineSendThreadCount}).
+     * @param deadline The time by which this request's response must be received.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setDeadline(java.time.Instant deadline)
+    {
+        PreCondition.assertNotNull(deadline, "deadline");
+
+        this.deadline = deadline;
+
+        return this;
+    }
+
+    /**
+     * Set this request's deadline to the provided duration from now.
+     * @param timeout The amount of time that this request's response can take to be received.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setTimeout(java.time.Duration timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertGreaterThan(timeout.toMillis(), 0L, "timeout.toMillis()");
+
+        return this.setDeadline(java.time.Instant.now().plus(timeout));
+    }
+
+    /**
+     * Get the priority that this request will be sent with. Requests are
+     * {@link Priority#Interactive} unless they are set to something else.
+     * @return The priority that this request will be sent with.
+     */
+    public Priority getPriority()
+    {
+        return this.priority;
+    }
+
+    /**
+     * Set the priority that this request will be sent with.
+     * @param priority The priority that this request will be sent with.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setPriority(Priority priority)
+    {
+        PreCondition.assertNotNull(priority, "priority");
+
+        this.priority = priority;
+
+        return this;
+    }
+
+    /**
+     * Get the tag of the tenant that this request is being sent for. Requests from different
+     * tenants are queued fairly against each other by a {@link GitHubRequestScheduler}.
+     * @return The tag of the tenant that this request is being sent for, or null if this request
+     * hasn't been tagged.
+     */
+    public String getTenant()
+    {
+        return this.tenant;
+    }
+
+    /**
+     * Set the tag of the tenant that this request is being sent for.
+     * @param tenant The tag of the tenant that this request is being sent for.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setTenant(String tenant)
+    {
+        PreCondition.assertNotNullAndNotEmpty(tenant, "tenant");
+
+        this.tenant = tenant;
 
         return this;
     }
@@ -145,7 +419,7 @@ public class GitHubRequest
 
     public GitHubRequest setHeaders(Iterable<HttpHeader> headers)
     {
-        this.httpHeaders.setAll(headers);
+        this.getMutableHeaders().setAll(headers);
 
         return this;
     }
@@ -184,17 +458,69 @@ public class GitHubRequest
         });
     }
 
+    /**
+     * Set the body of this request to be the provided bytes. The bytes are not copied, so they
+     * must not be modified after they have been given to this request.
+     * @param body The bytes of the body.
+     * @return This object for method chaining.
+     */
+    public GitHubRequest setBody(byte[] body)
+    {
+        PreCondition.assertNotNull(body, "body");
+
+        return this.setBody(body.length, InMemoryByteStream.create(body).endOfStream());
+    }
+
     public Result<? extends GitHubRequest> setBody(JSONObject bodyJson)
     {
         PreCondition.assertNotNull(bodyJson, "bodyJson");
 
-        return this.setBody(bodyJson.toString());
+        return this.setBodyJson(bodyJson);
     }
 
     public Result<? extends GitHubRequest> setBody(JSONArray bodyJson)
     {
         PreCondition.assertNotNull(bodyJson, "bodyJson");
 
-        return this.setBody(bodyJson.toString());
+        return this.setBodyJson(bodyJson);
+    }
+
+    /**
+     * Set the body of this request to be the JSON representation of the provided parameters
+     * object.
+     * @param parameters The parameters object to write to the body of this request.
+     * @return This object for method chaining.
+     */
+    public Result<? extends GitHubRequest> setBody(JSONObjectWrapperBase parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return this.setBodyJson(parameters.toJson());
+    }
+
+    /**
+     * Encode the provided JSON directly into UTF-8 bytes using this thread's reusable
+     * {@link JSONBodyEncoder}. This avoids creating the JSON text as a {@link String} and then
+     * re-encoding it into a growing stream, so the only allocation that is proportional to the
+     * body's size is the final byte array.
+     * @param bodyJson The JSON to write to the body of this request.
+     * @return This object for method chaining.
+     */
+    private Result<? extends GitHubRequest> setBodyJson(JSONSegment bodyJson)
+    {
+        return Result.create(() ->
+        {
+            final JSONBodyEncoder encoder = GitHubRequest.bodyEncoders.get();
+            final byte[] bodyBytes;
+            try
+            {
+                bodyBytes = encoder.encode(bodyJson).toByteArray();
+            }
+            finally
+            {
+                encoder.clear();
+            }
+            return this.setBody(bodyBytes);
+        });
     }
 }
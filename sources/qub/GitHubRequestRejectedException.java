@@ -0,0 +1,46 @@
+package qub;
+
+/**
+ * An exception that is thrown instead of sending a request when a {@link GitHubRequestScheduler}
+ * sheds the request because its tenant already has too many requests waiting.
+ */
+public class GitHubRequestRejectedException extends RuntimeException
+{
+    private final String tenant;
+    private final int maximumQueueDepth;
+
+    public GitHubRequestRejectedException(String tenant, int maximumQueueDepth)
+    {
+        super(GitHubRequestRejectedException.getMessage(tenant, maximumQueueDepth));
+
+        this.tenant = tenant;
+        this.maximumQueueDepth = maximumQueueDepth;
+    }
+
+    private static String getMessage(String tenant, int maximumQueueDepth)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+        PreCondition.assertGreaterThanOrEqualTo(maximumQueueDepth, 0, "maximumQueueDepth");
+
+        return "The request was rejected because the queue for the tenant " + Strings.escapeAndQuote(tenant) + " already has " + maximumQueueDepth + " waiting requests.";
+    }
+
+    /**
+     * Get the tenant whose queue was full. Requests that weren't tagged with a tenant share the
+     * empty tenant.
+     * @return The tenant whose queue was full.
+     */
+    public String getTenant()
+    {
+        return this.tenant;
+    }
+
+    /**
+     * Get the number of requests that the tenant's queue can hold.
+     * @return The number of requests that the tenant's queue can hold.
+     */
+    public int getMaximumQueueDepth()
+    {
+        return this.maximumQueueDepth;
+    }
+}
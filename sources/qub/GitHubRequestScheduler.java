@@ -0,0 +1,705 @@
+package qub;
+
+/**
+ * Decides the order in which requests that share a {@link GitHubClient} (and so share its
+ * access token's rate limit) are sent. Interactive requests are always dispatched before
+ * background requests that are waiting, and a part of the client's concurrent request slots and
+ * of the rate limit is reserved for interactive requests. Background requests wait while the
+ * number of requests left in the rate limit window is at or below the reserved part, until the
+ * window resets.
+ * <p>
+ * The rate limit is learned from the X-RateLimit headers of the responses that are passed to
+ * {@link Permit#onResponse(GitHubResponse)}. Until a response with those headers has been seen,
+ * only the concurrent request slots are reserved.
+ * <p>
+ * Within each priority, requests are dispatched by weighted fair queuing across the tenants
+ * that they are tagged with (see {@link GitHubRequest#setTenant(String)}), so a tenant with a
+ * large bulk job can't starve the other tenants. Each request is given a virtual finish time
+ * that advances by one divided by its tenant's weight, and the waiting request with the
+ * earliest virtual finish time goes first. Each tenant can also be limited to a number of
+ * requests in flight, and requests are rejected with a {@link GitHubRequestRejectedException}
+ * when their tenant already has its maximum number of requests waiting. Requests that aren't
+ * tagged with a tenant share the empty tenant.
+ */
+public class GitHubRequestScheduler
+{
+    private final java.util.TreeSet<Ticket> waiting;
+    private final java.util.HashMap<String,Tenant> tenants;
+    private Function0<Long> clock;
+    private int maximumConcurrentRequests;
+    private double interactiveReservedFraction;
+    private int inFlightCount;
+    private Long rateLimitLimit;
+    private Long rateLimitRemaining;
+    private long rateLimitResetMilliseconds;
+    private long interactiveDispatchedCount;
+    private long backgroundDispatchedCount;
+    private long backgroundQuotaWaitCount;
+    private int defaultTenantMaximumInFlightCount;
+    private int defaultTenantMaximumQueueDepth;
+    private double virtualTime;
+    private long nextSequence;
+    private long rejectedCount;
+
+    private GitHubRequestScheduler()
+    {
+        this.waiting = new java.util.TreeSet<>();
+        this.tenants = new java.util.HashMap<>();
+        this.clock = System::currentTimeMillis;
+        this.maximumConcurrentRequests = 10;
+        this.interactiveReservedFraction = 0.2;
+        this.defaultTenantMaximumInFlightCount = Integer.MAX_VALUE;
+        this.defaultTenantMaximumQueueDepth = 100;
+    }
+
+    public static GitHubRequestScheduler create()
+    {
+        return new GitHubRequestScheduler();
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds since the epoch. This is
+     * compared against the X-RateLimit-Reset header of responses.
+     * @param clock The function that returns the current time in milliseconds since the epoch.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.clock = clock;
+        this.notifyAll();
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of requests that can be in flight at the same time.
+     * @return The maximum number of requests that can be in flight at the same time.
+     */
+    public synchronized int getMaximumConcurrentRequests()
+    {
+        return this.maximumConcurrentRequests;
+    }
+
+    /**
+     * Set the maximum number of requests that can be in flight at the same time.
+     * @param maximumConcurrentRequests The maximum number of requests that can be in flight at
+     * the same time.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setMaximumConcurrentRequests(int maximumConcurrentRequests)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumConcurrentRequests, 1, "maximumConcurrentRequests");
+
+        this.maximumConcurrentRequests = maximumConcurrentRequests;
+        this.notifyAll();
+
+        return this;
+    }
+
+    /**
+     * Get the fraction of the concurrent request slots and of the rate limit that is reserved for
+     * interactive requests.
+     * @return The fraction that is reserved for interactive requests.
+     */
+    public synchronized double getInteractiveReservedFraction()
+    {
+        return this.interactiveReservedFraction;
+    }
+
+    /**
+     * Set the fraction of the concurrent request slots and of the rate limit that is reserved for
+     * interactive requests.
+     * @param interactiveReservedFraction The fraction that is reserved for interactive requests.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setInteractiveReservedFraction(double interactiveReservedFraction)
+    {
+        PreCondition.assertBetween(0.0, interactiveReservedFraction, 0.9, "interactiveReservedFraction");
+
+        this.interactiveReservedFraction = interactiveReservedFraction;
+        this.notifyAll();
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests that each tenant can have in flight, unless the tenant has its
+     * own maximum.
+     * @return The number of requests that each tenant can have in flight.
+     */
+    public synchronized int getDefaultTenantMaximumInFlightCount()
+    {
+        return this.defaultTenantMaximumInFlightCount;
+    }
+
+    /**
+     * Set the number of requests that each tenant can have in flight, unless the tenant has its
+     * own maximum.
+     * @param defaultTenantMaximumInFlightCount The number of requests that each tenant can have
+     * in flight.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setDefaultTenantMaximumInFlightCount(int defaultTenantMaximumInFlightCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(defaultTenantMaximumInFlightCount, 1, "defaultTenantMaximumInFlightCount");
+
+        this.defaultTenantMaximumInFlightCount = defaultTenantMaximumInFlightCount;
+        this.notifyAll();
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests that each tenant can have waiting before more requests are
+     * rejected, unless the tenant has its own maximum.
+     * @return The number of requests that each tenant can have waiting.
+     */
+    public synchronized int getDefaultTenantMaximumQueueDepth()
+    {
+        return this.defaultTenantMaximumQueueDepth;
+    }
+
+    /**
+     * Set the number of requests that each tenant can have waiting before more requests are
+     * rejected, unless the tenant has its own maximum.
+     * @param defaultTenantMaximumQueueDepth The number of requests that each tenant can have
+     * waiting.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setDefaultTenantMaximumQueueDepth(int defaultTenantMaximumQueueDepth)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(defaultTenantMaximumQueueDepth, 0, "defaultTenantMaximumQueueDepth");
+
+        this.defaultTenantMaximumQueueDepth = defaultTenantMaximumQueueDepth;
+
+        return this;
+    }
+
+    /**
+     * Get the weight of the provided tenant's share of dispatches.
+     * @param tenant The tenant.
+     * @return The weight of the provided tenant's share of dispatches.
+     */
+    public synchronized double getTenantWeight(String tenant)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+
+        final Tenant tenantState = this.tenants.get(tenant);
+        return tenantState == null ? 1 : tenantState.weight;
+    }
+
+    /**
+     * Set the weight of the provided tenant's share of dispatches. A tenant with a weight of 2
+     * has twice as many of its waiting requests dispatched as a tenant with a weight of 1.
+     * @param tenant The tenant.
+     * @param weight The weight of the tenant's share of dispatches.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setTenantWeight(String tenant, double weight)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+        PreCondition.assertGreaterThan(weight, 0.0, "weight");
+
+        this.getTenant(tenant, true).weight = weight;
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests that the provided tenant can have in flight.
+     * @param tenant The tenant.
+     * @return The number of requests that the provided tenant can have in flight.
+     */
+    public synchronized int getTenantMaximumInFlightCount(String tenant)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+
+        return this.getMaximumInFlightCount(this.tenants.get(tenant));
+    }
+
+    /**
+     * Set the number of requests that the provided tenant can have in flight.
+     * @param tenant The tenant.
+     * @param maximumInFlightCount The number of requests that the tenant can have in flight.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setTenantMaximumInFlightCount(String tenant, int maximumInFlightCount)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+        PreCondition.assertGreaterThanOrEqualTo(maximumInFlightCount, 1, "maximumInFlightCount");
+
+        this.getTenant(tenant, true).maximumInFlightCount = maximumInFlightCount;
+        this.notifyAll();
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests that the provided tenant can have waiting before more requests
+     * are rejected.
+     * @param tenant The tenant.
+     * @return The number of requests that the provided tenant can have waiting.
+     */
+    public synchronized int getTenantMaximumQueueDepth(String tenant)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+
+        return this.getMaximumQueueDepth(this.tenants.get(tenant));
+    }
+
+    /**
+     * Set the number of requests that the provided tenant can have waiting before more requests
+     * are rejected.
+     * @param tenant The tenant.
+     * @param maximumQueueDepth The number of requests that the tenant can have waiting.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubRequestScheduler setTenantMaximumQueueDepth(String tenant, int maximumQueueDepth)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+        PreCondition.assertGreaterThanOrEqualTo(maximumQueueDepth, 0, "maximumQueueDepth");
+
+        this.getTenant(tenant, true).maximumQueueDepth = maximumQueueDepth;
+
+        return this;
+    }
+
+    /**
+     * Get the number of requests from the provided tenant that are waiting to be dispatched.
+     * @param tenant The tenant.
+     * @return The number of requests from the provided tenant that are waiting.
+     */
+    public synchronized int getQueueDepth(String tenant)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+
+        final Tenant tenantState = this.tenants.get(tenant);
+        return tenantState == null ? 0 : tenantState.queueDepth;
+    }
+
+    /**
+     * Get the number of requests from the provided tenant that are in flight.
+     * @param tenant The tenant.
+     * @return The number of requests from the provided tenant that are in flight.
+     */
+    public synchronized int getInFlightCount(String tenant)
+    {
+        PreCondition.assertNotNull(tenant, "tenant");
+
+        final Tenant tenantState = this.tenants.get(tenant);
+        return tenantState == null ? 0 : tenantState.inFlightCount;
+    }
+
+    /**
+     * Get the number of requests that have been rejected because their tenant's queue was full.
+     * @return The number of requests that have been rejected.
+     */
+    public synchronized long getRejectedCount()
+    {
+        return this.rejectedCount;
+    }
+
+    private Tenant getTenant(String tenant, boolean configured)
+    {
+        Tenant result = this.tenants.get(tenant);
+        if (result == null)
+        {
+            result = new Tenant();
+            this.tenants.put(tenant, result);
+        }
+        result.configured |= configured;
+        return result;
+    }
+
+    private void removeIfIdle(String tenant, Tenant tenantState)
+    {
+        // Tenants that haven't been configured are forgotten when they have nothing waiting or
+        // in flight so that a stream of one-off tenants doesn't grow the map forever.
+        if (!tenantState.configured && tenantState.queueDepth == 0 && tenantState.inFlightCount == 0)
+        {
+            this.tenants.remove(tenant);
+        }
+    }
+
+    private int getMaximumInFlightCount(Tenant tenantState)
+    {
+        return tenantState == null || tenantState.maximumInFlightCount == null
+            ? this.defaultTenantMaximumInFlightCount
+            : tenantState.maximumInFlightCount;
+    }
+
+    private int getMaximumQueueDepth(Tenant tenantState)
+    {
+        return tenantState == null || tenantState.maximumQueueDepth == null
+            ? this.defaultTenantMaximumQueueDepth
+            : tenantState.maximumQueueDepth;
+    }
+
+    /**
+     * Get the first waiting request whose tenant can have another request in flight.
+     */
+    private Ticket getNextTicket()
+    {
+        Ticket result = null;
+        for (final Ticket ticket : this.waiting)
+        {
+            if (ticket.tenant.inFlightCount < this.getMaximumInFlightCount(ticket.tenant))
+            {
+                result = ticket;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of concurrent request slots that background requests can use. At least one
+     * slot is always left for background requests.
+     * @return The number of concurrent request slots that background requests can use.
+     */
+    public synchronized int getBackgroundConcurrentRequests()
+    {
+        final int reservedSlots = (int)Math.ceil(this.maximumConcurrentRequests * this.interactiveReservedFraction);
+        return Math.max(1, this.maximumConcurrentRequests - reservedSlots);
+    }
+
+    /**
+     * Get the number of requests in the current rate limit window that are reserved for
+     * interactive requests.
+     * @return The number of reserved requests, or null if the rate limit isn't known yet.
+     */
+    public synchronized Long getReservedRequestCount()
+    {
+        return this.rateLimitLimit == null
+            ? null
+            : (long)Math.ceil(this.rateLimitLimit * this.interactiveReservedFraction);
+    }
+
+    /**
+     * Get the number of requests that are left in the current rate limit window, as far as this
+     * scheduler knows.
+     * @return The number of requests that are left, or null if the rate limit isn't known.
+     */
+    public synchronized Long getRateLimitRemaining()
+    {
+        return this.isRateLimitWindowCurrent() ? this.rateLimitRemaining : null;
+    }
+
+    /**
+     * Get the number of requests that are in flight.
+     * @return The number of requests that are in flight.
+     */
+    public synchronized int getInFlightCount()
+    {
+        return this.inFlightCount;
+    }
+
+    /**
+     * Get the number of requests with the provided priority that are waiting to be dispatched.
+     * @param priority The priority of the requests.
+     * @return The number of requests with the provided priority that are waiting.
+     */
+    public synchronized int getWaitingCount(GitHubRequest.Priority priority)
+    {
+        PreCondition.assertNotNull(priority, "priority");
+
+        int result = 0;
+        for (final Ticket ticket : this.waiting)
+        {
+            if (ticket.priority == priority)
+            {
+                ++result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of requests with the provided priority that have been dispatched.
+     * @param priority The priority of the requests.
+     * @return The number of requests with the provided priority that have been dispatched.
+     */
+    public synchronized long getDispatchedCount(GitHubRequest.Priority priority)
+    {
+        PreCondition.assertNotNull(priority, "priority");
+
+        return priority == GitHubRequest.Priority.Interactive
+            ? this.interactiveDispatchedCount
+            : this.backgroundDispatchedCount;
+    }
+
+    /**
+     * Get the number of times that a background request had to wait because the rest of the
+     * rate limit window is reserved for interactive requests.
+     * @return The number of times that a background request waited for the rate limit.
+     */
+    public synchronized long getBackgroundQuotaWaitCount()
+    {
+        return this.backgroundQuotaWaitCount;
+    }
+
+    private boolean isRateLimitWindowCurrent()
+    {
+        return this.rateLimitRemaining != null && this.clock.run() < this.rateLimitResetMilliseconds;
+    }
+
+    private boolean hasBackgroundQuota()
+    {
+        return !this.isRateLimitWindowCurrent() || this.rateLimitRemaining > this.getReservedRequestCount();
+    }
+
+    /**
+     * Wait until the provided request is dispatched. If the request has a deadline, then this
+     * only waits until the deadline.
+     * @param request The request that will be sent.
+     * @return The {@link Permit} that must be completed when the request finishes.
+     * @throws GitHubRequestRejectedException if the request's tenant already has its maximum
+     * number of requests waiting.
+     * @throws GitHubDeadlineExceededException if the request's deadline passes before it is
+     * dispatched.
+     */
+    public synchronized Permit acquire(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        final GitHubRequest.Priority priority = request.getPriority();
+        final java.time.Instant deadline = request.getDeadline();
+        final String tenantName = request.getTenant() == null ? "" : request.getTenant();
+        final Tenant tenant = this.getTenant(tenantName, false);
+        final int maximumQueueDepth = this.getMaximumQueueDepth(tenant);
+        if (tenant.queueDepth >= maximumQueueDepth)
+        {
+            ++this.rejectedCount;
+            this.removeIfIdle(tenantName, tenant);
+            throw new GitHubRequestRejectedException(tenantName, maximumQueueDepth);
+        }
+
+        final double startTag = Math.max(this.virtualTime, tenant.lastFinishTag);
+        final Ticket ticket = new Ticket(priority, tenant, startTag, startTag + (1 / tenant.weight), this.nextSequence++);
+        tenant.lastFinishTag = ticket.finishTag;
+        ++tenant.queueDepth;
+        this.waiting.add(ticket);
+
+        boolean dispatched = false;
+        boolean waitedForQuota = false;
+        try
+        {
+            while (true)
+            {
+                long waitMilliseconds = 0;
+                if (this.getNextTicket() == ticket)
+                {
+                    // Background requests are only next when no interactive request can go
+                    // ahead of them.
+                    if (priority == GitHubRequest.Priority.Interactive)
+                    {
+                        dispatched = this.inFlightCount < this.maximumConcurrentRequests;
+                    }
+                    else if (this.inFlightCount < this.getBackgroundConcurrentRequests())
+                    {
+                        dispatched = this.hasBackgroundQuota();
+                        if (!dispatched)
+                        {
+                            if (!waitedForQuota)
+                            {
+                                waitedForQuota = true;
+                                ++this.backgroundQuotaWaitCount;
+                            }
+                            waitMilliseconds = Math.max(1, this.rateLimitResetMilliseconds - this.clock.run());
+                        }
+                    }
+                }
+                if (dispatched)
+                {
+                    break;
+                }
+
+                if (deadline != null)
+                {
+                    final long deadlineMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+                    if (deadlineMilliseconds <= 0)
+                    {
+                        throw new GitHubDeadlineExceededException(deadline, "waiting to be scheduled");
+                    }
+                    waitMilliseconds = waitMilliseconds == 0 ? deadlineMilliseconds : Math.min(waitMilliseconds, deadlineMilliseconds);
+                }
+                try
+                {
+                    this.wait(waitMilliseconds);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        finally
+        {
+            this.waiting.remove(ticket);
+            --tenant.queueDepth;
+            if (dispatched)
+            {
+                ++this.inFlightCount;
+                ++tenant.inFlightCount;
+                this.virtualTime = Math.max(this.virtualTime, ticket.startTag);
+                if (priority == GitHubRequest.Priority.Interactive)
+                {
+                    ++this.interactiveDispatchedCount;
+                }
+                else
+                {
+                    ++this.backgroundDispatchedCount;
+                }
+                // Count the request against the rate limit now so that requests that are
+                // dispatched before this one's response arrives can't overdraw the reserve.
+                if (this.isRateLimitWindowCurrent() && this.rateLimitRemaining > 0)
+                {
+                    --this.rateLimitRemaining;
+                }
+            }
+            else
+            {
+                if (tenant.lastFinishTag == ticket.finishTag)
+                {
+                    // Give back the tenant's share that this request didn't use.
+                    tenant.lastFinishTag = ticket.startTag;
+                }
+                this.removeIfIdle(tenantName, tenant);
+            }
+            // The next waiting request may be able to go now.
+            this.notifyAll();
+        }
+
+        return new Permit(this, tenantName, tenant);
+    }
+
+    private synchronized void complete(String tenantName, Tenant tenant, GitHubResponse response)
+    {
+        --this.inFlightCount;
+        --tenant.inFlightCount;
+        this.removeIfIdle(tenantName, tenant);
+        if (response != null)
+        {
+            final Long limit = response.getRateLimitLimit();
+            final Long remaining = response.getRateLimitRemaining();
+            final java.time.Instant reset = response.getRateLimitReset();
+            if (limit != null && remaining != null && reset != null)
+            {
+                final long resetMilliseconds = reset.toEpochMilli();
+                // Responses can arrive out of order, so within one window the smallest remaining
+                // count is the most recent one, and responses from an earlier window are ignored.
+                if (this.rateLimitRemaining == null || resetMilliseconds > this.rateLimitResetMilliseconds)
+                {
+                    this.rateLimitLimit = limit;
+                    this.rateLimitRemaining = remaining;
+                    this.rateLimitResetMilliseconds = resetMilliseconds;
+                }
+                else if (resetMilliseconds == this.rateLimitResetMilliseconds)
+                {
+                    this.rateLimitRemaining = Math.min(this.rateLimitRemaining, remaining);
+                }
+            }
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Permission to send one request. Exactly one of the completion methods must be called when
+     * the request finishes.
+     */
+    public static class Permit
+    {
+        private final GitHubRequestScheduler scheduler;
+        private final String tenantName;
+        private final Tenant tenant;
+        private final java.util.concurrent.atomic.AtomicBoolean completed;
+
+        private Permit(GitHubRequestScheduler scheduler, String tenantName, Tenant tenant)
+        {
+            this.scheduler = scheduler;
+            this.tenantName = tenantName;
+            this.tenant = tenant;
+            this.completed = new java.util.concurrent.atomic.AtomicBoolean();
+        }
+
+        /**
+         * Record that the request received the provided response. The response's X-RateLimit
+         * headers update the scheduler's view of the rate limit.
+         * @param response The response to the request.
+         */
+        public void onResponse(GitHubResponse response)
+        {
+            PreCondition.assertNotNull(response, "response");
+
+            if (this.completed.compareAndSet(false, true))
+            {
+                this.scheduler.complete(this.tenantName, this.tenant, response);
+            }
+        }
+
+        /**
+         * Record that the request failed without receiving a response.
+         */
+        public void onFailure()
+        {
+            if (this.completed.compareAndSet(false, true))
+            {
+                this.scheduler.complete(this.tenantName, this.tenant, null);
+            }
+        }
+    }
+
+    /**
+     * The fairness state and limits of one tenant.
+     */
+    private static class Tenant
+    {
+        private double weight = 1;
+        private Integer maximumInFlightCount;
+        private Integer maximumQueueDepth;
+        private boolean configured;
+        private int queueDepth;
+        private int inFlightCount;
+        private double lastFinishTag;
+    }
+
+    /**
+     * A request that is waiting to be dispatched. Tickets are ordered by priority, then by
+     * virtual finish time, then by arrival.
+     */
+    private static class Ticket implements Comparable<Ticket>
+    {
+        private final GitHubRequest.Priority priority;
+        private final Tenant tenant;
+        private final double startTag;
+        private final double finishTag;
+        private final long sequence;
+
+        private Ticket(GitHubRequest.Priority priority, Tenant tenant, double startTag, double finishTag, long sequence)
+        {
+            this.priority = priority;
+            this.tenant = tenant;
+            this.startTag = startTag;
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket other)
+        {
+            int result = this.priority.compareTo(other.priority);
+            if (result == 0)
+            {
+                result = Double.compare(this.finishTag, other.finishTag);
+                if (result == 0)
+                {
+                    result = Long.compare(this.sequence, other.sequence);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -2,16 +2,61 @@ package qub;
 
 public class GitHubResponse implements HttpResponse
 {
+    /**
+     * The name of the header that contains the entity tag of a response's body.
+     */
+    public static final String eTagHeaderName = "ETag";
+
+    /**
+     * The name of the header that contains the number of seconds to wait before retrying a
+     * request that was rate limited.
+     */
+    public static final String retryAfterHeaderName = "Retry-After";
+
+    /**
+     * The name of the header that contains the location that a redirect response points to.
+     */
+    public static final String locationHeaderName = "Location";
+
+    /**
+     * The name of the header that contains the number of requests that are allowed in the
+     * current rate limit window.
+     */
+    public static final String rateLimitLimitHeaderName = "X-RateLimit-Limit";
+
+    /**
+     * The name of the header that contains the number of requests that are left in the current
+     * rate limit window.
+     */
+    public static final String rateLimitRemainingHeaderName = "X-RateLimit-Remaining";
+
+    /**
+     * The name of the header that contains the time (in seconds since the epoch) when the
+     * current rate limit window resets.
+     */
+    public static final String rateLimitResetHeaderName = "X-RateLimit-Reset";
+
     private final HttpResponse httpResponse;
 
-    private JSONSegment bodyJson;
-    private GitHubErrorResponse errorResponse;
+    /**
+     * The lock that guards reading and parsing the body of this response. A response's body
+     * stream can only be read once, so concurrent readers wait for the first reader and then
+     * share its result.
+     */
+    private final Object bodyLock;
+    private boolean bodyBuffered;
+    private Result<byte[]> bodyBytes;
+    private Result<JSONSegment> bodyJson;
+    private Result<LazyJSONObject> bodyLazyJsonObject;
+    private Result<LazyJSONArray> bodyLazyJsonArray;
+    private Result<GitHubErrorResponse> errorResponse;
 
     protected GitHubResponse(HttpResponse httpResponse)
     {
         PreCondition.assertNotNull(httpResponse, "httpResponse");
 
         this.httpResponse = httpResponse;
+        this.bodyLock = new Object();
     }
 
     public static GitHubResponse create(HttpResponse httpResponse)
@@ -43,10 +88,49 @@ public class GitHubResponse implements HttpResponse
         return this.httpResponse.getHeaders();
     }
 
+    /**
+     * Get the body of this response. If the body has been buffered (by {@link #bufferBody()} or
+     * by parsing it), then each call returns a new stream that reads the buffered bytes from the
+     * beginning.
+     * @return The body of this response.
+     */
     @Override
     public ByteReadStream getBody()
     {
-        return this.httpResponse.getBody();
+        synchronized (this.bodyLock)
+        {
+            return this.bodyBuffered
+                ? InMemoryByteStream.create(this.bodyBytes.await()).endOfStream()
+                : this.httpResponse.getBody();
+        }
+    }
+
+    /**
+     * Read the entire body of this response into an immutable byte array so that the body can be
+     * read more than once. After this, {@link #getBody()} returns a new stream over the buffered
+     * bytes each time it is called.
+     * @return This object for method chaining.
+     */
+    public Result<GitHubResponse> bufferBody()
+    {
+        return Result.create(() ->
+        {
+            this.getBodyBytes().await();
+            return this;
+        });
+    }
+
+    /**
+     * Get whether the body of this response has been buffered so that it can be read more than
+     * once. Parsing the body also buffers it.
+     * @return Whether the body of this response has been buffered.
+     */
+    public boolean isBodyBuffered()
+    {
+        synchronized (this.bodyLock)
+        {
+            return this.bodyBuffered;
+        }
     }
 
     @Override
@@ -62,18 +146,258 @@ public class GitHubResponse implements HttpResponse
     }
 
     /**
-     * Parse the body of this response into a JSONSegment.
+     * Get the entity tag of this response's body. This can be sent back to GitHub with
+     * {@link GitHubRequest#setIfNoneMatch(String)} to only get the body again if it has changed.
+     * @return The entity tag of this response's body, or null if this response doesn't have one.
+     */
+    public String getETag()
+    {
+        return this.getHeaderValue(GitHubResponse.eTagHeaderName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get whether this is a 304 (Not Modified) response to a conditional request, which means
+     * that the previously returned body is still current.
+     * @return Whether this is a 304 (Not Modified) response.
+     */
+    public boolean isNotModifiedResponse()
+    {
+        return this.getStatusCode() == 304;
+    }
+
+    /**
+     * Get whether this is a 301, 302, 307 or 308 response, which means that the requested
+     * resource is at a different location.
+     * @return Whether this is a redirect response.
+     */
+    public boolean isRedirectResponse()
+    {
+        final int statusCode = this.getStatusCode();
+        return statusCode == 301 || statusCode == 302 || statusCode == 307 || statusCode == 308;
+    }
+
+    /**
+     * Get the location that this response redirects to.
+     * @return The value of this response's Location header, or null if this response doesn't
+     * have one.
+     */
+    public String getLocation()
+    {
+        return this.getHeaderValue(GitHubResponse.locationHeaderName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get whether this is a 5xx response, which means that GitHub failed to handle the request.
+     * GitHub may or may not have applied a mutating request that gets a server error response.
+     * @return Whether this is a 5xx response.
+     */
+    public boolean isServerErrorResponse()
+    {
+        final int statusCode = this.getStatusCode();
+        return 500 <= statusCode && statusCode <= 599;
+    }
+
+    /**
+     * Get the number of seconds that GitHub asked the client to wait before retrying.
+     * @return The number of seconds from this response's Retry-After header, or null if this
+     * response doesn't have a valid Retry-After header.
+     */
+    public Long getRetryAfterSeconds()
+    {
+        return this.getLongHeaderValue(GitHubResponse.retryAfterHeaderName);
+    }
+
+    /**
+     * Get the number of requests that are allowed in the current rate limit window.
+     * @return The value of this response's X-RateLimit-Limit header, or null if this response
+     * doesn't have a valid X-RateLimit-Limit header.
+     */
+    public Long getRateLimitLimit()
+    {
+        return this.getLongHeaderValue(GitHubResponse.rateLimitLimitHeaderName);
+    }
+
+    /**
+     * Get the number of requests that are left in the current rate limit window.
+     * @return The value of this response's X-RateLimit-Remaining header, or null if this
+     * response doesn't have a valid X-RateLimit-Remaining header.
+     */
+    public Long getRateLimitRemaining()
+    {
+        return this.getLongHeaderValue(GitHubResponse.rateLimitRemainingHeaderName);
+    }
+
+    /**
+     * Get the time when the current rate limit window resets.
+     * @return The time from this response's X-RateLimit-Reset header, or null if this response
+     * doesn't have a valid X-RateLimit-Reset header.
+     */
+    public java.time.Instant getRateLimitReset()
+    {
+        final Long resetSeconds = this.getLongHeaderValue(GitHubResponse.rateLimitResetHeaderName);
+        return resetSeconds == null ? null : java.time.Instant.ofEpochSecond(resetSeconds);
+    }
+
+    private Long getLongHeaderValue(String headerName)
+    {
+        return this.getHeaderValue(headerName)
+            .then((String headerValue) -> Long.parseLong(headerValue.trim()))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get whether this response was rejected by one of GitHub's secondary rate limits, which
+     * limit bursts of requests and concurrent requests rather than the hourly request count.
+     * Secondary rate limit responses are 429 responses or 403 responses that either have a
+     * Retry-After header or an error message that mentions the secondary rate limit. Checking
+     * the error message buffers this response's body.
+     * @return Whether this response was rejected by one of GitHub's secondary rate limits.
+     */
+    public boolean isSecondaryRateLimitResponse()
+    {
+        final int statusCode = this.getStatusCode();
+        boolean result = statusCode == 429;
+        if (!result && statusCode == 403)
+        {
+            result = this.getRetryAfterSeconds() != null;
+            if (!result)
+            {
+                // Buffer the body first so that it can still be read after the error message has
+                // been checked.
+                this.bufferBody().catchError().await();
+                final GitHubErrorResponse errorResponse = this.getErrorResponse()
+                    .catchError()
+                    .await();
+                final String message = errorResponse == null ? null : errorResponse.getMessage();
+                result = message != null && message.toLowerCase(java.util.Locale.ROOT).contains("secondary rate limit");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the pagination links from this response's Link header. If this response doesn't have
+     * a Link header, then the returned {@link GitHubLinkHeader} won't contain any links.
+     * @return The pagination links from this response's Link header.
+     */
+    public GitHubLinkHeader getLinkHeader()
+    {
+        return GitHubLinkHeader.parse(this.getHeaderValue(GitHubLinkHeader.headerName)
+            .catchError()
+            .await());
+    }
+
+    /**
+     * Parse the body of this response into a JSONSegment. The body is only parsed once, even if
+     * this is called from multiple threads at the same time, and every caller gets the same
+     * result (or the same parse error).
      * @return The JSON-parsed body of this response.
      */
     public Result<JSONSegment> getBodyJson()
     {
         return Result.create(() ->
         {
-            if (this.bodyJson == null)
+            final Result<JSONSegment> bodyJson;
+            synchronized (this.bodyLock)
+            {
+                if (this.bodyJson == null)
+                {
+                    // Parse from the raw bytes so that the body stream is only ever read once and
+                    // getBody() can still return exactly what the server sent.
+                    this.bodyJson = this.getBodyBytes()
+                        .then((byte[] bodyBytes) -> JSON.parse(InMemoryByteStream.create(bodyBytes).endOfStream()).await());
+                }
+                bodyJson = this.bodyJson;
+            }
+            return bodyJson.await();
+        });
+    }
+
+    /**
+     * Read the body of this response into a byte array. The body is only read once, so
+     * subsequent calls will return the same byte array. Every other way of reading the body
+     * goes through this, so the bytes are always the raw bytes that the server sent.
+     * @return The bytes of the body of this response.
+     */
+    private Result<byte[]> getBodyBytes()
+    {
+        return Result.create(() ->
+        {
+            final Result<byte[]> bodyBytes;
+            synchronized (this.bodyLock)
+            {
+                if (this.bodyBytes == null)
+                {
+                    this.bodyBytes = Result.create(() ->
+                    {
+                        final ByteReadStream body = this.httpResponse.getBody();
+                        byte[] result = body == null ? null : body.readAllBytes().await();
+                        if (result == null)
+                        {
+                            result = new byte[0];
+                        }
+                        this.bodyBuffered = true;
+                        return result;
+                    });
+                }
+                bodyBytes = this.bodyBytes;
+            }
+            return bodyBytes.await();
+        });
+    }
+
+    /**
+     * Get a {@link LazyJSONObject} view of the body of this response. The view is only created
+     * once, so later calls return the same view. Only the properties that are accessed through
+     * the view will be parsed.
+     * @return A {@link LazyJSONObject} view of the body of this response.
+     */
+    public Result<LazyJSONObject> getBodyLazyJsonObject()
+    {
+        return Result.create(() ->
+        {
+            final Result<LazyJSONObject> bodyLazyJsonObject;
+            synchronized (this.bodyLock)
             {
-                this.bodyJson = JSON.parse(this.getBody()).await();
+                if (this.bodyLazyJsonObject == null)
+                {
+                    // The view is kept so that the body is only scanned once and the values that
+                    // it parses are reused by later calls.
+                    this.bodyLazyJsonObject = this.getBodyBytes()
+                        .then((byte[] bodyBytes) -> LazyJSONObject.parse(bodyBytes).await());
+                }
+                bodyLazyJsonObject = this.bodyLazyJsonObject;
             }
-            return this.bodyJson;
+            return bodyLazyJsonObject.await();
+        });
+    }
+
+    /**
+     * Get a {@link LazyJSONArray} view of the body of this response. The view is only created
+     * once, so later calls return the same view. Only the elements that are accessed through the
+     * view will be parsed.
+     * @return A {@link LazyJSONArray} view of the body of this response.
+     */
+    public Result<LazyJSONArray> getBodyLazyJsonArray()
+    {
+        return Result.create(() ->
+        {
+            final Result<LazyJSONArray> bodyLazyJsonArray;
+            synchronized (this.bodyLock)
+            {
+                if (this.bodyLazyJsonArray == null)
+                {
+                    this.bodyLazyJsonArray = this.getBodyBytes()
+                        .then((byte[] bodyBytes) -> LazyJSONArray.parse(bodyBytes).await());
+                }
+                bodyLazyJsonArray = this.bodyLazyJsonArray;
+            }
+            return bodyLazyJsonArray.await();
         });
     }
 
@@ -113,6 +437,55 @@ public class GitHubResponse implements HttpResponse
             });
     }
 
+    /**
+     * Parse the body of this response into the list of {@link GitHubRepository}s that it
+     * contains. This is the format of every GitHub endpoint that lists repositories. Each
+     * repository has its own owner object.
+     * @return The {@link GitHubRepository}s in the body of this response.
+     */
+    public Result<Iterable<GitHubRepository>> getBodyRepositories()
+    {
+        return Result.create(() ->
+        {
+            this.throwIfErrorResponse();
+
+            final JSONArray bodyJson = this.getBodyJsonArray().await();
+            final Iterable<GitHubRepository> result = bodyJson.instanceOf(JSONObject.class)
+                .map(GitHubRepository::create)
+                .toList();
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Parse the body of this response into the list of {@link GitHubRepository}s that it
+     * contains. Repositories with equal owners share one owner object through the provided
+     * {@link GitHubJSONInterner}, so the returned repositories must not be modified.
+     * @param interner The {@link GitHubJSONInterner} that will deduplicate the owners.
+     * @return The {@link GitHubRepository}s in the body of this response.
+     */
+    public Result<Iterable<GitHubRepository>> getBodyRepositories(GitHubJSONInterner interner)
+    {
+        PreCondition.assertNotNull(interner, "interner");
+
+        return Result.create(() ->
+        {
+            this.throwIfErrorResponse();
+
+            final JSONArray bodyJson = this.getBodyJsonArray().await();
+            final Iterable<GitHubRepository> result = bodyJson.instanceOf(JSONObject.class)
+                .map((JSONObject repositoryJson) -> GitHubRepository.create(interner.internOwner(repositoryJson)))
+                .toList();
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
     /**
      * Get whether or not this is an error response.
      * @return Whether or not this is an error response.
@@ -135,6 +508,29 @@ public class GitHubResponse implements HttpResponse
         PostCondition.assertFalse(this.isErrorResponse(), "this.isErrorResponse()");
     }
 
+    /**
+     * Throw a GitHubException if this GitHubResponse is a 5xx response. GitHub's 5xx responses
+     * don't always have a JSON body, so if the body doesn't contain an error message then the
+     * exception's message only describes the status code.
+     */
+    public void throwIfServerErrorResponse()
+    {
+        if (this.isServerErrorResponse())
+        {
+            final JSONObject bodyJson = this.getBodyJsonObject()
+                .catchError()
+                .await();
+            final GitHubErrorResponse errorResponse = GitHubErrorResponse.create(bodyJson == null ? JSONObject.create() : bodyJson);
+            if (Strings.isNullOrEmpty(errorResponse.getMessage()))
+            {
+                errorResponse.setMessage("The request failed with a " + this.getStatusCode() + " response.");
+            }
+            throw new GitHubException(this.getStatusCode(), errorResponse);
+        }
+
+        PostCondition.assertFalse(this.isServerErrorResponse(), "this.isServerErrorResponse()");
+    }
+
     /**
      * Get the body of this response parsed as a GitHubErrorResponse object.
      * @return The body of this response parsed as a GitHubErrorResponse object.
@@ -145,19 +541,24 @@ public class GitHubResponse implements HttpResponse
 
         return Result.create(() ->
         {
-            if (this.errorResponse == null)
+            final Result<GitHubErrorResponse> errorResponse;
+            synchronized (this.bodyLock)
             {
-                final JSONSegment bodyJson = this.getBodyJson().await();
-                if (bodyJson instanceof JSONObject)
-                {
-                    this.errorResponse = GitHubErrorResponse.create((JSONObject)bodyJson);
-                }
-                else
+                if (this.errorResponse == null)
                 {
-                    throw new ParseException("A " + Types.getTypeName(GitHubErrorResponse.class) + " must be created from a " + Types.getTypeName(JSONObject.class) + ", but found " + Types.getTypeName(bodyJson) + " instead.");
+                    this.errorResponse = Result.create(() ->
+                    {
+                        final JSONSegment bodyJson = this.getBodyJson().await();
+                        if (!(bodyJson instanceof JSONObject))
+                        {
+                            throw new ParseException("A " + Types.getTypeName(GitHubErrorResponse.class) + " must be created from a " + Types.getTypeName(JSONObject.class) + ", but found " + Types.getTypeName(bodyJson) + " instead.");
+                        }
+                        return GitHubErrorResponse.create((JSONObject)bodyJson);
+                    });
                 }
+                errorResponse = this.errorResponse;
             }
-            return this.errorResponse;
+            return errorResponse.await();
         });
     }
 }
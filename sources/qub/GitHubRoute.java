@@ -0,0 +1,240 @@
+package qub;
+
+/**
+ * A URL path template for a GitHub REST API endpoint, such as "/repos/{owner}/{repo}". The
+ * template is parsed once when the route is created so that expanding it for a request only
+ * needs to validate and percent-encode the parameter values.
+ */
+public class GitHubRoute
+{
+    private static final char[] hexDigits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+
+    private final String template;
+    private final String[] literals;
+    private final String[] parameterNames;
+
+    private GitHubRoute(String template, String[] literals, String[] parameterNames)
+    {
+        this.template = template;
+        this.literals = literals;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * Parse the provided route template. Parameters in the template are surrounded by curly
+     * brackets, and each parameter must make up an entire path segment.
+     * @param template The route template, such as "/repos/{owner}/{repo}".
+     * @return The parsed {@link GitHubRoute}.
+     */
+    public static GitHubRoute create(String template)
+    {
+        PreCondition.assertNotNullAndNotEmpty(template, "template");
+        PreCondition.assertTrue(template.startsWith("/"), "template.startsWith(\"/\")");
+
+        final List<String> literals = List.create();
+        final List<String> parameterNames = List.create();
+        final int templateLength = template.length();
+        int literalStartIndex = 0;
+        while (true)
+        {
+            final int openIndex = template.indexOf('{', literalStartIndex);
+            final int literalEndIndex = (openIndex == -1) ? templateLength : openIndex;
+            final int closeIndex = template.indexOf('}', literalStartIndex);
+            if (closeIndex != -1 && closeIndex < literalEndIndex)
+            {
+                throw new PreConditionFailure("template has an unmatched '}' at index " + closeIndex + ".");
+            }
+
+            literals.add(template.substring(literalStartIndex, literalEndIndex));
+            if (openIndex == -1)
+            {
+                break;
+            }
+
+            if (template.charAt(openIndex - 1) != '/')
+            {
+                throw new PreConditionFailure("template has a parameter that doesn't start a path segment at index " + openIndex + ".");
+            }
+            if (closeIndex == -1)
+            {
+                throw new PreConditionFailure("template has an unmatched '{' at index " + openIndex + ".");
+            }
+
+            final String parameterName = template.substring(openIndex + 1, closeIndex);
+            if (parameterName.isEmpty() || parameterName.indexOf('{') != -1 || parameterName.indexOf('/') != -1)
+            {
+                throw new PreConditionFailure("template has an invalid parameter name at index " + openIndex + ".");
+            }
+            if (parameterNames.contains(parameterName))
+            {
+                throw new PreConditionFailure("template has more than one parameter named " + Strings.escapeAndQuote(parameterName) + ".");
+            }
+            if (closeIndex + 1 < templateLength && template.charAt(closeIndex + 1) != '/')
+            {
+                throw new PreConditionFailure("template has a parameter that doesn't end a path segment at index " + closeIndex + ".");
+            }
+
+            parameterNames.add(parameterName);
+            literalStartIndex = closeIndex + 1;
+        }
+
+        return new GitHubRoute(
+            template,
+            GitHubRoute.toArray(literals),
+            GitHubRoute.toArray(parameterNames));
+    }
+
+    private static String[] toArray(List<String> values)
+    {
+        final String[] result = new String[values.getCount()];
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Get the template that this route was created from. Since the template doesn't contain any
+     * parameter values, it can be used as a normalized key for metrics and caching.
+     * @return The template that this route was created from.
+     */
+    public String getTemplate()
+    {
+        return this.template;
+    }
+
+    /**
+     * Get the number of parameters in this route.
+     * @return The number of parameters in this route.
+     */
+    public int getParameterCount()
+    {
+        return this.parameterNames.length;
+    }
+
+    /**
+     * Get the names of the parameters in this route in the order that they appear.
+     * @return The names of the parameters in this route in the order that they appear.
+     */
+    public Iterable<String> getParameterNames()
+    {
+        return Iterable.create(this.parameterNames);
+    }
+
+    /**
+     * Create the URL path for this route by replacing its parameters with the provided values.
+     * Each value is percent-encoded so that it can't change the structure of the path. The
+     * returned path is already encoded, so it must be used as is and not encoded again.
+     * @param parameterValues The values for this route's parameters, in the order that the
+     *                        parameters appear in the template.
+     * @return The URL path for this route.
+     */
+    public String expand(String... parameterValues)
+    {
+        PreCondition.assertNotNull(parameterValues, "parameterValues");
+        PreCondition.assertEqual(this.parameterNames.length, parameterValues.length, "parameterValues.length");
+
+        final String result;
+        if (this.parameterNames.length == 0)
+        {
+            result = this.template;
+        }
+        else
+        {
+            final StringBuilder builder = new StringBuilder(this.template.length() + 32);
+            for (int i = 0; i < this.parameterNames.length; ++i)
+            {
+                final String parameterName = this.parameterNames[i];
+                final String parameterValue = parameterValues[i];
+                PreCondition.assertNotNullAndNotEmpty(parameterValue, parameterName);
+                if (parameterValue.equals(".") || parameterValue.equals(".."))
+                {
+                    throw new PreConditionFailure(parameterName + " cannot be a relative path segment.");
+                }
+
+                builder.append(this.literals[i]);
+                GitHubRoute.appendEncodedPathSegment(builder, parameterValue);
+            }
+            builder.append(this.literals[this.parameterNames.length]);
+            result = builder.toString();
+        }
+
+        PostCondition.assertNotNullAndNotEmpty(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Percent-encode the provided value so that it can be used as a single URL path segment.
+     * @param value The value to encode.
+     * @return The encoded value.
+     */
+    public static String encodePathSegment(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        final StringBuilder builder = new StringBuilder(value.length());
+        GitHubRoute.appendEncodedPathSegment(builder, value);
+        return builder.toString();
+    }
+
+    private static void appendEncodedPathSegment(StringBuilder builder, String value)
+    {
+        final int valueLength = value.length();
+        int index = 0;
+        while (index < valueLength && GitHubRoute.isUnreserved(value.charAt(index)))
+        {
+            ++index;
+        }
+
+        if (index == valueLength)
+        {
+            builder.append(value);
+        }
+        else
+        {
+            builder.append(value, 0, index);
+            for (final byte b : value.substring(index).getBytes(java.nio.charset.StandardCharsets.UTF_8))
+            {
+                final char c = (char)(b & 0xFF);
+                if (GitHubRoute.isUnreserved(c))
+                {
+                    builder.append(c);
+                }
+                else
+                {
+                    builder.append('%')
+                        .append(GitHubRoute.hexDigits[(c >> 4) & 0xF])
+                        .append(GitHubRoute.hexDigits[c & 0xF]);
+                }
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c)
+    {
+        return ('a' <= c && c <= 'z') ||
+            ('A' <= c && c <= 'Z') ||
+            ('0' <= c && c <= '9') ||
+            c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    @Override
+    public boolean equals(Object rhs)
+    {
+        return rhs instanceof GitHubRoute && this.template.equals(((GitHubRoute)rhs).template);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.template.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.template;
+    }
+}
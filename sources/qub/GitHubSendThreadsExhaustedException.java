@@ -0,0 +1,34 @@
+package qub;
+
+/**
+ * An exception that is thrown instead of sending a request that has a deadline when every one of
+ * the threads that send such requests is still waiting on an earlier exchange. This usually means
+ * that the connections to GitHub are hung, so failing fast is better than waiting for a thread.
+ */
+public class GitHubSendThreadsExhaustedException extends RuntimeException
+{
+    private final int maximumThreadCount;
+
+    public GitHubSendThreadsExhaustedException(int maximumThreadCount)
+    {
+        super(GitHubSendThreadsExhaustedException.getMessage(maximumThreadCount));
+
+        this.maximumThreadCount = maximumThreadCount;
+    }
+
+    private static String getMessage(int maximumThreadCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+
+        return "The request was not sent because all " + maximumThreadCount + " threads that send requests with deadlines are still waiting on earlier responses.";
+    }
+
+    /**
+     * Get the number of threads that can send requests with deadlines at the same time.
+     * @return The number of threads that can send requests with deadlines at the same time.
+     */
+    public int getMaximumThreadCount()
+    {
+        return this.maximumThreadCount;
+    }
+}
@@ -0,0 +1,460 @@
+package qub;
+
+/**
+ * A view of an access token's rate limit that is shared by every process on this machine that
+ * opens the same file. Each {@link BasicGitHubClient} otherwise assumes that it owns the whole
+ * rate limit, so several processes that use the same token overdraw it together.
+ * <p>
+ * The limit, the remaining request count, the reset time and the time that the next request can
+ * be sent are kept in a small memory-mapped file. Every read-modify-write of the file happens
+ * while holding an exclusive {@link java.nio.channels.FileLock} on it, so the counters are
+ * updated atomically across processes. Each request reserves one request from the shared
+ * remaining count before it is sent, and each response corrects the shared view from its
+ * X-RateLimit headers.
+ * <p>
+ * Once the remaining count drops below the pacing fraction of the limit, reservations are
+ * spread evenly over the rest of the rate limit window instead of being handed out as fast as
+ * they are asked for. When nothing is left, reservations wait for the window to reset. While an
+ * {@link GitHubRequest.Priority#Interactive} reservation in this process is waiting, background
+ * reservations in this process wait behind it.
+ */
+public class GitHubSharedRateLimit implements Disposable
+{
+    private static final int magic = 0x47485246;
+    private static final int version = 1;
+    private static final int fileSize = 64;
+
+    private static final int magicOffset = 0;
+    private static final int versionOffset = 4;
+    private static final int limitOffset = 8;
+    private static final int remainingOffset = 16;
+    private static final int resetMillisecondsOffset = 24;
+    private static final int nextReservationMillisecondsOffset = 32;
+
+    /**
+     * File locks are held by the whole process, so threads in this process that use the same
+     * file (even through different objects) take turns on one monitor per file before locking
+     * it.
+     */
+    private static final java.util.concurrent.ConcurrentHashMap<String,Object> processLocks = new java.util.concurrent.ConcurrentHashMap<>();
+
+    /**
+     * The number of interactive reservations in this process that are waiting on each file.
+     * Background reservations wait on the counter until it drops to zero.
+     */
+    private static final java.util.concurrent.ConcurrentHashMap<String,java.util.concurrent.atomic.AtomicInteger> processWaitingInteractiveCounts = new java.util.concurrent.ConcurrentHashMap<>();
+
+    private final java.nio.file.Path filePath;
+    private final java.nio.channels.FileChannel channel;
+    private final java.nio.MappedByteBuffer buffer;
+    private final Object processLock;
+    private final java.util.concurrent.atomic.AtomicInteger waitingInteractiveCount;
+    private Function0<Long> clock;
+    private double pacingFraction;
+    private boolean disposed;
+
+    private GitHubSharedRateLimit(java.nio.file.Path filePath, java.nio.channels.FileChannel channel, java.nio.MappedByteBuffer buffer)
+    {
+        this.filePath = filePath;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.processLock = GitHubSharedRateLimit.processLocks.computeIfAbsent(filePath.toString(), (String key) -> new Object());
+        this.waitingInteractiveCount = GitHubSharedRateLimit.processWaitingInteractiveCounts.computeIfAbsent(filePath.toString(), (String key) -> new java.util.concurrent.atomic.AtomicInteger());
+        this.clock = System::currentTimeMillis;
+        this.pacingFraction = 0.1;
+    }
+
+    /**
+     * Open the shared rate limit file at the provided path, creating it if it doesn't exist.
+     * @param filePath The path to the shared rate limit file.
+     * @return The {@link GitHubSharedRateLimit} that uses the file.
+     */
+    public static Result<GitHubSharedRateLimit> open(java.nio.file.Path filePath)
+    {
+        PreCondition.assertNotNull(filePath, "filePath");
+
+        return Result.create(() ->
+        {
+            final java.nio.file.Path normalizedFilePath = filePath.toAbsolutePath().normalize();
+            try
+            {
+                final java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(normalizedFilePath,
+                    java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.READ,
+                    java.nio.file.StandardOpenOption.WRITE);
+                try
+                {
+                    final java.nio.MappedByteBuffer buffer = channel.map(java.nio.channels.FileChannel.MapMode.READ_WRITE, 0, GitHubSharedRateLimit.fileSize);
+                    final GitHubSharedRateLimit result = new GitHubSharedRateLimit(normalizedFilePath, channel, buffer);
+                    result.update(() ->
+                    {
+                        if (buffer.getInt(GitHubSharedRateLimit.magicOffset) != GitHubSharedRateLimit.magic ||
+                            buffer.getInt(GitHubSharedRateLimit.versionOffset) != GitHubSharedRateLimit.version)
+                        {
+                            // A new (or unrecognized) file starts with an unknown rate limit.
+                            buffer.putInt(GitHubSharedRateLimit.magicOffset, GitHubSharedRateLimit.magic);
+                            buffer.putInt(GitHubSharedRateLimit.versionOffset, GitHubSharedRateLimit.version);
+                            buffer.putLong(GitHubSharedRateLimit.limitOffset, -1);
+                            buffer.putLong(GitHubSharedRateLimit.remainingOffset, -1);
+                            buffer.putLong(GitHubSharedRateLimit.resetMillisecondsOffset, 0);
+                            buffer.putLong(GitHubSharedRateLimit.nextReservationMillisecondsOffset, 0);
+                        }
+                        return null;
+                    });
+                    return result;
+                }
+                catch (Throwable error)
+                {
+                    channel.close();
+                    throw error;
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Get the path to the file that this rate limit is shared through.
+     * @return The path to the file that this rate limit is shared through.
+     */
+    public java.nio.file.Path getFilePath()
+    {
+        return this.filePath;
+    }
+
+    /**
+     * Set the function that returns the current time in milliseconds since the epoch. This is
+     * compared against the X-RateLimit-Reset header of responses.
+     * @param clock The function that returns the current time in milliseconds since the epoch.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubSharedRateLimit setClock(Function0<Long> clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.clock = clock;
+
+        return this;
+    }
+
+    /**
+     * Get the fraction of the limit below which reservations are spread evenly over the rest of
+     * the rate limit window.
+     * @return The fraction of the limit below which reservations are paced.
+     */
+    public synchronized double getPacingFraction()
+    {
+        return this.pacingFraction;
+    }
+
+    /**
+     * Set the fraction of the limit below which reservations are spread evenly over the rest of
+     * the rate limit window. A fraction of 0 only waits once nothing is left, and a fraction of 1
+     * paces every reservation.
+     * @param pacingFraction The fraction of the limit below which reservations are paced.
+     * @return This object for method chaining.
+     */
+    public synchronized GitHubSharedRateLimit setPacingFraction(double pacingFraction)
+    {
+        PreCondition.assertBetween(0.0, pacingFraction, 1.0, "pacingFraction");
+
+        this.pacingFraction = pacingFraction;
+
+        return this;
+    }
+
+    private synchronized long getTime()
+    {
+        return this.clock.run();
+    }
+
+    /**
+     * Run the provided function while holding this process's monitor and the exclusive lock on
+     * the shared file.
+     */
+    private <T> T update(Function0<T> function)
+    {
+        synchronized (this.processLock)
+        {
+            PreCondition.assertFalse(this.disposed, "this.isDisposed()");
+
+            try (final java.nio.channels.FileLock fileLock = this.channel.lock())
+            {
+                return function.run();
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private boolean isWindowCurrent(long now)
+    {
+        return this.buffer.getLong(GitHubSharedRateLimit.remainingOffset) >= 0 &&
+            now < this.buffer.getLong(GitHubSharedRateLimit.resetMillisecondsOffset);
+    }
+
+    /**
+     * Get the number of requests in the current rate limit window.
+     * @return The number of requests in the current rate limit window, or null if no process has
+     * seen the rate limit yet.
+     */
+    public Long getLimit()
+    {
+        return this.update(() ->
+        {
+            final long limit = this.buffer.getLong(GitHubSharedRateLimit.limitOffset);
+            return limit < 0 ? null : limit;
+        });
+    }
+
+    /**
+     * Get the number of requests that are left in the current rate limit window, as far as the
+     * processes that share this rate limit know.
+     * @return The number of requests that are left, or null if the current window isn't known.
+     */
+    public Long getRemaining()
+    {
+        final long now = this.getTime();
+        return this.update(() -> this.isWindowCurrent(now) ? this.buffer.getLong(GitHubSharedRateLimit.remainingOffset) : null);
+    }
+
+    /**
+     * Get the time when the current rate limit window resets.
+     * @return The time when the current rate limit window resets, or null if the current window
+     * isn't known.
+     */
+    public java.time.Instant getReset()
+    {
+        final long now = this.getTime();
+        return this.update(() -> this.isWindowCurrent(now)
+            ? java.time.Instant.ofEpochMilli(this.buffer.getLong(GitHubSharedRateLimit.resetMillisecondsOffset))
+            : null);
+    }
+
+    /**
+     * Try to reserve one request from the shared rate limit.
+     * @return 0 if a request was reserved, or the number of milliseconds to wait before trying
+     * again.
+     */
+    public long tryReserve()
+    {
+        final long now = this.getTime();
+        final double pacingFraction = this.getPacingFraction();
+        return this.update(() ->
+        {
+            long result = 0;
+            if (this.isWindowCurrent(now))
+            {
+                final long remaining = this.buffer.getLong(GitHubSharedRateLimit.remainingOffset);
+                final long resetMilliseconds = this.buffer.getLong(GitHubSharedRateLimit.resetMillisecondsOffset);
+                final long nextReservationMilliseconds = this.buffer.getLong(GitHubSharedRateLimit.nextReservationMillisecondsOffset);
+                if (remaining <= 0)
+                {
+                    result = resetMilliseconds - now;
+                }
+                else if (now < nextReservationMilliseconds)
+                {
+                    result = nextReservationMilliseconds - now;
+                }
+                else
+                {
+                    this.buffer.putLong(GitHubSharedRateLimit.remainingOffset, remaining - 1);
+                    final long limit = this.buffer.getLong(GitHubSharedRateLimit.limitOffset);
+                    if (remaining - 1 < limit * pacingFraction)
+                    {
+                        // Spread what is left over the rest of the window.
+                        final long interval = (resetMilliseconds - now) / remaining;
+                        this.buffer.putLong(GitHubSharedRateLimit.nextReservationMillisecondsOffset, now + interval);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the number of interactive reservations in this process that are waiting on this
+     * shared rate limit's file.
+     * @return The number of interactive reservations that are waiting.
+     */
+    public int getWaitingInteractiveCount()
+    {
+        return this.waitingInteractiveCount.get();
+    }
+
+    /**
+     * Reserve one request from the shared rate limit, waiting for pacing or for the rate limit
+     * window to reset if necessary. Background requests also wait while an interactive
+     * reservation in this process is waiting. If the provided request has a deadline, then this
+     * only waits until the deadline.
+     * @param request The request that the reservation is for.
+     * @throws GitHubDeadlineExceededException if the request's deadline passes before a request
+     * can be reserved.
+     */
+    public void reserve(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        final java.time.Instant deadline = request.getDeadline();
+        final boolean interactive = request.getPriority() == GitHubRequest.Priority.Interactive;
+        if (interactive)
+        {
+            this.waitingInteractiveCount.incrementAndGet();
+        }
+        try
+        {
+            while (true)
+            {
+                if (!interactive)
+                {
+                    this.waitForInteractiveReservations(deadline);
+                }
+
+                long waitMilliseconds = this.tryReserve();
+                if (waitMilliseconds <= 0)
+                {
+                    break;
+                }
+
+                if (deadline != null)
+                {
+                    final long deadlineMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+                    if (deadlineMilliseconds <= 0)
+                    {
+                        throw new GitHubDeadlineExceededException(deadline, "waiting for the shared rate limit");
+                    }
+                    waitMilliseconds = Math.min(waitMilliseconds, deadlineMilliseconds);
+                }
+                try
+                {
+                    Thread.sleep(waitMilliseconds);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        finally
+        {
+            if (interactive)
+            {
+                synchronized (this.waitingInteractiveCount)
+                {
+                    if (this.waitingInteractiveCount.decrementAndGet() == 0)
+                    {
+                        this.waitingInteractiveCount.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait until no interactive reservation in this process is waiting on this file.
+     */
+    private void waitForInteractiveReservations(java.time.Instant deadline)
+    {
+        synchronized (this.waitingInteractiveCount)
+        {
+            while (this.waitingInteractiveCount.get() > 0)
+            {
+                long waitMilliseconds = 0;
+                if (deadline != null)
+                {
+                    waitMilliseconds = java.time.Duration.between(java.time.Instant.now(), deadline).toMillis();
+                    if (waitMilliseconds <= 0)
+                    {
+                        throw new GitHubDeadlineExceededException(deadline, "waiting for the shared rate limit");
+                    }
+                }
+                try
+                {
+                    this.waitingInteractiveCount.wait(waitMilliseconds);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Correct the shared view of the rate limit from the X-RateLimit headers of the provided
+     * response. Responses without those headers are ignored.
+     * @param response The response to update the shared view from.
+     */
+    public void onResponse(GitHubResponse response)
+    {
+        PreCondition.assertNotNull(response, "response");
+
+        final Long limit = response.getRateLimitLimit();
+        final Long remaining = response.getRateLimitRemaining();
+        final java.time.Instant reset = response.getRateLimitReset();
+        if (limit != null && remaining != null && reset != null)
+        {
+            final long resetMilliseconds = reset.toEpochMilli();
+            this.update(() ->
+            {
+                final long currentResetMilliseconds = this.buffer.getLong(GitHubSharedRateLimit.resetMillisecondsOffset);
+                final long currentRemaining = this.buffer.getLong(GitHubSharedRateLimit.remainingOffset);
+                // Responses can arrive out of order, so within one window the smallest remaining
+                // count is the most recent one, and responses from an earlier window are ignored.
+                if (currentRemaining < 0 || resetMilliseconds > currentResetMilliseconds)
+                {
+                    this.buffer.putLong(GitHubSharedRateLimit.limitOffset, limit);
+                    this.buffer.putLong(GitHubSharedRateLimit.remainingOffset, remaining);
+                    this.buffer.putLong(GitHubSharedRateLimit.resetMillisecondsOffset, resetMilliseconds);
+                    this.buffer.putLong(GitHubSharedRateLimit.nextReservationMillisecondsOffset, 0);
+                }
+                else if (resetMilliseconds == currentResetMilliseconds && remaining < currentRemaining)
+                {
+                    this.buffer.putLong(GitHubSharedRateLimit.remainingOffset, remaining);
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        synchronized (this.processLock)
+        {
+            return this.disposed;
+        }
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            synchronized (this.processLock)
+            {
+                final boolean result = !this.disposed;
+                if (result)
+                {
+                    this.disposed = true;
+                    try
+                    {
+                        this.channel.close();
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return result;
+            }
+        });
+    }
+}
@@ -2,7 +2,8 @@ package qub;
 
 public class GitHubUser extends JSONObjectWrapperBase
 {
-    private static final String loginPropertyName = "login";
+    public static final String idPropertyName = "id";
+    public static final String loginPropertyName = "login";
 
     protected GitHubUser(JSONObject json)
     {
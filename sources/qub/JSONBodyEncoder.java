@@ -0,0 +1,265 @@
+package qub;
+
+/**
+ * An encoder that writes JSON segments directly into a reusable UTF-8 byte buffer without
+ * first creating the JSON text as an intermediate {@link String}.
+ */
+public class JSONBodyEncoder
+{
+    private static final int defaultInitialCapacity = 256;
+    private static final int maximumRetainedCapacity = 64 * 1024;
+    private static final byte[] hexDigits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+    private final int initialCapacity;
+    private byte[] buffer;
+    private int byteCount;
+
+    private JSONBodyEncoder(int initialCapacity)
+    {
+        PreCondition.assertGreaterThan(initialCapacity, 0, "initialCapacity");
+
+        this.initialCapacity = initialCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Create a new {@link JSONBodyEncoder} with the default initial capacity.
+     * @return The new {@link JSONBodyEncoder}.
+     */
+    public static JSONBodyEncoder create()
+    {
+        return JSONBodyEncoder.create(JSONBodyEncoder.defaultInitialCapacity);
+    }
+
+    /**
+     * Create a new {@link JSONBodyEncoder} with the provided initial capacity.
+     * @param initialCapacity The number of bytes that the encoder's buffer will initially hold.
+     * @return The new {@link JSONBodyEncoder}.
+     */
+    public static JSONBodyEncoder create(int initialCapacity)
+    {
+        return new JSONBodyEncoder(initialCapacity);
+    }
+
+    /**
+     * Get the number of bytes that have been encoded since this encoder was last cleared.
+     * @return The number of bytes that have been encoded since this encoder was last cleared.
+     */
+    public int getByteCount()
+    {
+        return this.byteCount;
+    }
+
+    /**
+     * Get the number of bytes that this encoder can hold before its buffer must grow.
+     * @return The number of bytes that this encoder can hold before its buffer must grow.
+     */
+    public int getCapacity()
+    {
+        return this.buffer.length;
+    }
+
+    /**
+     * Discard the bytes that have been encoded so that this encoder can be reused. If the
+     * encoder's buffer grew very large while encoding a previous body, then it will be released
+     * so that a single large body doesn't pin memory for the lifetime of the encoder.
+     * @return This object for method chaining.
+     */
+    public JSONBodyEncoder clear()
+    {
+        this.byteCount = 0;
+        if (this.buffer.length > JSONBodyEncoder.maximumRetainedCapacity)
+        {
+            this.buffer = new byte[this.initialCapacity];
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode the provided {@link JSONSegment} as UTF-8 bytes onto the end of this encoder's
+     * buffer.
+     * @param json The {@link JSONSegment} to encode.
+     * @return This object for method chaining.
+     */
+    public JSONBodyEncoder encode(JSONSegment json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        this.writeSegment(json);
+
+        return this;
+    }
+
+    /**
+     * Get a copy of the bytes that have been encoded since this encoder was last cleared.
+     * @return A copy of the bytes that have been encoded since this encoder was last cleared.
+     */
+    public byte[] toByteArray()
+    {
+        return java.util.Arrays.copyOf(this.buffer, this.byteCount);
+    }
+
+    private void writeSegment(JSONSegment json)
+    {
+        if (json instanceof JSONObject)
+        {
+            this.writeByte('{');
+            boolean firstProperty = true;
+            for (final JSONProperty property : (JSONObject)json)
+            {
+                if (firstProperty)
+                {
+                    firstProperty = false;
+                }
+                else
+                {
+                    this.writeByte(',');
+                }
+                this.writeString(property.getName());
+                this.writeByte(':');
+                this.writeSegment(property.getValue());
+            }
+            this.writeByte('}');
+        }
+        else if (json instanceof JSONArray)
+        {
+            this.writeByte('[');
+            boolean firstElement = true;
+            for (final JSONSegment element : (JSONArray)json)
+            {
+                if (firstElement)
+                {
+                    firstElement = false;
+                }
+                else
+                {
+                    this.writeByte(',');
+                }
+                this.writeSegment(element);
+            }
+            this.writeByte(']');
+        }
+        else if (json instanceof JSONString)
+        {
+            this.writeString(((JSONString)json).getValue());
+        }
+        else
+        {
+            // Numbers, booleans, and null are always written as short ASCII literals.
+            final String literal = json.toString();
+            final int literalLength = literal.length();
+            this.ensureCapacity(literalLength);
+            for (int i = 0; i < literalLength; ++i)
+            {
+                this.buffer[this.byteCount++] = (byte)literal.charAt(i);
+            }
+        }
+    }
+
+    private void writeString(String value)
+    {
+        this.writeByte('"');
+        final int valueLength = value.length();
+        for (int i = 0; i < valueLength; ++i)
+        {
+            final char c = value.charAt(i);
+            switch (c)
+            {
+                case '"':
+                case '\\':
+                    this.writeByte('\\');
+                    this.writeByte(c);
+                    break;
+
+                case '\b':
+                    this.writeEscape('b');
+                    break;
+
+                case '\f':
+                    this.writeEscape('f');
+                    break;
+
+                case '\n':
+                    this.writeEscape('n');
+                    break;
+
+                case '\r':
+                    this.writeEscape('r');
+                    break;
+
+                case '\t':
+                    this.writeEscape('t');
+                    break;
+
+                default:
+                    if (c < 0x20)
+                    {
+                        this.ensureCapacity(6);
+                        this.buffer[this.byteCount++] = '\\';
+                        this.buffer[this.byteCount++] = 'u';
+                        this.buffer[this.byteCount++] = '0';
+                        this.buffer[this.byteCount++] = '0';
+                        this.buffer[this.byteCount++] = JSONBodyEncoder.hexDigits[(c >> 4) & 0xF];
+                        this.buffer[this.byteCount++] = JSONBodyEncoder.hexDigits[c & 0xF];
+                    }
+                    else if (c < 0x80)
+                    {
+                        this.writeByte(c);
+                    }
+                    else if (c < 0x800)
+                    {
+                        this.ensureCapacity(2);
+                        this.buffer[this.byteCount++] = (byte)(0xC0 | (c >> 6));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | (c & 0x3F));
+                    }
+                    else if (Character.isHighSurrogate(c) && i + 1 < valueLength && Character.isLowSurrogate(value.charAt(i + 1)))
+                    {
+                        final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        this.ensureCapacity(4);
+                        this.buffer[this.byteCount++] = (byte)(0xF0 | (codePoint >> 18));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | (codePoint & 0x3F));
+                    }
+                    else if (Character.isSurrogate(c))
+                    {
+                        // An unpaired surrogate can't be encoded as UTF-8, so replace it with
+                        // '?' the same way that String.getBytes() does.
+                        this.writeByte('?');
+                    }
+                    else
+                    {
+                        this.ensureCapacity(3);
+                        this.buffer[this.byteCount++] = (byte)(0xE0 | (c >> 12));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                        this.buffer[this.byteCount++] = (byte)(0x80 | (c & 0x3F));
+                    }
+                    break;
+            }
+        }
+        this.writeByte('"');
+    }
+
+    private void writeEscape(char escapedCharacter)
+    {
+        this.ensureCapacity(2);
+        this.buffer[this.byteCount++] = '\\';
+        this.buffer[this.byteCount++] = (byte)escapedCharacter;
+    }
+
+    private void writeByte(int value)
+    {
+        this.ensureCapacity(1);
+        this.buffer[this.byteCount++] = (byte)value;
+    }
+
+    private void ensureCapacity(int additionalBytes)
+    {
+        final int requiredCapacity = this.byteCount + additionalBytes;
+        if (requiredCapacity > this.buffer.length)
+        {
+            this.buffer = java.util.Arrays.copyOf(this.buffer, Math.max(requiredCapacity, this.buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package qub;
+
+/**
+ * A read-only view of the UTF-8 bytes of a JSON array. Creating the view scans the bytes once
+ * to record where each element is, and then only the elements that are actually requested are
+ * parsed. Object elements can be accessed as {@link LazyJSONObject}s so that only the properties
+ * that are needed from each element are parsed.
+ */
+public class LazyJSONArray
+{
+    private final byte[] bytes;
+    private final int[] elementIndexes;
+    private final int elementCount;
+
+    private LazyJSONArray(byte[] bytes, int[] elementIndexes, int elementCount)
+    {
+        this.bytes = bytes;
+        this.elementIndexes = elementIndexes;
+        this.elementCount = elementCount;
+    }
+
+    /**
+     * Create a {@link LazyJSONArray} view of the provided UTF-8 encoded JSON text.
+     * @param bytes The UTF-8 encoded JSON text of an array.
+     * @return The {@link LazyJSONArray} view of the provided bytes.
+     */
+    public static Result<LazyJSONArray> parse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return Result.create(() ->
+        {
+            final int endIndex = bytes.length;
+            int i = LazyJSONObject.skipWhitespace(bytes, 0, endIndex);
+            if (i == endIndex)
+            {
+                throw new ParseException("No JSON tokens found.");
+            }
+            if (bytes[i] != '[')
+            {
+                throw new ParseException("Expected the JSON to be a " + Types.getTypeName(JSONArray.class) + ", but found " + Strings.escapeAndQuote(String.valueOf((char)bytes[i])) + " instead.");
+            }
+            i = LazyJSONObject.skipWhitespace(bytes, i + 1, endIndex);
+
+            int[] elementIndexes = new int[2 * 16];
+            int elementCount = 0;
+            if (i < endIndex && bytes[i] == ']')
+            {
+                ++i;
+            }
+            else
+            {
+                while (true)
+                {
+                    final int elementStartIndex = i;
+                    i = LazyJSONObject.skipValue(bytes, i, endIndex);
+
+                    final int entryIndex = elementCount * 2;
+                    if (entryIndex == elementIndexes.length)
+                    {
+                        elementIndexes = java.util.Arrays.copyOf(elementIndexes, elementIndexes.length * 2);
+                    }
+                    elementIndexes[entryIndex] = elementStartIndex;
+                    elementIndexes[entryIndex + 1] = i;
+                    ++elementCount;
+
+                    i = LazyJSONObject.skipWhitespace(bytes, i, endIndex);
+                    if (i < endIndex && bytes[i] == ',')
+                    {
+                        i = LazyJSONObject.skipWhitespace(bytes, i + 1, endIndex);
+                    }
+                    else if (i < endIndex && bytes[i] == ']')
+                    {
+                        ++i;
+                        break;
+                    }
+                    else
+                    {
+                        throw new ParseException("Expected ',' or ']' at byte index " + i + ".");
+                    }
+                }
+            }
+
+            if (LazyJSONObject.skipWhitespace(bytes, i, endIndex) != endIndex)
+            {
+                throw new ParseException("Expected the end of the JSON text at byte index " + i + ".");
+            }
+
+            return new LazyJSONArray(bytes, elementIndexes, elementCount);
+        });
+    }
+
+    /**
+     * Get the number of elements in this array.
+     * @return The number of elements in this array.
+     */
+    public int getCount()
+    {
+        return this.elementCount;
+    }
+
+    /**
+     * Parse the element at the provided index.
+     * @param index The index of the element.
+     * @return The parsed element at the provided index.
+     */
+    public Result<JSONSegment> get(int index)
+    {
+        PreCondition.assertIndexAccess(index, this.elementCount, "index");
+
+        return Result.create(() ->
+        {
+            final int elementStartIndex = this.elementIndexes[index * 2];
+            final int elementEndIndex = this.elementIndexes[index * 2 + 1];
+            return JSON.parse(new String(this.bytes, elementStartIndex, elementEndIndex - elementStartIndex, java.nio.charset.StandardCharsets.UTF_8)).await();
+        });
+    }
+
+    /**
+     * Get a {@link LazyJSONObject} view of the object element at the provided index.
+     * @param index The index of the element.
+     * @return A {@link LazyJSONObject} view of the element at the provided index.
+     */
+    public Result<LazyJSONObject> getObject(int index)
+    {
+        PreCondition.assertIndexAccess(index, this.elementCount, "index");
+
+        return LazyJSONObject.parse(this.bytes, this.elementIndexes[index * 2], this.elementIndexes[index * 2 + 1]);
+    }
+
+    /**
+     * Get {@link LazyJSONObject} views of each of the object elements in this array. Elements
+     * that aren't objects are skipped.
+     * @return {@link LazyJSONObject} views of each of the object elements in this array.
+     */
+    public Iterable<LazyJSONObject> getObjects()
+    {
+        final List<LazyJSONObject> result = List.create();
+        for (int i = 0; i < this.elementCount; ++i)
+        {
+            if (this.bytes[this.elementIndexes[i * 2]] == '{')
+            {
+                result.add(this.getObject(i).await());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,492 @@
+package qub;
+
+/**
+ * A read-only view of the UTF-8 bytes of a JSON object. Creating the view scans the bytes once
+ * to record where each top-level property's name and value are, and then only the property
+ * values that are actually requested are parsed into {@link JSONSegment}s. Nested objects and
+ * arrays are skipped over during the scan and are only validated when they are requested. Each
+ * property value and string is only parsed once per view, and later requests for it reuse the
+ * parsed value.
+ */
+public class LazyJSONObject
+{
+    private static final int nameStartOffset = 0;
+    private static final int nameEndOffset = 1;
+    private static final int valueStartOffset = 2;
+    private static final int valueEndOffset = 3;
+    private static final int indexEntrySize = 4;
+
+    private final byte[] bytes;
+    private final int startIndex;
+    private final int endIndex;
+    private final int[] index;
+    private final int propertyCount;
+    private final JSONSegment[] values;
+    private final String[] strings;
+
+    private LazyJSONObject(byte[] bytes, int startIndex, int endIndex, int[] index, int propertyCount)
+    {
+        this.bytes = bytes;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.index = index;
+        this.propertyCount = propertyCount;
+        this.values = new JSONSegment[propertyCount];
+        this.strings = new String[propertyCount];
+    }
+
+    /**
+     * Create a {@link LazyJSONObject} view of the provided UTF-8 encoded JSON text.
+     * @param bytes The UTF-8 encoded JSON text of an object.
+     * @return The {@link LazyJSONObject} view of the provided bytes.
+     */
+    public static Result<LazyJSONObject> parse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return LazyJSONObject.parse(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Create a {@link LazyJSONObject} view of the provided range of UTF-8 encoded JSON text.
+     * The bytes are not copied, so they must not be modified while the view is in use.
+     * @param bytes The bytes that contain the UTF-8 encoded JSON text of an object.
+     * @param startIndex The index of the first byte of the object's JSON text.
+     * @param endIndex The index after the last byte of the object's JSON text.
+     * @return The {@link LazyJSONObject} view of the provided bytes.
+     */
+    public static Result<LazyJSONObject> parse(byte[] bytes, int startIndex, int endIndex)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertBetween(0, startIndex, bytes.length, "startIndex");
+        PreCondition.assertBetween(startIndex, endIndex, bytes.length, "endIndex");
+
+        return Result.create(() ->
+        {
+            int i = LazyJSONObject.skipWhitespace(bytes, startIndex, endIndex);
+            if (i == endIndex)
+            {
+                throw new ParseException("No JSON tokens found.");
+            }
+            if (bytes[i] != '{')
+            {
+                throw new ParseException("Expected the JSON to be a " + Types.getTypeName(JSONObject.class) + ", but found " + Strings.escapeAndQuote(String.valueOf((char)bytes[i])) + " instead.");
+            }
+            final int objectStartIndex = i;
+            i = LazyJSONObject.skipWhitespace(bytes, i + 1, endIndex);
+
+            int[] index = new int[LazyJSONObject.indexEntrySize * 8];
+            int propertyCount = 0;
+            if (i < endIndex && bytes[i] == '}')
+            {
+                ++i;
+            }
+            else
+            {
+                while (true)
+                {
+                    if (i == endIndex || bytes[i] != '"')
+                    {
+                        throw new ParseException("Expected a JSON property name at byte index " + i + ".");
+                    }
+                    final int nameStartIndex = i;
+                    i = LazyJSONObject.skipString(bytes, i, endIndex);
+                    final int nameEndIndex = i;
+
+                    i = LazyJSONObject.skipWhitespace(bytes, i, endIndex);
+                    if (i == endIndex || bytes[i] != ':')
+                    {
+                        throw new ParseException("Expected ':' after the JSON property name at byte index " + nameStartIndex + ".");
+                    }
+                    i = LazyJSONObject.skipWhitespace(bytes, i + 1, endIndex);
+
+                    final int valueStartIndex = i;
+                    i = LazyJSONObject.skipValue(bytes, i, endIndex);
+                    final int valueEndIndex = i;
+
+                    final int entryIndex = propertyCount * LazyJSONObject.indexEntrySize;
+                    if (entryIndex == index.length)
+                    {
+                        index = java.util.Arrays.copyOf(index, index.length * 2);
+                    }
+                    index[entryIndex + LazyJSONObject.nameStartOffset] = nameStartIndex;
+                    index[entryIndex + LazyJSONObject.nameEndOffset] = nameEndIndex;
+                    index[entryIndex + LazyJSONObject.valueStartOffset] = valueStartIndex;
+                    index[entryIndex + LazyJSONObject.valueEndOffset] = valueEndIndex;
+                    ++propertyCount;
+
+                    i = LazyJSONObject.skipWhitespace(bytes, i, endIndex);
+                    if (i < endIndex && bytes[i] == ',')
+                    {
+                        i = LazyJSONObject.skipWhitespace(bytes, i + 1, endIndex);
+                    }
+                    else if (i < endIndex && bytes[i] == '}')
+                    {
+                        ++i;
+                        break;
+                    }
+                    else
+                    {
+                        throw new ParseException("Expected ',' or '}' at byte index " + i + ".");
+                    }
+                }
+            }
+
+            final int objectEndIndex = i;
+            if (LazyJSONObject.skipWhitespace(bytes, i, endIndex) != endIndex)
+            {
+                throw new ParseException("Expected the end of the JSON text at byte index " + i + ".");
+            }
+
+            return new LazyJSONObject(bytes, objectStartIndex, objectEndIndex, index, propertyCount);
+        });
+    }
+
+    /**
+     * Get the number of properties in this object.
+     * @return The number of properties in this object.
+     */
+    public int getPropertyCount()
+    {
+        return this.propertyCount;
+    }
+
+    /**
+     * Get whether this object contains a property with the provided name.
+     * @param propertyName The name of the property to look for.
+     * @return Whether this object contains a property with the provided name.
+     */
+    public boolean contains(String propertyName)
+    {
+        PreCondition.assertNotNull(propertyName, "propertyName");
+
+        return this.indexOf(propertyName) != -1;
+    }
+
+    /**
+     * Get the value of the property with the provided name. The value is parsed the first time
+     * that it is requested.
+     * @param propertyName The name of the property.
+     * @return The value of the property with the provided name.
+     */
+    public Result<JSONSegment> get(String propertyName)
+    {
+        PreCondition.assertNotNull(propertyName, "propertyName");
+
+        return Result.create(() ->
+        {
+            final int propertyIndex = this.indexOf(propertyName);
+            if (propertyIndex == -1)
+            {
+                throw new NotFoundException("No property found with the name " + Strings.escapeAndQuote(propertyName) + ".");
+            }
+            return this.getValue(propertyIndex);
+        });
+    }
+
+    /**
+     * Get the string value of the property with the provided name. Strings without escape
+     * sequences are decoded directly from the underlying bytes.
+     * @param propertyName The name of the property.
+     * @return The string value of the property with the provided name.
+     */
+    public Result<String> getString(String propertyName)
+    {
+        PreCondition.assertNotNull(propertyName, "propertyName");
+
+        return Result.create(() ->
+        {
+            final int propertyIndex = this.indexOf(propertyName);
+            if (propertyIndex == -1)
+            {
+                throw new NotFoundException("No property found with the name " + Strings.escapeAndQuote(propertyName) + ".");
+            }
+
+            return this.getStringValue(propertyIndex, propertyName);
+        });
+    }
+
+    /**
+     * Get a {@link LazyJSONObject} view of the object value of the property with the provided
+     * name.
+     * @param propertyName The name of the property.
+     * @return A {@link LazyJSONObject} view of the property's value.
+     */
+    public Result<LazyJSONObject> getObject(String propertyName)
+    {
+        PreCondition.assertNotNull(propertyName, "propertyName");
+
+        return Result.create(() ->
+        {
+            final int propertyIndex = this.indexOf(propertyName);
+            if (propertyIndex == -1)
+            {
+                throw new NotFoundException("No property found with the name " + Strings.escapeAndQuote(propertyName) + ".");
+            }
+
+            final int entryIndex = propertyIndex * LazyJSONObject.indexEntrySize;
+            return LazyJSONObject.parse(
+                this.bytes,
+                this.index[entryIndex + LazyJSONObject.valueStartOffset],
+                this.index[entryIndex + LazyJSONObject.valueEndOffset]).await();
+        });
+    }
+
+    /**
+     * Create a {@link JSONObject} that contains only the properties of this object with the
+     * provided names. Names that don't exist in this object are ignored. The returned
+     * {@link JSONObject} can be wrapped by any of the JSON wrapper types, such as
+     * {@link GitHubUser} or {@link GitHubRepository}.
+     * @param propertyNames The names of the properties to materialize.
+     * @return A {@link JSONObject} that contains the requested properties.
+     */
+    public JSONObject toJson(String... propertyNames)
+    {
+        PreCondition.assertNotNull(propertyNames, "propertyNames");
+
+        final JSONObject result = JSONObject.create();
+        for (final String propertyName : propertyNames)
+        {
+            final int propertyIndex = this.indexOf(propertyName);
+            if (propertyIndex != -1)
+            {
+                result.set(propertyName, this.getValue(propertyIndex));
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Create a {@link JSONObject} that contains all of the properties of this object.
+     * @return A {@link JSONObject} that contains all of the properties of this object.
+     */
+    public JSONObject toJson()
+    {
+        final JSONObject result = JSONObject.create();
+        for (int propertyIndex = 0; propertyIndex < this.propertyCount; ++propertyIndex)
+        {
+            final int entryIndex = propertyIndex * LazyJSONObject.indexEntrySize;
+            final String propertyName = LazyJSONObject.decodeString(
+                this.bytes,
+                this.index[entryIndex + LazyJSONObject.nameStartOffset],
+                this.index[entryIndex + LazyJSONObject.nameEndOffset]);
+            result.set(propertyName, this.getValue(propertyIndex));
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new String(this.bytes, this.startIndex, this.endIndex - this.startIndex, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private JSONSegment getValue(int propertyIndex)
+    {
+        synchronized (this.values)
+        {
+            JSONSegment result = this.values[propertyIndex];
+            if (result == null)
+            {
+                final int entryIndex = propertyIndex * LazyJSONObject.indexEntrySize;
+                final int valueStartIndex = this.index[entryIndex + LazyJSONObject.valueStartOffset];
+                final int valueEndIndex = this.index[entryIndex + LazyJSONObject.valueEndOffset];
+                result = JSON.parse(new String(this.bytes, valueStartIndex, valueEndIndex - valueStartIndex, java.nio.charset.StandardCharsets.UTF_8)).await();
+                this.values[propertyIndex] = result;
+            }
+            return result;
+        }
+    }
+
+    private String getStringValue(int propertyIndex, String propertyName)
+    {
+        synchronized (this.strings)
+        {
+            String result = this.strings[propertyIndex];
+            if (result == null)
+            {
+                final int entryIndex = propertyIndex * LazyJSONObject.indexEntrySize;
+                final int valueStartIndex = this.index[entryIndex + LazyJSONObject.valueStartOffset];
+                if (this.bytes[valueStartIndex] != '"')
+                {
+                    throw new ParseException("Expected the property " + Strings.escapeAndQuote(propertyName) + " to be a " + Types.getTypeName(JSONString.class) + ".");
+                }
+                result = LazyJSONObject.decodeString(this.bytes, valueStartIndex, this.index[entryIndex + LazyJSONObject.valueEndOffset]);
+                this.strings[propertyIndex] = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Find the index of the last property with the provided name. Property names without escape
+     * sequences are compared against the underlying bytes without decoding them.
+     * @param propertyName The name of the property to find.
+     * @return The index of the property, or -1 if the property doesn't exist.
+     */
+    private int indexOf(String propertyName)
+    {
+        final byte[] propertyNameBytes = propertyName.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        int result = -1;
+        for (int propertyIndex = this.propertyCount - 1; propertyIndex >= 0 && result == -1; --propertyIndex)
+        {
+            final int entryIndex = propertyIndex * LazyJSONObject.indexEntrySize;
+            final int nameStartIndex = this.index[entryIndex + LazyJSONObject.nameStartOffset] + 1;
+            final int nameEndIndex = this.index[entryIndex + LazyJSONObject.nameEndOffset] - 1;
+            if (LazyJSONObject.indexOf(this.bytes, (byte)'\\', nameStartIndex, nameEndIndex) != -1)
+            {
+                if (propertyName.equals(LazyJSONObject.decodeString(this.bytes, nameStartIndex - 1, nameEndIndex + 1)))
+                {
+                    result = propertyIndex;
+                }
+            }
+            else if (java.util.Arrays.equals(this.bytes, nameStartIndex, nameEndIndex, propertyNameBytes, 0, propertyNameBytes.length))
+            {
+                result = propertyIndex;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decode the JSON string that starts at startIndex (at its opening quote) and ends before
+     * endIndex (after its closing quote).
+     */
+    static String decodeString(byte[] bytes, int startIndex, int endIndex)
+    {
+        final String result;
+        if (LazyJSONObject.indexOf(bytes, (byte)'\\', startIndex + 1, endIndex - 1) == -1)
+        {
+            result = new String(bytes, startIndex + 1, endIndex - startIndex - 2, java.nio.charset.StandardCharsets.UTF_8);
+        }
+        else
+        {
+            final JSONSegment segment = JSON.parse(new String(bytes, startIndex, endIndex - startIndex, java.nio.charset.StandardCharsets.UTF_8)).await();
+            result = ((JSONString)segment).getValue();
+        }
+        return result;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int startIndex, int endIndex)
+    {
+        int result = -1;
+        for (int i = startIndex; i < endIndex; ++i)
+        {
+            if (bytes[i] == value)
+            {
+                result = i;
+                break;
+            }
+        }
+        return result;
+    }
+
+    static int skipWhitespace(byte[] bytes, int index, int endIndex)
+    {
+        while (index < endIndex && (bytes[index] == ' ' || bytes[index] == '\t' || bytes[index] == '\n' || bytes[index] == '\r'))
+        {
+            ++index;
+        }
+        return index;
+    }
+
+    /**
+     * Skip over the JSON string that starts at the provided index.
+     * @return The index after the string's closing quote.
+     */
+    static int skipString(byte[] bytes, int index, int endIndex)
+    {
+        final int startIndex = index;
+        ++index;
+        while (index < endIndex)
+        {
+            final byte b = bytes[index];
+            if (b == '\\')
+            {
+                index += 2;
+            }
+            else if (b == '"')
+            {
+                return index + 1;
+            }
+            else
+            {
+                ++index;
+            }
+        }
+        throw new ParseException("Missing the closing quote for the JSON string that starts at byte index " + startIndex + ".");
+    }
+
+    /**
+     * Skip over the JSON value that starts at the provided index. Objects and arrays are skipped
+     * by matching their brackets without validating their contents.
+     * @return The index after the value.
+     */
+    static int skipValue(byte[] bytes, int index, int endIndex)
+    {
+        if (index == endIndex)
+        {
+            throw new ParseException("Expected a JSON value at byte index " + index + ".");
+        }
+
+        final int startIndex = index;
+        final byte first = bytes[index];
+        if (first == '"')
+        {
+            index = LazyJSONObject.skipString(bytes, index, endIndex);
+        }
+        else if (first == '{' || first == '[')
+        {
+            int depth = 0;
+            do
+            {
+                final byte b = bytes[index];
+                if (b == '"')
+                {
+                    index = LazyJSONObject.skipString(bytes, index, endIndex);
+                }
+                else
+                {
+                    if (b == '{' || b == '[')
+                    {
+                        ++depth;
+                    }
+                    else if (b == '}' || b == ']')
+                    {
+                        --depth;
+                    }
+                    ++index;
+                }
+            }
+            while (depth > 0 && index < endIndex);
+
+            if (depth > 0)
+            {
+                throw new ParseException("Missing the closing bracket for the JSON value that starts at byte index " + startIndex + ".");
+            }
+        }
+        else
+        {
+            while (index < endIndex)
+            {
+                final byte b = bytes[index];
+                if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r')
+                {
+                    break;
+                }
+                ++index;
+            }
+            if (index == startIndex)
+            {
+                throw new ParseException("Expected a JSON value at byte index " + index + ".");
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,242 @@
+package qub;
+
+/**
+ * A hash map from primitive long keys to primitive long values. Entries are stored in two
+ * parallel arrays with open addressing and linear probing, so no entry objects or boxed keys or
+ * values are allocated. A slot whose value is {@link #noValue} is empty, so {@link #noValue}
+ * can't be stored as a value.
+ */
+public class LongLongMap
+{
+    /**
+     * The value that is returned when a key isn't in the map.
+     */
+    public static final long noValue = Long.MIN_VALUE;
+
+    private static final int minimumCapacity = 8;
+
+    private long[] keys;
+    private long[] values;
+    private int count;
+    private int mask;
+
+    private LongLongMap(int initialCapacity)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(initialCapacity, 0, "initialCapacity");
+
+        this.allocate(LongLongMap.getCapacityFor(initialCapacity));
+    }
+
+    public static LongLongMap create()
+    {
+        return LongLongMap.create(0);
+    }
+
+    /**
+     * Create a new {@link LongLongMap} that can hold the provided number of entries without
+     * growing.
+     * @param initialCapacity The number of entries that the new map can hold without growing.
+     * @return The new {@link LongLongMap}.
+     */
+    public static LongLongMap create(int initialCapacity)
+    {
+        return new LongLongMap(initialCapacity);
+    }
+
+    /**
+     * Get the power of two number of slots that can hold the provided number of entries while
+     * keeping the table at most three quarters full.
+     */
+    private static int getCapacityFor(int entryCount)
+    {
+        final long requiredSlots = Math.max(LongLongMap.minimumCapacity, ((long)entryCount * 4 + 2) / 3);
+        if (requiredSlots > (1 << 30))
+        {
+            throw new java.lang.IllegalArgumentException("A " + Types.getTypeName(LongLongMap.class) + " can't hold " + entryCount + " entries.");
+        }
+        return Integer.highestOneBit((int)requiredSlots - 1) << 1;
+    }
+
+    private void allocate(int capacity)
+    {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        java.util.Arrays.fill(this.values, LongLongMap.noValue);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Get the slot that the provided key would be stored in if there were no collisions.
+     */
+    private int getIdealSlot(long key)
+    {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int)(hash ^ (hash >>> 32)) & this.mask;
+    }
+
+    /**
+     * Get the slot that contains the provided key, or the empty slot where it would be added.
+     */
+    private int findSlot(long key)
+    {
+        int slot = this.getIdealSlot(key);
+        while (this.values[slot] != LongLongMap.noValue && this.keys[slot] != key)
+        {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Get the number of entries in this map.
+     * @return The number of entries in this map.
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get whether this map contains an entry with the provided key.
+     * @param key The key to look for.
+     * @return Whether this map contains an entry with the provided key.
+     */
+    public boolean containsKey(long key)
+    {
+        return this.values[this.findSlot(key)] != LongLongMap.noValue;
+    }
+
+    /**
+     * Get the value associated with the provided key.
+     * @param key The key to look for.
+     * @return The value associated with the provided key, or {@link #noValue} if this map
+     * doesn't contain the key.
+     */
+    public long get(long key)
+    {
+        return this.values[this.findSlot(key)];
+    }
+
+    /**
+     * Associate the provided value with the provided key.
+     * @param key The key.
+     * @param value The value to associate with the key. This can't be {@link #noValue}.
+     * @return The value that was previously associated with the key, or {@link #noValue} if
+     * there wasn't one.
+     */
+    public long set(long key, long value)
+    {
+        PreCondition.assertFalse(value == LongLongMap.noValue, "value == LongLongMap.noValue");
+
+        int slot = this.findSlot(key);
+        final long result = this.values[slot];
+        if (result == LongLongMap.noValue)
+        {
+            if ((this.count + 1) * 4 > this.values.length * 3)
+            {
+                this.resize(this.values.length * 2);
+                slot = this.findSlot(key);
+            }
+            this.keys[slot] = key;
+            ++this.count;
+        }
+        this.values[slot] = value;
+        return result;
+    }
+
+    /**
+     * Remove the entry with the provided key.
+     * @param key The key of the entry to remove.
+     * @return The value that was associated with the key, or {@link #noValue} if this map
+     * didn't contain the key.
+     */
+    public long remove(long key)
+    {
+        int emptySlot = this.findSlot(key);
+        final long result = this.values[emptySlot];
+        if (result != LongLongMap.noValue)
+        {
+            this.values[emptySlot] = LongLongMap.noValue;
+            --this.count;
+
+            // Shift any following entries that were displaced past the removed slot back so that
+            // lookups never stop early at the new gap.
+            int slot = (emptySlot + 1) & this.mask;
+            while (this.values[slot] != LongLongMap.noValue)
+            {
+                final int idealSlot = this.getIdealSlot(this.keys[slot]);
+                final boolean canMove = (emptySlot <= slot)
+                    ? (idealSlot <= emptySlot || slot < idealSlot)
+                    : (idealSlot <= emptySlot && slot < idealSlot);
+                if (canMove)
+                {
+                    this.keys[emptySlot] = this.keys[slot];
+                    this.values[emptySlot] = this.values[slot];
+                    this.values[slot] = LongLongMap.noValue;
+                    emptySlot = slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all of the entries from this map.
+     */
+    public void clear()
+    {
+        java.util.Arrays.fill(this.values, LongLongMap.noValue);
+        this.count = 0;
+    }
+
+    /**
+     * Get the keys of this map, in no particular order.
+     * @return The keys of this map.
+     */
+    public long[] getKeys()
+    {
+        final long[] result = new long[this.count];
+        int resultIndex = 0;
+        for (int slot = 0; slot < this.values.length; ++slot)
+        {
+            if (this.values[slot] != LongLongMap.noValue)
+            {
+                result[resultIndex++] = this.keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Make sure that this map can hold the provided number of entries without growing.
+     * @param entryCount The number of entries that this map should be able to hold.
+     */
+    public void ensureCapacity(int entryCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(entryCount, 0, "entryCount");
+
+        final int capacity = LongLongMap.getCapacityFor(entryCount);
+        if (capacity > this.values.length)
+        {
+            this.resize(capacity);
+        }
+    }
+
+    private void resize(int capacity)
+    {
+        final long[] oldKeys = this.keys;
+        final long[] oldValues = this.values;
+
+        this.allocate(capacity);
+        for (int oldSlot = 0; oldSlot < oldValues.length; ++oldSlot)
+        {
+            if (oldValues[oldSlot] != LongLongMap.noValue)
+            {
+                final int slot = this.findSlot(oldKeys[oldSlot]);
+                this.keys[slot] = oldKeys[oldSlot];
+                this.values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+}
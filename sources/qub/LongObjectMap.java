@@ -0,0 +1,256 @@
+package qub;
+
+/**
+ * A hash map from primitive long keys to non-null values. Entries are stored in two parallel
+ * arrays with open addressing and linear probing, so no entry objects or boxed keys are
+ * allocated. A slot whose value is null is empty.
+ * @param <V> The type of values stored in this map.
+ */
+public class LongObjectMap<V>
+{
+    private static final int minimumCapacity = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int count;
+    private int mask;
+
+    private LongObjectMap(int initialCapacity)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(initialCapacity, 0, "initialCapacity");
+
+        final int capacity = LongObjectMap.getCapacityFor(initialCapacity);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static <V> LongObjectMap<V> create()
+    {
+        return LongObjectMap.create(0);
+    }
+
+    /**
+     * Create a new {@link LongObjectMap} that can hold the provided number of entries without
+     * growing.
+     * @param initialCapacity The number of entries that the new map can hold without growing.
+     * @param <V> The type of values stored in the new map.
+     * @return The new {@link LongObjectMap}.
+     */
+    public static <V> LongObjectMap<V> create(int initialCapacity)
+    {
+        return new LongObjectMap<>(initialCapacity);
+    }
+
+    /**
+     * Get the power of two number of slots that can hold the provided number of entries while
+     * keeping the table at most three quarters full.
+     */
+    private static int getCapacityFor(int entryCount)
+    {
+        final long requiredSlots = Math.max(LongObjectMap.minimumCapacity, ((long)entryCount * 4 + 2) / 3);
+        if (requiredSlots > (1 << 30))
+        {
+            throw new java.lang.IllegalArgumentException("A " + Types.getTypeName(LongObjectMap.class) + " can't hold " + entryCount + " entries.");
+        }
+        return Integer.highestOneBit((int)requiredSlots - 1) << 1;
+    }
+
+    /**
+     * Get the slot that the provided key would be stored in if there were no collisions.
+     */
+    private int getIdealSlot(long key)
+    {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int)(hash ^ (hash >>> 32)) & this.mask;
+    }
+
+    /**
+     * Get the slot that contains the provided key, or the empty slot where it would be added.
+     */
+    private int findSlot(long key)
+    {
+        int slot = this.getIdealSlot(key);
+        while (this.values[slot] != null && this.keys[slot] != key)
+        {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Get the number of entries in this map.
+     * @return The number of entries in this map.
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get whether this map contains an entry with the provided key.
+     * @param key The key to look for.
+     * @return Whether this map contains an entry with the provided key.
+     */
+    public boolean containsKey(long key)
+    {
+        return this.values[this.findSlot(key)] != null;
+    }
+
+    /**
+     * Get the value associated with the provided key.
+     * @param key The key to look for.
+     * @return The value associated with the provided key, or null if this map doesn't contain
+     * the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key)
+    {
+        return (V)this.values[this.findSlot(key)];
+    }
+
+    /**
+     * Associate the provided value with the provided key.
+     * @param key The key.
+     * @param value The value to associate with the key.
+     * @return The value that was previously associated with the key, or null if there wasn't
+     * one.
+     */
+    @SuppressWarnings("unchecked")
+    public V set(long key, V value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        int slot = this.findSlot(key);
+        final V result = (V)this.values[slot];
+        if (result == null)
+        {
+            if ((this.count + 1) * 4 > this.values.length * 3)
+            {
+                this.resize(this.values.length * 2);
+                slot = this.findSlot(key);
+            }
+            this.keys[slot] = key;
+            ++this.count;
+        }
+        this.values[slot] = value;
+        return result;
+    }
+
+    /**
+     * Remove the entry with the provided key.
+     * @param key The key of the entry to remove.
+     * @return The value that was associated with the key, or null if this map didn't contain
+     * the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key)
+    {
+        int emptySlot = this.findSlot(key);
+        final V result = (V)this.values[emptySlot];
+        if (result != null)
+        {
+            this.values[emptySlot] = null;
+            --this.count;
+
+            // Shift any following entries that were displaced past the removed slot back so that
+            // lookups never stop early at the new gap.
+            int slot = (emptySlot + 1) & this.mask;
+            while (this.values[slot] != null)
+            {
+                final int idealSlot = this.getIdealSlot(this.keys[slot]);
+                final boolean canMove = (emptySlot <= slot)
+                    ? (idealSlot <= emptySlot || slot < idealSlot)
+                    : (idealSlot <= emptySlot && slot < idealSlot);
+                if (canMove)
+                {
+                    this.keys[emptySlot] = this.keys[slot];
+                    this.values[emptySlot] = this.values[slot];
+                    this.values[slot] = null;
+                    emptySlot = slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all of the entries from this map.
+     */
+    public void clear()
+    {
+        java.util.Arrays.fill(this.values, null);
+        this.count = 0;
+    }
+
+    /**
+     * Get the keys of this map, in no particular order.
+     * @return The keys of this map.
+     */
+    public long[] getKeys()
+    {
+        final long[] result = new long[this.count];
+        int resultIndex = 0;
+        for (int slot = 0; slot < this.values.length; ++slot)
+        {
+            if (this.values[slot] != null)
+            {
+                result[resultIndex++] = this.keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the values of this map, in no particular order.
+     * @return The values of this map.
+     */
+    @SuppressWarnings("unchecked")
+    public Iterable<V> getValues()
+    {
+        final List<V> result = List.create();
+        for (final Object value : this.values)
+        {
+            if (value != null)
+            {
+                result.add((V)value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Make sure that this map can hold the provided number of entries without growing.
+     * @param entryCount The number of entries that this map should be able to hold.
+     */
+    public void ensureCapacity(int entryCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(entryCount, 0, "entryCount");
+
+        final int capacity = LongObjectMap.getCapacityFor(entryCount);
+        if (capacity > this.values.length)
+        {
+            this.resize(capacity);
+        }
+    }
+
+    private void resize(int capacity)
+    {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldValues.length; ++oldSlot)
+        {
+            if (oldValues[oldSlot] != null)
+            {
+                final int slot = this.findSlot(oldKeys[oldSlot]);
+                this.keys[slot] = oldKeys[oldSlot];
+                this.values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+}
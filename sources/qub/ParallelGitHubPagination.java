@@ -0,0 +1,196 @@
+package qub;
+
+/**
+ * A {@link GitHubPagination} that uses the first page's rel="last" link to fetch the remaining
+ * pages concurrently. At most a fixed number of pages are fetched or waiting to be handled at
+ * any time, and pages are still handled one at a time and in page order. If the first page
+ * doesn't have a rel="last" link, then the remaining pages are fetched by following each page's
+ * rel="next" link.
+ * <p>
+ * Page fetches block while they wait for their response, so by default they run on a dedicated,
+ * bounded pool of daemon threads instead of the common fork-join pool, which they would starve.
+ */
+public class ParallelGitHubPagination implements GitHubPagination
+{
+    /**
+     * The maximum number of threads that the default executor fetches pages on. Across every
+     * {@link ParallelGitHubPagination} that uses the default executor, at most this many pages are
+     * fetched at the same time, and the rest wait in a queue.
+     */
+    public static final int defaultExecutorThreadCount = 64;
+
+    private static final java.util.concurrent.ThreadPoolExecutor defaultExecutor = ParallelGitHubPagination.createDefaultExecutor();
+
+    private final int maximumPagesInFlight;
+    private final java.util.concurrent.Executor executor;
+
+    private ParallelGitHubPagination(int maximumPagesInFlight, java.util.concurrent.Executor executor)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumPagesInFlight, 1, "maximumPagesInFlight");
+        PreCondition.assertNotNull(executor, "executor");
+
+        this.maximumPagesInFlight = maximumPagesInFlight;
+        this.executor = executor;
+    }
+
+    public static ParallelGitHubPagination create(int maximumPagesInFlight)
+    {
+        return ParallelGitHubPagination.create(maximumPagesInFlight, ParallelGitHubPagination.defaultExecutor);
+    }
+
+    public static ParallelGitHubPagination create(int maximumPagesInFlight, java.util.concurrent.Executor executor)
+    {
+        return new ParallelGitHubPagination(maximumPagesInFlight, executor);
+    }
+
+    private static java.util.concurrent.ThreadPoolExecutor createDefaultExecutor()
+    {
+        final java.util.concurrent.ThreadPoolExecutor result = new java.util.concurrent.ThreadPoolExecutor(
+            ParallelGitHubPagination.defaultExecutorThreadCount,
+            ParallelGitHubPagination.defaultExecutorThreadCount,
+            60,
+            java.util.concurrent.TimeUnit.SECONDS,
+            new java.util.concurrent.LinkedBlockingQueue<>(),
+            (Runnable runnable) ->
+            {
+                final Thread thread = new Thread(runnable, "qub-github-pagination");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Idle threads exit, so the pool only holds threads while pages are being fetched.
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Get the maximum number of pages that can be fetched or waiting to be handled at the same
+     * time.
+     * @return The maximum number of pages that can be fetched or waiting to be handled at the
+     * same time.
+     */
+    public int getMaximumPagesInFlight()
+    {
+        return this.maximumPagesInFlight;
+    }
+
+    @Override
+    public Result<Void> forEachPage(GitHubClient client, GitHubRequest firstPageRequest, Action1<GitHubResponse> pageAction)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertNotNull(pageAction, "pageAction");
+
+        return Result.create(() ->
+        {
+            Integer nextPageNumber;
+            Integer lastPageNumber;
+            try (final GitHubResponse firstPageResponse = client.sendRequest(firstPageRequest).await())
+            {
+                firstPageResponse.throwIfErrorResponse();
+                pageAction.run(firstPageResponse);
+
+                final GitHubLinkHeader linkHeader = firstPageResponse.getLinkHeader();
+                nextPageNumber = linkHeader.getNextPageNumber();
+                lastPageNumber = linkHeader.getLastPageNumber();
+            }
+
+            if (nextPageNumber != null)
+            {
+                if (lastPageNumber == null)
+                {
+                    SequentialGitHubPagination.create()
+                        .forEachPage(client, GitHubPagination.createPageRequest(firstPageRequest, nextPageNumber), pageAction)
+                        .await();
+                }
+                else
+                {
+                    this.forEachRemainingPage(client, firstPageRequest, nextPageNumber, lastPageNumber, pageAction);
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetch the pages in the range [firstPageNumber, lastPageNumber] with a window of at most
+     * maximumPagesInFlight concurrent fetches. The window only slides forward once the oldest
+     * page has been handled, so a slow page action limits how far ahead the fetches can get. If
+     * a page fails, then the pages in the window that haven't been sent yet are skipped, and the
+     * responses of the pages that have been sent are disposed.
+     */
+    private void forEachRemainingPage(GitHubClient client, GitHubRequest firstPageRequest, int firstPageNumber, int lastPageNumber, Action1<GitHubResponse> pageAction)
+    {
+        final java.util.ArrayDeque<java.util.concurrent.CompletableFuture<GitHubResponse>> window = new java.util.ArrayDeque<>(this.maximumPagesInFlight);
+        final java.util.concurrent.atomic.AtomicBoolean abandoned = new java.util.concurrent.atomic.AtomicBoolean();
+        int nextPageNumberToFetch = firstPageNumber;
+        try
+        {
+            while (nextPageNumberToFetch <= lastPageNumber || !window.isEmpty())
+            {
+                while (nextPageNumberToFetch <= lastPageNumber && window.size() < this.maximumPagesInFlight)
+                {
+                    final GitHubRequest pageRequest = GitHubPagination.createPageRequest(firstPageRequest, nextPageNumberToFetch);
+                    window.add(java.util.concurrent.CompletableFuture.supplyAsync(() ->
+                    {
+                        GitHubResponse pageResponse = null;
+                        if (!abandoned.get())
+                        {
+                            pageResponse = client.sendRequest(pageRequest).await();
+                            if (abandoned.get())
+                            {
+                                pageResponse.dispose().catchError().await();
+                                pageResponse = null;
+                            }
+                        }
+                        return pageResponse;
+                    }, this.executor));
+                    ++nextPageNumberToFetch;
+                }
+
+                try (final GitHubResponse pageResponse = ParallelGitHubPagination.join(window.peek()))
+                {
+                    window.poll();
+                    pageResponse.throwIfErrorResponse();
+                    pageAction.run(pageResponse);
+                }
+            }
+        }
+        finally
+        {
+            // Anything left in the window is only here because a page failed. Pages that haven't
+            // been sent yet are skipped, pages whose responses arrive from now on dispose them
+            // themselves, and responses that have already arrived are disposed here.
+            abandoned.set(true);
+            for (final java.util.concurrent.CompletableFuture<GitHubResponse> pageFuture : window)
+            {
+                pageFuture.thenAccept((GitHubResponse pageResponse) ->
+                {
+                    if (pageResponse != null)
+                    {
+                        pageResponse.dispose().catchError().await();
+                    }
+                });
+            }
+        }
+    }
+
+    private static GitHubResponse join(java.util.concurrent.CompletableFuture<GitHubResponse> pageFuture)
+    {
+        try
+        {
+            return pageFuture.join();
+        }
+        catch (java.util.concurrent.CompletionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            throw e;
+        }
+    }
+}
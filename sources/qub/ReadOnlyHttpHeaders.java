@@ -0,0 +1,104 @@
+package qub;
+
+/**
+ * A view of a {@link HttpHeaders} that can't be cast to {@link MutableHttpHeaders}. This lets a
+ * header block that is shared between many requests be handed out without letting callers
+ * modify it.
+ */
+public class ReadOnlyHttpHeaders implements HttpHeaders
+{
+    private final HttpHeaders headers;
+
+    private ReadOnlyHttpHeaders(HttpHeaders headers)
+    {
+        PreCondition.assertNotNull(headers, "headers");
+
+        this.headers = headers;
+    }
+
+    /**
+     * Create a read-only view of the provided headers. Changes that are made to the provided
+     * headers will be visible through the view.
+     * @param headers The headers to wrap.
+     * @return A read-only view of the provided headers.
+     */
+    public static ReadOnlyHttpHeaders create(HttpHeaders headers)
+    {
+        return new ReadOnlyHttpHeaders(headers);
+    }
+
+    @Override
+    public boolean contains(String headerName)
+    {
+        return this.headers.contains(headerName);
+    }
+
+    @Override
+    public Result<HttpHeader> get(String headerName)
+    {
+        return this.headers.get(headerName);
+    }
+
+    @Override
+    public Result<String> getValue(String headerName)
+    {
+        return this.headers.getValue(headerName);
+    }
+
+    @Override
+    public Iterator<HttpHeader> iterate()
+    {
+        return this.headers.iterate();
+    }
+
+    @Override
+    public boolean equals(Object rhs)
+    {
+        return rhs instanceof HttpHeaders && this.equals((HttpHeaders)rhs);
+    }
+
+    /**
+     * Get whether the provided headers contain the same header names (ignoring case) with the
+     * same values as these headers. The comparison doesn't depend on which type of
+     * {@link HttpHeaders} either side is, so a.equals(b) is the same as b.equals(a) when both
+     * sides are {@link ReadOnlyHttpHeaders}.
+     * @param rhs The headers to compare against.
+     * @return Whether the provided headers contain the same headers as these headers.
+     */
+    public boolean equals(HttpHeaders rhs)
+    {
+        boolean result = rhs != null && this.headers.getCount() == rhs.getCount();
+        if (result)
+        {
+            for (final HttpHeader header : this.headers)
+            {
+                final String rhsValue = rhs.getValue(header.getName()).catchError().await();
+                if (!java.util.Objects.equals(header.getValue(), rhsValue))
+                {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // The sum doesn't depend on the order of the headers, and header names are compared
+        // without case in equals(), so they are hashed without case here.
+        int result = 0;
+        for (final HttpHeader header : this.headers)
+        {
+            result += header.getName().toLowerCase().hashCode() ^ java.util.Objects.hashCode(header.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.headers.toString();
+    }
+}
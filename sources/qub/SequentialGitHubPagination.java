@@ -0,0 +1,43 @@
+package qub;
+
+/**
+ * A {@link GitHubPagination} that fetches each page after the previous page has been handled by
+ * following the previous page's rel="next" link.
+ */
+public class SequentialGitHubPagination implements GitHubPagination
+{
+    private SequentialGitHubPagination()
+    {
+    }
+
+    public static SequentialGitHubPagination create()
+    {
+        return new SequentialGitHubPagination();
+    }
+
+    @Override
+    public Result<Void> forEachPage(GitHubClient client, GitHubRequest firstPageRequest, Action1<GitHubResponse> pageAction)
+    {
+        PreCondition.assertNotNull(client, "client");
+        PreCondition.assertNotNull(firstPageRequest, "firstPageRequest");
+        PreCondition.assertNotNull(pageAction, "pageAction");
+
+        return Result.create(() ->
+        {
+            GitHubRequest pageRequest = firstPageRequest;
+            while (pageRequest != null)
+            {
+                try (final GitHubResponse pageResponse = client.sendRequest(pageRequest).await())
+                {
+                    pageResponse.throwIfErrorResponse();
+                    pageAction.run(pageResponse);
+
+                    final Integer nextPageNumber = pageResponse.getLinkHeader().getNextPageNumber();
+                    pageRequest = nextPageNumber == null
+                        ? null
+                        : GitHubPagination.createPageRequest(firstPageRequest, nextPageNumber);
+                }
+            }
+        });
+    }
+}
@@ -41,6 +41,253 @@ public interface BasicGitHubClientTests
                         new PreConditionFailure("httpClient cannot be null."));
                 });
             });
+
+            runner.testGroup("getDefaultHeaders()", () ->
+            {
+                runner.test("with no access token", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final HttpHeaders defaultHeaders = gitHubClient.getDefaultHeaders();
+                    test.assertEqual(3, defaultHeaders.getCount());
+                    test.assertEqual("application/vnd.github+json", defaultHeaders.getValue("Accept").await());
+                    test.assertEqual("2022-11-28", defaultHeaders.getValue("X-GitHub-Api-Version").await());
+                    test.assertEqual("qub-github-java", defaultHeaders.getValue("User-Agent").await());
+                    test.assertFalse(defaultHeaders.contains("Authorization"));
+                });
+
+                runner.test("can't be modified", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final HttpHeaders defaultHeaders = gitHubClient.getDefaultHeaders();
+                    test.assertFalse(defaultHeaders instanceof MutableHttpHeaders);
+                    test.assertSame(defaultHeaders, gitHubClient.getDefaultHeaders());
+                });
+
+                runner.test("with access token", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final HttpHeaders unauthenticatedHeaders = gitHubClient.getDefaultHeaders();
+
+                    gitHubClient.setAccessToken("fake-access-token");
+                    final HttpHeaders defaultHeaders = gitHubClient.getDefaultHeaders();
+                    test.assertEqual("token fake-access-token", defaultHeaders.getValue("Authorization").await());
+                    test.assertEqual("application/vnd.github+json", defaultHeaders.getValue("Accept").await());
+                    test.assertThrows(() -> unauthenticatedHeaders.getValue("Authorization").await(),
+                        new NotFoundException("No \"Authorization\" header found."));
+                });
+            });
+
+            runner.testGroup("setRepositoryNameIndex(GitHubRepositoryNameIndex)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setRepositoryNameIndex(null),
+                        new PreConditionFailure("repositoryNameIndex cannot be null."));
+                    test.assertNull(gitHubClient.getRepositoryNameIndex());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubRepositoryNameIndex repositoryNameIndex = GitHubRepositoryNameIndex.create();
+                    final BasicGitHubClient setRepositoryNameIndexResult = gitHubClient.setRepositoryNameIndex(repositoryNameIndex);
+                    test.assertSame(gitHubClient, setRepositoryNameIndexResult);
+                    test.assertSame(repositoryNameIndex, gitHubClient.getRepositoryNameIndex());
+                });
+            });
+
+            runner.testGroup("setCircuitBreaker(GitHubCircuitBreaker)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setCircuitBreaker(null),
+                        new PreConditionFailure("circuitBreaker cannot be null."));
+                    test.assertNull(gitHubClient.getCircuitBreaker());
+                });
+
+                runner.test("with open circuit", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreaker.create()
+                        .setClock(() -> 0L)
+                        .setMinimumCallCount(1)
+                        .setOpenMilliseconds(1000);
+                    circuitBreaker.acquire(GitHubCircuitBreaker.getBaseUrlCircuitKey(gitHubClient.getBaseUrl())).onFailure();
+                    final BasicGitHubClient setCircuitBreakerResult = gitHubClient.setCircuitBreaker(circuitBreaker);
+                    test.assertSame(gitHubClient, setCircuitBreakerResult);
+                    test.assertSame(circuitBreaker, gitHubClient.getCircuitBreaker());
+
+                    test.assertThrows(() -> gitHubClient.getAuthenticatedUser().await(),
+                        new GitHubCircuitBreakerOpenException("https://api.github.com", 1000));
+                    test.assertEqual(1L, circuitBreaker.getRejectedCount());
+                });
+            });
+
+            runner.testGroup("setHedgingPolicy(GitHubHedgingPolicy)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setHedgingPolicy(null),
+                        new PreConditionFailure("hedgingPolicy cannot be null."));
+                    test.assertNull(gitHubClient.getHedgingPolicy());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubHedgingPolicy hedgingPolicy = GitHubHedgingPolicy.create();
+                    final BasicGitHubClient setHedgingPolicyResult = gitHubClient.setHedgingPolicy(hedgingPolicy);
+                    test.assertSame(gitHubClient, setHedgingPolicyResult);
+                    test.assertSame(hedgingPolicy, gitHubClient.getHedgingPolicy());
+                });
+            });
+
+            runner.testGroup("setConcurrencyLimiter(GitHubConcurrencyLimiter)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setConcurrencyLimiter(null),
+                        new PreConditionFailure("concurrencyLimiter cannot be null."));
+                    test.assertNull(gitHubClient.getConcurrencyLimiter());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubConcurrencyLimiter concurrencyLimiter = GitHubConcurrencyLimiter.create();
+                    final BasicGitHubClient setConcurrencyLimiterResult = gitHubClient.setConcurrencyLimiter(concurrencyLimiter);
+                    test.assertSame(gitHubClient, setConcurrencyLimiterResult);
+                    test.assertSame(concurrencyLimiter, gitHubClient.getConcurrencyLimiter());
+                });
+            });
+
+            runner.testGroup("setRequestScheduler(GitHubRequestScheduler)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setRequestScheduler(null),
+                        new PreConditionFailure("requestScheduler cannot be null."));
+                    test.assertNull(gitHubClient.getRequestScheduler());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubRequestScheduler requestScheduler = GitHubRequestScheduler.create();
+                    final BasicGitHubClient setRequestSchedulerResult = gitHubClient.setRequestScheduler(requestScheduler);
+                    test.assertSame(gitHubClient, setRequestSchedulerResult);
+                    test.assertSame(requestScheduler, gitHubClient.getRequestScheduler());
+                });
+            });
+
+            runner.testGroup("setSharedRateLimit(GitHubSharedRateLimit)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setSharedRateLimit(null),
+                        new PreConditionFailure("sharedRateLimit cannot be null."));
+                    test.assertNull(gitHubClient.getSharedRateLimit());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final java.nio.file.Path filePath = GitHubSharedRateLimitTests.createTempFilePath();
+                    final GitHubSharedRateLimit sharedRateLimit = GitHubSharedRateLimit.open(filePath).await();
+                    try
+                    {
+                        final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                        final BasicGitHubClient setSharedRateLimitResult = gitHubClient.setSharedRateLimit(sharedRateLimit);
+                        test.assertSame(gitHubClient, setSharedRateLimitResult);
+                        test.assertSame(sharedRateLimit, gitHubClient.getSharedRateLimit());
+                    }
+                    finally
+                    {
+                        sharedRateLimit.dispose().await();
+                        GitHubSharedRateLimitTests.deleteFile(filePath);
+                    }
+                });
+            });
+
+            runner.testGroup("setRedirectCache(GitHubRedirectCache)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setRedirectCache(null),
+                        new PreConditionFailure("redirectCache cannot be null."));
+                    test.assertNull(gitHubClient.getRedirectCache());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final GitHubRedirectCache redirectCache = GitHubRedirectCache.create();
+                    final BasicGitHubClient setRedirectCacheResult = gitHubClient.setRedirectCache(redirectCache);
+                    test.assertSame(gitHubClient, setRedirectCacheResult);
+                    test.assertSame(redirectCache, gitHubClient.getRedirectCache());
+                });
+            });
+
+            runner.testGroup("setDefaultTimeout(java.time.Duration)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setDefaultTimeout(null),
+                        new PreConditionFailure("defaultTimeout cannot be null."));
+                    test.assertNull(gitHubClient.getDefaultTimeout());
+                });
+
+                runner.test("with zero", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    test.assertThrows(() -> gitHubClient.setDefaultTimeout(java.time.Duration.ZERO),
+                        new PreConditionFailure("defaultTimeout.toMillis() (0) must be greater than 0."));
+                });
+
+                runner.test("with 30 seconds", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final BasicGitHubClient setDefaultTimeoutResult = gitHubClient.setDefaultTimeout(java.time.Duration.ofSeconds(30));
+                    test.assertSame(gitHubClient, setDefaultTimeoutResult);
+                    test.assertEqual(java.time.Duration.ofSeconds(30), gitHubClient.getDefaultTimeout());
+                });
+            });
+
+            runner.testGroup("sendRequest(GitHubRequest)", () ->
+            {
+                runner.test("with deadline that has already passed", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final java.time.Instant deadline = java.time.Instant.parse("2000-01-01T00:00:00Z");
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.authenticatedUserRoute)
+                        .setDeadline(deadline);
+                    test.assertThrows(() -> gitHubClient.sendRequest(request).await(),
+                        new GitHubDeadlineExceededException(deadline, "waiting to send the request"));
+                });
+            });
+
+            runner.testGroup("getRepository(GetRepositoryParameters,java.time.Instant)", () ->
+            {
+                runner.test("with deadline that has already passed", (Test test) ->
+                {
+                    final BasicGitHubClient gitHubClient = BasicGitHubClient.create(network);
+                    final java.time.Instant deadline = java.time.Instant.parse("2000-01-01T00:00:00Z");
+                    final GetRepositoryParameters parameters = GetRepositoryParameters.create()
+                        .setOwner("octocat")
+                        .setName("Hello-World");
+                    test.assertThrows(() -> gitHubClient.getRepository(parameters, deadline).await(),
+                        new GitHubDeadlineExceededException(deadline, "waiting to send the request"));
+                });
+            });
         });
     }
 }
@@ -0,0 +1,91 @@
+package qub;
+
+/**
+ * A {@link GitHubClient} that doesn't use the network. Each request that is sent is recorded and
+ * passed to a handler that returns the response.
+ */
+public class FakeGitHubClient implements GitHubClient
+{
+    private final Function1<GitHubRequest,HttpResponse> handler;
+    private final List<GitHubRequest> sentRequests;
+    private URL baseUrl;
+    private String accessToken;
+
+    private FakeGitHubClient(Function1<GitHubRequest,HttpResponse> handler)
+    {
+        PreCondition.assertNotNull(handler, "handler");
+
+        this.handler = handler;
+        this.sentRequests = List.create();
+        this.baseUrl = URL.parse("https://api.github.com").await();
+    }
+
+    /**
+     * Create a new {@link FakeGitHubClient} that uses the provided handler to respond to requests.
+     * @param handler The handler that will create the response for each request.
+     * @return The new {@link FakeGitHubClient}.
+     */
+    public static FakeGitHubClient create(Function1<GitHubRequest,HttpResponse> handler)
+    {
+        return new FakeGitHubClient(handler);
+    }
+
+    /**
+     * Get the requests that have been sent to this client, in the order that they were sent.
+     * @return The requests that have been sent to this client.
+     */
+    public Iterable<GitHubRequest> getSentRequests()
+    {
+        synchronized (this.sentRequests)
+        {
+            return List.create(this.sentRequests);
+        }
+    }
+
+    @Override
+    public URL getBaseUrl()
+    {
+        return this.baseUrl;
+    }
+
+    @Override
+    public FakeGitHubClient setBaseUrl(URL baseUrl)
+    {
+        PreCondition.assertNotNull(baseUrl, "baseUrl");
+
+        this.baseUrl = baseUrl;
+
+        return this;
+    }
+
+    @Override
+    public FakeGitHubClient setAccessToken(String accessToken)
+    {
+        PreCondition.assertNotNullAndNotEmpty(accessToken, "accessToken");
+
+        this.accessToken = accessToken;
+
+        return this;
+    }
+
+    @Override
+    public boolean hasAccessToken()
+    {
+        return !Strings.isNullOrEmpty(this.accessToken);
+    }
+
+    @Override
+    public Result<GitHubResponse> sendRequest(GitHubRequest request)
+    {
+        PreCondition.assertNotNull(request, "request");
+
+        return Result.create(() ->
+        {
+            synchronized (this.sentRequests)
+            {
+                this.sentRequests.add(request);
+            }
+            return GitHubResponse.create(this.handler.run(request));
+        });
+    }
+}
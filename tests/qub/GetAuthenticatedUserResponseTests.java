@@ -50,6 +50,43 @@ public interface GetAuthenticatedUserResponseTests
                         new PreConditionFailure("this.isErrorResponse() cannot be false."));
                 });
 
+                runner.test("with 200 status code and user body", (Test test) ->
+                {
+                    final HttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200)
+                        .setBody(JSONObject.create()
+                            .setString("login", "fake-login")
+                            .setNumber("id", 12345)
+                            .setString("type", "User")
+                            .toString());
+                    final GetAuthenticatedUserResponse response = GetAuthenticatedUserResponse.create(httpResponse);
+                    final GitHubUser user = response.getAuthenticatedUser(GitHubUser.loginPropertyName).await();
+                    test.assertNotNull(user);
+                    test.assertEqual("fake-login", user.getLogin());
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setString("login", "fake-login"),
+                        user.toJson());
+                });
+
+                runner.test("with 200 status code and user body without the requested property", (Test test) ->
+                {
+                    final HttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200)
+                        .setBody(JSONObject.create()
+                            .setString("login", "fake-login")
+                            .setNumber("id", 12345)
+                            .toString());
+                    final GetAuthenticatedUserResponse response = GetAuthenticatedUserResponse.create(httpResponse);
+                    final GitHubUser user = response.getAuthenticatedUser(GitHubUser.idPropertyName).await();
+                    test.assertNotNull(user);
+                    test.assertNull(user.getLogin());
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setNumber("id", 12345),
+                        user.toJson());
+                });
+
                 runner.test("with 404 status code and empty body", (Test test) ->
                 {
                     final HttpResponse httpResponse = HttpResponse.create()
@@ -0,0 +1,180 @@
+package qub;
+
+public interface GetRepositoriesForAuthenticatedUserParametersTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GetRepositoriesForAuthenticatedUserParameters.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                test.assertNotNull(parameters);
+                test.assertNull(parameters.getVisibility());
+                test.assertNull(parameters.getAffiliation());
+                test.assertNull(parameters.getType());
+                test.assertNull(parameters.getSort());
+                test.assertNull(parameters.getDirection());
+                test.assertNull(parameters.getSince());
+                test.assertNull(parameters.getPerPage());
+            });
+
+            runner.testGroup("setVisibility(String)", () ->
+            {
+                final Action2<String,Throwable> setVisibilityErrorTest = (String visibility, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(visibility), (Test test) ->
+                    {
+                        final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                        test.assertThrows(() -> parameters.setVisibility(visibility),
+                            expected);
+                        test.assertNull(parameters.getVisibility());
+                    });
+                };
+
+                setVisibilityErrorTest.run(null, new PreConditionFailure("visibility cannot be null."));
+                setVisibilityErrorTest.run("", new PreConditionFailure("visibility cannot be empty."));
+
+                runner.test("with \"private\"", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    final GetRepositoriesForAuthenticatedUserParameters setVisibilityResult = parameters.setVisibility("private");
+                    test.assertSame(parameters, setVisibilityResult);
+                    test.assertEqual("private", parameters.getVisibility());
+                });
+            });
+
+            runner.testGroup("setAffiliation(String...)", () ->
+            {
+                runner.test("with no affiliations", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    test.assertThrows(() -> parameters.setAffiliation(),
+                        new PreConditionFailure("affiliations.length (0) must be greater than 0."));
+                    test.assertNull(parameters.getAffiliation());
+                });
+
+                runner.test("with empty affiliation", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    test.assertThrows(() -> parameters.setAffiliation("owner", ""),
+                        new PreConditionFailure("affiliation cannot be empty."));
+                    test.assertNull(parameters.getAffiliation());
+                });
+
+                runner.test("with one affiliation", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    final GetRepositoriesForAuthenticatedUserParameters setAffiliationResult = parameters.setAffiliation("owner");
+                    test.assertSame(parameters, setAffiliationResult);
+                    test.assertEqual("owner", parameters.getAffiliation());
+                });
+
+                runner.test("with multiple affiliations", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create()
+                        .setAffiliation("owner", "collaborator");
+                    test.assertEqual("owner,collaborator", parameters.getAffiliation());
+                });
+            });
+
+            runner.testGroup("setSince(java.time.Instant)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    test.assertThrows(() -> parameters.setSince(null),
+                        new PreConditionFailure("since cannot be null."));
+                    test.assertNull(parameters.getSince());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    final java.time.Instant since = java.time.Instant.parse("2021-06-01T00:00:00Z");
+                    final GetRepositoriesForAuthenticatedUserParameters setSinceResult = parameters.setSince(since);
+                    test.assertSame(parameters, setSinceResult);
+                    test.assertEqual(since, parameters.getSince());
+                });
+            });
+
+            runner.testGroup("setPerPage(int)", () ->
+            {
+                final Action2<Integer,Throwable> setPerPageErrorTest = (Integer perPage, Throwable expected) ->
+                {
+                    runner.test("with " + perPage, (Test test) ->
+                    {
+                        final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                        test.assertThrows(() -> parameters.setPerPage(perPage),
+                            expected);
+                        test.assertNull(parameters.getPerPage());
+                    });
+                };
+
+                setPerPageErrorTest.run(0, new PreConditionFailure("perPage (0) must be between 1 and 100."));
+                setPerPageErrorTest.run(101, new PreConditionFailure("perPage (101) must be between 1 and 100."));
+
+                runner.test("with 100", (Test test) ->
+                {
+                    final GetRepositoriesForAuthenticatedUserParameters parameters = GetRepositoriesForAuthenticatedUserParameters.create();
+                    final GetRepositoriesForAuthenticatedUserParameters setPerPageResult = parameters.setPerPage(100);
+                    test.assertSame(parameters, setPerPageResult);
+                    test.assertEqual(100, parameters.getPerPage());
+                });
+            });
+
+            runner.testGroup("createFirstPageRequest()", () ->
+            {
+                runner.test("with no parameters", (Test test) ->
+                {
+                    final GitHubRequest request = GetRepositoriesForAuthenticatedUserParameters.create()
+                        .createFirstPageRequest();
+                    test.assertEqual("GET", request.getHttpMethod());
+                    test.assertEqual("/user/repos", request.getUrlPath());
+                    test.assertEqual(Map.create(), request.getQueryParameters());
+                });
+
+                runner.test("with all parameters", (Test test) ->
+                {
+                    final GitHubRequest request = GetRepositoriesForAuthenticatedUserParameters.create()
+                        .setVisibility("private")
+                        .setAffiliation("owner", "organization_member")
+                        .setSort("updated")
+                        .setDirection("asc")
+                        .setSince(java.time.Instant.parse("2021-06-01T00:00:00Z"))
+                        .setPerPage(50)
+                        .createFirstPageRequest();
+                    test.assertEqual("/user/repos", request.getUrlPath());
+                    test.assertEqual("private", request.getQueryParameter("visibility").await());
+                    test.assertEqual("owner,organization_member", request.getQueryParameter("affiliation").await());
+                    test.assertEqual("updated", request.getQueryParameter("sort").await());
+                    test.assertEqual("asc", request.getQueryParameter("direction").await());
+                    test.assertEqual("2021-06-01T00:00:00Z", request.getQueryParameter("since").await());
+                    test.assertEqual("50", request.getQueryParameter("per_page").await());
+                    test.assertFalse(request.getQueryParameters().containsKey("type"));
+                });
+
+                runner.test("with type", (Test test) ->
+                {
+                    final GitHubRequest request = GetRepositoriesForAuthenticatedUserParameters.create()
+                        .setType("owner")
+                        .createFirstPageRequest();
+                    test.assertEqual("owner", request.getQueryParameter("type").await());
+                });
+            });
+
+            runner.test("sent by GitHubClient.getRepositoriesForAuthenticatedUser()", (Test test) ->
+            {
+                final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(1, 1);
+                final Iterable<GitHubRepository> repositories = client.getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters.create()
+                    .setVisibility("public"))
+                    .await();
+                test.assertEqual(1, repositories.getCount());
+
+                final GitHubRequest sentRequest = client.getSentRequests().first();
+                test.assertEqual("/user/repos", sentRequest.getUrlPath());
+                test.assertEqual("public", sentRequest.getQueryParameter("visibility").await());
+            });
+        });
+    }
+}
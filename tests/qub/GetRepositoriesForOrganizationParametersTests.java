@@ -0,0 +1,143 @@
+package qub;
+
+public interface GetRepositoriesForOrganizationParametersTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GetRepositoriesForOrganizationParameters.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                test.assertNotNull(parameters);
+                test.assertNull(parameters.getOrganization());
+                test.assertNull(parameters.getType());
+                test.assertNull(parameters.getSort());
+                test.assertNull(parameters.getDirection());
+                test.assertEqual(100, parameters.getPerPage());
+                test.assertNull(parameters.getPushedAfter());
+                test.assertFalse(parameters.canStopEarly());
+            });
+
+            runner.testGroup("setOrganization(String)", () ->
+            {
+                final Action2<String,Throwable> setOrganizationErrorTest = (String organization, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(organization), (Test test) ->
+                    {
+                        final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                        test.assertThrows(() -> parameters.setOrganization(organization),
+                            expected);
+                        test.assertNull(parameters.getOrganization());
+                    });
+                };
+
+                setOrganizationErrorTest.run(null, new PreConditionFailure("organization cannot be null."));
+                setOrganizationErrorTest.run("", new PreConditionFailure("organization cannot be empty."));
+
+                runner.test("with \"fake-org\"", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                    final GetRepositoriesForOrganizationParameters setOrganizationResult = parameters.setOrganization("fake-org");
+                    test.assertSame(parameters, setOrganizationResult);
+                    test.assertEqual("fake-org", parameters.getOrganization());
+                });
+            });
+
+            runner.testGroup("setPerPage(int)", () ->
+            {
+                final Action2<Integer,Throwable> setPerPageErrorTest = (Integer perPage, Throwable expected) ->
+                {
+                    runner.test("with " + perPage, (Test test) ->
+                    {
+                        final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                        test.assertThrows(() -> parameters.setPerPage(perPage),
+                            expected);
+                        test.assertEqual(100, parameters.getPerPage());
+                    });
+                };
+
+                setPerPageErrorTest.run(0, new PreConditionFailure("perPage (0) must be between 1 and 100."));
+                setPerPageErrorTest.run(101, new PreConditionFailure("perPage (101) must be between 1 and 100."));
+
+                runner.test("with 30", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                    final GetRepositoriesForOrganizationParameters setPerPageResult = parameters.setPerPage(30);
+                    test.assertSame(parameters, setPerPageResult);
+                    test.assertEqual(30, parameters.getPerPage());
+                });
+            });
+
+            runner.testGroup("setPushedAfter(java.time.Instant)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                    test.assertThrows(() -> parameters.setPushedAfter(null),
+                        new PreConditionFailure("pushedAfter cannot be null."));
+                    test.assertNull(parameters.getPushedAfter());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                    final java.time.Instant pushedAfter = java.time.Instant.parse("2020-01-01T00:00:00Z");
+                    final GetRepositoriesForOrganizationParameters setPushedAfterResult = parameters.setPushedAfter(pushedAfter);
+                    test.assertSame(parameters, setPushedAfterResult);
+                    test.assertEqual(pushedAfter, parameters.getPushedAfter());
+                    test.assertEqual("pushed", parameters.getSort());
+                    test.assertEqual("desc", parameters.getDirection());
+                    test.assertTrue(parameters.canStopEarly());
+                });
+
+                runner.test("followed by a different sort", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create()
+                        .setPushedAfter(java.time.Instant.parse("2020-01-01T00:00:00Z"))
+                        .setSort("full_name");
+                    test.assertFalse(parameters.canStopEarly());
+                });
+            });
+
+            runner.testGroup("createFirstPageRequest()", () ->
+            {
+                runner.test("with no organization", (Test test) ->
+                {
+                    final GetRepositoriesForOrganizationParameters parameters = GetRepositoriesForOrganizationParameters.create();
+                    test.assertThrows(() -> parameters.createFirstPageRequest(),
+                        new PreConditionFailure("this.getOrganization() cannot be null."));
+                });
+
+                runner.test("with only organization", (Test test) ->
+                {
+                    final GitHubRequest request = GetRepositoriesForOrganizationParameters.create()
+                        .setOrganization("fake-org")
+                        .createFirstPageRequest();
+                    test.assertEqual("GET", request.getHttpMethod());
+                    test.assertEqual("/orgs/fake-org/repos", request.getUrlPath());
+                    test.assertEqual("/orgs/{org}/repos", request.getRouteKey());
+                    test.assertEqual("100", request.getQueryParameter("per_page").await());
+                    test.assertFalse(request.getQueryParameters().containsKey("type"));
+                    test.assertFalse(request.getQueryParameters().containsKey("sort"));
+                    test.assertFalse(request.getQueryParameters().containsKey("direction"));
+                });
+
+                runner.test("with all parameters", (Test test) ->
+                {
+                    final GitHubRequest request = GetRepositoriesForOrganizationParameters.create()
+                        .setOrganization("fake-org")
+                        .setType("sources")
+                        .setPushedAfter(java.time.Instant.parse("2020-01-01T00:00:00Z"))
+                        .setPerPage(50)
+                        .createFirstPageRequest();
+                    test.assertEqual("50", request.getQueryParameter("per_page").await());
+                    test.assertEqual("sources", request.getQueryParameter("type").await());
+                    test.assertEqual("pushed", request.getQueryParameter("sort").await());
+                    test.assertEqual("desc", request.getQueryParameter("direction").await());
+                    test.assertFalse(request.getQueryParameters().containsKey("pushed_after"));
+                });
+            });
+        });
+    }
+}
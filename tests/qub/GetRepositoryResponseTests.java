@@ -52,6 +52,25 @@ public interface GetRepositoryResponseTests
                         new PreConditionFailure("this.isErrorResponse() cannot be false."));
                 });
 
+                runner.test("with 200 status code and repository body with property names", (Test test) ->
+                {
+                    final HttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200)
+                        .setBody(JSONObject.create()
+                            .setNumber(GitHubRepository.idPropertyName, 1296269)
+                            .setString(GitHubRepository.namePropertyName, "Hello-World")
+                            .setString(GitHubRepository.fullNamePropertyName, "octocat/Hello-World")
+                            .toString());
+                    final GetRepositoryResponse response = GetRepositoryResponse.create(httpResponse);
+                    final GitHubRepository repository = response.getRepository(GitHubRepository.fullNamePropertyName).await();
+                    test.assertEqual("octocat/Hello-World", repository.getFullName());
+
+                    // Properties that weren't requested aren't read, even though they are in
+                    // the response.
+                    test.assertNull(repository.getName());
+                    test.assertNull(repository.getId());
+                });
+
                 runner.test("with 404 status code and empty body", (Test test) ->
                 {
                     final HttpResponse httpResponse = HttpResponse.create()
@@ -0,0 +1,254 @@
+package qub;
+
+public interface GitHubBinaryCodecTests
+{
+    /**
+     * Create repository JSON that looks like what GitHub returns from a repository listing.
+     */
+    static GitHubRepository createListedRepository(String owner, String name, long id)
+    {
+        final String apiUrl = "https://api.github.com/repos/" + owner + "/" + name;
+        final JSONObject json = JSONObject.create()
+            .setNumber("id", id)
+            .setString("node_id", "MDEwOlJlcG9zaXRvcnk" + id)
+            .setString("name", name)
+            .setString("full_name", owner + "/" + name)
+            .setBoolean("private", false)
+            .setObject("owner", JSONObject.create()
+                .setString("login", owner)
+                .setNumber("id", 583231)
+                .setString("url", "https://api.github.com/users/" + owner)
+                .setString("repos_url", "https://api.github.com/users/" + owner + "/repos")
+                .setString("type", "Organization"))
+            .setString("html_url", "https://github.com/" + owner + "/" + name)
+            .setString("url", apiUrl)
+            .setString("issues_url", apiUrl + "/issues{/number}")
+            .setString("pulls_url", apiUrl + "/pulls{/number}")
+            .setString("commits_url", apiUrl + "/commits{/sha}")
+            .setString("git_url", "git://github.com/" + owner + "/" + name + ".git")
+            .setString("clone_url", "https://github.com/" + owner + "/" + name + ".git")
+            .setString("pushed_at", "2020-01-0" + (id % 9 + 1) + "T00:00:00Z")
+            .setNumber("stargazers_count", id * 3)
+            .setString("default_branch", "main");
+        json.set("description", JSONNull.segment);
+        json.set("topics", JSONArray.create()
+            .add(JSONString.get("github"))
+            .add(JSONString.get("java")));
+        return GitHubRepository.create(json);
+    }
+
+    /**
+     * Create the encoded bytes of one object whose "a" property is the provided number of arrays
+     * nested inside each other.
+     */
+    static byte[] createNestedArrayBytes(int arrayCount)
+    {
+        final byte[] result = new byte[9 + (arrayCount * 2)];
+        int index = 0;
+        for (final byte b : new byte[] { 'Q', 'B', 1, 1, 7, 1, 0, 1, 'a' })
+        {
+            result[index++] = b;
+        }
+        for (int i = 0; i < arrayCount; ++i)
+        {
+            result[index++] = 8;
+            result[index++] = (byte)(i < arrayCount - 1 ? 1 : 0);
+        }
+        return result;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubBinaryCodec.class, () ->
+        {
+            runner.testGroup("getSplitIndex(String)", () ->
+            {
+                final Action2<String,Integer> getSplitIndexTest = (String value, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(value), (Test test) ->
+                    {
+                        test.assertEqual(expected, GitHubBinaryCodec.getSplitIndex(value));
+                    });
+                };
+
+                getSplitIndexTest.run("", -1);
+                getSplitIndexTest.run("octocat", -1);
+                getSplitIndexTest.run("a/b/c", -1);
+                getSplitIndexTest.run("https://api.github.com/", -1);
+                getSplitIndexTest.run("https://api.github.com/users/octocat", 29);
+                getSplitIndexTest.run("https://api.github.com/repos/octocat/hello/issues{/number}", 43);
+                getSplitIndexTest.run("git://github.com/octocat/hello.git", 25);
+            });
+
+            runner.testGroup("encodeRepository(GitHubRepository)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    test.assertThrows(() -> codec.encodeRepository(null),
+                        new PreConditionFailure("repository cannot be null."));
+                });
+
+                runner.test("with empty repository", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final byte[] bytes = codec.encodeRepository(GitHubRepository.create());
+                    test.assertEqual(new byte[] { 'Q', 'B', 1, 1, 7, 0 }, bytes);
+                    test.assertEqual(GitHubRepository.create(), codec.decodeRepository(bytes).await());
+                });
+
+                runner.test("with listed repository", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final GitHubRepository repository = GitHubBinaryCodecTests.createListedRepository("octocat", "Hello-World", 1296269);
+                    final byte[] bytes = codec.encodeRepository(repository);
+                    final GitHubRepository decodedRepository = codec.decodeRepository(bytes).await();
+                    test.assertEqual(repository, decodedRepository);
+                    test.assertEqual(repository.toJson().toString(), decodedRepository.toJson().toString());
+                    test.assertEqual(1296269L, decodedRepository.getId());
+                    test.assertEqual("octocat", decodedRepository.getOwner().getLogin());
+                    test.assertTrue(bytes.length < repository.toJson().toString().length());
+                });
+
+                runner.test("with numbers", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final GitHubRepository repository = GitHubRepository.create(JSONObject.create()
+                        .setNumber("zero", 0)
+                        .setNumber("negative", -5)
+                        .setNumber("large", Long.MAX_VALUE)
+                        .setNumber("small", Long.MIN_VALUE)
+                        .setNumber("fraction", 1.5));
+                    test.assertEqual(repository, codec.decodeRepository(codec.encodeRepository(repository)).await());
+                });
+
+                runner.test("with numbers that a double can't represent exactly", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final String jsonText = "{\"id\":9007199254740993,\"aboveLong\":123456789012345678901234567890,\"preciseFraction\":0.12345678901234567890123}";
+                    final GitHubRepository repository = GitHubRepository.create((JSONObject)JSON.parse(jsonText).await());
+                    final GitHubRepository decodedRepository = codec.decodeRepository(codec.encodeRepository(repository)).await();
+                    test.assertEqual(repository.toJson().toString(), decodedRepository.toJson().toString());
+                    test.assertEqual(9007199254740993L, decodedRepository.getId());
+                });
+
+                runner.test("with non-ASCII strings", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final GitHubRepository repository = GitHubRepository.create()
+                        .setName("café-☕")
+                        .setFullName("ünïcode/café-☕");
+                    test.assertEqual(repository, codec.decodeRepository(codec.encodeRepository(repository)).await());
+                });
+            });
+
+            runner.testGroup("encodeRepositories(Iterable<GitHubRepository>)", () ->
+            {
+                runner.test("with no repositories", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final byte[] bytes = codec.encodeRepositories(Iterable.create());
+                    test.assertEqual(Iterable.create(), codec.decodeRepositories(bytes).await());
+                });
+
+                runner.test("with many repositories from the same owner", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final List<GitHubRepository> repositories = List.create();
+                    int jsonCharacterCount = 0;
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        final GitHubRepository repository = GitHubBinaryCodecTests.createListedRepository("fake-org", "repo-" + i, 1000 + i);
+                        repositories.add(repository);
+                        jsonCharacterCount += repository.toJson().toString().length();
+                    }
+
+                    final byte[] bytes = codec.encodeRepositories(repositories);
+                    test.assertEqual(repositories, codec.decodeRepositories(bytes).await());
+
+                    // Sharing the dictionary across the repositories removes the repeated property
+                    // names, owner, and URL prefixes.
+                    test.assertTrue(bytes.length * 3 < jsonCharacterCount, "Expected " + bytes.length + " bytes to be less than a third of " + jsonCharacterCount + " JSON characters.");
+                });
+            });
+
+            runner.test("encodeUser(GitHubUser)", (Test test) ->
+            {
+                final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                final GitHubUser user = GitHubUser.create()
+                    .setLogin("octocat");
+                test.assertEqual(user, codec.decodeUser(codec.encodeUser(user)).await());
+            });
+
+            runner.test("encodeUsers(Iterable<GitHubUser>)", (Test test) ->
+            {
+                final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                final Iterable<GitHubUser> users = Iterable.create(
+                    GitHubUser.create().setLogin("octocat"),
+                    GitHubUser.create().setLogin("hubot"));
+                test.assertEqual(users, codec.decodeUsers(codec.encodeUsers(users)).await());
+            });
+
+            runner.test("encodeErrorResponse(GitHubErrorResponse)", (Test test) ->
+            {
+                final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                final GitHubErrorResponse errorResponse = GitHubErrorResponse.create()
+                    .setMessage("Not Found")
+                    .setDocumentationUrl("https://docs.github.com/rest/repos/repos#get-a-repository");
+                test.assertEqual(errorResponse, codec.decodeErrorResponse(codec.encodeErrorResponse(errorResponse)).await());
+            });
+
+            runner.testGroup("decodeObjects(byte[])", () ->
+            {
+                final Action2<byte[],Throwable> decodeObjectsErrorTest = (byte[] bytes, Throwable expected) ->
+                {
+                    runner.test("with " + java.util.Arrays.toString(bytes), (Test test) ->
+                    {
+                        final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                        test.assertThrows(() -> codec.decodeObjects(bytes).await(), expected);
+                    });
+                };
+
+                decodeObjectsErrorTest.run(new byte[0], new ParseException("Unexpected end of the encoded bytes at byte index 0."));
+                decodeObjectsErrorTest.run(new byte[] { '{', '}' }, new ParseException("The bytes don't start with the GitHubBinaryCodec header."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 2, 0 }, new ParseException("Unsupported GitHubBinaryCodec format version: 2"));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 1 }, new ParseException("Invalid length 1 at byte index 4."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 5, 7, 0 }, new ParseException("Invalid length 5 at byte index 4."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 1, 42 }, new ParseException("Unknown value tag 42 at byte index 4."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 1, 7, 1, 3 }, new ParseException("Invalid string dictionary reference 3 at byte index 7."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 1, 7, 0, 0 }, new ParseException("Expected the end of the encoded bytes at byte index 6."));
+                decodeObjectsErrorTest.run(new byte[] { 'Q', 'B', 1, 1, 2 }, new ParseException("Expected a JSONObject at byte index 5, but found JSONBoolean instead."));
+
+                runner.test("with values nested up to the maximum depth", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final JSONObject object = codec.decodeObjects(GitHubBinaryCodecTests.createNestedArrayBytes(GitHubBinaryCodec.maximumDepth - 1)).await().first();
+                    JSONSegment value = object.get("a").await();
+                    int depth = 1;
+                    while (value instanceof JSONArray)
+                    {
+                        ++depth;
+                        final JSONArray array = (JSONArray)value;
+                        value = array.any() ? array.first() : null;
+                    }
+                    test.assertEqual(GitHubBinaryCodec.maximumDepth, depth);
+                });
+
+                runner.test("with values nested deeper than the maximum depth", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    final int deepestArrayTagIndex = 9 + ((GitHubBinaryCodec.maximumDepth - 1) * 2);
+                    test.assertThrows(() -> codec.decodeObjects(GitHubBinaryCodecTests.createNestedArrayBytes(GitHubBinaryCodec.maximumDepth)).await(),
+                        new ParseException("The value at byte index " + deepestArrayTagIndex + " is nested more than " + GitHubBinaryCodec.maximumDepth + " levels deep."));
+                });
+
+                runner.test("with values nested far deeper than the maximum depth", (Test test) ->
+                {
+                    final GitHubBinaryCodec codec = GitHubBinaryCodec.create();
+                    test.assertThrows(() -> codec.decodeObjects(GitHubBinaryCodecTests.createNestedArrayBytes(1000000)).await(),
+                        ParseException.class);
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package qub;
+
+public interface GitHubCircuitBreakerOpenExceptionTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubCircuitBreakerOpenException.class, () ->
+        {
+            runner.testGroup("constructor(String,long)", () ->
+            {
+                final Action3<String,Long,Throwable> constructorErrorTest = (String circuitKey, Long remainingOpenMilliseconds, Throwable expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(circuitKey), remainingOpenMilliseconds), (Test test) ->
+                    {
+                        test.assertThrows(() -> new GitHubCircuitBreakerOpenException(circuitKey, remainingOpenMilliseconds),
+                            expected);
+                    });
+                };
+
+                constructorErrorTest.run(null, 0L, new PreConditionFailure("circuitKey cannot be null."));
+                constructorErrorTest.run("", 0L, new PreConditionFailure("circuitKey cannot be empty."));
+                constructorErrorTest.run("https://api.github.com", -1L, new PreConditionFailure("remainingOpenMilliseconds (-1) must be greater than or equal to 0."));
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final GitHubCircuitBreakerOpenException e = new GitHubCircuitBreakerOpenException("https://api.github.com /user/repos", 1500);
+                    test.assertEqual("https://api.github.com /user/repos", e.getCircuitKey());
+                    test.assertEqual(1500L, e.getRemainingOpenMilliseconds());
+                    test.assertEqual("The circuit for \"https://api.github.com /user/repos\" is open. Requests will be allowed again in 1500 milliseconds.", e.getMessage());
+                });
+            });
+        });
+    }
+}
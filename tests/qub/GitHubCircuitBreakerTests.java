@@ -0,0 +1,210 @@
+package qub;
+
+public interface GitHubCircuitBreakerTests
+{
+    /**
+     * Create a {@link GitHubCircuitBreaker} with a small window whose clock reads the first
+     * element of the provided array.
+     */
+    static GitHubCircuitBreaker create(long[] now)
+    {
+        return GitHubCircuitBreaker.create()
+            .setClock(() -> now[0])
+            .setWindowSize(4)
+            .setMinimumCallCount(4)
+            .setFailureRateThreshold(0.5)
+            .setSlowCallMilliseconds(1000)
+            .setOpenMilliseconds(5000)
+            .setHalfOpenTrialCount(2);
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubCircuitBreaker.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreaker.create();
+                test.assertEqual(0.5, circuitBreaker.getFailureRateThreshold());
+                test.assertEqual(0.8, circuitBreaker.getSlowCallRateThreshold());
+                test.assertEqual(10000L, circuitBreaker.getSlowCallMilliseconds());
+                test.assertEqual(20, circuitBreaker.getWindowSize());
+                test.assertEqual(10, circuitBreaker.getMinimumCallCount());
+                test.assertEqual(30000L, circuitBreaker.getOpenMilliseconds());
+                test.assertEqual(3, circuitBreaker.getHalfOpenTrialCount());
+                test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                test.assertEqual(0L, circuitBreaker.getRejectedCount());
+            });
+
+            runner.test("getRouteCircuitKey(URL,String)", (Test test) ->
+            {
+                final URL baseUrl = URL.parse("https://api.github.com").await();
+                test.assertEqual("https://api.github.com", GitHubCircuitBreaker.getBaseUrlCircuitKey(baseUrl));
+                test.assertEqual("https://api.github.com /repos/{owner}/{repo}", GitHubCircuitBreaker.getRouteCircuitKey(baseUrl, "/repos/{owner}/{repo}"));
+            });
+
+            runner.testGroup("setMinimumCallCount(int)", () ->
+            {
+                runner.test("with more than the window size", (Test test) ->
+                {
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreaker.create().setWindowSize(5);
+                    test.assertThrows(() -> circuitBreaker.setMinimumCallCount(6),
+                        new PreConditionFailure("minimumCallCount (6) must be between 1 and 5."));
+                });
+            });
+
+            runner.testGroup("acquire(String...)", () ->
+            {
+                runner.test("with no keys", (Test test) ->
+                {
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreaker.create();
+                    test.assertThrows(() -> circuitBreaker.acquire(),
+                        new PreConditionFailure("circuitKeys.length (0) must be greater than 0."));
+                });
+
+                runner.test("with fewer failures than the minimum call count", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    for (int i = 0; i < 3; ++i)
+                    {
+                        circuitBreaker.acquire("a").onFailure();
+                    }
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                });
+
+                runner.test("with 4xx responses", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    for (int i = 0; i < 10; ++i)
+                    {
+                        circuitBreaker.acquire("a").onResponse(404);
+                    }
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                });
+
+                runner.test("with failure rate at the threshold", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    circuitBreaker.acquire("a").onResponse(200);
+                    circuitBreaker.acquire("a").onResponse(503);
+                    circuitBreaker.acquire("a").onResponse(200);
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                    circuitBreaker.acquire("a").onFailure();
+
+                    test.assertEqual(GitHubCircuitBreaker.State.Open, circuitBreaker.getState("a"));
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("b"));
+                    test.assertEqual(1L, circuitBreaker.getTransitionCount(GitHubCircuitBreaker.State.Open));
+
+                    now[0] = 1000;
+                    test.assertThrows(() -> circuitBreaker.acquire("b", "a"),
+                        new GitHubCircuitBreakerOpenException("a", 4000));
+                    test.assertEqual(1L, circuitBreaker.getRejectedCount());
+                });
+
+                runner.test("with slow calls", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now)
+                        .setSlowCallRateThreshold(0.75);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        final GitHubCircuitBreaker.Permit permit = circuitBreaker.acquire("a");
+                        now[0] += (i == 0 ? 10 : 1000);
+                        permit.onResponse(200);
+                    }
+                    test.assertEqual(GitHubCircuitBreaker.State.Open, circuitBreaker.getState("a"));
+                });
+
+                runner.test("with old failures that leave the window", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now)
+                        .setFailureRateThreshold(0.75);
+                    circuitBreaker.acquire("a").onFailure();
+                    circuitBreaker.acquire("a").onFailure();
+                    circuitBreaker.acquire("a").onResponse(200);
+                    circuitBreaker.acquire("a").onResponse(200);
+                    circuitBreaker.acquire("a").onFailure();
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                });
+
+                runner.test("with successful half-open trials", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        circuitBreaker.acquire("a").onFailure();
+                    }
+
+                    now[0] = 5000;
+                    test.assertEqual(GitHubCircuitBreaker.State.HalfOpen, circuitBreaker.getState("a"));
+                    final GitHubCircuitBreaker.Permit trial1 = circuitBreaker.acquire("a");
+                    final GitHubCircuitBreaker.Permit trial2 = circuitBreaker.acquire("a");
+                    test.assertThrows(() -> circuitBreaker.acquire("a"),
+                        new GitHubCircuitBreakerOpenException("a", 0));
+
+                    trial1.onResponse(200);
+                    test.assertEqual(GitHubCircuitBreaker.State.HalfOpen, circuitBreaker.getState("a"));
+                    trial2.onResponse(200);
+                    trial2.onFailure();
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                    test.assertEqual(1L, circuitBreaker.getTransitionCount(GitHubCircuitBreaker.State.HalfOpen));
+                    test.assertEqual(1L, circuitBreaker.getTransitionCount(GitHubCircuitBreaker.State.Closed));
+
+                    circuitBreaker.acquire("a").onFailure();
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                });
+
+                runner.test("with failed half-open trial", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        circuitBreaker.acquire("a").onFailure();
+                    }
+
+                    now[0] = 5000;
+                    final GitHubCircuitBreaker.Permit trial1 = circuitBreaker.acquire("a");
+                    final GitHubCircuitBreaker.Permit trial2 = circuitBreaker.acquire("a");
+                    trial1.onFailure();
+                    test.assertEqual(GitHubCircuitBreaker.State.Open, circuitBreaker.getState("a"));
+                    test.assertEqual(2L, circuitBreaker.getTransitionCount(GitHubCircuitBreaker.State.Open));
+
+                    trial2.onResponse(200);
+                    test.assertEqual(GitHubCircuitBreaker.State.Open, circuitBreaker.getState("a"));
+                    test.assertThrows(() -> circuitBreaker.acquire("a"),
+                        new GitHubCircuitBreakerOpenException("a", 5000));
+                });
+
+                runner.test("with one half-open circuit and one open circuit", (Test test) ->
+                {
+                    final long[] now = { 0 };
+                    final GitHubCircuitBreaker circuitBreaker = GitHubCircuitBreakerTests.create(now);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        circuitBreaker.acquire("a").onFailure();
+                    }
+                    now[0] = 2000;
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        circuitBreaker.acquire("b").onFailure();
+                    }
+
+                    now[0] = 5000;
+                    test.assertThrows(() -> circuitBreaker.acquire("a", "b"),
+                        new GitHubCircuitBreakerOpenException("b", 2000));
+
+                    // The rejected request must not use up one of "a"'s trial requests.
+                    circuitBreaker.acquire("a").onResponse(200);
+                    circuitBreaker.acquire("a").onResponse(200);
+                    test.assertEqual(GitHubCircuitBreaker.State.Closed, circuitBreaker.getState("a"));
+                });
+            });
+        });
+    }
+}
@@ -8,6 +8,55 @@ public interface GitHubClientTests
         return "fake-repo-name-" + fakeRepositoryCount.incrementAndGetAsInt();
     }
 
+    /**
+     * Create a {@link FakeGitHubClient} that responds to create repository requests with the
+     * provided responder, and that can confirm whether the "octocat/new-repo" repository exists.
+     */
+    static FakeGitHubClient createProvisioningClient(Function0<HttpResponse> createResponder, boolean repositoryExists)
+    {
+        return FakeGitHubClient.create((GitHubRequest request) ->
+        {
+            final MutableHttpResponse response = HttpResponse.create();
+            if (HttpMethod.POST.toString().equals(request.getHttpMethod()))
+            {
+                return createResponder.run();
+            }
+            else if (request.getUrlPath().equals("/user"))
+            {
+                response.setStatusCode(200)
+                    .setBody(JSONObject.create()
+                        .setString(GitHubUser.loginPropertyName, "octocat")
+                        .toString());
+            }
+            else if (repositoryExists && request.getUrlPath().equals("/repos/octocat/new-repo"))
+            {
+                response.setStatusCode(200)
+                    .setBody(JSONObject.create()
+                        .setNumber(GitHubRepository.idPropertyName, 1296269)
+                        .setString(GitHubRepository.namePropertyName, "new-repo")
+                        .setString(GitHubRepository.fullNamePropertyName, "octocat/new-repo")
+                        .toString());
+            }
+            else
+            {
+                response.setStatusCode(404)
+                    .setBody(JSONObject.create()
+                        .setString("message", "Not Found")
+                        .toString());
+            }
+            return response;
+        });
+    }
+
+    static HttpResponse createServerErrorResponse()
+    {
+        return HttpResponse.create()
+            .setStatusCode(502)
+            .setBody(JSONObject.create()
+                .setString("message", "Server Error")
+                .toString());
+    }
+
     static void test(TestRunner runner)
     {
         runner.testGroup(GitHubClient.class, () ->
@@ -49,6 +98,244 @@ public interface GitHubClientTests
                     test.assertNotNull(gitHubClient);
                 });
             });
+
+            runner.testGroup("isAmbiguousFailure(Throwable)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubClient.isAmbiguousFailure(null),
+                        new PreConditionFailure("error cannot be null."));
+                });
+
+                final Action2<Throwable,Boolean> isAmbiguousFailureTest = (Throwable error, Boolean expected) ->
+                {
+                    runner.test("with " + error, (Test test) ->
+                    {
+                        test.assertEqual(expected, GitHubClient.isAmbiguousFailure(error));
+                    });
+                };
+
+                isAmbiguousFailureTest.run(new GitHubException(422, GitHubErrorResponse.create().setMessage("Repository creation failed.")), false);
+                isAmbiguousFailureTest.run(new GitHubException(502, GitHubErrorResponse.create().setMessage("Server Error")), true);
+                isAmbiguousFailureTest.run(new GitHubDeadlineExceededException(java.time.Instant.EPOCH, "waiting to send the request"), false);
+                isAmbiguousFailureTest.run(new GitHubDeadlineExceededException(java.time.Instant.EPOCH, GitHubDeadlineExceededException.waitingForResponseHeadersOperation), true);
+                isAmbiguousFailureTest.run(new GitHubCircuitBreakerOpenException("https://api.github.com", 1000), false);
+                isAmbiguousFailureTest.run(new GitHubRequestRejectedException("acme", 10), false);
+                isAmbiguousFailureTest.run(new PreConditionFailure("parameters cannot be null."), false);
+                isAmbiguousFailureTest.run(new RuntimeException("Connection reset"), true);
+            });
+
+            runner.testGroup("createRepository(CreateRepositoryParameters,java.time.Instant,boolean)", () ->
+            {
+                final CreateRepositoryParameters parameters = CreateRepositoryParameters.create()
+                    .setName("new-repo");
+
+                runner.test("with server error and without confirmation", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(GitHubClientTests::createServerErrorResponse, true);
+                    final GitHubException exception = test.assertThrows(() -> gitHubClient.createRepository(parameters, null, false).await(), GitHubException.class);
+                    test.assertEqual(502, exception.getStatusCode());
+                    test.assertEqual(1, gitHubClient.getSentRequests().getCount());
+                });
+
+                runner.test("with server error and repository that exists", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(GitHubClientTests::createServerErrorResponse, true);
+                    final GitHubRepository repository = gitHubClient.createRepository(parameters, null, true).await();
+                    test.assertEqual("octocat/new-repo", repository.getFullName());
+                    final List<String> sentUrlPaths = List.create();
+                    for (final GitHubRequest sentRequest : gitHubClient.getSentRequests())
+                    {
+                        sentUrlPaths.add(sentRequest.getUrlPath());
+                    }
+                    test.assertEqual(Iterable.create("/user/repos", "/user", "/repos/octocat/new-repo"), sentUrlPaths);
+                });
+
+                runner.test("with server error and deadline that has passed", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(GitHubClientTests::createServerErrorResponse, true);
+                    final java.time.Instant deadline = java.time.Instant.now().minusSeconds(1);
+                    final java.time.Instant before = java.time.Instant.now();
+                    final GitHubRepository repository = gitHubClient.createRepository(parameters, deadline, true).await();
+                    test.assertEqual("octocat/new-repo", repository.getFullName());
+
+                    final Iterable<GitHubRequest> sentRequests = gitHubClient.getSentRequests();
+                    test.assertEqual(3, sentRequests.getCount());
+                    test.assertEqual(deadline, sentRequests.first().getDeadline());
+                    for (final GitHubRequest confirmationRequest : sentRequests.skip(1))
+                    {
+                        test.assertFalse(confirmationRequest.getDeadline().isBefore(before.plus(GitHubClient.ambiguousFailureConfirmationTimeout)));
+                    }
+                });
+
+                runner.test("with server error and deadline that is later than the confirmation timeout", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(GitHubClientTests::createServerErrorResponse, true);
+                    final java.time.Instant deadline = java.time.Instant.now().plus(GitHubClient.ambiguousFailureConfirmationTimeout).plusSeconds(60);
+                    gitHubClient.createRepository(parameters, deadline, true).await();
+                    for (final GitHubRequest sentRequest : gitHubClient.getSentRequests())
+                    {
+                        test.assertEqual(deadline, sentRequest.getDeadline());
+                    }
+                });
+
+                runner.test("with server error and repository that doesn't exist", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(GitHubClientTests::createServerErrorResponse, false);
+                    final GitHubException exception = test.assertThrows(() -> gitHubClient.createRepository(parameters, null, true).await(), GitHubException.class);
+                    test.assertEqual(502, exception.getStatusCode());
+                    test.assertEqual(3, gitHubClient.getSentRequests().getCount());
+                });
+
+                runner.test("with connection failure and repository that exists", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(() ->
+                    {
+                        throw new RuntimeException("Connection reset");
+                    }, true);
+                    final GitHubRepository repository = gitHubClient.createRepository(parameters, null, true).await();
+                    test.assertEqual("new-repo", repository.getName());
+                });
+
+                runner.test("with repository that already exists error", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = GitHubClientTests.createProvisioningClient(() ->
+                        HttpResponse.create()
+                            .setStatusCode(422)
+                            .setBody(JSONObject.create()
+                                .setString("message", "Repository creation failed.")
+                                .toString()),
+                        true);
+                    final GitHubException exception = test.assertThrows(() -> gitHubClient.createRepository(parameters, null, true).await(), GitHubException.class);
+                    test.assertEqual(422, exception.getStatusCode());
+                    test.assertEqual(1, gitHubClient.getSentRequests().getCount());
+                });
+            });
+
+            runner.testGroup("sendHeadRequest(GitHubRequest)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) -> HttpResponse.create().setStatusCode(200));
+                    test.assertThrows(() -> gitHubClient.sendHeadRequest(null),
+                        new PreConditionFailure("request cannot be null."));
+                });
+
+                runner.test("with GET request", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) ->
+                        HttpResponse.create()
+                            .setStatusCode(200)
+                            .setHeader(GitHubResponse.eTagHeaderName, "\"abc\"")
+                            .setHeader(GitHubResponse.rateLimitLimitHeaderName, "5000")
+                            .setHeader(GitHubResponse.rateLimitRemainingHeaderName, "4999")
+                            .setHeader(GitHubResponse.rateLimitResetHeaderName, "1700000000"));
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    final GitHubHeadResponse response = gitHubClient.sendHeadRequest(request).await();
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertEqual("\"abc\"", response.getETag());
+                    test.assertEqual(5000L, response.getRateLimitLimit());
+                    test.assertEqual(4999L, response.getRateLimitRemaining());
+                    test.assertEqual(java.time.Instant.ofEpochSecond(1700000000), response.getRateLimitReset());
+
+                    final GitHubRequest sentRequest = gitHubClient.getSentRequests().first();
+                    test.assertTrue(sentRequest.isHeadRequest());
+                    test.assertEqual("/repos/octocat/Hello-World", sentRequest.getUrlPath());
+                    test.assertFalse(request.isHeadRequest());
+                });
+            });
+
+            runner.testGroup("sendRevalidationRequest(GitHubRequest,String)", () ->
+            {
+                runner.test("with empty eTag", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) -> HttpResponse.create().setStatusCode(200));
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    test.assertThrows(() -> gitHubClient.sendRevalidationRequest(request, ""),
+                        new PreConditionFailure("eTag cannot be empty."));
+                });
+
+                runner.test("with unchanged resource", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) ->
+                        HttpResponse.create()
+                            .setStatusCode(304)
+                            .setHeader(GitHubResponse.eTagHeaderName, "\"abc\""));
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    final GitHubHeadResponse response = gitHubClient.sendRevalidationRequest(request, "\"abc\"").await();
+                    test.assertTrue(response.isNotModifiedResponse());
+
+                    final GitHubRequest sentRequest = gitHubClient.getSentRequests().first();
+                    test.assertTrue(sentRequest.isHeadRequest());
+                    test.assertEqual("\"abc\"", sentRequest.getHeaderValue("If-None-Match").await());
+                });
+            });
+
+            runner.testGroup("repositoryExists(GetRepositoryParameters)", () ->
+            {
+                final Action2<Integer,Boolean> repositoryExistsTest = (Integer statusCode, Boolean expected) ->
+                {
+                    runner.test("with " + statusCode + " response", (Test test) ->
+                    {
+                        final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) -> HttpResponse.create().setStatusCode(statusCode));
+                        final boolean result = gitHubClient.repositoryExists(GetRepositoryParameters.create()
+                            .setOwner("octocat")
+                            .setName("Hello-World")).await();
+                        test.assertEqual(expected, result);
+                        test.assertTrue(gitHubClient.getSentRequests().first().isHeadRequest());
+                    });
+                };
+
+                repositoryExistsTest.run(200, true);
+                repositoryExistsTest.run(301, true);
+                repositoryExistsTest.run(404, false);
+
+                runner.test("with 403 response", (Test test) ->
+                {
+                    final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) -> HttpResponse.create().setStatusCode(403));
+                    final GitHubException exception = test.assertThrows(() -> gitHubClient.repositoryExists(GetRepositoryParameters.create()
+                        .setOwner("octocat")
+                        .setName("Hello-World")).await(),
+                        GitHubException.class);
+                    test.assertEqual(403, exception.getStatusCode());
+                });
+            });
+
+            runner.testGroup("hasRepositoryChanged(GetRepositoryParameters,String)", () ->
+            {
+                final Action3<Integer,String,Boolean> hasRepositoryChangedTest = (Integer statusCode, String eTag, Boolean expected) ->
+                {
+                    runner.test("with " + statusCode + " response and " + Strings.escapeAndQuote(eTag) + " ETag", (Test test) ->
+                    {
+                        final FakeGitHubClient gitHubClient = FakeGitHubClient.create((GitHubRequest request) ->
+                        {
+                            final MutableHttpResponse response = HttpResponse.create()
+                                .setStatusCode(statusCode);
+                            if (eTag != null)
+                            {
+                                response.setHeader(GitHubResponse.eTagHeaderName, eTag);
+                            }
+                            return response;
+                        });
+                        final boolean result = gitHubClient.hasRepositoryChanged(GetRepositoryParameters.create()
+                            .setOwner("octocat")
+                            .setName("Hello-World"), "\"abc\"").await();
+                        test.assertEqual(expected, result);
+                    });
+                };
+
+                hasRepositoryChangedTest.run(304, "\"abc\"", false);
+                hasRepositoryChangedTest.run(200, "\"abc\"", false);
+                hasRepositoryChangedTest.run(200, "\"def\"", true);
+                hasRepositoryChangedTest.run(200, null, true);
+                hasRepositoryChangedTest.run(404, null, true);
+            });
         });
     }
 
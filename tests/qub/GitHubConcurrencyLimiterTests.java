@@ -0,0 +1,323 @@
+package qub;
+
+public interface GitHubConcurrencyLimiterTests
+{
+    static GitHubRequest createGetRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+    }
+
+    static GitHubRequest createPostRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.POST)
+            .setUrlPath("/user/repos");
+    }
+
+    static GitHubResponse createResponse(int statusCode)
+    {
+        return GitHubResponse.create(HttpResponse.create()
+            .setStatusCode(statusCode));
+    }
+
+    /**
+     * Start sending the provided request through the provided scheduler and limiter the way that
+     * {@link BasicGitHubClient} does, record the provided label once it would be sent, and then
+     * release both permits.
+     */
+    static Thread startSend(GitHubRequestScheduler scheduler, GitHubConcurrencyLimiter limiter, GitHubRequest request, List<String> sendOrder, String label)
+    {
+        final Thread result = new Thread(() ->
+        {
+            final GitHubRequestScheduler.Permit schedulerPermit = scheduler.acquire(request);
+            final GitHubConcurrencyLimiter.Permit concurrencyPermit = limiter.acquire(request);
+            synchronized (sendOrder)
+            {
+                sendOrder.add(label);
+            }
+            concurrencyPermit.onFailure();
+            schedulerPermit.onFailure();
+        });
+        result.start();
+        return result;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubConcurrencyLimiter.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                test.assertEqual(10, limiter.getLimit(false));
+                test.assertEqual(2, limiter.getLimit(true));
+                test.assertEqual(0, limiter.getInFlightCount(false));
+                test.assertEqual(0, limiter.getInFlightCount(true));
+                test.assertEqual(0L, limiter.getDecreaseCount(false));
+                test.assertEqual(0L, limiter.getSecondaryRateLimitCount(false));
+            });
+
+            runner.testGroup("isMutatingRequest(GitHubRequest)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubConcurrencyLimiter.isMutatingRequest(null),
+                        new PreConditionFailure("request cannot be null."));
+                });
+
+                runner.test("with GET", (Test test) ->
+                {
+                    test.assertFalse(GitHubConcurrencyLimiter.isMutatingRequest(GitHubConcurrencyLimiterTests.createGetRequest()));
+                });
+
+                runner.test("with POST", (Test test) ->
+                {
+                    test.assertTrue(GitHubConcurrencyLimiter.isMutatingRequest(GitHubConcurrencyLimiterTests.createPostRequest()));
+                });
+            });
+
+            runner.testGroup("setLimits(boolean,int,int,int)", () ->
+            {
+                runner.test("with 0 minimumLimit", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    test.assertThrows(() -> limiter.setLimits(false, 1, 0, 5),
+                        new PreConditionFailure("minimumLimit (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with initialLimit above maximumLimit", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    test.assertThrows(() -> limiter.setLimits(false, 6, 1, 5),
+                        new PreConditionFailure("initialLimit (6) must be between 1 and 5."));
+                });
+
+                runner.test("with valid limits", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    final GitHubConcurrencyLimiter setLimitsResult = limiter.setLimits(true, 3, 1, 5);
+                    test.assertSame(limiter, setLimitsResult);
+                    test.assertEqual(3, limiter.getLimit(true));
+                    test.assertEqual(10, limiter.getLimit(false));
+                });
+            });
+
+            runner.testGroup("setBackoffRatio(double)", () ->
+            {
+                runner.test("with 1", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    test.assertThrows(() -> limiter.setBackoffRatio(1),
+                        new PreConditionFailure("backoffRatio (1.0) must be between 0.1 and 0.95."));
+                });
+            });
+
+            runner.testGroup("acquire(GitHubRequest)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    test.assertThrows(() -> limiter.acquire(null),
+                        new PreConditionFailure("request cannot be null."));
+                });
+
+                runner.test("with read and mutating requests", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    final GitHubConcurrencyLimiter.Permit readPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+                    final GitHubConcurrencyLimiter.Permit mutatingPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest());
+                    test.assertEqual(1, limiter.getInFlightCount(false));
+                    test.assertEqual(1, limiter.getInFlightCount(true));
+
+                    readPermit.onFailure();
+                    readPermit.onFailure();
+                    mutatingPermit.onFailure();
+                    test.assertEqual(0, limiter.getInFlightCount(false));
+                    test.assertEqual(0, limiter.getInFlightCount(true));
+                    test.assertEqual(10, limiter.getLimit(false));
+                });
+
+                runner.test("when the limit is full and the deadline passes", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setLimits(true, 1, 1, 1);
+                    limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest());
+
+                    final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                    test.assertThrows(() -> limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest().setDeadline(deadline)),
+                        new GitHubDeadlineExceededException(deadline, "waiting for a concurrency permit"));
+                    test.assertEqual(1, limiter.getInFlightCount(true));
+                });
+
+                runner.test("when the limit is full until a permit is released", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setLimits(true, 1, 1, 1);
+                    final GitHubConcurrencyLimiter.Permit firstPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest());
+
+                    final java.util.concurrent.CompletableFuture<GitHubConcurrencyLimiter.Permit> secondPermit = java.util.concurrent.CompletableFuture.supplyAsync(
+                        () -> limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest()));
+                    firstPermit.onResponse(GitHubConcurrencyLimiterTests.createResponse(201));
+                    test.assertNotNull(secondPermit.join());
+                    test.assertEqual(1, limiter.getInFlightCount(true));
+                });
+
+                runner.test("with interactive request waiting ahead of background request", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setLimits(false, 1, 1, 1);
+                    final GitHubConcurrencyLimiter.Permit firstPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest()
+                        .setPriority(GitHubRequest.Priority.Background));
+
+                    final java.util.concurrent.CompletableFuture<GitHubConcurrencyLimiter.Permit> interactivePermit = java.util.concurrent.CompletableFuture.supplyAsync(
+                        () -> limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest()));
+                    while (limiter.getWaitingInteractiveCount(false) == 0)
+                    {
+                        Thread.yield();
+                    }
+
+                    // A background request can't take the permit that the interactive request is
+                    // waiting for, even once it is released.
+                    firstPermit.onFailure();
+                    final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                    test.assertThrows(() -> limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest().setPriority(GitHubRequest.Priority.Background).setDeadline(deadline)),
+                        new GitHubDeadlineExceededException(deadline, "waiting for a concurrency permit"));
+
+                    interactivePermit.join().onFailure();
+                    test.assertEqual(0, limiter.getWaitingInteractiveCount(false));
+                    limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest().setPriority(GitHubRequest.Priority.Background))
+                        .onFailure();
+                    test.assertEqual(0, limiter.getInFlightCount(false));
+                });
+
+                runner.test("with a request scheduler in front of it", (Test test) ->
+                {
+                    // The scheduler keeps one of its two slots for interactive requests, and the
+                    // limiter only allows one request in flight.
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setMaximumConcurrentRequests(2)
+                        .setInteractiveReservedFraction(0.5);
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setLimits(false, 1, 1, 1);
+                    final List<String> sendOrder = List.create();
+
+                    final GitHubRequest firstRequest = GitHubConcurrencyLimiterTests.createGetRequest().setPriority(GitHubRequest.Priority.Background);
+                    final GitHubRequestScheduler.Permit firstSchedulerPermit = scheduler.acquire(firstRequest);
+                    final GitHubConcurrencyLimiter.Permit firstConcurrencyPermit = limiter.acquire(firstRequest);
+
+                    final Thread background = GitHubConcurrencyLimiterTests.startSend(scheduler, limiter,
+                        GitHubConcurrencyLimiterTests.createGetRequest().setPriority(GitHubRequest.Priority.Background), sendOrder, "background");
+                    while (scheduler.getWaitingCount(GitHubRequest.Priority.Background) == 0)
+                    {
+                        Thread.yield();
+                    }
+                    final Thread interactive = GitHubConcurrencyLimiterTests.startSend(scheduler, limiter,
+                        GitHubConcurrencyLimiterTests.createGetRequest(), sendOrder, "interactive");
+                    while (limiter.getWaitingInteractiveCount(false) == 0)
+                    {
+                        Thread.yield();
+                    }
+
+                    // Releasing the first request's scheduler slot lets the background request
+                    // through the scheduler before the limiter's permit frees up, but the
+                    // interactive request that is already waiting on the limiter still goes first.
+                    firstSchedulerPermit.onFailure();
+                    while (scheduler.getWaitingCount(GitHubRequest.Priority.Background) != 0)
+                    {
+                        Thread.yield();
+                    }
+                    firstConcurrencyPermit.onFailure();
+                    GitHubRequestSchedulerTests.join(interactive);
+                    GitHubRequestSchedulerTests.join(background);
+                    test.assertEqual(Iterable.create("interactive", "background"), sendOrder);
+                    test.assertEqual(0, scheduler.getInFlightCount());
+                    test.assertEqual(0, limiter.getInFlightCount(false));
+                });
+            });
+
+            runner.testGroup("Permit.onResponse(GitHubResponse)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    final GitHubConcurrencyLimiter.Permit permit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+                    test.assertThrows(() -> permit.onResponse(null),
+                        new PreConditionFailure("response cannot be null."));
+                });
+
+                runner.test("with successful responses", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setClock(() -> 0L)
+                        .setLimits(false, 2, 1, 3);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest())
+                            .onResponse(GitHubConcurrencyLimiterTests.createResponse(200));
+                    }
+                    test.assertEqual(3, limiter.getLimit(false));
+                    test.assertEqual(0L, limiter.getDecreaseCount(false));
+                });
+
+                runner.test("with secondary rate limit responses", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setLimits(false, 8, 1, 10);
+                    final GitHubConcurrencyLimiter.Permit firstPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+                    final GitHubConcurrencyLimiter.Permit secondPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+
+                    firstPermit.onResponse(GitHubConcurrencyLimiterTests.createResponse(429));
+                    test.assertEqual(4, limiter.getLimit(false));
+                    test.assertEqual(1L, limiter.getDecreaseCount(false));
+
+                    // The second request was started before the limit was cut, so it doesn't cut
+                    // the limit again.
+                    secondPermit.onResponse(GitHubConcurrencyLimiterTests.createResponse(429));
+                    test.assertEqual(4, limiter.getLimit(false));
+                    test.assertEqual(1L, limiter.getDecreaseCount(false));
+                    test.assertEqual(2L, limiter.getSecondaryRateLimitCount(false));
+
+                    limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest())
+                        .onResponse(GitHubConcurrencyLimiterTests.createResponse(429));
+                    test.assertEqual(2, limiter.getLimit(false));
+                    test.assertEqual(2L, limiter.getDecreaseCount(false));
+                    test.assertEqual(0, limiter.getInFlightCount(false));
+                });
+
+                runner.test("with secondary rate limit response at the minimum limit", (Test test) ->
+                {
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create();
+                    limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest())
+                        .onResponse(GitHubConcurrencyLimiterTests.createResponse(429));
+                    limiter.acquire(GitHubConcurrencyLimiterTests.createPostRequest())
+                        .onResponse(GitHubConcurrencyLimiterTests.createResponse(429));
+                    test.assertEqual(1, limiter.getLimit(true));
+                    test.assertEqual(10, limiter.getLimit(false));
+                });
+
+                runner.test("with latency spike", (Test test) ->
+                {
+                    final java.util.concurrent.atomic.AtomicLong now = new java.util.concurrent.atomic.AtomicLong();
+                    final GitHubConcurrencyLimiter limiter = GitHubConcurrencyLimiter.create()
+                        .setClock(now::get)
+                        .setLimits(false, 10, 1, 10)
+                        .setLatencyBackoffRatio(0.5);
+
+                    final GitHubConcurrencyLimiter.Permit firstPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+                    now.addAndGet(100);
+                    firstPermit.onResponse(GitHubConcurrencyLimiterTests.createResponse(200));
+                    test.assertEqual(10, limiter.getLimit(false));
+
+                    final GitHubConcurrencyLimiter.Permit secondPermit = limiter.acquire(GitHubConcurrencyLimiterTests.createGetRequest());
+                    now.addAndGet(1000);
+                    secondPermit.onResponse(GitHubConcurrencyLimiterTests.createResponse(200));
+                    test.assertEqual(5, limiter.getLimit(false));
+                    test.assertEqual(1L, limiter.getDecreaseCount(false));
+                    test.assertEqual(0L, limiter.getSecondaryRateLimitCount(false));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package qub;
+
+public interface GitHubDeadlineExceededExceptionTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubDeadlineExceededException.class, () ->
+        {
+            runner.testGroup("constructor(java.time.Instant,String)", () ->
+            {
+                final Action3<java.time.Instant,String,Throwable> constructorErrorTest = (java.time.Instant deadline, String operation, Throwable expected) ->
+                {
+                    runner.test("with " + English.andList(deadline, Strings.escapeAndQuote(operation)), (Test test) ->
+                    {
+                        test.assertThrows(() -> new GitHubDeadlineExceededException(deadline, operation),
+                            expected);
+                    });
+                };
+
+                constructorErrorTest.run(null, "reading the response body", new PreConditionFailure("deadline cannot be null."));
+                constructorErrorTest.run(java.time.Instant.EPOCH, null, new PreConditionFailure("operation cannot be null."));
+                constructorErrorTest.run(java.time.Instant.EPOCH, "", new PreConditionFailure("operation cannot be empty."));
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final java.time.Instant deadline = java.time.Instant.parse("2024-05-01T12:00:00Z");
+                    final GitHubDeadlineExceededException e = new GitHubDeadlineExceededException(deadline, "reading the response body");
+                    test.assertEqual(deadline, e.getDeadline());
+                    test.assertEqual("reading the response body", e.getOperation());
+                    test.assertEqual("The request's deadline (2024-05-01T12:00:00Z) passed while reading the response body.", e.getMessage());
+                });
+            });
+
+            runner.testGroup("isAfterRequestSent()", () ->
+            {
+                final Action2<String,Boolean> isAfterRequestSentTest = (String operation, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(operation), (Test test) ->
+                    {
+                        final GitHubDeadlineExceededException e = new GitHubDeadlineExceededException(java.time.Instant.EPOCH, operation);
+                        test.assertEqual(expected, e.isAfterRequestSent());
+                    });
+                };
+
+                isAfterRequestSentTest.run("waiting to send the request", false);
+                isAfterRequestSentTest.run("waiting to be scheduled", false);
+                isAfterRequestSentTest.run(GitHubDeadlineExceededException.waitingForResponseHeadersOperation, true);
+                isAfterRequestSentTest.run(GitHubDeadlineExceededException.readingResponseBodyOperation, true);
+            });
+        });
+    }
+}
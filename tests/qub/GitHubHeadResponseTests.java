@@ -0,0 +1,80 @@
+package qub;
+
+public interface GitHubHeadResponseTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubHeadResponse.class, () ->
+        {
+            runner.testGroup("create(GitHubResponse)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubHeadResponse.create(null),
+                        new PreConditionFailure("response cannot be null."));
+                });
+
+                runner.test("with no headers", (Test test) ->
+                {
+                    final GitHubHeadResponse response = GitHubHeadResponse.create(GitHubResponse.create(HttpResponse.create()
+                        .setStatusCode(200)));
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertTrue(response.isSuccessResponse());
+                    test.assertFalse(response.isNotFoundResponse());
+                    test.assertFalse(response.isNotModifiedResponse());
+                    test.assertFalse(response.isRedirectResponse());
+                    test.assertNull(response.getETag());
+                    test.assertNull(response.getLocation());
+                    test.assertNull(response.getRateLimitLimit());
+                    test.assertNull(response.getRateLimitRemaining());
+                    test.assertNull(response.getRateLimitReset());
+                });
+
+                runner.test("with headers", (Test test) ->
+                {
+                    final GitHubHeadResponse response = GitHubHeadResponse.create(GitHubResponse.create(HttpResponse.create()
+                        .setStatusCode(301)
+                        .setHeader(GitHubResponse.eTagHeaderName, "\"abc\"")
+                        .setHeader(GitHubResponse.locationHeaderName, "https://api.github.com/repositories/1296269")
+                        .setHeader(GitHubResponse.rateLimitLimitHeaderName, "5000")
+                        .setHeader(GitHubResponse.rateLimitRemainingHeaderName, "4999")
+                        .setHeader(GitHubResponse.rateLimitResetHeaderName, "1700000000")));
+                    test.assertFalse(response.isSuccessResponse());
+                    test.assertTrue(response.isRedirectResponse());
+                    test.assertEqual("\"abc\"", response.getETag());
+                    test.assertEqual("https://api.github.com/repositories/1296269", response.getLocation());
+                    test.assertEqual(5000L, response.getRateLimitLimit());
+                    test.assertEqual(4999L, response.getRateLimitRemaining());
+                    test.assertEqual(java.time.Instant.ofEpochSecond(1700000000), response.getRateLimitReset());
+                });
+            });
+
+            runner.testGroup("throwIfErrorResponse()", () ->
+            {
+                final Action2<Integer,Boolean> throwIfErrorResponseTest = (Integer statusCode, Boolean expectThrow) ->
+                {
+                    runner.test("with " + statusCode, (Test test) ->
+                    {
+                        final GitHubHeadResponse response = GitHubHeadResponse.create(GitHubResponse.create(HttpResponse.create()
+                            .setStatusCode(statusCode)));
+                        if (expectThrow)
+                        {
+                            final GitHubException exception = test.assertThrows(response::throwIfErrorResponse, GitHubException.class);
+                            test.assertEqual(statusCode, exception.getStatusCode());
+                            test.assertEqual("The HEAD request failed with a " + statusCode + " response.", exception.getMessage());
+                        }
+                        else
+                        {
+                            response.throwIfErrorResponse();
+                        }
+                    });
+                };
+
+                throwIfErrorResponseTest.run(200, false);
+                throwIfErrorResponseTest.run(304, false);
+                throwIfErrorResponseTest.run(404, true);
+                throwIfErrorResponseTest.run(502, true);
+            });
+        });
+    }
+}
@@ -0,0 +1,275 @@
+package qub;
+
+public interface GitHubHedgingPolicyTests
+{
+    static GitHubRequest createGetRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+    }
+
+    static GitHubResponse createResponse(String body)
+    {
+        return GitHubResponse.create(HttpResponse.create()
+            .setStatusCode(200)
+            .setBody(body));
+    }
+
+    static void sleep(long milliseconds)
+    {
+        try
+        {
+            Thread.sleep(milliseconds);
+        }
+        catch (InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubHedgingPolicy.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create();
+                test.assertEqual(0.95, policy.getPercentile());
+                test.assertEqual(100, policy.getLatencyWindowSize());
+                test.assertEqual(20, policy.getMinimumSampleCount());
+                test.assertEqual(0.1, policy.getBudgetRatio());
+                test.assertEqual(10.0, policy.getMaximumBudget());
+                test.assertEqual(0L, policy.getRequestCount());
+                test.assertEqual(0L, policy.getHedgeCount());
+            });
+
+            runner.testGroup("canHedge(GitHubRequest)", () ->
+            {
+                runner.test("with GET", (Test test) ->
+                {
+                    test.assertTrue(GitHubHedgingPolicy.canHedge(GitHubHedgingPolicyTests.createGetRequest()));
+                });
+
+                runner.test("with DELETE", (Test test) ->
+                {
+                    test.assertFalse(GitHubHedgingPolicy.canHedge(GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.DELETE)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World")));
+                });
+            });
+
+            runner.testGroup("setPercentile(double)", () ->
+            {
+                runner.test("with 0.4", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create();
+                    test.assertThrows(() -> policy.setPercentile(0.4),
+                        new PreConditionFailure("percentile (0.4) must be between 0.5 and 0.999."));
+                });
+            });
+
+            runner.testGroup("getHedgeDelayMilliseconds(String)", () ->
+            {
+                runner.test("with unknown route", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create();
+                    test.assertNull(policy.getHedgeDelayMilliseconds("/user"));
+                });
+
+                runner.test("with fewer than the minimum sample count", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(3);
+                    policy.recordLatency("/user", 5);
+                    policy.recordLatency("/user", 5);
+                    test.assertNull(policy.getHedgeDelayMilliseconds("/user"));
+                });
+
+                runner.test("with full window", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setLatencyWindowSize(10)
+                        .setMinimumSampleCount(10)
+                        .setPercentile(0.9);
+                    for (long latency = 10; latency >= 1; --latency)
+                    {
+                        policy.recordLatency("/user", latency);
+                    }
+                    test.assertEqual(9L, policy.getHedgeDelayMilliseconds("/user"));
+                    test.assertNull(policy.getHedgeDelayMilliseconds("/user/repos"));
+
+                    for (int i = 0; i < 10; ++i)
+                    {
+                        policy.recordLatency("/user", 100);
+                    }
+                    test.assertEqual(100L, policy.getHedgeDelayMilliseconds("/user"));
+                });
+            });
+
+            runner.testGroup("send(GitHubRequest,Function1<GitHubRequest,GitHubResponse>)", () ->
+            {
+                runner.test("with non-idempotent request", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create();
+                    test.assertThrows(() -> policy.send(GitHubRequest.create().setHttpMethod(HttpMethod.POST).setUrlPath("/user/repos"), (GitHubRequest request) -> null),
+                        new PreConditionFailure("GitHubHedgingPolicy.canHedge(request) cannot be false."));
+                });
+
+                runner.test("with no observed latencies", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(1);
+                    final List<GitHubRequest> attempts = List.create();
+                    final GitHubResponse response = policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                    {
+                        attempts.add(request);
+                        return GitHubHedgingPolicyTests.createResponse("first");
+                    }).await();
+
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertEqual(1, attempts.getCount());
+                    test.assertEqual(1L, policy.getRequestCount());
+                    test.assertEqual(0L, policy.getHedgeCount());
+                    test.assertNotNull(policy.getHedgeDelayMilliseconds("/repos/{owner}/{repo}"));
+                });
+
+                runner.test("with slow first attempt", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(1)
+                        .setBudgetRatio(1.0);
+                    policy.recordLatency("/repos/{owner}/{repo}", 1);
+
+                    final java.util.concurrent.CountDownLatch releaseFirstAttempt = new java.util.concurrent.CountDownLatch(1);
+                    final java.util.concurrent.atomic.AtomicInteger attemptCount = new java.util.concurrent.atomic.AtomicInteger();
+                    final java.util.concurrent.atomic.AtomicReference<GitHubResponse> firstResponse = new java.util.concurrent.atomic.AtomicReference<>();
+                    final GitHubResponse secondResponse = GitHubHedgingPolicyTests.createResponse("second");
+                    final GitHubResponse response = policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                    {
+                        if (attemptCount.incrementAndGet() == 1)
+                        {
+                            try
+                            {
+                                releaseFirstAttempt.await();
+                            }
+                            catch (InterruptedException e)
+                            {
+                                throw new RuntimeException(e);
+                            }
+                            firstResponse.set(GitHubHedgingPolicyTests.createResponse("first"));
+                            return firstResponse.get();
+                        }
+                        return secondResponse;
+                    }).await();
+
+                    test.assertSame(secondResponse, response);
+                    test.assertFalse(response.isDisposed());
+                    test.assertEqual(2, attemptCount.get());
+                    test.assertEqual(1L, policy.getHedgeCount());
+                    test.assertEqual(1L, policy.getHedgeWinCount());
+
+                    releaseFirstAttempt.countDown();
+                    for (int i = 0; i < 5000 && (firstResponse.get() == null || !firstResponse.get().isDisposed()); ++i)
+                    {
+                        GitHubHedgingPolicyTests.sleep(1);
+                    }
+                    test.assertTrue(firstResponse.get().isDisposed());
+                });
+
+                runner.test("with first attempt that waits in the executor's queue", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setLatencyWindowSize(1)
+                        .setMinimumSampleCount(1)
+                        .setBudgetRatio(1.0)
+                        .setExecutor((Runnable task) ->
+                        {
+                            // Every attempt waits 200 milliseconds before it starts running.
+                            final Thread thread = new Thread(() ->
+                            {
+                                GitHubHedgingPolicyTests.sleep(200);
+                                task.run();
+                            });
+                            thread.setDaemon(true);
+                            thread.start();
+                        });
+                    policy.recordLatency("/repos/{owner}/{repo}", 100);
+
+                    final java.util.concurrent.atomic.AtomicInteger attemptCount = new java.util.concurrent.atomic.AtomicInteger();
+                    final GitHubResponse response = policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                    {
+                        attemptCount.incrementAndGet();
+                        GitHubHedgingPolicyTests.sleep(10);
+                        return GitHubHedgingPolicyTests.createResponse("first");
+                    }).await();
+
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertEqual(1, attemptCount.get());
+                    test.assertEqual(0L, policy.getHedgeCount());
+                    final long recordedLatency = policy.getHedgeDelayMilliseconds("/repos/{owner}/{repo}");
+                    test.assertTrue(recordedLatency < 100, "Expected the recorded latency (" + recordedLatency + ") to not include the time spent in the queue.");
+                });
+
+                runner.test("with spent budget", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(1)
+                        .setBudgetRatio(0.0);
+                    policy.recordLatency("/repos/{owner}/{repo}", 1);
+
+                    final java.util.concurrent.atomic.AtomicInteger attemptCount = new java.util.concurrent.atomic.AtomicInteger();
+                    final GitHubResponse response = policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                    {
+                        attemptCount.incrementAndGet();
+                        GitHubHedgingPolicyTests.sleep(50);
+                        return GitHubHedgingPolicyTests.createResponse("first");
+                    }).await();
+
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertEqual(1, attemptCount.get());
+                    test.assertEqual(0L, policy.getHedgeCount());
+                    test.assertEqual(1L, policy.getBudgetExhaustedCount());
+                });
+
+                runner.test("with failing first attempt and successful second attempt", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(1)
+                        .setBudgetRatio(1.0);
+                    policy.recordLatency("/repos/{owner}/{repo}", 1);
+
+                    final java.util.concurrent.atomic.AtomicInteger attemptCount = new java.util.concurrent.atomic.AtomicInteger();
+                    final GitHubResponse response = policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                    {
+                        if (attemptCount.incrementAndGet() == 1)
+                        {
+                            GitHubHedgingPolicyTests.sleep(50);
+                            throw new java.lang.IllegalStateException("first attempt failed");
+                        }
+                        return GitHubHedgingPolicyTests.createResponse("second");
+                    }).await();
+
+                    test.assertEqual(200, response.getStatusCode());
+                    test.assertEqual(1L, policy.getHedgeWinCount());
+                });
+
+                runner.test("with every attempt failing", (Test test) ->
+                {
+                    final GitHubHedgingPolicy policy = GitHubHedgingPolicy.create()
+                        .setMinimumSampleCount(1)
+                        .setBudgetRatio(1.0);
+                    policy.recordLatency("/repos/{owner}/{repo}", 1);
+
+                    test.assertThrows(() -> policy.send(GitHubHedgingPolicyTests.createGetRequest(), (GitHubRequest request) ->
+                        {
+                            GitHubHedgingPolicyTests.sleep(20);
+                            throw new java.lang.IllegalStateException("attempt failed");
+                        }).await(),
+                        new java.lang.IllegalStateException("attempt failed"));
+                    test.assertEqual(1L, policy.getHedgeCount());
+                });
+            });
+        });
+    }
+}
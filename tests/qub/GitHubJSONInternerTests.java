@@ -0,0 +1,244 @@
+package qub;
+
+public interface GitHubJSONInternerTests
+{
+    static JSONObject createRepositoryJson(String owner, String name)
+    {
+        return JSONObject.create()
+            .setString(GitHubRepository.namePropertyName, name)
+            .setObject(GitHubRepository.ownerPropertyName, JSONObject.create()
+                .setString(GitHubUser.loginPropertyName, owner)
+                .setString("type", "User"));
+    }
+
+    /**
+     * Create a {@link FakeGitHubClient} that responds to every request with one page of ten
+     * repositories that are all owned by the same user.
+     */
+    static FakeGitHubClient createOwnedRepositoriesClient()
+    {
+        return FakeGitHubClient.create((GitHubRequest request) ->
+        {
+            final JSONArray body = JSONArray.create();
+            for (int i = 0; i < 10; ++i)
+            {
+                body.add(GitHubJSONInternerTests.createRepositoryJson("octocat", "repo-" + i));
+            }
+            return HttpResponse.create()
+                .setStatusCode(200)
+                .setBody(body.toString());
+        });
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubJSONInterner.class, () ->
+        {
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubJSONInterner.create(0),
+                        new PreConditionFailure("maximumCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 10", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create(10);
+                    test.assertEqual(10, interner.getMaximumCount());
+                    test.assertEqual(0, interner.getObjectCount());
+                    test.assertEqual(0, interner.getStringCount());
+                });
+            });
+
+            runner.testGroup("internUser(JSONObject)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    test.assertThrows(() -> interner.internUser(null),
+                        new PreConditionFailure("userJson cannot be null."));
+                });
+
+                runner.test("with users that have the same login", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject first = JSONObject.create().setString("login", "octocat");
+                    final JSONObject second = JSONObject.create().setString("login", "octocat");
+                    test.assertSame(first, interner.internUser(first));
+                    test.assertSame(first, interner.internUser(second));
+                    test.assertEqual(1, interner.getObjectCount());
+                });
+
+                runner.test("with users that have different logins", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject first = JSONObject.create().setString("login", "octocat");
+                    final JSONObject second = JSONObject.create().setString("login", "hubot");
+                    test.assertSame(first, interner.internUser(first));
+                    test.assertSame(second, interner.internUser(second));
+                    test.assertEqual(2, interner.getObjectCount());
+                });
+
+                runner.test("with users that have the same id", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject first = JSONObject.create()
+                        .setNumber("id", 583231)
+                        .setString("login", "octocat");
+                    final JSONObject second = JSONObject.create()
+                        .setNumber("id", 583231)
+                        .setString("login", "octocat")
+                        .setString("type", "User");
+                    final JSONObject third = JSONObject.create()
+                        .setNumber("id", 1)
+                        .setString("login", "octocat");
+                    test.assertSame(first, interner.internUser(first));
+                    test.assertSame(first, interner.internUser(second));
+                    test.assertSame(third, interner.internUser(third));
+                    test.assertEqual(2, interner.getObjectCount());
+                });
+
+                runner.test("with user that has no id or login", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject first = JSONObject.create().setString("type", "User");
+                    final JSONObject second = JSONObject.create().setString("type", "User");
+                    test.assertSame(first, interner.internUser(first));
+                    test.assertSame(second, interner.internUser(second));
+                    test.assertEqual(0, interner.getObjectCount());
+                });
+
+                runner.test("with more users than the maximum count", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create(2);
+                    final JSONObject a = JSONObject.create().setString("login", "a");
+                    interner.internUser(a);
+                    interner.internUser(JSONObject.create().setString("login", "b"));
+                    interner.internUser(JSONObject.create().setString("login", "a"));
+                    interner.internUser(JSONObject.create().setString("login", "c"));
+                    test.assertEqual(2, interner.getObjectCount());
+
+                    // "a" was used more recently than "b", so "b" was evicted.
+                    test.assertSame(a, interner.internUser(JSONObject.create().setString("login", "a")));
+                    final JSONObject b = JSONObject.create().setString("login", "b");
+                    test.assertSame(b, interner.internUser(b));
+                });
+            });
+
+            runner.testGroup("intern(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    test.assertThrows(() -> interner.intern((String)null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                runner.test("with equal strings", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final String first = new String("octocat");
+                    final String second = new String("octocat");
+                    test.assertSame(first, interner.intern(first));
+                    test.assertSame(first, interner.intern(second));
+                    test.assertEqual(1, interner.getStringCount());
+                });
+            });
+
+            runner.testGroup("internOwner(JSONObject)", () ->
+            {
+                runner.test("with no owner", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject repositoryJson = JSONObject.create().setString("name", "a");
+                    test.assertSame(repositoryJson, interner.internOwner(repositoryJson));
+                    test.assertEqual(0, interner.getObjectCount());
+                });
+
+                runner.test("with repositories that have the same owner", (Test test) ->
+                {
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final JSONObject first = interner.internOwner(GitHubJSONInternerTests.createRepositoryJson("octocat", "a"));
+                    final JSONObject second = interner.internOwner(GitHubJSONInternerTests.createRepositoryJson("octocat", "b"));
+                    final JSONObject third = interner.internOwner(GitHubJSONInternerTests.createRepositoryJson("hubot", "c"));
+                    test.assertSame(first.getObject("owner").await(), second.getObject("owner").await());
+                    test.assertNotSame(first.getObject("owner").await(), third.getObject("owner").await());
+                    test.assertEqual("b", second.getString("name").await());
+                    test.assertEqual(2, interner.getObjectCount());
+                    test.assertEqual(2, interner.getStringCount());
+                });
+            });
+
+            runner.test("used by GitHubResponse.getBodyRepositories(GitHubJSONInterner)", (Test test) ->
+            {
+                final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                final JSONArray body = JSONArray.create();
+                for (int i = 0; i < 50; ++i)
+                {
+                    body.add(GitHubJSONInternerTests.createRepositoryJson(i % 2 == 0 ? "octocat" : "hubot", "repo-" + i));
+                }
+                final GitHubResponse response = GitHubResponse.create(HttpResponse.create()
+                    .setStatusCode(200)
+                    .setBody(body.toString()));
+
+                final Iterable<GitHubRepository> repositories = response.getBodyRepositories(interner).await();
+                test.assertEqual(50, repositories.getCount());
+                test.assertEqual(2, interner.getObjectCount());
+
+                final java.util.Set<JSONObject> distinctOwners = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+                for (final GitHubRepository repository : repositories)
+                {
+                    distinctOwners.add(repository.toJson().getObject(GitHubRepository.ownerPropertyName).await());
+                }
+                test.assertEqual(2, distinctOwners.size());
+            });
+
+            runner.test("used by GitHubClient.getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters,GitHubJSONInterner)", (Test test) ->
+            {
+                final FakeGitHubClient client = GitHubJSONInternerTests.createOwnedRepositoriesClient();
+                final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                final Iterable<GitHubRepository> repositories = client.getRepositoriesForAuthenticatedUser(GetRepositoriesForAuthenticatedUserParameters.create(), interner).await();
+                test.assertEqual(10, repositories.getCount());
+                test.assertEqual(1, interner.getObjectCount());
+                test.assertSame(
+                    repositories.first().toJson().getObject(GitHubRepository.ownerPropertyName).await(),
+                    repositories.last().toJson().getObject(GitHubRepository.ownerPropertyName).await());
+            });
+
+            runner.test("used by GitHubClient.getRepositoriesForAuthenticatedUser(GitHubPagination,GitHubJSONInterner)", (Test test) ->
+            {
+                final FakeGitHubClient client = GitHubJSONInternerTests.createOwnedRepositoriesClient();
+                final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                final Iterable<GitHubRepository> repositories = client.getRepositoriesForAuthenticatedUser(GitHubPagination.sequential(), interner).await();
+                test.assertEqual(10, repositories.getCount());
+                test.assertEqual(1, interner.getObjectCount());
+                test.assertSame(
+                    repositories.first().toJson().getObject(GitHubRepository.ownerPropertyName).await(),
+                    repositories.last().toJson().getObject(GitHubRepository.ownerPropertyName).await());
+            });
+
+            runner.test("not used by GitHubResponse.getBodyRepositories()", (Test test) ->
+            {
+                final JSONArray body = JSONArray.create();
+                for (int i = 0; i < 10; ++i)
+                {
+                    body.add(GitHubJSONInternerTests.createRepositoryJson("octocat", "repo-" + i));
+                }
+                final GitHubResponse response = GitHubResponse.create(HttpResponse.create()
+                    .setStatusCode(200)
+                    .setBody(body.toString()));
+
+                final Iterable<GitHubRepository> repositories = response.getBodyRepositories().await();
+                test.assertEqual(10, repositories.getCount());
+
+                final java.util.Set<JSONObject> distinctOwners = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+                for (final GitHubRepository repository : repositories)
+                {
+                    distinctOwners.add(repository.toJson().getObject(GitHubRepository.ownerPropertyName).await());
+                }
+                test.assertEqual(10, distinctOwners.size());
+            });
+        });
+    }
+}
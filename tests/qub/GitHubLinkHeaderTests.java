@@ -0,0 +1,85 @@
+package qub;
+
+public interface GitHubLinkHeaderTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubLinkHeader.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubLinkHeader linkHeader = GitHubLinkHeader.create();
+                test.assertNotNull(linkHeader);
+                test.assertFalse(linkHeader.hasNextPage());
+                test.assertNull(linkHeader.getNextPageNumber());
+                test.assertNull(linkHeader.getLastPageNumber());
+                test.assertEqual("", linkHeader.toString());
+            });
+
+            runner.testGroup("parse(String)", () ->
+            {
+                final Action4<String,Integer,Integer,String> parseTest = (String headerValue, Integer expectedNextPageNumber, Integer expectedLastPageNumber, String expectedString) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(headerValue), (Test test) ->
+                    {
+                        final GitHubLinkHeader linkHeader = GitHubLinkHeader.parse(headerValue);
+                        test.assertNotNull(linkHeader);
+                        test.assertEqual(expectedNextPageNumber != null, linkHeader.hasNextPage());
+                        test.assertEqual(expectedNextPageNumber, linkHeader.getNextPageNumber());
+                        test.assertEqual(expectedLastPageNumber, linkHeader.getLastPageNumber());
+                        test.assertEqual(expectedString, linkHeader.toString());
+                    });
+                };
+
+                parseTest.run(null, null, null, "");
+                parseTest.run("", null, null, "");
+                parseTest.run("hello", null, null, "");
+                parseTest.run("<https://api.github.com/user/repos?page=2", null, null, "");
+                parseTest.run("<https://api.github.com/user/repos?page=2>", null, null, "");
+                parseTest.run(
+                    "<https://api.github.com/user/repos?page=2>; rel=\"next\"",
+                    2,
+                    null,
+                    "<https://api.github.com/user/repos?page=2>; rel=\"next\"");
+                parseTest.run(
+                    "<https://api.github.com/user/repos?per_page=100&page=2>; rel=\"next\", <https://api.github.com/user/repos?per_page=100&page=5>; rel=\"last\"",
+                    2,
+                    5,
+                    "<https://api.github.com/user/repos?per_page=100&page=2>; rel=\"next\", <https://api.github.com/user/repos?per_page=100&page=5>; rel=\"last\"");
+                parseTest.run(
+                    "<https://api.github.com/user/repos?page=5>; rel=\"next last\"",
+                    5,
+                    5,
+                    "<https://api.github.com/user/repos?page=5>; rel=\"next\", <https://api.github.com/user/repos?page=5>; rel=\"last\"");
+                parseTest.run(
+                    "<https://api.github.com/user/repos?page=abc>; rel=next",
+                    null,
+                    null,
+                    "<https://api.github.com/user/repos?page=abc>; rel=\"next\"");
+            });
+
+            runner.testGroup("getUrl(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubLinkHeader linkHeader = GitHubLinkHeader.create();
+                    test.assertThrows(() -> linkHeader.getUrl(null),
+                        new PreConditionFailure("relation cannot be null."));
+                });
+
+                runner.test("with missing relation", (Test test) ->
+                {
+                    final GitHubLinkHeader linkHeader = GitHubLinkHeader.parse("<https://api.github.com/user/repos?page=2>; rel=\"next\"");
+                    test.assertNull(linkHeader.getUrl(GitHubLinkHeader.previousRelation));
+                });
+
+                runner.test("with existing relation", (Test test) ->
+                {
+                    final GitHubLinkHeader linkHeader = GitHubLinkHeader.parse("<https://api.github.com/user/repos?page=1>; rel=\"prev\", <https://api.github.com/user/repos?page=1>; rel=\"first\"");
+                    test.assertEqual("https://api.github.com/user/repos?page=1", linkHeader.getUrl(GitHubLinkHeader.previousRelation));
+                    test.assertEqual(1, linkHeader.getPageNumber(GitHubLinkHeader.firstRelation));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,319 @@
+package qub;
+
+public interface GitHubOffHeapRepositoryStoreTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubOffHeapRepositoryStore.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                test.assertNotNull(store);
+                test.assertEqual(0, store.getCount());
+                test.assertEqual(0, store.getSegmentCount());
+                test.assertEqual(0L, store.getAllocatedByteCount());
+                test.assertEqual(0L, store.getLiveByteCount());
+                test.assertFalse(store.contains(1));
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 63", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubOffHeapRepositoryStore.create(63),
+                        new PreConditionFailure("segmentSize (63) must be greater than or equal to 64."));
+                });
+            });
+
+            runner.testGroup("add(GitHubRepository)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    test.assertThrows(() -> store.add(null),
+                        new PreConditionFailure("repository cannot be null."));
+                });
+
+                runner.test("with no id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    test.assertThrows(() -> store.add(GitHubRepository.create().setName("a")),
+                        new PreConditionFailure("repository.getId() cannot be null."));
+                });
+
+                runner.test("with every property", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubRepository repository = GitHubRepository.create()
+                        .setId(1296269)
+                        .setName("Hello-World")
+                        .setFullName("octocat/Hello-World")
+                        .setOwner(GitHubUser.create().setLogin("octocat"))
+                        .setGitUrl(URL.parse("git://github.com/octocat/Hello-World.git").await())
+                        .setCloneUrl(URL.parse("https://github.com/octocat/Hello-World.git").await())
+                        .setPushedAt(java.time.Instant.parse("2011-01-26T19:06:43Z"))
+                        .setUpdatedAt(java.time.Instant.parse("2011-01-26T19:14:43Z"));
+
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.add(repository);
+                    test.assertEqual(1, store.getCount());
+                    test.assertTrue(store.contains(1296269));
+                    test.assertEqual(1, store.getSegmentCount());
+                    test.assertEqual((long)GitHubOffHeapRepositoryStore.defaultSegmentSize, store.getAllocatedByteCount());
+                    test.assertTrue(store.getLiveByteCount() > 0);
+
+                    test.assertEqual(1296269L, view.getId());
+                    test.assertEqual("Hello-World", view.getName());
+                    test.assertEqual("octocat/Hello-World", view.getFullName());
+                    test.assertEqual("octocat", view.getOwner().getLogin());
+                    test.assertEqual(repository.getGitUrl(), view.getGitUrl());
+                    test.assertEqual(repository.getCloneUrl(), view.getCloneUrl());
+                    test.assertEqual(repository.getPushedAt(), view.getPushedAt());
+                    test.assertEqual(repository.getUpdatedAt(), view.getUpdatedAt());
+                    test.assertEqual(repository.toJson(), view.toJson());
+                });
+
+                runner.test("with only an id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.add(GitHubRepository.create().setId(5));
+                    test.assertEqual(5L, view.getId());
+                    test.assertNull(view.getName());
+                    test.assertNull(view.getOwner());
+                    test.assertNull(view.getGitUrl());
+                    test.assertNull(view.getPushedAt());
+                    test.assertEqual(GitHubRepository.create().setId(5).toJson(), view.toJson());
+                });
+
+                runner.test("with non-ASCII name", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.add(GitHubRepository.create().setId(5).setName("résumé-☃"));
+                    test.assertEqual("résumé-☃", view.getName());
+                });
+
+                runner.test("with existing id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubOffHeapRepositoryStore.RepositoryView firstView = store.add(GitHubRepository.create().setId(5).setName("old-name"));
+                    final long firstLiveByteCount = store.getLiveByteCount();
+                    store.add(GitHubRepository.create().setId(5).setName("new-name"));
+
+                    test.assertEqual(1, store.getCount());
+                    test.assertEqual("new-name", firstView.getName());
+                    test.assertEqual(firstLiveByteCount, store.getLiveByteCount());
+                });
+
+                runner.test("with records that span segments", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create(256);
+                    for (int id = 0; id < 10; ++id)
+                    {
+                        store.add(GitHubRepository.create().setId(id).setName("repository-" + id));
+                    }
+                    store.add(GitHubRepository.create().setId(10).setName(new String(new char[1000]).replace('\0', 'a')));
+
+                    test.assertEqual(11, store.getCount());
+                    test.assertTrue(store.getSegmentCount() > 1);
+                    for (int id = 0; id < 10; ++id)
+                    {
+                        test.assertEqual("repository-" + id, store.get(id).await().getName());
+                    }
+                    test.assertEqual(1000, store.get(10).await().getName().length());
+                });
+            });
+
+            runner.test("addAll(Iterable<GitHubRepository>)", (Test test) ->
+            {
+                final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                final int addAllResult = store.addAll(Iterable.create(
+                    GitHubRepository.create().setId(1),
+                    GitHubRepository.create().setName("no-id"),
+                    GitHubRepository.create().setId(2)));
+                test.assertEqual(2, addAllResult);
+                test.assertEqual(2, store.getCount());
+
+                final long[] ids = store.getIds();
+                java.util.Arrays.sort(ids);
+                test.assertEqual(2, ids.length);
+                test.assertEqual(1L, ids[0]);
+                test.assertEqual(2L, ids[1]);
+            });
+
+            runner.testGroup("get(long)", () ->
+            {
+                runner.test("with missing id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    test.assertThrows(() -> store.get(5).await(),
+                        new NotFoundException("No repository found with the id 5."));
+                });
+
+                runner.test("with changes to the returned view's copies", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    store.add(GitHubRepository.create().setId(5).setName("a"));
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.get(5).await();
+
+                    final GitHubRepository repository = view.toRepository();
+                    test.assertEqual(5L, repository.getId());
+                    test.assertEqual("a", repository.getName());
+                    repository.setName("b");
+                    view.toJson().setString(GitHubRepository.namePropertyName, "c");
+                    test.assertEqual("a", view.getName());
+                });
+
+                runner.test("with views used as GitHubRepositories", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    store.add(GitHubRepository.create().setId(1).setName("a"));
+                    store.add(GitHubRepository.create().setId(2).setName("b"));
+
+                    final List<GitHubRepository> repositories = List.create();
+                    repositories.add(store.get(1).await());
+                    repositories.add(store.get(2).await());
+                    test.assertEqual(Iterable.create("a", "b"), repositories.map(GitHubRepository::getName));
+                });
+
+                runner.test("with setters on the returned view", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    store.add(GitHubRepository.create().setId(5).setName("a"));
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.get(5).await();
+                    final GitHubOffHeapRepositoryStore.RepositoryView otherView = store.get(5).await();
+
+                    final GitHubRepository setNameResult = view.setName("b")
+                        .setOwner(GitHubUser.create().setLogin("octocat"))
+                        .setPushedAt(java.time.Instant.parse("2011-01-26T19:06:43Z"));
+                    test.assertSame(view, setNameResult);
+                    test.assertEqual(1, store.getCount());
+                    test.assertEqual("b", view.getName());
+                    test.assertEqual("b", otherView.getName());
+                    test.assertEqual("octocat", otherView.getOwner().getLogin());
+                    test.assertEqual(java.time.Instant.parse("2011-01-26T19:06:43Z"), otherView.getPushedAt());
+                });
+
+                runner.test("with setId() on the returned view", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    store.add(GitHubRepository.create().setId(5).setName("a"));
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.get(5).await();
+                    final long liveByteCount = store.getLiveByteCount();
+
+                    view.setId(6);
+                    test.assertEqual(1, store.getCount());
+                    test.assertFalse(store.contains(5));
+                    test.assertEqual(6L, view.getId());
+                    test.assertEqual("a", view.getName());
+                    test.assertEqual(liveByteCount, store.getLiveByteCount());
+                });
+
+                runner.test("with setter on a removed repository's view", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.add(GitHubRepository.create().setId(5).setName("a"));
+                    store.remove(5).await();
+
+                    test.assertThrows(() -> view.setName("b"),
+                        new NotFoundException("No repository found with the id 5."));
+                    test.assertEqual(0, store.getCount());
+                });
+            });
+
+            runner.testGroup("remove(long)", () ->
+            {
+                runner.test("with missing id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    test.assertThrows(() -> store.remove(5).await(),
+                        new NotFoundException("No repository found with the id 5."));
+                });
+
+                runner.test("with existing id", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create();
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.add(GitHubRepository.create().setId(5).setName("a"));
+                    final GitHubRepository removed = store.remove(5).await();
+
+                    test.assertEqual(5L, removed.getId());
+                    test.assertEqual("a", removed.getName());
+                    test.assertEqual(0, store.getCount());
+                    test.assertEqual(0L, store.getLiveByteCount());
+                    test.assertNull(view.getId());
+                    test.assertNull(view.getName());
+                });
+            });
+
+            runner.testGroup("compact()", () ->
+            {
+                runner.test("with removed repositories", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create(256);
+                    for (int id = 0; id < 20; ++id)
+                    {
+                        store.add(GitHubRepository.create().setId(id).setName("repository-" + id));
+                    }
+                    for (int id = 0; id < 20; id += 2)
+                    {
+                        store.remove(id).await();
+                    }
+                    final GitHubOffHeapRepositoryStore.RepositoryView view = store.get(1).await();
+                    final int segmentCountBeforeCompact = store.getSegmentCount();
+                    final long liveByteCount = store.getLiveByteCount();
+
+                    store.compact();
+                    test.assertEqual(10, store.getCount());
+                    test.assertTrue(store.getSegmentCount() < segmentCountBeforeCompact);
+                    test.assertEqual(liveByteCount, store.getLiveByteCount());
+                    test.assertEqual("repository-1", view.getName());
+                    for (int id = 1; id < 20; id += 2)
+                    {
+                        test.assertEqual("repository-" + id, store.get(id).await().getName());
+                    }
+                });
+
+                runner.test("with replaced repositories", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create(256);
+                    for (int version = 0; version < 5; ++version)
+                    {
+                        for (int id = 0; id < 3; ++id)
+                        {
+                            store.add(GitHubRepository.create().setId(id).setName("repository-" + id + "-" + version));
+                        }
+                    }
+                    final long liveByteCount = store.getLiveByteCount();
+
+                    store.compact();
+                    test.assertEqual(3, store.getCount());
+                    test.assertEqual(1, store.getSegmentCount());
+                    test.assertEqual(256L, store.getAllocatedByteCount());
+                    test.assertEqual(liveByteCount, store.getLiveByteCount());
+                    for (int id = 0; id < 3; ++id)
+                    {
+                        test.assertEqual("repository-" + id + "-4", store.get(id).await().getName());
+                    }
+
+                    store.add(GitHubRepository.create().setId(3).setName("repository-3"));
+                    test.assertEqual("repository-3", store.get(3).await().getName());
+                    test.assertEqual("repository-0-4", store.get(0).await().getName());
+                });
+
+                runner.test("with a record that is larger than a segment", (Test test) ->
+                {
+                    final GitHubOffHeapRepositoryStore store = GitHubOffHeapRepositoryStore.create(256);
+                    final String longName = new String(new char[1000]).replace('\0', 'a');
+                    store.add(GitHubRepository.create().setId(1).setName("repository-1"));
+                    store.add(GitHubRepository.create().setId(2).setName(longName));
+                    store.add(GitHubRepository.create().setId(3).setName("repository-3"));
+                    store.remove(1).await();
+
+                    store.compact();
+                    test.assertEqual(2, store.getCount());
+                    test.assertEqual(longName, store.get(2).await().getName());
+                    test.assertEqual("repository-3", store.get(3).await().getName());
+                });
+            });
+        });
+    }
+}
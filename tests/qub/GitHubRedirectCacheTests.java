@@ -0,0 +1,286 @@
+package qub;
+
+public interface GitHubRedirectCacheTests
+{
+    static GitHubResponse createRedirectResponse(int statusCode, String location)
+    {
+        final MutableHttpResponse httpResponse = HttpResponse.create()
+            .setStatusCode(statusCode);
+        if (location != null)
+        {
+            httpResponse.setHeader(GitHubResponse.locationHeaderName, location);
+        }
+        return GitHubResponse.create(httpResponse);
+    }
+
+    static void test(TestRunner runner)
+    {
+        final URL baseUrl = URL.parse("https://api.github.com").await();
+
+        runner.testGroup(GitHubRedirectCache.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                test.assertEqual(1000, cache.getMaximumEntryCount());
+                test.assertEqual(3600000L, cache.getEntryLifetimeMilliseconds());
+                test.assertEqual(5, cache.getMaximumRedirectCount());
+                test.assertEqual(0, cache.getEntryCount());
+                test.assertEqual(0L, cache.getHitCount());
+                test.assertEqual(0L, cache.getMissCount());
+                test.assertEqual(0L, cache.getFollowedCount());
+            });
+
+            runner.testGroup("setMaximumEntryCount(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertThrows(() -> cache.setMaximumEntryCount(0),
+                        new PreConditionFailure("maximumEntryCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with fewer than the current entries", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create()
+                        .put("a", "https://api.github.com/repositories/1")
+                        .put("b", "https://api.github.com/repositories/2");
+                    final GitHubRedirectCache setResult = cache.setMaximumEntryCount(1);
+                    test.assertSame(cache, setResult);
+                    test.assertEqual(1, cache.getEntryCount());
+                    test.assertNull(cache.getLocation("a"));
+                    test.assertEqual("https://api.github.com/repositories/2", cache.getLocation("b"));
+                });
+            });
+
+            runner.testGroup("setMaximumRedirectCount(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertThrows(() -> cache.setMaximumRedirectCount(0),
+                        new PreConditionFailure("maximumRedirectCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 2", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    final GitHubRedirectCache setResult = cache.setMaximumRedirectCount(2);
+                    test.assertSame(cache, setResult);
+                    test.assertEqual(2, cache.getMaximumRedirectCount());
+                });
+            });
+
+            runner.testGroup("getKey(URL,String)", () ->
+            {
+                runner.test("with null baseUrl", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRedirectCache.getKey(null, "/repos/octocat/Hello-World"),
+                        new PreConditionFailure("baseUrl cannot be null."));
+                });
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    test.assertEqual("https://api.github.com/repos/octocat/Hello-World", GitHubRedirectCache.getKey(baseUrl, "/repos/octocat/Hello-World"));
+                });
+            });
+
+            runner.testGroup("canUseCache(GitHubRequest)", () ->
+            {
+                final Action2<String,Boolean> canUseCacheTest = (String httpMethod, Boolean expected) ->
+                {
+                    runner.test("with " + httpMethod, (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create()
+                            .setHttpMethod(httpMethod)
+                            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                        test.assertEqual(expected, GitHubRedirectCache.canUseCache(request));
+                    });
+                };
+
+                canUseCacheTest.run("GET", true);
+                canUseCacheTest.run("HEAD", true);
+                canUseCacheTest.run("DELETE", false);
+                canUseCacheTest.run("PATCH", false);
+                canUseCacheTest.run("POST", false);
+            });
+
+            runner.testGroup("canFollow(GitHubRequest,GitHubResponse)", () ->
+            {
+                final Action4<GitHubRequest,Integer,String,Boolean> canFollowTest = (GitHubRequest request, Integer statusCode, String location, Boolean expected) ->
+                {
+                    runner.test("with " + request.getHttpMethod() + " request, " + statusCode + " response, and " + Strings.escapeAndQuote(location) + " location", (Test test) ->
+                    {
+                        test.assertEqual(expected, GitHubRedirectCache.canFollow(request, GitHubRedirectCacheTests.createRedirectResponse(statusCode, location)));
+                    });
+                };
+
+                final GitHubRequest getRequest = GitHubRequest.create()
+                    .setHttpMethod(HttpMethod.GET)
+                    .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                final GitHubRequest deleteRequest = GitHubRequest.create()
+                    .setHttpMethod(HttpMethod.DELETE)
+                    .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                final GitHubRequest postRequest = GitHubRequest.create()
+                    .setHttpMethod(HttpMethod.POST)
+                    .setRoute(GitHubClient.authenticatedUserRepositoriesRoute)
+                    .setBody("{}").await();
+
+                canFollowTest.run(getRequest, 200, null, false);
+                canFollowTest.run(getRequest, 301, null, false);
+                canFollowTest.run(getRequest, 301, "https://api.github.com/repositories/1296269", true);
+                canFollowTest.run(getRequest, 302, "https://api.github.com/repositories/1296269", true);
+                canFollowTest.run(deleteRequest, 301, "https://api.github.com/repositories/1296269", false);
+                canFollowTest.run(deleteRequest, 307, "https://api.github.com/repositories/1296269", true);
+                canFollowTest.run(postRequest, 307, "https://api.github.com/user/repos", false);
+            });
+
+            runner.testGroup("redirect(GitHubRequest,URL,String)", () ->
+            {
+                runner.test("with absolute location", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World")
+                        .setQueryParameter("a", "b");
+                    final GitHubRequest redirectedRequest = GitHubRedirectCache.redirect(request, baseUrl, "https://api.github.com/repositories/1296269?c=d%20e");
+                    test.assertNotSame(request, redirectedRequest);
+                    test.assertEqual("https://api.github.com", redirectedRequest.getBaseUrl().toString());
+                    test.assertEqual("/repositories/1296269", redirectedRequest.getUrlPath());
+                    test.assertEqual("b", redirectedRequest.getQueryParameter("a").await());
+                    test.assertEqual("d e", redirectedRequest.getQueryParameter("c").await());
+                    test.assertEqual("/repos/octocat/Hello-World", request.getUrlPath());
+                });
+
+                runner.test("with location that has an encoded path", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    final GitHubRequest redirectedRequest = GitHubRedirectCache.redirect(request, baseUrl, "https://api.github.com/repos/a%20b/c%25d");
+                    test.assertEqual("/repos/a%20b/c%25d", redirectedRequest.getUrlPath());
+                    test.assertEqual("https://api.github.com/repos/a%20b/c%25d", redirectedRequest.getBaseUrl().clone()
+                        .setPath(redirectedRequest.getUrlPath())
+                        .toString());
+                });
+
+                runner.test("with relative location", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    final GitHubRequest redirectedRequest = GitHubRedirectCache.redirect(request, baseUrl, "/repositories/1296269");
+                    test.assertEqual("https://api.github.com", redirectedRequest.getBaseUrl().toString());
+                    test.assertEqual("/repositories/1296269", redirectedRequest.getUrlPath());
+                });
+
+                final Action1<String> crossOriginTest = (String location) ->
+                {
+                    runner.test("with cross-origin location " + Strings.escapeAndQuote(location), (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create()
+                            .setHttpMethod(HttpMethod.GET)
+                            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                        test.assertNull(GitHubRedirectCache.redirect(request, baseUrl, location));
+                    });
+                };
+
+                crossOriginTest.run("https://example.com/repositories/1296269");
+                crossOriginTest.run("http://api.github.com/repositories/1296269");
+                crossOriginTest.run("https://api.github.com:8443/repositories/1296269");
+                crossOriginTest.run("//example.com/repositories/1296269");
+
+                runner.test("with invalid location", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHttpMethod(HttpMethod.GET)
+                        .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+                    test.assertNull(GitHubRedirectCache.redirect(request, baseUrl, "http://[invalid"));
+                });
+            });
+
+            runner.testGroup("getLocation(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertThrows(() -> cache.getLocation(null),
+                        new PreConditionFailure("key cannot be null."));
+                });
+
+                runner.test("with missing key", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertNull(cache.getLocation("https://api.github.com/repos/octocat/old-name"));
+                    test.assertEqual(1L, cache.getMissCount());
+                    test.assertEqual(0L, cache.getHitCount());
+                });
+
+                runner.test("with cached key", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create()
+                        .put("https://api.github.com/repos/octocat/old-name", "https://api.github.com/repositories/1296269");
+                    test.assertEqual("https://api.github.com/repositories/1296269", cache.getLocation("https://api.github.com/repos/octocat/old-name"));
+                    test.assertEqual(1L, cache.getHitCount());
+                    test.assertEqual(0L, cache.getMissCount());
+                });
+
+                runner.test("with expired key", (Test test) ->
+                {
+                    final java.util.concurrent.atomic.AtomicLong now = new java.util.concurrent.atomic.AtomicLong();
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create()
+                        .setClock(now::get)
+                        .setEntryLifetimeMilliseconds(1000)
+                        .put("https://api.github.com/repos/octocat/old-name", "https://api.github.com/repositories/1296269");
+                    now.set(999);
+                    test.assertNotNull(cache.getLocation("https://api.github.com/repos/octocat/old-name"));
+                    now.set(1000);
+                    test.assertNull(cache.getLocation("https://api.github.com/repos/octocat/old-name"));
+                    test.assertEqual(0, cache.getEntryCount());
+                });
+            });
+
+            runner.testGroup("put(String,String)", () ->
+            {
+                runner.test("with empty location", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertThrows(() -> cache.put("a", ""),
+                        new PreConditionFailure("location cannot be empty."));
+                });
+
+                runner.test("when full", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create()
+                        .setMaximumEntryCount(2)
+                        .put("a", "https://api.github.com/repositories/1")
+                        .put("b", "https://api.github.com/repositories/2");
+                    // Using "a" makes "b" the least recently used entry.
+                    cache.getLocation("a");
+                    cache.put("c", "https://api.github.com/repositories/3");
+                    test.assertEqual(2, cache.getEntryCount());
+                    test.assertNotNull(cache.getLocation("a"));
+                    test.assertNull(cache.getLocation("b"));
+                    test.assertNotNull(cache.getLocation("c"));
+                });
+            });
+
+            runner.testGroup("remove(String)", () ->
+            {
+                runner.test("with missing key", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create();
+                    test.assertFalse(cache.remove("a"));
+                });
+
+                runner.test("with cached key", (Test test) ->
+                {
+                    final GitHubRedirectCache cache = GitHubRedirectCache.create()
+                        .put("a", "https://api.github.com/repositories/1");
+                    test.assertTrue(cache.remove("a"));
+                    test.assertEqual(0, cache.getEntryCount());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package qub;
+
+public interface GitHubRepositoryChangeTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryChange.class, () ->
+        {
+            runner.testGroup("added(GitHubRepository)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRepositoryChange.added(null),
+                        new PreConditionFailure("repository cannot be null."));
+                });
+
+                runner.test("with repository without an id", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRepositoryChange.added(GitHubRepository.create()),
+                        new PreConditionFailure("repository.getId() cannot be null."));
+                });
+
+                runner.test("with repository with an id", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create()
+                        .setId(12)
+                        .setFullName("fake-owner/fake-name");
+                    final GitHubRepositoryChange change = GitHubRepositoryChange.added(repository);
+                    test.assertEqual(GitHubRepositoryChange.Kind.Added, change.getKind());
+                    test.assertEqual(12L, change.getId());
+                    test.assertEqual("fake-owner/fake-name", change.getFullName());
+                    test.assertSame(repository, change.getRepository());
+                    test.assertEqual("Added 12 fake-owner/fake-name", change.toString());
+                });
+            });
+
+            runner.test("changed(GitHubRepository)", (Test test) ->
+            {
+                final GitHubRepository repository = GitHubRepository.create()
+                    .setId(12);
+                final GitHubRepositoryChange change = GitHubRepositoryChange.changed(repository);
+                test.assertEqual(GitHubRepositoryChange.Kind.Changed, change.getKind());
+                test.assertNull(change.getFullName());
+                test.assertSame(repository, change.getRepository());
+                test.assertEqual("Changed 12", change.toString());
+            });
+
+            runner.test("removed(long,String)", (Test test) ->
+            {
+                final GitHubRepositoryChange change = GitHubRepositoryChange.removed(12, "fake-owner/fake-name");
+                test.assertEqual(GitHubRepositoryChange.Kind.Removed, change.getKind());
+                test.assertEqual(12L, change.getId());
+                test.assertEqual("fake-owner/fake-name", change.getFullName());
+                test.assertNull(change.getRepository());
+            });
+        });
+    }
+}
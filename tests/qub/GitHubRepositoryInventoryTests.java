@@ -0,0 +1,253 @@
+package qub;
+
+public interface GitHubRepositoryInventoryTests
+{
+    int pageSize = 2;
+
+    static GitHubRepository createRepository(long id, String name, String updatedAt)
+    {
+        return GitHubRepository.create()
+            .setId(id)
+            .setName(name)
+            .setFullName("fake-owner/" + name)
+            .setUpdatedAt(java.time.Instant.parse(updatedAt));
+    }
+
+    /**
+     * Create a {@link FakeGitHubClient} that lists the provided repositories two at a time. Each
+     * page has an entity tag, and requests whose If-None-Match header matches the page's entity
+     * tag get a 304 (Not Modified) response.
+     */
+    static FakeGitHubClient createListingClient(java.util.List<GitHubRepository> repositories)
+    {
+        return GitHubRepositoryInventoryTests.createListingClient(repositories, true);
+    }
+
+    /**
+     * Create a {@link FakeGitHubClient} that lists the provided repositories two at a time, and
+     * that only includes the Link header in 304 (Not Modified) responses if
+     * includeLinkHeaderWhenNotModified is true.
+     */
+    static FakeGitHubClient createListingClient(java.util.List<GitHubRepository> repositories, boolean includeLinkHeaderWhenNotModified)
+    {
+        return FakeGitHubClient.create((GitHubRequest request) ->
+        {
+            final java.util.List<GitHubRepository> sortedRepositories = new java.util.ArrayList<>(repositories);
+            if ("updated".equals(request.getQueryParameter("sort").catchError().await()))
+            {
+                sortedRepositories.sort((GitHubRepository lhs, GitHubRepository rhs) -> rhs.getUpdatedAt().compareTo(lhs.getUpdatedAt()));
+            }
+
+            final String pageQueryParameter = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+            final int pageNumber = pageQueryParameter == null ? 1 : Integer.parseInt(pageQueryParameter);
+            final int startIndex = Math.min((pageNumber - 1) * GitHubRepositoryInventoryTests.pageSize, sortedRepositories.size());
+            final int endIndex = Math.min(startIndex + GitHubRepositoryInventoryTests.pageSize, sortedRepositories.size());
+            final JSONArray body = JSONArray.create();
+            for (final GitHubRepository repository : sortedRepositories.subList(startIndex, endIndex))
+            {
+                body.add(repository.toJson());
+            }
+            final String bodyText = body.toString();
+            final String eTag = "\"" + Integer.toHexString(bodyText.hashCode()) + "\"";
+
+            final MutableHttpResponse response = HttpResponse.create();
+            if (eTag.equals(request.getHeaderValue("If-None-Match").catchError().await()))
+            {
+                response.setStatusCode(304);
+            }
+            else
+            {
+                response.setStatusCode(200)
+                    .setBody(bodyText);
+            }
+            response.setHeader(GitHubResponse.eTagHeaderName, eTag);
+            if (endIndex < sortedRepositories.size() && (includeLinkHeaderWhenNotModified || response.getStatusCode() != 304))
+            {
+                response.setHeader(GitHubLinkHeader.headerName, "<https://api.github.com/user/repos?page=" + (pageNumber + 1) + ">; rel=\"next\"");
+            }
+            return response;
+        });
+    }
+
+    static Iterable<String> sync(GitHubRepositoryInventory inventory)
+    {
+        final List<String> changes = List.create();
+        inventory.sync((GitHubRepositoryChange change) -> changes.add(change.toString())).await();
+        return changes;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryInventory.class, () ->
+        {
+            runner.testGroup("create(GitHubClient)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRepositoryInventory.create(null),
+                        new PreConditionFailure("client cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(GitHubRepositoryInventoryTests.createListingClient(new java.util.ArrayList<>()));
+                    test.assertEqual(0, inventory.getCount());
+                    test.assertNull(inventory.getLastUpdatedAt());
+                });
+            });
+
+            runner.testGroup("sync(Action1<GitHubRepositoryChange>)", () ->
+            {
+                runner.test("with no repositories", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(new java.util.ArrayList<>());
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+                    test.assertEqual(Iterable.create(), GitHubRepositoryInventoryTests.sync(inventory));
+                    test.assertEqual(0, inventory.getCount());
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                });
+
+                runner.test("with first sync", (Test test) ->
+                {
+                    final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(1, "a", "2020-01-01T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(2, "b", "2020-01-02T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(3, "c", "2020-01-03T00:00:00Z"));
+                    final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(repositories);
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+
+                    test.assertEqual(
+                        Iterable.create("Added 1 fake-owner/a", "Added 2 fake-owner/b", "Added 3 fake-owner/c"),
+                        GitHubRepositoryInventoryTests.sync(inventory));
+                    test.assertEqual(3, inventory.getCount());
+                    test.assertTrue(inventory.contains(2));
+                    test.assertEqual("fake-owner/c", inventory.getFullName(3));
+                    test.assertEqual(java.time.Instant.parse("2020-01-03T00:00:00Z"), inventory.getLastUpdatedAt());
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                });
+
+                runner.test("with no changes", (Test test) ->
+                {
+                    final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(1, "a", "2020-01-01T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(2, "b", "2020-01-02T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(3, "c", "2020-01-03T00:00:00Z"));
+                    final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(repositories);
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+                    GitHubRepositoryInventoryTests.sync(inventory);
+
+                    test.assertEqual(Iterable.create(), GitHubRepositoryInventoryTests.sync(inventory));
+                    test.assertEqual(3, inventory.getCount());
+
+                    final Iterable<GitHubRequest> secondSyncRequests = client.getSentRequests().skip(2);
+                    test.assertEqual(2, secondSyncRequests.getCount());
+                    for (final GitHubRequest request : secondSyncRequests)
+                    {
+                        test.assertNotNull(request.getHeaderValue("If-None-Match").await());
+                    }
+                });
+
+                runner.test("with added, changed, and removed repositories", (Test test) ->
+                {
+                    final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(1, "a", "2020-01-01T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(2, "b", "2020-01-02T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(3, "c", "2020-01-03T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(4, "d", "2020-01-04T00:00:00Z"));
+                    final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(repositories);
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+                    GitHubRepositoryInventoryTests.sync(inventory);
+
+                    repositories.set(2, GitHubRepositoryInventoryTests.createRepository(3, "c-renamed", "2020-01-05T00:00:00Z"));
+                    repositories.remove(3);
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(5, "e", "2020-01-06T00:00:00Z"));
+
+                    test.assertEqual(
+                        Iterable.create("Changed 3 fake-owner/c-renamed", "Added 5 fake-owner/e", "Removed 4 fake-owner/d"),
+                        GitHubRepositoryInventoryTests.sync(inventory));
+                    test.assertEqual(4, inventory.getCount());
+                    test.assertFalse(inventory.contains(4));
+                    test.assertEqual("fake-owner/c-renamed", inventory.getFullName(3));
+                });
+
+                final Action1<Boolean> fullLastPageTest = (Boolean includeLinkHeaderWhenNotModified) ->
+                {
+                    runner.test("with repository added after a full last page " + (includeLinkHeaderWhenNotModified ? "with" : "without") + " a Link header in 304 responses", (Test test) ->
+                    {
+                        final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(1, "a", "2020-01-01T00:00:00Z"));
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(2, "b", "2020-01-02T00:00:00Z"));
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(3, "c", "2020-01-03T00:00:00Z"));
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(4, "d", "2020-01-04T00:00:00Z"));
+                        final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(repositories, includeLinkHeaderWhenNotModified);
+                        final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client, GitHubRequest.create()
+                            .setHttpMethod(HttpMethod.GET)
+                            .setUrlPath("/user/repos")
+                            .setQueryParameter(GitHubPagination.pageSizeQueryParameterName, GitHubRepositoryInventoryTests.pageSize));
+                        GitHubRepositoryInventoryTests.sync(inventory);
+
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(5, "e", "2020-01-05T00:00:00Z"));
+
+                        test.assertEqual(
+                            Iterable.create("Added 5 fake-owner/e"),
+                            GitHubRepositoryInventoryTests.sync(inventory));
+                        test.assertEqual(5, inventory.getCount());
+                        test.assertEqual(Iterable.create(), GitHubRepositoryInventoryTests.sync(inventory));
+                    });
+                };
+
+                fullLastPageTest.run(false);
+                fullLastPageTest.run(true);
+
+                runner.test("with error response", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                        HttpResponse.create()
+                            .setStatusCode(403)
+                            .setBody(JSONObject.create()
+                                .setString("message", "Forbidden")
+                                .toString()));
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+                    test.assertThrows(GitHubException.class, () -> GitHubRepositoryInventoryTests.sync(inventory));
+                    test.assertEqual(0, inventory.getCount());
+                });
+            });
+
+            runner.testGroup("syncRecentChanges(Action1<GitHubRepositoryChange>)", () ->
+            {
+                runner.test("before first sync", (Test test) ->
+                {
+                    final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(1, "a", "2020-01-01T00:00:00Z"));
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(GitHubRepositoryInventoryTests.createListingClient(repositories));
+
+                    final List<String> changes = List.create();
+                    inventory.syncRecentChanges((GitHubRepositoryChange change) -> changes.add(change.toString())).await();
+                    test.assertEqual(Iterable.create("Added 1 fake-owner/a"), changes);
+                });
+
+                runner.test("stops at the previously seen updated_at", (Test test) ->
+                {
+                    final java.util.List<GitHubRepository> repositories = new java.util.ArrayList<>();
+                    for (int i = 1; i <= 9; ++i)
+                    {
+                        repositories.add(GitHubRepositoryInventoryTests.createRepository(i, "repo-" + i, "2020-01-0" + i + "T00:00:00Z"));
+                    }
+                    final FakeGitHubClient client = GitHubRepositoryInventoryTests.createListingClient(repositories);
+                    final GitHubRepositoryInventory inventory = GitHubRepositoryInventory.create(client);
+                    GitHubRepositoryInventoryTests.sync(inventory);
+                    final int requestCountAfterFullSync = client.getSentRequests().getCount();
+
+                    repositories.set(0, GitHubRepositoryInventoryTests.createRepository(1, "repo-1-renamed", "2020-02-01T00:00:00Z"));
+                    repositories.add(GitHubRepositoryInventoryTests.createRepository(10, "repo-10", "2020-02-02T00:00:00Z"));
+
+                    final List<String> changes = List.create();
+                    inventory.syncRecentChanges((GitHubRepositoryChange change) -> changes.add(change.toString())).await();
+                    test.assertEqual(Iterable.create("Added 10 fake-owner/repo-10", "Changed 1 fake-owner/repo-1-renamed"), changes);
+                    test.assertEqual(java.time.Instant.parse("2020-02-02T00:00:00Z"), inventory.getLastUpdatedAt());
+                    test.assertEqual(2, client.getSentRequests().getCount() - requestCountAfterFullSync);
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package qub;
+
+public interface GitHubRepositoryIteratorTests
+{
+    /**
+     * Create a {@link FakeGitHubClient} that responds with one repository per page, where the
+     * repository on page N was last pushed to N days before 2020-01-31.
+     */
+    static FakeGitHubClient createPushedAtClient(int pageCount)
+    {
+        return FakeGitHubClient.create((GitHubRequest request) ->
+        {
+            final String pageQueryParameter = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+            final int pageNumber = pageQueryParameter == null ? 1 : Integer.parseInt(pageQueryParameter);
+            final MutableHttpResponse response = HttpResponse.create()
+                .setStatusCode(200)
+                .setBody(JSONArray.create()
+                    .add(GitHubRepository.create()
+                        .setName("repo-" + pageNumber)
+                        .setPushedAt(java.time.Instant.parse("2020-01-31T00:00:00Z").minus(java.time.Duration.ofDays(pageNumber)))
+                        .toJson())
+                    .toString());
+            if (pageNumber < pageCount)
+            {
+                response.setHeader(GitHubLinkHeader.headerName, "<https://api.github.com/orgs/fake-org/repos?page=" + (pageNumber + 1) + ">; rel=\"next\"");
+            }
+            return response;
+        });
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryIterator.class, () ->
+        {
+            runner.test("create(GitHubClient,GitHubRequest)", (Test test) ->
+            {
+                final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(2, 2);
+                final GitHubRepositoryIterator iterator = GitHubRepositoryIterator.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest());
+                test.assertFalse(iterator.hasStarted());
+                test.assertFalse(iterator.hasCurrent());
+                test.assertEqual(0, client.getSentRequests().getCount());
+            });
+
+            runner.testGroup("next()", () ->
+            {
+                runner.test("requests pages as they are needed", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(2, 2);
+                    final GitHubRepositoryIterator iterator = GitHubRepositoryIterator.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest());
+
+                    test.assertTrue(iterator.next());
+                    test.assertTrue(iterator.hasStarted());
+                    test.assertEqual("repo-1-1", iterator.getCurrent().getName());
+                    test.assertEqual(1, client.getSentRequests().getCount());
+
+                    test.assertTrue(iterator.next());
+                    test.assertEqual("repo-1-2", iterator.getCurrent().getName());
+                    test.assertEqual(1, client.getSentRequests().getCount());
+
+                    test.assertTrue(iterator.next());
+                    test.assertEqual("repo-2-1", iterator.getCurrent().getName());
+                    test.assertEqual(2, client.getSentRequests().getCount());
+
+                    test.assertTrue(iterator.next());
+                    test.assertEqual("repo-2-2", iterator.getCurrent().getName());
+
+                    test.assertFalse(iterator.next());
+                    test.assertFalse(iterator.hasCurrent());
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                });
+
+                runner.test("with stop condition", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryIteratorTests.createPushedAtClient(10);
+                    final java.time.Instant pushedAfter = java.time.Instant.parse("2020-01-28T12:00:00Z");
+                    final GitHubRepositoryIterator iterator = GitHubRepositoryIterator.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setStopCondition((GitHubRepository repository) -> repository.getPushedAt().isBefore(pushedAfter));
+
+                    final List<String> names = List.create();
+                    while (iterator.next())
+                    {
+                        names.add(iterator.getCurrent().getName());
+                    }
+                    test.assertEqual(Iterable.create("repo-1", "repo-2"), names);
+                    test.assertEqual(3, client.getSentRequests().getCount());
+                    test.assertFalse(iterator.next());
+                    test.assertEqual(3, client.getSentRequests().getCount());
+                });
+
+                runner.test("when a page can't be fetched", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String pageQueryParameter = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        if (pageQueryParameter != null)
+                        {
+                            throw new java.lang.IllegalStateException("page " + pageQueryParameter + " failed");
+                        }
+                        return HttpResponse.create()
+                            .setStatusCode(200)
+                            .setHeader(GitHubLinkHeader.headerName, "<https://api.github.com/user/repos?page=2>; rel=\"next\"")
+                            .setBody(JSONArray.create()
+                                .add(GitHubRepository.create().setName("repo-1").toJson())
+                                .toString());
+                    });
+                    final GitHubRepositoryIterator iterator = GitHubRepositoryIterator.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest());
+
+                    test.assertTrue(iterator.next());
+                    test.assertEqual("repo-1", iterator.getCurrent().getName());
+                    test.assertFalse(iterator.hasFailed());
+
+                    test.assertThrows(() -> iterator.next(),
+                        new java.lang.IllegalStateException("page 2 failed"));
+                    test.assertTrue(iterator.hasFailed());
+                    test.assertFalse(iterator.hasCurrent());
+                    test.assertEqual(2, client.getSentRequests().getCount());
+
+                    // The failed page isn't silently requested again.
+                    test.assertThrows(() -> iterator.next(),
+                        new java.lang.IllegalStateException("page 2 failed"));
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                });
+
+                runner.test("from GitHubClient.getRepositoriesForOrganization() with repository that has never been pushed to", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        return HttpResponse.create()
+                            .setStatusCode(200)
+                            .setBody(JSONArray.create()
+                                .add(GitHubRepository.create()
+                                    .setName("empty-repo")
+                                    .toJson())
+                                .add(GitHubRepository.create()
+                                    .setName("recent-repo")
+                                    .setPushedAt(java.time.Instant.parse("2020-01-30T00:00:00Z"))
+                                    .toJson())
+                                .add(GitHubRepository.create()
+                                    .setName("old-repo")
+                                    .setPushedAt(java.time.Instant.parse("2019-01-01T00:00:00Z"))
+                                    .toJson())
+                                .toString());
+                    });
+                    final GitHubRepositoryIterator iterator = client.getRepositoriesForOrganization(GetRepositoriesForOrganizationParameters.create()
+                        .setOrganization("fake-org")
+                        .setPushedAfter(java.time.Instant.parse("2020-01-29T12:00:00Z")));
+
+                    final List<String> names = List.create();
+                    while (iterator.next())
+                    {
+                        names.add(iterator.getCurrent().getName());
+                    }
+                    test.assertEqual(Iterable.create("empty-repo", "recent-repo"), names);
+                });
+
+                runner.test("from GitHubClient.getRepositoriesForOrganization() with pushed-after cutoff", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryIteratorTests.createPushedAtClient(10);
+                    final GitHubRepositoryIterator iterator = client.getRepositoriesForOrganization(GetRepositoriesForOrganizationParameters.create()
+                        .setOrganization("fake-org")
+                        .setPushedAfter(java.time.Instant.parse("2020-01-29T12:00:00Z")));
+
+                    test.assertTrue(iterator.next());
+                    test.assertEqual("repo-1", iterator.getCurrent().getName());
+                    test.assertFalse(iterator.next());
+                    test.assertEqual(2, client.getSentRequests().getCount());
+
+                    final GitHubRequest firstPageRequest = client.getSentRequests().first();
+                    test.assertEqual("/orgs/fake-org/repos", firstPageRequest.getUrlPath());
+                    test.assertEqual("pushed", firstPageRequest.getQueryParameter("sort").await());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,222 @@
+package qub;
+
+public interface GitHubRepositoryNameIndexTests
+{
+    static GitHubRepository createRepository(String fullName)
+    {
+        return GitHubRepository.create()
+            .setName(fullName.substring(fullName.indexOf('/') + 1))
+            .setFullName(fullName);
+    }
+
+    static Iterable<String> getFullNames(Iterable<GitHubRepository> repositories)
+    {
+        return repositories.map(GitHubRepository::getFullName).toList();
+    }
+
+    static GitHubRepositoryNameIndex createIndex()
+    {
+        final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+        index.addAll(Iterable.create(
+            GitHubRepositoryNameIndexTests.createRepository("octocat/Hello-World"),
+            GitHubRepositoryNameIndexTests.createRepository("octocat/Spoon-Knife"),
+            GitHubRepositoryNameIndexTests.createRepository("hubot/hello-robot"),
+            GitHubRepositoryNameIndexTests.createRepository("hubot/scripts")));
+        return index;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryNameIndex.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+                test.assertNotNull(index);
+                test.assertEqual(0, index.getCount());
+                test.assertEqual(Iterable.create(), index.findByPrefix("", 10));
+                test.assertEqual(Iterable.create(), index.findBySubstring("hello", 10));
+            });
+
+            runner.testGroup("add(GitHubRepository)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+                    test.assertThrows(() -> index.add(null),
+                        new PreConditionFailure("repository cannot be null."));
+                });
+
+                runner.test("with no full name", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+                    test.assertThrows(() -> index.add(GitHubRepository.create().setName("a")),
+                        new PreConditionFailure("repository.getFullName() cannot be null."));
+                });
+
+                runner.test("with new repository", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    final GitHubRepositoryNameIndex addResult = index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/hello-again"));
+                    test.assertSame(index, addResult);
+                    test.assertEqual(5, index.getCount());
+                    test.assertTrue(index.contains("OCTOCAT/HELLO-AGAIN"));
+                    test.assertEqual(
+                        Iterable.create("octocat/hello-again", "hubot/hello-robot", "octocat/Hello-World"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("hello-", 10)));
+                });
+
+                runner.test("with existing full name", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    final GitHubRepository replacement = GitHubRepositoryNameIndexTests.createRepository("OctoCat/Hello-World");
+                    index.add(replacement);
+                    test.assertEqual(4, index.getCount());
+                    test.assertSame(replacement, index.findByPrefix("octocat/hello", 10).first());
+                });
+
+                runner.test("with repositories in reverse order", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+                    index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/c"));
+                    index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/b"));
+                    index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/a"));
+                    index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/b"));
+                    test.assertEqual(3, index.getCount());
+                    test.assertEqual(Iterable.create("octocat/a", "octocat/b", "octocat/c"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("octocat/", 10)));
+                    test.assertEqual(Iterable.create("octocat/a", "octocat/b", "octocat/c"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("", 10)));
+                });
+            });
+
+            runner.testGroup("addAll(Iterable<GitHubRepository>)", () ->
+            {
+                runner.test("with new repositories", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndex.create();
+                    final int addAllResult = index.addAll(Iterable.create(
+                        GitHubRepositoryNameIndexTests.createRepository("octocat/a"),
+                        GitHubRepository.create().setName("no-full-name"),
+                        GitHubRepositoryNameIndexTests.createRepository("octocat/b")));
+                    test.assertEqual(2, addAllResult);
+                    test.assertEqual(2, index.getCount());
+                });
+
+                runner.test("with repositories that are already indexed", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    final GitHubRepository replacement = GitHubRepositoryNameIndexTests.createRepository("octocat/Hello-World");
+                    final int addAllResult = index.addAll(Iterable.create(
+                        replacement,
+                        GitHubRepositoryNameIndexTests.createRepository("hubot/scripts"),
+                        GitHubRepositoryNameIndexTests.createRepository("hubot/hello-again"),
+                        GitHubRepositoryNameIndexTests.createRepository("hubot/scripts")));
+                    test.assertEqual(4, addAllResult);
+                    test.assertEqual(5, index.getCount());
+                    test.assertEqual(
+                        Iterable.create("hubot/hello-again", "hubot/hello-robot", "octocat/Hello-World", "hubot/scripts", "octocat/Spoon-Knife"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("", 10)));
+                    test.assertSame(replacement, index.findByPrefix("octocat/hello", 10).first());
+                    test.assertEqual(Iterable.create("hubot/scripts"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("scr", 10)));
+                });
+            });
+
+            runner.testGroup("remove(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertThrows(() -> index.remove(null),
+                        new PreConditionFailure("fullName cannot be null."));
+                });
+
+                runner.test("with missing full name", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertFalse(index.remove("octocat/missing"));
+                    test.assertEqual(4, index.getCount());
+                });
+
+                runner.test("with existing full name", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertTrue(index.remove("OctoCat/Hello-World"));
+                    test.assertEqual(3, index.getCount());
+                    test.assertFalse(index.contains("octocat/Hello-World"));
+                    test.assertEqual(Iterable.create("octocat/Spoon-Knife"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix("octocat", 10)));
+                    test.assertEqual(Iterable.create("hubot/hello-robot"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findBySubstring("hello", 10)));
+
+                    index.add(GitHubRepositoryNameIndexTests.createRepository("octocat/Hello-World"));
+                    test.assertEqual(Iterable.create("hubot/hello-robot", "octocat/Hello-World"),
+                        GitHubRepositoryNameIndexTests.getFullNames(index.findBySubstring("hello", 10)));
+                });
+            });
+
+            runner.testGroup("findByPrefix(String,int)", () ->
+            {
+                runner.test("with null prefix", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertThrows(() -> index.findByPrefix(null, 10),
+                        new PreConditionFailure("prefix cannot be null."));
+                });
+
+                runner.test("with 0 maximumCount", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertThrows(() -> index.findByPrefix("a", 0),
+                        new PreConditionFailure("maximumCount (0) must be greater than or equal to 1."));
+                });
+
+                final Action3<String,Integer,Iterable<String>> findByPrefixTest = (String prefix, Integer maximumCount, Iterable<String> expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(prefix) + " and " + maximumCount, (Test test) ->
+                    {
+                        final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                        test.assertEqual(expected, GitHubRepositoryNameIndexTests.getFullNames(index.findByPrefix(prefix, maximumCount)));
+                    });
+                };
+
+                findByPrefixTest.run("", 10, Iterable.create("hubot/hello-robot", "octocat/Hello-World", "hubot/scripts", "octocat/Spoon-Knife"));
+                findByPrefixTest.run("hel", 10, Iterable.create("hubot/hello-robot", "octocat/Hello-World"));
+                findByPrefixTest.run("HEL", 1, Iterable.create("hubot/hello-robot"));
+                findByPrefixTest.run("hubot/", 10, Iterable.create("hubot/hello-robot", "hubot/scripts"));
+                findByPrefixTest.run("spoon", 10, Iterable.create("octocat/Spoon-Knife"));
+                findByPrefixTest.run("knife", 10, Iterable.create());
+            });
+
+            runner.testGroup("findBySubstring(String,int)", () ->
+            {
+                runner.test("with null text", (Test test) ->
+                {
+                    final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                    test.assertThrows(() -> index.findBySubstring(null, 10),
+                        new PreConditionFailure("text cannot be null."));
+                });
+
+                final Action3<String,Integer,Iterable<String>> findBySubstringTest = (String text, Integer maximumCount, Iterable<String> expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text) + " and " + maximumCount, (Test test) ->
+                    {
+                        final GitHubRepositoryNameIndex index = GitHubRepositoryNameIndexTests.createIndex();
+                        test.assertEqual(expected, GitHubRepositoryNameIndexTests.getFullNames(index.findBySubstring(text, maximumCount)));
+                    });
+                };
+
+                findBySubstringTest.run("o", 10, Iterable.create("hubot/hello-robot", "hubot/scripts", "octocat/Hello-World", "octocat/Spoon-Knife"));
+                findBySubstringTest.run("ip", 10, Iterable.create("hubot/scripts"));
+                findBySubstringTest.run("KNIFE", 10, Iterable.create("octocat/Spoon-Knife"));
+                findBySubstringTest.run("llo", 10, Iterable.create("hubot/hello-robot", "octocat/Hello-World"));
+                findBySubstringTest.run("llo", 1, Iterable.create("hubot/hello-robot"));
+                findBySubstringTest.run("t/h", 10, Iterable.create("hubot/hello-robot", "octocat/Hello-World"));
+                findBySubstringTest.run("hello-w", 10, Iterable.create("octocat/Hello-World"));
+                findBySubstringTest.run("lloo", 10, Iterable.create());
+                findBySubstringTest.run("xyz", 10, Iterable.create());
+            });
+        });
+    }
+}
@@ -0,0 +1,305 @@
+package qub;
+
+public interface GitHubRepositoryPublisherTests
+{
+    /**
+     * Create a {@link FakeGitHubClient} that responds to repository list requests with the
+     * provided number of pages, each containing the provided number of repositories.
+     */
+    static FakeGitHubClient createPagingClient(int pageCount, int repositoriesPerPage)
+    {
+        return FakeGitHubClient.create((GitHubRequest request) ->
+        {
+            final String pageQueryParameter = request.getQueryParameter("page").catchError().await();
+            final int pageNumber = pageQueryParameter == null ? 1 : Integer.parseInt(pageQueryParameter);
+            final JSONArray body = JSONArray.create();
+            for (int i = 1; i <= repositoriesPerPage; ++i)
+            {
+                body.add(JSONObject.create()
+                    .setString(GitHubRepository.namePropertyName, "repo-" + pageNumber + "-" + i));
+            }
+            final MutableHttpResponse response = HttpResponse.create()
+                .setStatusCode(200)
+                .setBody(body.toString());
+            if (pageNumber < pageCount)
+            {
+                response.setHeader(GitHubLinkHeader.headerName,
+                    "<https://api.github.com/user/repos?page=" + (pageNumber + 1) + ">; rel=\"next\", " +
+                    "<https://api.github.com/user/repos?page=" + pageCount + ">; rel=\"last\"");
+            }
+            return response;
+        });
+    }
+
+    static GitHubRequest createFirstPageRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.authenticatedUserRepositoriesRoute);
+    }
+
+    /**
+     * A {@link java.util.concurrent.Flow.Subscriber} that records every signal it receives.
+     */
+    class RecordingSubscriber implements java.util.concurrent.Flow.Subscriber<GitHubRepository>
+    {
+        public final List<String> names = List.create();
+        public java.util.concurrent.Flow.Subscription subscription;
+        public Throwable error;
+        public boolean completed;
+
+        @Override
+        public void onSubscribe(java.util.concurrent.Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(GitHubRepository repository)
+        {
+            this.names.add(repository.getName());
+        }
+
+        @Override
+        public void onError(Throwable error)
+        {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete()
+        {
+            this.completed = true;
+        }
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryPublisher.class, () ->
+        {
+            runner.testGroup("create(GitHubClient,GitHubRequest)", () ->
+            {
+                runner.test("with null client", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRepositoryPublisher.create(null, GitHubRepositoryPublisherTests.createFirstPageRequest()),
+                        new PreConditionFailure("client cannot be null."));
+                });
+
+                runner.test("with null firstPageRequest", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubRepositoryPublisher.create(GitHubRepositoryPublisherTests.createPagingClient(1, 1), null),
+                        new PreConditionFailure("firstPageRequest cannot be null."));
+                });
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(GitHubRepositoryPublisherTests.createPagingClient(1, 1), GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    test.assertNotNull(publisher);
+                    test.assertEqual(GitHubRepositoryPublisher.defaultPageSize / 2, publisher.getPrefetchWatermark());
+                });
+            });
+
+            runner.testGroup("setPrefetchWatermark(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(GitHubRepositoryPublisherTests.createPagingClient(1, 1), GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    test.assertThrows(() -> publisher.setPrefetchWatermark(0),
+                        new PreConditionFailure("prefetchWatermark (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(GitHubRepositoryPublisherTests.createPagingClient(1, 1), GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    final GitHubRepositoryPublisher setPrefetchWatermarkResult = publisher.setPrefetchWatermark(1);
+                    test.assertSame(publisher, setPrefetchWatermarkResult);
+                    test.assertEqual(1, publisher.getPrefetchWatermark());
+                });
+            });
+
+            runner.testGroup("subscribe(Flow.Subscriber)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(GitHubRepositoryPublisherTests.createPagingClient(1, 1), GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    test.assertThrows(() -> publisher.subscribe(null),
+                        new PreConditionFailure("subscriber cannot be null."));
+                });
+
+                runner.test("with no requests", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+                    test.assertNotNull(subscriber.subscription);
+                    test.assertEqual(Iterable.create(), subscriber.names);
+                    test.assertEqual(0, client.getSentRequests().getCount());
+                });
+
+                runner.test("with request for fewer than one page", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run)
+                        .setPrefetchWatermark(1);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(1);
+                    test.assertEqual(Iterable.create("repo-1-1"), subscriber.names);
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                    test.assertFalse(subscriber.completed);
+                });
+
+                runner.test("with requests that span pages", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run)
+                        .setPrefetchWatermark(1);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(3);
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-1-2", "repo-2-1"), subscriber.names);
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                    test.assertEqual("2", client.getSentRequests().last().getQueryParameter("page").await());
+                    test.assertFalse(subscriber.completed);
+
+                    subscriber.subscription.request(10);
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-1-2", "repo-2-1", "repo-2-2", "repo-3-1", "repo-3-2"), subscriber.names);
+                    test.assertEqual(3, client.getSentRequests().getCount());
+                    test.assertTrue(subscriber.completed);
+                    test.assertNull(subscriber.error);
+                });
+
+                runner.test("with prefetch watermark above the buffered count", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run)
+                        .setPrefetchWatermark(3);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(1);
+                    test.assertEqual(Iterable.create("repo-1-1"), subscriber.names);
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                });
+
+                runner.test("with request for 0", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(0);
+                    test.assertEqual(
+                        new java.lang.IllegalArgumentException("The number of requested repositories (0) must be greater than 0."),
+                        subscriber.error);
+
+                    subscriber.subscription.request(1);
+                    test.assertEqual(Iterable.create(), subscriber.names);
+                    test.assertEqual(0, client.getSentRequests().getCount());
+                });
+
+                runner.test("with cancel()", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run)
+                        .setPrefetchWatermark(1);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(1);
+                    subscriber.subscription.cancel();
+                    subscriber.subscription.request(10);
+                    test.assertEqual(Iterable.create("repo-1-1"), subscriber.names);
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                    test.assertFalse(subscriber.completed);
+                    test.assertNull(subscriber.error);
+                });
+
+                runner.test("with request for 0 while a page is being fetched", (Test test) ->
+                {
+                    final java.util.concurrent.atomic.AtomicReference<RecordingSubscriber> subscriberReference = new java.util.concurrent.atomic.AtomicReference<>();
+                    final FakeGitHubClient pagingClient = GitHubRepositoryPublisherTests.createPagingClient(3, 2);
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        // The invalid request arrives while the drain loop is fetching a page,
+                        // so it must not signal onError() until the drain loop has finished.
+                        subscriberReference.get().subscription.request(-1);
+                        test.assertNull(subscriberReference.get().error);
+                        return pagingClient.sendRequest(request).await();
+                    });
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    subscriberReference.set(subscriber);
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(1);
+                    test.assertEqual(Iterable.create(), subscriber.names);
+                    test.assertEqual(
+                        new java.lang.IllegalArgumentException("The number of requested repositories (-1) must be greater than 0."),
+                        subscriber.error);
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                });
+
+                runner.test("with default executor", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(2, 2);
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest());
+                    final java.util.concurrent.CountDownLatch completedLatch = new java.util.concurrent.CountDownLatch(1);
+                    final java.util.concurrent.atomic.AtomicReference<String> completedThreadName = new java.util.concurrent.atomic.AtomicReference<>();
+                    final RecordingSubscriber subscriber = new RecordingSubscriber()
+                    {
+                        @Override
+                        public void onComplete()
+                        {
+                            super.onComplete();
+                            completedThreadName.set(Thread.currentThread().getName());
+                            completedLatch.countDown();
+                        }
+                    };
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(10);
+                    try
+                    {
+                        test.assertTrue(completedLatch.await(10, java.util.concurrent.TimeUnit.SECONDS));
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-1-2", "repo-2-1", "repo-2-2"), subscriber.names);
+                    test.assertEqual("qub-github-publisher", completedThreadName.get());
+                });
+
+                runner.test("with error response", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                        HttpResponse.create()
+                            .setStatusCode(401)
+                            .setBody(JSONObject.create()
+                                .setString("message", "Requires authentication")
+                                .toString()));
+                    final GitHubRepositoryPublisher publisher = GitHubRepositoryPublisher.create(client, GitHubRepositoryPublisherTests.createFirstPageRequest())
+                        .setExecutor(Runnable::run);
+                    final RecordingSubscriber subscriber = new RecordingSubscriber();
+                    publisher.subscribe(subscriber);
+
+                    subscriber.subscription.request(1);
+                    test.assertEqual(Iterable.create(), subscriber.names);
+                    test.assertTrue(subscriber.error instanceof GitHubException);
+                    test.assertFalse(subscriber.completed);
+                });
+            });
+        });
+    }
+}
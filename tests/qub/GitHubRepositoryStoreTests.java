@@ -0,0 +1,257 @@
+package qub;
+
+public interface GitHubRepositoryStoreTests
+{
+    static GitHubRepository createRepository(long id, String ownerLogin, String name)
+    {
+        return GitHubRepository.create()
+            .setId(id)
+            .setName(name)
+            .setFullName(ownerLogin + "/" + name)
+            .setOwner(GitHubUser.create().setLogin(ownerLogin));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRepositoryStore.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                test.assertNotNull(store);
+                test.assertEqual(0, store.getCount());
+                test.assertFalse(store.contains(1));
+            });
+
+            runner.testGroup("add(GitHubRepository)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.add(null),
+                        new PreConditionFailure("repository cannot be null."));
+                });
+
+                runner.test("with no id", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.add(GitHubRepository.create().setName("a")),
+                        new PreConditionFailure("repository.getId() cannot be null."));
+                });
+
+                runner.test("with new repository", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    final GitHubRepository repository = GitHubRepositoryStoreTests.createRepository(10, "octocat", "Hello-World");
+                    final GitHubRepositoryStore addResult = store.add(repository);
+                    test.assertSame(store, addResult);
+                    test.assertEqual(1, store.getCount());
+                    test.assertTrue(store.contains(10));
+                    test.assertSame(repository, store.get(10).await());
+                    test.assertSame(repository, store.getByFullName("OCTOCAT/hello-world").await());
+                    test.assertEqual(Iterable.create(repository), store.getByOwner("Octocat"));
+                });
+
+                runner.test("with renamed repository", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    store.add(GitHubRepositoryStoreTests.createRepository(10, "octocat", "old-name"));
+                    final GitHubRepository renamed = GitHubRepositoryStoreTests.createRepository(10, "octocat", "new-name");
+                    store.add(renamed);
+
+                    test.assertEqual(1, store.getCount());
+                    test.assertSame(renamed, store.getByFullName("octocat/new-name").await());
+                    test.assertThrows(() -> store.getByFullName("octocat/old-name").await(),
+                        new NotFoundException("No repository found with the full name \"octocat/old-name\"."));
+                    test.assertEqual(Iterable.create(renamed), store.getByOwner("octocat"));
+                });
+
+                runner.test("with transferred repository", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    store.add(GitHubRepositoryStoreTests.createRepository(10, "octocat", "a"));
+                    store.add(GitHubRepositoryStoreTests.createRepository(10, "hubot", "a"));
+
+                    test.assertEqual(Iterable.create(), store.getByOwner("octocat"));
+                    test.assertEqual(1, store.getByOwner("hubot").getCount());
+                });
+
+                runner.test("with a stored repository that was modified and then added again", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    final GitHubRepository a = GitHubRepositoryStoreTests.createRepository(10, "octocat", "a");
+                    final GitHubRepository b = GitHubRepositoryStoreTests.createRepository(11, "hubot", "b");
+                    final GitHubRepository c = GitHubRepositoryStoreTests.createRepository(12, "hubot", "c");
+                    store.addAll(Iterable.create(a, b, c));
+
+                    a.setName("d")
+                        .setFullName("hubot/d")
+                        .setOwner(GitHubUser.create().setLogin("hubot"));
+                    store.add(a);
+
+                    test.assertEqual(3, store.getCount());
+                    test.assertEqual(Iterable.create(), store.getByOwner("octocat"));
+                    test.assertEqual(Iterable.create(b, c, a), store.getByOwner("hubot"));
+                    test.assertSame(a, store.getByFullName("hubot/d").await());
+                    test.assertSame(b, store.getByFullName("hubot/b").await());
+                    test.assertThrows(() -> store.getByFullName("octocat/a").await(),
+                        new NotFoundException("No repository found with the full name \"octocat/a\"."));
+
+                    store.remove(11).await();
+                    test.assertEqual(Iterable.create(a, c), store.getByOwner("hubot"));
+                });
+            });
+
+            runner.test("addAll(Iterable<GitHubRepository>)", (Test test) ->
+            {
+                final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                final int addAllResult = store.addAll(Iterable.create(
+                    GitHubRepositoryStoreTests.createRepository(1, "octocat", "a"),
+                    GitHubRepository.create().setName("no-id"),
+                    GitHubRepositoryStoreTests.createRepository(2, "octocat", "b")));
+                test.assertEqual(2, addAllResult);
+                test.assertEqual(2, store.getCount());
+                test.assertEqual(2, store.getByOwner("octocat").getCount());
+            });
+
+            runner.testGroup("get(long)", () ->
+            {
+                runner.test("with missing id", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.get(5).await(),
+                        new NotFoundException("No repository found with the id 5."));
+                });
+            });
+
+            runner.testGroup("getByFullName(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.getByFullName(null),
+                        new PreConditionFailure("fullName cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.getByFullName(""),
+                        new PreConditionFailure("fullName cannot be empty."));
+                });
+            });
+
+            runner.testGroup("getByOwner(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.getByOwner(null),
+                        new PreConditionFailure("ownerLogin cannot be null."));
+                });
+
+                runner.test("with unknown owner", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    store.add(GitHubRepositoryStoreTests.createRepository(1, "octocat", "a"));
+                    test.assertEqual(Iterable.create(), store.getByOwner("hubot"));
+                });
+            });
+
+            runner.testGroup("remove(long)", () ->
+            {
+                runner.test("with missing id", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.remove(5).await(),
+                        new NotFoundException("No repository found with the id 5."));
+                });
+
+                runner.test("with existing id", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    final GitHubRepository a = GitHubRepositoryStoreTests.createRepository(1, "octocat", "a");
+                    final GitHubRepository b = GitHubRepositoryStoreTests.createRepository(2, "octocat", "b");
+                    store.add(a).add(b);
+
+                    test.assertSame(a, store.remove(1).await());
+                    test.assertEqual(1, store.getCount());
+                    test.assertFalse(store.contains(1));
+                    test.assertThrows(() -> store.getByFullName("octocat/a").await(),
+                        new NotFoundException("No repository found with the full name \"octocat/a\"."));
+                    test.assertEqual(Iterable.create(b), store.getByOwner("octocat"));
+                });
+
+                runner.test("with many repositories from the same owner", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    for (int id = 1; id <= 10; ++id)
+                    {
+                        store.add(GitHubRepositoryStoreTests.createRepository(id, "octocat", "repo-" + id));
+                    }
+
+                    store.remove(3).await();
+                    store.remove(10).await();
+                    store.remove(1).await();
+                    store.add(GitHubRepositoryStoreTests.createRepository(5, "octocat", "renamed-5"));
+                    store.add(GitHubRepositoryStoreTests.createRepository(7, "hubot", "repo-7"));
+
+                    final java.util.TreeSet<Long> octocatIds = new java.util.TreeSet<>();
+                    for (final GitHubRepository repository : store.getByOwner("octocat"))
+                    {
+                        octocatIds.add(repository.getId());
+                    }
+                    test.assertEqual(java.util.Arrays.asList(2L, 4L, 5L, 6L, 8L, 9L), new java.util.ArrayList<>(octocatIds));
+                    test.assertEqual(6, store.getByOwner("octocat").getCount());
+                    test.assertEqual("renamed-5", store.get(5).await().getName());
+                    test.assertEqual(Iterable.create("repo-7"), store.getByOwner("hubot").map(GitHubRepository::getName));
+
+                    for (final long id : new long[] { 2, 4, 5, 6, 8, 9 })
+                    {
+                        store.remove(id).await();
+                    }
+                    test.assertEqual(Iterable.create(), store.getByOwner("octocat"));
+                });
+            });
+
+            runner.testGroup("load(GitHubClient,GitHubRequest,GitHubPagination)", () ->
+            {
+                runner.test("with null client", (Test test) ->
+                {
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+                    test.assertThrows(() -> store.load(null, GitHubRepositoryPublisherTests.createFirstPageRequest(), GitHubPagination.sequential()),
+                        new PreConditionFailure("client cannot be null."));
+                });
+
+                runner.test("with multiple pages", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String pageQueryParameter = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        final int pageNumber = pageQueryParameter == null ? 1 : Integer.parseInt(pageQueryParameter);
+                        final JSONArray body = JSONArray.create();
+                        for (int i = 1; i <= 2; ++i)
+                        {
+                            body.add(GitHubRepositoryStoreTests.createRepository(pageNumber * 10 + i, "octocat", "repo-" + pageNumber + "-" + i).toJson());
+                        }
+                        final MutableHttpResponse response = HttpResponse.create()
+                            .setStatusCode(200)
+                            .setBody(body.toString());
+                        if (pageNumber < 2)
+                        {
+                            response.setHeader(GitHubLinkHeader.headerName,
+                                "<https://api.github.com/user/repos?page=2>; rel=\"next\", <https://api.github.com/user/repos?page=2>; rel=\"last\"");
+                        }
+                        return response;
+                    });
+                    final GitHubRepositoryStore store = GitHubRepositoryStore.create();
+
+                    test.assertEqual(4, store.load(client, GitHubRepositoryPublisherTests.createFirstPageRequest(), GitHubPagination.sequential()).await());
+                    test.assertEqual(4, store.getCount());
+                    test.assertEqual("octocat/repo-2-1", store.get(21).await().getFullName());
+                    test.assertEqual(4, store.getByOwner("octocat").getCount());
+                });
+            });
+        });
+    }
+}
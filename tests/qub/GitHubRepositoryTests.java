@@ -161,6 +161,78 @@ public interface GitHubRepositoryTests
                     test.assertEqual(URL.parse("git://hello/there").await(), repository.getGitUrl());
                 });
             });
+
+            runner.testGroup("setId(long)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    test.assertThrows(() -> repository.setId(-1),
+                        new PreConditionFailure("id (-1) must be greater than or equal to 0."));
+                    test.assertNull(repository.getId());
+                });
+
+                runner.test("with value larger than an int", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    final GitHubRepository setIdResult = repository.setId(5000000000L);
+                    test.assertSame(repository, setIdResult);
+                    test.assertEqual(5000000000L, repository.getId());
+                });
+
+                runner.test("from parsed JSON", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create((JSONObject)JSON.parse("{\"id\":1296269}").await());
+                    test.assertEqual(1296269L, repository.getId());
+                });
+            });
+
+            runner.testGroup("setPushedAt(java.time.Instant)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    test.assertThrows(() -> repository.setPushedAt(null),
+                        new PreConditionFailure("pushedAt cannot be null."));
+                    test.assertNull(repository.getPushedAt());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    final java.time.Instant pushedAt = java.time.Instant.parse("2011-01-26T19:06:43Z");
+                    final GitHubRepository setPushedAtResult = repository.setPushedAt(pushedAt);
+                    test.assertSame(repository, setPushedAtResult);
+                    test.assertEqual(pushedAt, repository.getPushedAt());
+                    test.assertEqual("2011-01-26T19:06:43Z", repository.toJson().getString(GitHubRepository.pushedAtPropertyName).await());
+                });
+
+                runner.test("with JSON null", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create((JSONObject)JSON.parse("{\"pushed_at\":null}").await());
+                    test.assertNull(repository.getPushedAt());
+                });
+            });
+
+            runner.testGroup("setUpdatedAt(java.time.Instant)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    test.assertThrows(() -> repository.setUpdatedAt(null),
+                        new PreConditionFailure("updatedAt cannot be null."));
+                    test.assertNull(repository.getUpdatedAt());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GitHubRepository repository = GitHubRepository.create();
+                    final java.time.Instant updatedAt = java.time.Instant.parse("2011-01-26T19:14:43Z");
+                    final GitHubRepository setUpdatedAtResult = repository.setUpdatedAt(updatedAt);
+                    test.assertSame(repository, setUpdatedAtResult);
+                    test.assertEqual(updatedAt, repository.getUpdatedAt());
+                });
+            });
         });
     }
 }
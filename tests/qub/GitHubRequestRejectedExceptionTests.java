@@ -0,0 +1,33 @@
+package qub;
+
+public interface GitHubRequestRejectedExceptionTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRequestRejectedException.class, () ->
+        {
+            runner.testGroup("constructor(String,int)", () ->
+            {
+                final Action3<String,Integer,Throwable> constructorErrorTest = (String tenant, Integer maximumQueueDepth, Throwable expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(tenant), maximumQueueDepth), (Test test) ->
+                    {
+                        test.assertThrows(() -> new GitHubRequestRejectedException(tenant, maximumQueueDepth),
+                            expected);
+                    });
+                };
+
+                constructorErrorTest.run(null, 0, new PreConditionFailure("tenant cannot be null."));
+                constructorErrorTest.run("acme", -1, new PreConditionFailure("maximumQueueDepth (-1) must be greater than or equal to 0."));
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final GitHubRequestRejectedException e = new GitHubRequestRejectedException("acme", 100);
+                    test.assertEqual("acme", e.getTenant());
+                    test.assertEqual(100, e.getMaximumQueueDepth());
+                    test.assertEqual("The request was rejected because the queue for the tenant \"acme\" already has 100 waiting requests.", e.getMessage());
+                });
+            });
+        });
+    }
+}
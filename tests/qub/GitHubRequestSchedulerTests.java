@@ -0,0 +1,366 @@
+package qub;
+
+public interface GitHubRequestSchedulerTests
+{
+    static GitHubRequest createRequest(GitHubRequest.Priority priority)
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World")
+            .setPriority(priority);
+    }
+
+    static GitHubResponse createResponse(long limit, long remaining, long resetSeconds)
+    {
+        return GitHubResponse.create(HttpResponse.create()
+            .setStatusCode(200)
+            .setHeader(GitHubResponse.rateLimitLimitHeaderName, Long.toString(limit))
+            .setHeader(GitHubResponse.rateLimitRemainingHeaderName, Long.toString(remaining))
+            .setHeader(GitHubResponse.rateLimitResetHeaderName, Long.toString(resetSeconds)));
+    }
+
+    /**
+     * Start a thread that waits for the provided request to be dispatched, records the provided
+     * label, and then releases the request's permit.
+     */
+    static Thread startAcquire(GitHubRequestScheduler scheduler, GitHubRequest request, List<String> dispatchOrder, String label)
+    {
+        final Thread result = new Thread(() ->
+        {
+            final GitHubRequestScheduler.Permit permit = scheduler.acquire(request);
+            synchronized (dispatchOrder)
+            {
+                dispatchOrder.add(label);
+            }
+            permit.onFailure();
+        });
+        result.start();
+        return result;
+    }
+
+    static void join(Thread thread)
+    {
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRequestScheduler.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                test.assertEqual(10, scheduler.getMaximumConcurrentRequests());
+                test.assertEqual(0.2, scheduler.getInteractiveReservedFraction());
+                test.assertEqual(8, scheduler.getBackgroundConcurrentRequests());
+                test.assertNull(scheduler.getReservedRequestCount());
+                test.assertNull(scheduler.getRateLimitRemaining());
+                test.assertEqual(0, scheduler.getInFlightCount());
+                test.assertEqual(0, scheduler.getWaitingCount(GitHubRequest.Priority.Background));
+            });
+
+            runner.testGroup("setMaximumConcurrentRequests(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setMaximumConcurrentRequests(0),
+                        new PreConditionFailure("maximumConcurrentRequests (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    final GitHubRequestScheduler setResult = scheduler.setMaximumConcurrentRequests(1);
+                    test.assertSame(scheduler, setResult);
+                    test.assertEqual(1, scheduler.getMaximumConcurrentRequests());
+                    test.assertEqual(1, scheduler.getBackgroundConcurrentRequests());
+                });
+            });
+
+            runner.testGroup("setInteractiveReservedFraction(double)", () ->
+            {
+                runner.test("with 1", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setInteractiveReservedFraction(1),
+                        new PreConditionFailure("interactiveReservedFraction (1.0) must be between 0.0 and 0.9."));
+                });
+
+                runner.test("with 0.5", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    final GitHubRequestScheduler setResult = scheduler.setInteractiveReservedFraction(0.5);
+                    test.assertSame(scheduler, setResult);
+                    test.assertEqual(0.5, scheduler.getInteractiveReservedFraction());
+                    test.assertEqual(5, scheduler.getBackgroundConcurrentRequests());
+                });
+            });
+
+            runner.testGroup("acquire(GitHubRequest)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.acquire(null),
+                        new PreConditionFailure("request cannot be null."));
+                });
+
+                runner.test("with background requests up to the background slots", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setMaximumConcurrentRequests(2)
+                        .setInteractiveReservedFraction(0.5);
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background));
+                    test.assertEqual(1, scheduler.getInFlightCount());
+
+                    final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                    test.assertThrows(() -> scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background).setDeadline(deadline)),
+                        new GitHubDeadlineExceededException(deadline, "waiting to be scheduled"));
+                    test.assertEqual(0, scheduler.getWaitingCount(GitHubRequest.Priority.Background));
+
+                    // The reserved slot is still available to interactive requests.
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive));
+                    test.assertEqual(2, scheduler.getInFlightCount());
+                    test.assertEqual(1L, scheduler.getDispatchedCount(GitHubRequest.Priority.Interactive));
+                    test.assertEqual(1L, scheduler.getDispatchedCount(GitHubRequest.Priority.Background));
+                });
+
+                runner.test("with interactive request waiting ahead of background request", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setMaximumConcurrentRequests(1);
+                    final GitHubRequestScheduler.Permit firstPermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background));
+
+                    final List<String> dispatchOrder = List.create();
+                    final Thread background = GitHubRequestSchedulerTests.startAcquire(scheduler,
+                        GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background), dispatchOrder, "background");
+                    while (scheduler.getWaitingCount(GitHubRequest.Priority.Background) == 0)
+                    {
+                        Thread.yield();
+                    }
+                    final Thread interactive = GitHubRequestSchedulerTests.startAcquire(scheduler,
+                        GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive), dispatchOrder, "interactive");
+                    while (scheduler.getWaitingCount(GitHubRequest.Priority.Interactive) == 0)
+                    {
+                        Thread.yield();
+                    }
+
+                    firstPermit.onFailure();
+                    GitHubRequestSchedulerTests.join(interactive);
+                    GitHubRequestSchedulerTests.join(background);
+                    test.assertEqual(Iterable.create("interactive", "background"), dispatchOrder);
+                    test.assertEqual(0, scheduler.getInFlightCount());
+                });
+
+                runner.test("with background request when the rate limit is reserved", (Test test) ->
+                {
+                    final long resetSeconds = 2000000000L;
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setClock(() -> (resetSeconds - 60) * 1000);
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive))
+                        .onResponse(GitHubRequestSchedulerTests.createResponse(5000, 1000, resetSeconds));
+                    test.assertEqual(1000L, scheduler.getReservedRequestCount());
+                    test.assertEqual(1000L, scheduler.getRateLimitRemaining());
+
+                    final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                    test.assertThrows(() -> scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background).setDeadline(deadline)),
+                        new GitHubDeadlineExceededException(deadline, "waiting to be scheduled"));
+                    test.assertEqual(1L, scheduler.getBackgroundQuotaWaitCount());
+
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive))
+                        .onFailure();
+                    test.assertEqual(999L, scheduler.getRateLimitRemaining());
+                });
+
+                runner.test("with background request after the rate limit window resets", (Test test) ->
+                {
+                    final long resetSeconds = 2000000000L;
+                    final java.util.concurrent.atomic.AtomicLong now = new java.util.concurrent.atomic.AtomicLong((resetSeconds - 60) * 1000);
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setClock(now::get);
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive))
+                        .onResponse(GitHubRequestSchedulerTests.createResponse(5000, 10, resetSeconds));
+
+                    now.set(resetSeconds * 1000);
+                    test.assertNull(scheduler.getRateLimitRemaining());
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background))
+                        .onFailure();
+                    test.assertEqual(1L, scheduler.getDispatchedCount(GitHubRequest.Priority.Background));
+                });
+            });
+
+            runner.testGroup("setTenantWeight(String,double)", () ->
+            {
+                runner.test("with null tenant", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setTenantWeight(null, 1),
+                        new PreConditionFailure("tenant cannot be null."));
+                });
+
+                runner.test("with 0 weight", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setTenantWeight("acme", 0),
+                        new PreConditionFailure("weight (0.0) must be greater than 0.0."));
+                    test.assertEqual(1.0, scheduler.getTenantWeight("acme"));
+                });
+
+                runner.test("with 2 weight", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    final GitHubRequestScheduler setResult = scheduler.setTenantWeight("acme", 2);
+                    test.assertSame(scheduler, setResult);
+                    test.assertEqual(2.0, scheduler.getTenantWeight("acme"));
+                    test.assertEqual(1.0, scheduler.getTenantWeight("globex"));
+                });
+            });
+
+            runner.testGroup("setTenantMaximumInFlightCount(String,int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setTenantMaximumInFlightCount("acme", 0),
+                        new PreConditionFailure("maximumInFlightCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setDefaultTenantMaximumInFlightCount(5);
+                    final GitHubRequestScheduler setResult = scheduler.setTenantMaximumInFlightCount("acme", 1);
+                    test.assertSame(scheduler, setResult);
+                    test.assertEqual(1, scheduler.getTenantMaximumInFlightCount("acme"));
+                    test.assertEqual(5, scheduler.getTenantMaximumInFlightCount("globex"));
+                });
+            });
+
+            runner.testGroup("setTenantMaximumQueueDepth(String,int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    test.assertThrows(() -> scheduler.setTenantMaximumQueueDepth("acme", -1),
+                        new PreConditionFailure("maximumQueueDepth (-1) must be greater than or equal to 0."));
+                    test.assertEqual(100, scheduler.getTenantMaximumQueueDepth("acme"));
+                });
+
+                runner.test("with 0", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    final GitHubRequestScheduler setResult = scheduler.setTenantMaximumQueueDepth("acme", 0);
+                    test.assertSame(scheduler, setResult);
+                    test.assertEqual(0, scheduler.getTenantMaximumQueueDepth("acme"));
+                });
+            });
+
+            runner.testGroup("acquire(GitHubRequest) with tenants", () ->
+            {
+                runner.test("when the tenant's queue is full", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setTenantMaximumQueueDepth("acme", 0);
+                    test.assertThrows(() -> scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background).setTenant("acme")),
+                        new GitHubRequestRejectedException("acme", 0));
+                    test.assertEqual(1L, scheduler.getRejectedCount());
+                    test.assertEqual(0, scheduler.getQueueDepth("acme"));
+
+                    scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background).setTenant("globex"))
+                        .onFailure();
+                    test.assertEqual(1L, scheduler.getRejectedCount());
+                });
+
+                runner.test("when the tenant is at its in-flight limit", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setTenantMaximumInFlightCount("acme", 1);
+                    final GitHubRequestScheduler.Permit acmePermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive).setTenant("acme"));
+                    test.assertEqual(1, scheduler.getInFlightCount("acme"));
+
+                    final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                    test.assertThrows(() -> scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive).setTenant("acme").setDeadline(deadline)),
+                        new GitHubDeadlineExceededException(deadline, "waiting to be scheduled"));
+
+                    // Other tenants aren't held up by the tenant that is at its limit.
+                    final GitHubRequestScheduler.Permit globexPermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Background).setTenant("globex"));
+                    test.assertEqual(1, scheduler.getInFlightCount("globex"));
+                    test.assertEqual(2, scheduler.getInFlightCount());
+
+                    acmePermit.onFailure();
+                    globexPermit.onFailure();
+                    test.assertEqual(0, scheduler.getInFlightCount("acme"));
+                    test.assertEqual(0, scheduler.getInFlightCount());
+                });
+
+                runner.test("with one tenant's bulk requests waiting", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setMaximumConcurrentRequests(1);
+                    final GitHubRequestScheduler.Permit firstPermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive));
+
+                    final List<String> dispatchOrder = List.create();
+                    final List<Thread> threads = List.create();
+                    for (int i = 1; i <= 3; ++i)
+                    {
+                        threads.add(GitHubRequestSchedulerTests.startAcquire(scheduler,
+                            GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive).setTenant("acme"), dispatchOrder, "acme"));
+                        while (scheduler.getQueueDepth("acme") < i)
+                        {
+                            Thread.yield();
+                        }
+                    }
+                    threads.add(GitHubRequestSchedulerTests.startAcquire(scheduler,
+                        GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive).setTenant("globex"), dispatchOrder, "globex"));
+                    while (scheduler.getQueueDepth("globex") < 1)
+                    {
+                        Thread.yield();
+                    }
+                    test.assertEqual(4, scheduler.getWaitingCount(GitHubRequest.Priority.Interactive));
+
+                    firstPermit.onFailure();
+                    for (final Thread thread : threads)
+                    {
+                        GitHubRequestSchedulerTests.join(thread);
+                    }
+                    test.assertEqual(Iterable.create("acme", "globex", "acme", "acme"), dispatchOrder);
+                    test.assertEqual(0, scheduler.getQueueDepth("acme"));
+                });
+            });
+
+            runner.testGroup("Permit.onResponse(GitHubResponse)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create();
+                    final GitHubRequestScheduler.Permit permit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive));
+                    test.assertThrows(() -> permit.onResponse(null),
+                        new PreConditionFailure("response cannot be null."));
+                    test.assertEqual(1, scheduler.getInFlightCount());
+                });
+
+                runner.test("with responses out of order", (Test test) ->
+                {
+                    final long resetSeconds = 2000000000L;
+                    final GitHubRequestScheduler scheduler = GitHubRequestScheduler.create()
+                        .setClock(() -> (resetSeconds - 60) * 1000);
+                    final GitHubRequestScheduler.Permit firstPermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive));
+                    final GitHubRequestScheduler.Permit secondPermit = scheduler.acquire(GitHubRequestSchedulerTests.createRequest(GitHubRequest.Priority.Interactive));
+
+                    secondPermit.onResponse(GitHubRequestSchedulerTests.createResponse(5000, 4000, resetSeconds));
+                    firstPermit.onResponse(GitHubRequestSchedulerTests.createResponse(5000, 4001, resetSeconds));
+                    test.assertEqual(4000L, scheduler.getRateLimitRemaining());
+                    test.assertEqual(0, scheduler.getInFlightCount());
+                });
+            });
+        });
+    }
+}
@@ -13,9 +13,13 @@ public interface GitHubRequestTests
                 test.assertNull(request.getHttpMethod());
                 test.assertNull(request.getBaseUrl());
                 test.assertNull(request.getUrlPath());
-                test.assertEqual(HttpHeaders.create(), request.getHeaders());
+                test.assertNull(request.getRouteKey());
+                test.assertEqual(0, request.getHeaders().getCount());
+                test.assertFalse(request.getHeaders() instanceof MutableHttpHeaders);
                 test.assertEqual(0, request.getBodyLength());
                 test.assertNull(request.getBody());
+                test.assertEqual(GitHubRequest.Priority.Interactive, request.getPriority());
+                test.assertNull(request.getTenant());
             });
 
             runner.testGroup("clone()", () ->
@@ -48,9 +52,27 @@ public interface GitHubRequestTests
                     test.assertEqual(request.getBaseUrl(), clonedRequest.getBaseUrl());
                     test.assertEqual(request.getUrlPath(), clonedRequest.getUrlPath());
                     test.assertEqual(request.getHeaders(), clonedRequest.getHeaders());
-                    test.assertNotSame(request.getHeaders(), clonedRequest.getHeaders());
+                    test.assertSame(request.getHeaders(), clonedRequest.getHeaders());
                     test.assertSame(request.getBody(), clonedRequest.getBody());
                 });
+
+                runner.test("with headers modified after clone", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setHeader("hello", "there");
+                    final GitHubRequest clonedRequest = request.clone();
+                    test.assertSame(request.getHeaders(), clonedRequest.getHeaders());
+
+                    clonedRequest.setHeader("hello", "world");
+                    test.assertNotSame(request.getHeaders(), clonedRequest.getHeaders());
+                    test.assertEqual("there", request.getHeaderValue("hello").await());
+                    test.assertEqual("world", clonedRequest.getHeaderValue("hello").await());
+
+                    request.setHeader("apples", "bananas");
+                    test.assertEqual("bananas", request.getHeaderValue("apples").await());
+                    test.assertThrows(() -> clonedRequest.getHeaderValue("apples").await(),
+                        new NotFoundException("No \"apples\" header found."));
+                });
             });
 
             runner.testGroup("setHttpMethod(String)", () ->
@@ -110,6 +132,27 @@ public interface GitHubRequestTests
                 }
             });
 
+            runner.testGroup("isHeadRequest()", () ->
+            {
+                final Action2<String,Boolean> isHeadRequestTest = (String httpMethod, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(httpMethod), (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create();
+                        if (httpMethod != null)
+                        {
+                            request.setHttpMethod(httpMethod);
+                        }
+                        test.assertEqual(expected, request.isHeadRequest());
+                    });
+                };
+
+                isHeadRequestTest.run(null, false);
+                isHeadRequestTest.run("GET", false);
+                isHeadRequestTest.run("HEAD", true);
+                isHeadRequestTest.run("head", true);
+            });
+
             runner.testGroup("setBaseUrl(String)", () ->
             {
                 final Action2<String,Throwable> setBaseUrlErrorTest = (String baseUrl, Throwable expected) ->
@@ -233,6 +276,103 @@ public interface GitHubRequestTests
                 setUrlPathTest.run("hello there");
             });
 
+            runner.testGroup("setRoute(GitHubRoute,String...)", () ->
+            {
+                runner.test("with null route", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setRoute(null),
+                        new PreConditionFailure("route cannot be null."));
+                    test.assertNull(request.getUrlPath());
+                    test.assertNull(request.getRouteKey());
+                });
+
+                runner.test("with wrong number of parameter values", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setRoute(GitHubClient.repositoryRoute, "fake-owner"),
+                        new PreConditionFailure("parameterValues.length (1) must be 2."));
+                    test.assertNull(request.getUrlPath());
+                    test.assertNull(request.getRouteKey());
+                });
+
+                runner.test("with route with no parameters", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final GitHubRequest setRouteResult = request.setRoute(GitHubClient.authenticatedUserRoute);
+                    test.assertSame(request, setRouteResult);
+                    test.assertEqual("/user", request.getUrlPath());
+                    test.assertEqual("/user", request.getRouteKey());
+                });
+
+                runner.test("with route with parameters", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final GitHubRequest setRouteResult = request.setRoute(GitHubClient.repositoryRoute, "fake owner", "fake-name");
+                    test.assertSame(request, setRouteResult);
+                    test.assertEqual("/repos/fake%20owner/fake-name", request.getUrlPath());
+                    test.assertEqual("/repos/{owner}/{repo}", request.getRouteKey());
+
+                    final GitHubRequest clonedRequest = request.clone();
+                    test.assertEqual("/repos/fake%20owner/fake-name", clonedRequest.getUrlPath());
+                    test.assertEqual("/repos/{owner}/{repo}", clonedRequest.getRouteKey());
+                });
+
+                runner.test("followed by setUrlPath(String)", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setRoute(GitHubClient.repositoryRoute, "fake-owner", "fake-name")
+                        .setUrlPath("/hello");
+                    test.assertEqual("/hello", request.getUrlPath());
+                    test.assertEqual("/hello", request.getRouteKey());
+                });
+            });
+
+            runner.testGroup("setQueryParameter(String,String)", () ->
+            {
+                final Action3<String,String,Throwable> setQueryParameterErrorTest = (String queryParameterName, String queryParameterValue, Throwable expected) ->
+                {
+                    runner.test("with " + English.andList(Iterable.create(queryParameterName, queryParameterValue).map(Strings::escapeAndQuote)), (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create();
+                        test.assertThrows(() -> request.setQueryParameter(queryParameterName, queryParameterValue),
+                            expected);
+                        test.assertEqual(Map.create(), request.getQueryParameters());
+                    });
+                };
+
+                setQueryParameterErrorTest.run(null, "1", new PreConditionFailure("queryParameterName cannot be null."));
+                setQueryParameterErrorTest.run("", "1", new PreConditionFailure("queryParameterName cannot be empty."));
+                setQueryParameterErrorTest.run("page", null, new PreConditionFailure("queryParameterValue cannot be null."));
+
+                runner.test("with new query parameter", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final GitHubRequest setQueryParameterResult = request.setQueryParameter("page", "2");
+                    test.assertSame(request, setQueryParameterResult);
+                    test.assertEqual("2", request.getQueryParameter("page").await());
+                });
+
+                runner.test("with existing query parameter", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setQueryParameter("page", "2")
+                        .setQueryParameter("page", 3);
+                    test.assertEqual("3", request.getQueryParameter("page").await());
+                });
+
+                runner.test("after clone()", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setQueryParameter("per_page", 100);
+                    final GitHubRequest clonedRequest = request.clone()
+                        .setQueryParameter("page", 2);
+                    test.assertEqual("100", clonedRequest.getQueryParameter("per_page").await());
+                    test.assertEqual("2", clonedRequest.getQueryParameter("page").await());
+                    test.assertFalse(request.getQueryParameters().containsKey("page"));
+                });
+            });
+
             runner.testGroup("getHeaderValue(String)", () ->
             {
                 final Action2<String,Throwable> getHeaderValueErrorTest = (String headerName, Throwable expected) ->
@@ -242,7 +382,7 @@ public interface GitHubRequestTests
                         final GitHubRequest request = GitHubRequest.create();
                         test.assertThrows(() -> request.getHeaderValue(headerName).await(),
                             expected);
-                        test.assertEqual(HttpHeaders.create(), request.getHeaders());
+                        test.assertEqual(0, request.getHeaders().getCount());
                     });
                 };
 
@@ -291,7 +431,7 @@ public interface GitHubRequestTests
                         final GitHubRequest request = GitHubRequest.create();
                         test.assertThrows(() -> request.setHeader(headerName, headerValue),
                             expected);
-                        test.assertEqual(HttpHeaders.create(), request.getHeaders());
+                        test.assertEqual(0, request.getHeaders().getCount());
                     });
                 };
 
@@ -350,6 +490,99 @@ public interface GitHubRequestTests
                 setHeaderTest.run("hello", 123512341L);
             });
 
+            runner.testGroup("setDeadline(java.time.Instant)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setDeadline(null),
+                        new PreConditionFailure("deadline cannot be null."));
+                    test.assertNull(request.getDeadline());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final java.time.Instant deadline = java.time.Instant.parse("2030-01-01T00:00:00Z");
+                    final GitHubRequest setDeadlineResult = request.setDeadline(deadline);
+                    test.assertSame(request, setDeadlineResult);
+                    test.assertEqual(deadline, request.getDeadline());
+                    test.assertEqual(deadline, request.clone().getDeadline());
+                });
+            });
+
+            runner.testGroup("setTimeout(java.time.Duration)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setTimeout(null),
+                        new PreConditionFailure("timeout cannot be null."));
+                });
+
+                runner.test("with zero", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setTimeout(java.time.Duration.ZERO),
+                        new PreConditionFailure("timeout.toMillis() (0) must be greater than 0."));
+                });
+
+                runner.test("with 10 seconds", (Test test) ->
+                {
+                    final java.time.Instant before = java.time.Instant.now();
+                    final GitHubRequest request = GitHubRequest.create()
+                        .setTimeout(java.time.Duration.ofSeconds(10));
+                    final java.time.Instant after = java.time.Instant.now();
+                    test.assertFalse(request.getDeadline().isBefore(before.plusSeconds(10)));
+                    test.assertFalse(request.getDeadline().isAfter(after.plusSeconds(10)));
+                });
+            });
+
+            runner.testGroup("setPriority(GitHubRequest.Priority)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setPriority(null),
+                        new PreConditionFailure("priority cannot be null."));
+                    test.assertEqual(GitHubRequest.Priority.Interactive, request.getPriority());
+                });
+
+                runner.test("with Background", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final GitHubRequest setPriorityResult = request.setPriority(GitHubRequest.Priority.Background);
+                    test.assertSame(request, setPriorityResult);
+                    test.assertEqual(GitHubRequest.Priority.Background, request.getPriority());
+                    test.assertEqual(GitHubRequest.Priority.Background, request.clone().getPriority());
+                });
+            });
+
+            runner.testGroup("setTenant(String)", () ->
+            {
+                final Action2<String,Throwable> setTenantErrorTest = (String tenant, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(tenant), (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create();
+                        test.assertThrows(() -> request.setTenant(tenant), expected);
+                        test.assertNull(request.getTenant());
+                    });
+                };
+
+                setTenantErrorTest.run(null, new PreConditionFailure("tenant cannot be null."));
+                setTenantErrorTest.run("", new PreConditionFailure("tenant cannot be empty."));
+
+                runner.test("with \"acme\"", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    final GitHubRequest setTenantResult = request.setTenant("acme");
+                    test.assertSame(request, setTenantResult);
+                    test.assertEqual("acme", request.getTenant());
+                    test.assertEqual("acme", request.clone().getTenant());
+                });
+            });
+
             runner.testGroup("setAuthorizationHeader(String)", () ->
             {
                 final Action2<String,Throwable> setHeaderErrorTest = (String token, Throwable expected) ->
@@ -359,7 +592,7 @@ public interface GitHubRequestTests
                         final GitHubRequest request = GitHubRequest.create();
                         test.assertThrows(() -> request.setAuthorizationHeader(token),
                             expected);
-                        test.assertEqual(HttpHeaders.create(), request.getHeaders());
+                        test.assertEqual(0, request.getHeaders().getCount());
                     });
                 };
 
@@ -452,6 +685,35 @@ public interface GitHubRequestTests
                 setBodyTest.run("{}");
             });
 
+            runner.testGroup("setBody(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setBody((byte[])null),
+                        new PreConditionFailure("body cannot be null."));
+                    test.assertEqual(0, request.getBodyLength());
+                    test.assertNull(request.getBody());
+                });
+
+                final Action1<String> setBodyTest = (String bodyText) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(bodyText), (Test test) ->
+                    {
+                        final byte[] body = CharacterEncoding.UTF_8.encodeCharacters(bodyText).await();
+                        final GitHubRequest request = GitHubRequest.create();
+                        final GitHubRequest setBodyResult = request.setBody(body);
+                        test.assertSame(request, setBodyResult);
+                        test.assertEqual(body.length, request.getBodyLength());
+                        test.assertEqual(bodyText, CharacterReadStream.create(request.getBody()).readEntireString().await());
+                    });
+                };
+
+                setBodyTest.run("");
+                setBodyTest.run("hello");
+                setBodyTest.run("{}");
+            });
+
             runner.testGroup("setBody(JSONObject)", () ->
             {
                 final Action2<JSONObject,Throwable> setBodyErrorTest = (JSONObject body, Throwable expected) ->
@@ -513,6 +775,39 @@ public interface GitHubRequestTests
                 setBodyTest.run(JSONArray.create());
                 setBodyTest.run(JSONArray.create().addString("hello").addString("there"));
             });
+
+            runner.testGroup("setBody(JSONObjectWrapperBase)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final GitHubRequest request = GitHubRequest.create();
+                    test.assertThrows(() -> request.setBody((JSONObjectWrapperBase)null).await(),
+                        new PreConditionFailure("parameters cannot be null."));
+                    test.assertEqual(0, request.getBodyLength());
+                });
+
+                final Action1<JSONObjectWrapperBase> setBodyTest = (JSONObjectWrapperBase parameters) ->
+                {
+                    runner.test("with " + parameters, (Test test) ->
+                    {
+                        final GitHubRequest request = GitHubRequest.create();
+                        final GitHubRequest setBodyResult = request.setBody(parameters).await();
+                        test.assertSame(request, setBodyResult);
+                        test.assertEqual(CharacterEncoding.UTF_8.encodeCharacters(parameters.toString()).await().length, request.getBodyLength());
+                        test.assertEqual(parameters.toString(), CharacterReadStream.create(request.getBody()).readEntireString().await());
+                    });
+                };
+
+                setBodyTest.run(CreateRepositoryParameters.create());
+                setBodyTest.run(CreateRepositoryParameters.create()
+                    .setName("fake-repo-name")
+                    .setDescription("fake \"repo\" description")
+                    .setPrivate(true));
+                setBodyTest.run(GitHubRepository.create()
+                    .setName("fake-repo-name")
+                    .setOwner(GitHubUser.create()
+                        .setLogin("fake-login")));
+            });
         });
     }
 }
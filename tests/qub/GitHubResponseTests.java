@@ -198,6 +198,407 @@ public interface GitHubResponseTests
             getBodyJsonArrayTest.run(JSONArray.create());
         });
 
+        runner.testGroup("getBodyJson() from multiple threads", () ->
+        {
+            runner.test("with JSON object body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\"}"));
+                final int threadCount = 8;
+                final JSONSegment[] results = new JSONSegment[threadCount];
+                final java.util.concurrent.CountDownLatch startLatch = new java.util.concurrent.CountDownLatch(1);
+                final java.lang.Thread[] threads = new java.lang.Thread[threadCount];
+                for (int i = 0; i < threadCount; ++i)
+                {
+                    final int threadIndex = i;
+                    threads[i] = new java.lang.Thread(() ->
+                    {
+                        try
+                        {
+                            startLatch.await();
+                        }
+                        catch (InterruptedException e)
+                        {
+                            java.lang.Thread.currentThread().interrupt();
+                        }
+                        results[threadIndex] = response.getBodyJson().await();
+                    });
+                    threads[i].start();
+                }
+                startLatch.countDown();
+                for (final java.lang.Thread thread : threads)
+                {
+                    try
+                    {
+                        thread.join();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                test.assertEqual(JSON.parse("{\"login\":\"octocat\"}").await(), results[0]);
+                for (final JSONSegment result : results)
+                {
+                    test.assertSame(results[0], result);
+                }
+            });
+
+            runner.test("with invalid body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("hello"));
+                test.assertThrows(() -> response.getBodyJson().await(),
+                    new ParseException("Unrecognized JSONToken literal: hello"));
+                test.assertThrows(() -> response.getBodyJson().await(),
+                    new ParseException("Unrecognized JSONToken literal: hello"));
+            });
+        });
+
+        runner.testGroup("bufferBody()", () ->
+        {
+            runner.test("with empty body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create());
+                test.assertFalse(response.isBodyBuffered());
+
+                final GitHubResponse bufferBodyResult = response.bufferBody().await();
+                test.assertSame(response, bufferBodyResult);
+                test.assertTrue(response.isBodyBuffered());
+                test.assertEqual("", CharacterReadStream.create(response.getBody()).readEntireString().await());
+            });
+
+            runner.test("with non-empty body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\"}"));
+                response.bufferBody().await();
+                test.assertTrue(response.isBodyBuffered());
+
+                test.assertEqual("{\"login\":\"octocat\"}", CharacterReadStream.create(response.getBody()).readEntireString().await());
+                test.assertEqual("{\"login\":\"octocat\"}", CharacterReadStream.create(response.getBody()).readEntireString().await());
+                test.assertEqual(JSON.parse("{\"login\":\"octocat\"}").await(), response.getBodyJson().await());
+                test.assertEqual("octocat", response.getBodyLazyJsonObject().await().getString("login").await());
+            });
+
+            runner.test("after getBodyJson()", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\"}"));
+                final JSONSegment bodyJson = response.getBodyJson().await();
+                test.assertTrue(response.isBodyBuffered());
+                response.bufferBody().await();
+
+                test.assertEqual("{\"login\":\"octocat\"}", CharacterReadStream.create(response.getBody()).readEntireString().await());
+                test.assertSame(bodyJson, response.getBodyJson().await());
+            });
+
+            runner.test("after getBodyJson() with formatting that JSON encoding doesn't preserve", (Test test) ->
+            {
+                final String body = "{ \"id\": 1.50, \"name\": \"\\u0041\" }";
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody(body));
+                response.getBodyJson().await();
+                response.bufferBody().await();
+
+                test.assertEqual(body, CharacterReadStream.create(response.getBody()).readEntireString().await());
+            });
+
+            runner.test("after getBodyJson() failed", (Test test) ->
+            {
+                final String body = "<html><body>Bad Gateway</body></html>";
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(502)
+                    .setBody(body));
+                test.assertThrows(ParseException.class, () -> response.getBodyJson().await());
+                response.bufferBody().await();
+
+                test.assertEqual(body, CharacterReadStream.create(response.getBody()).readEntireString().await());
+            });
+        });
+
+        runner.testGroup("getBodyLazyJsonObject()", () ->
+        {
+            runner.test("with empty body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create());
+                test.assertThrows(() -> response.getBodyLazyJsonObject().await(),
+                    new ParseException("No JSON tokens found."));
+            });
+
+            runner.test("with JSON object body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\",\"id\":1}"));
+                final LazyJSONObject responseBody = response.getBodyLazyJsonObject().await();
+                test.assertEqual(2, responseBody.getPropertyCount());
+                test.assertEqual("octocat", responseBody.getString("login").await());
+
+                test.assertEqual(JSON.parse("{\"login\":\"octocat\",\"id\":1}").await(), response.getBodyJson().await());
+            });
+
+            runner.test("after getBodyJson()", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\"}"));
+                test.assertNotNull(response.getBodyJson().await());
+                test.assertEqual("octocat", response.getBodyLazyJsonObject().await().getString("login").await());
+            });
+
+            runner.test("more than once", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{\"login\":\"octocat\",\"owner\":{\"id\":1}}"));
+                final LazyJSONObject responseBody = response.getBodyLazyJsonObject().await();
+                test.assertSame(responseBody, response.getBodyLazyJsonObject().await());
+                test.assertSame(responseBody.get("owner").await(), response.getBodyLazyJsonObject().await().get("owner").await());
+            });
+        });
+
+        runner.testGroup("getBodyLazyJsonArray()", () ->
+        {
+            runner.test("with JSON object body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("{}"));
+                test.assertThrows(() -> response.getBodyLazyJsonArray().await(),
+                    new ParseException("Expected the JSON to be a JSONArray, but found \"{\" instead."));
+            });
+
+            runner.test("with JSON array body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("[{\"name\":\"a\"},{\"name\":\"b\"}]"));
+                final LazyJSONArray responseBody = response.getBodyLazyJsonArray().await();
+                test.assertEqual(2, responseBody.getCount());
+            });
+
+            runner.test("more than once", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setBody("[{\"name\":\"a\"}]"));
+                test.assertSame(response.getBodyLazyJsonArray().await(), response.getBodyLazyJsonArray().await());
+            });
+        });
+
+        runner.testGroup("isServerErrorResponse()", () ->
+        {
+            final Action2<Integer,Boolean> isServerErrorResponseTest = (Integer statusCode, Boolean expected) ->
+            {
+                runner.test("with " + statusCode, (Test test) ->
+                {
+                    final GitHubResponse response = creator.run(HttpResponse.create()
+                        .setStatusCode(statusCode));
+                    test.assertEqual(expected, response.isServerErrorResponse());
+                });
+            };
+
+            isServerErrorResponseTest.run(200, false);
+            isServerErrorResponseTest.run(422, false);
+            isServerErrorResponseTest.run(500, true);
+            isServerErrorResponseTest.run(502, true);
+        });
+
+        runner.testGroup("throwIfServerErrorResponse()", () ->
+        {
+            runner.test("with 200", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(200)
+                    .setBody("{}"));
+                response.throwIfServerErrorResponse();
+            });
+
+            runner.test("with 404", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(404)
+                    .setBody(JSONObject.create()
+                        .setString("message", "Not Found")
+                        .toString()));
+                response.throwIfServerErrorResponse();
+            });
+
+            runner.test("with 502 and JSON body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(502)
+                    .setBody(JSONObject.create()
+                        .setString("message", "Server Error")
+                        .toString()));
+                final GitHubException exception = test.assertThrows(response::throwIfServerErrorResponse, GitHubException.class);
+                test.assertEqual(502, exception.getStatusCode());
+                test.assertEqual("Server Error", exception.getMessage());
+            });
+
+            runner.test("with 502 and HTML body", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(502)
+                    .setBody("<html><body>Bad Gateway</body></html>"));
+                final GitHubException exception = test.assertThrows(response::throwIfServerErrorResponse, GitHubException.class);
+                test.assertEqual(502, exception.getStatusCode());
+                test.assertEqual("The request failed with a 502 response.", exception.getMessage());
+            });
+        });
+
+        runner.testGroup("isRedirectResponse()", () ->
+        {
+            final Action2<Integer,Boolean> isRedirectResponseTest = (Integer statusCode, Boolean expected) ->
+            {
+                runner.test("with " + statusCode, (Test test) ->
+                {
+                    final GitHubResponse response = creator.run(HttpResponse.create()
+                        .setStatusCode(statusCode));
+                    test.assertEqual(expected, response.isRedirectResponse());
+                });
+            };
+
+            isRedirectResponseTest.run(200, false);
+            isRedirectResponseTest.run(301, true);
+            isRedirectResponseTest.run(302, true);
+            isRedirectResponseTest.run(304, false);
+            isRedirectResponseTest.run(307, true);
+            isRedirectResponseTest.run(308, true);
+        });
+
+        runner.testGroup("getLocation()", () ->
+        {
+            runner.test("with no Location header", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(301));
+                test.assertNull(response.getLocation());
+            });
+
+            runner.test("with Location header", (Test test) ->
+            {
+                final GitHubResponse response = creator.run(HttpResponse.create()
+                    .setStatusCode(301)
+                    .setHeader(GitHubResponse.locationHeaderName, "https://api.github.com/repositories/1296269"));
+                test.assertEqual("https://api.github.com/repositories/1296269", response.getLocation());
+            });
+        });
+
+        runner.testGroup("getRetryAfterSeconds()", () ->
+        {
+            final Action2<String,Long> getRetryAfterSecondsTest = (String retryAfter, Long expected) ->
+            {
+                runner.test("with " + Strings.escapeAndQuote(retryAfter), (Test test) ->
+                {
+                    final MutableHttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(403);
+                    if (retryAfter != null)
+                    {
+                        httpResponse.setHeader(GitHubResponse.retryAfterHeaderName, retryAfter);
+                    }
+                    final GitHubResponse response = creator.run(httpResponse);
+                    test.assertEqual(expected, response.getRetryAfterSeconds());
+                });
+            };
+
+            getRetryAfterSecondsTest.run(null, null);
+            getRetryAfterSecondsTest.run("soon", null);
+            getRetryAfterSecondsTest.run("60", 60L);
+        });
+
+        runner.testGroup("getRateLimitLimit()", () ->
+        {
+            final Action2<String,Long> getRateLimitLimitTest = (String headerValue, Long expected) ->
+            {
+                runner.test("with " + Strings.escapeAndQuote(headerValue), (Test test) ->
+                {
+                    final MutableHttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200);
+                    if (headerValue != null)
+                    {
+                        httpResponse.setHeader(GitHubResponse.rateLimitLimitHeaderName, headerValue);
+                    }
+                    final GitHubResponse response = creator.run(httpResponse);
+                    test.assertEqual(expected, response.getRateLimitLimit());
+                });
+            };
+
+            getRateLimitLimitTest.run(null, null);
+            getRateLimitLimitTest.run("lots", null);
+            getRateLimitLimitTest.run("5000", 5000L);
+        });
+
+        runner.testGroup("getRateLimitRemaining()", () ->
+        {
+            final Action2<String,Long> getRateLimitRemainingTest = (String headerValue, Long expected) ->
+            {
+                runner.test("with " + Strings.escapeAndQuote(headerValue), (Test test) ->
+                {
+                    final MutableHttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200);
+                    if (headerValue != null)
+                    {
+                        httpResponse.setHeader(GitHubResponse.rateLimitRemainingHeaderName, headerValue);
+                    }
+                    final GitHubResponse response = creator.run(httpResponse);
+                    test.assertEqual(expected, response.getRateLimitRemaining());
+                });
+            };
+
+            getRateLimitRemainingTest.run(null, null);
+            getRateLimitRemainingTest.run("", null);
+            getRateLimitRemainingTest.run("0", 0L);
+            getRateLimitRemainingTest.run("4999", 4999L);
+        });
+
+        runner.testGroup("getRateLimitReset()", () ->
+        {
+            final Action2<String,java.time.Instant> getRateLimitResetTest = (String headerValue, java.time.Instant expected) ->
+            {
+                runner.test("with " + Strings.escapeAndQuote(headerValue), (Test test) ->
+                {
+                    final MutableHttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(200);
+                    if (headerValue != null)
+                    {
+                        httpResponse.setHeader(GitHubResponse.rateLimitResetHeaderName, headerValue);
+                    }
+                    final GitHubResponse response = creator.run(httpResponse);
+                    test.assertEqual(expected, response.getRateLimitReset());
+                });
+            };
+
+            getRateLimitResetTest.run(null, null);
+            getRateLimitResetTest.run("tomorrow", null);
+            getRateLimitResetTest.run("1372700873", java.time.Instant.ofEpochSecond(1372700873));
+        });
+
+        runner.testGroup("isSecondaryRateLimitResponse()", () ->
+        {
+            final Action4<Integer,String,String,Boolean> isSecondaryRateLimitResponseTest = (Integer statusCode, String retryAfter, String message, Boolean expected) ->
+            {
+                runner.test("with " + English.andList(statusCode, Strings.escapeAndQuote(retryAfter), Strings.escapeAndQuote(message)), (Test test) ->
+                {
+                    final MutableHttpResponse httpResponse = HttpResponse.create()
+                        .setStatusCode(statusCode);
+                    if (retryAfter != null)
+                    {
+                        httpResponse.setHeader(GitHubResponse.retryAfterHeaderName, retryAfter);
+                    }
+                    if (message != null)
+                    {
+                        httpResponse.setBody(JSONObject.create().setString("message", message).toString());
+                    }
+                    final GitHubResponse response = creator.run(httpResponse);
+                    test.assertEqual(expected, response.isSecondaryRateLimitResponse());
+                });
+            };
+
+            isSecondaryRateLimitResponseTest.run(200, null, null, false);
+            isSecondaryRateLimitResponseTest.run(429, null, null, true);
+            isSecondaryRateLimitResponseTest.run(403, "60", null, true);
+            isSecondaryRateLimitResponseTest.run(403, null, "You have exceeded a secondary rate limit. Please wait a few minutes before you try again.", true);
+            isSecondaryRateLimitResponseTest.run(403, null, "Resource not accessible by integration", false);
+            isSecondaryRateLimitResponseTest.run(403, null, null, false);
+        });
+
         runner.testGroup("throwIfErrorResponse()", () ->
         {
             final Action1<Integer> throwIfErrorResponseWithSuccessResponse = (Integer statusCode) ->
@@ -0,0 +1,125 @@
+package qub;
+
+public interface GitHubRouteTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubRoute.class, () ->
+        {
+            runner.testGroup("create(String)", () ->
+            {
+                final Action2<String,Throwable> createErrorTest = (String template, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(template), (Test test) ->
+                    {
+                        test.assertThrows(() -> GitHubRoute.create(template),
+                            expected);
+                    });
+                };
+
+                createErrorTest.run(null, new PreConditionFailure("template cannot be null."));
+                createErrorTest.run("", new PreConditionFailure("template cannot be empty."));
+                createErrorTest.run("user", new PreConditionFailure("template.startsWith(\"/\") cannot be false."));
+                createErrorTest.run("/repos/{owner", new PreConditionFailure("template has an unmatched '{' at index 7."));
+                createErrorTest.run("/repos/owner}", new PreConditionFailure("template has an unmatched '}' at index 12."));
+                createErrorTest.run("/repos/{}", new PreConditionFailure("template has an invalid parameter name at index 7."));
+                createErrorTest.run("/repos/a{owner}", new PreConditionFailure("template has a parameter that doesn't start a path segment at index 8."));
+                createErrorTest.run("/repos/{owner}a", new PreConditionFailure("template has a parameter that doesn't end a path segment at index 13."));
+                createErrorTest.run("/repos/{owner}/{owner}", new PreConditionFailure("template has more than one parameter named \"owner\"."));
+
+                final Action2<String,Iterable<String>> createTest = (String template, Iterable<String> expectedParameterNames) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(template), (Test test) ->
+                    {
+                        final GitHubRoute route = GitHubRoute.create(template);
+                        test.assertNotNull(route);
+                        test.assertEqual(template, route.getTemplate());
+                        test.assertEqual(template, route.toString());
+                        test.assertEqual(expectedParameterNames.getCount(), route.getParameterCount());
+                        test.assertEqual(expectedParameterNames, route.getParameterNames());
+                    });
+                };
+
+                createTest.run("/", Iterable.create());
+                createTest.run("/user", Iterable.create());
+                createTest.run("/user/repos", Iterable.create());
+                createTest.run("/orgs/{org}/repos", Iterable.create("org"));
+                createTest.run("/repos/{owner}/{repo}", Iterable.create("owner", "repo"));
+            });
+
+            runner.testGroup("expand(String...)", () ->
+            {
+                final Action3<String,String[],Throwable> expandErrorTest = (String template, String[] parameterValues, Throwable expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(template), Iterable.create(parameterValues).map(Strings::escapeAndQuote)), (Test test) ->
+                    {
+                        final GitHubRoute route = GitHubRoute.create(template);
+                        test.assertThrows(() -> route.expand(parameterValues),
+                            expected);
+                    });
+                };
+
+                expandErrorTest.run("/user", new String[] { "a" }, new PreConditionFailure("parameterValues.length (1) must be 0."));
+                expandErrorTest.run("/repos/{owner}/{repo}", new String[] { "a" }, new PreConditionFailure("parameterValues.length (1) must be 2."));
+                expandErrorTest.run("/repos/{owner}/{repo}", new String[] { null, "b" }, new PreConditionFailure("owner cannot be null."));
+                expandErrorTest.run("/repos/{owner}/{repo}", new String[] { "a", "" }, new PreConditionFailure("repo cannot be empty."));
+                expandErrorTest.run("/repos/{owner}/{repo}", new String[] { "a", ".." }, new PreConditionFailure("repo cannot be a relative path segment."));
+
+                final Action3<String,String[],String> expandTest = (String template, String[] parameterValues, String expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(template), Iterable.create(parameterValues).map(Strings::escapeAndQuote)), (Test test) ->
+                    {
+                        final GitHubRoute route = GitHubRoute.create(template);
+                        test.assertEqual(expected, route.expand(parameterValues));
+                    });
+                };
+
+                expandTest.run("/user", new String[0], "/user");
+                expandTest.run("/repos/{owner}/{repo}", new String[] { "octokit", "octokit.net" }, "/repos/octokit/octokit.net");
+                expandTest.run("/repos/{owner}/{repo}", new String[] { "fake-owner", "fake_repo~name" }, "/repos/fake-owner/fake_repo~name");
+                expandTest.run("/repos/{owner}/{repo}", new String[] { "a/b", "c?d" }, "/repos/a%2Fb/c%3Fd");
+                expandTest.run("/repos/{owner}/{repo}", new String[] { "a b", "café" }, "/repos/a%20b/caf%C3%A9");
+                expandTest.run("/orgs/{org}/repos", new String[] { "qub" }, "/orgs/qub/repos");
+
+                runner.test("used as the path of a URL", (Test test) ->
+                {
+                    // BasicGitHubClient sets expanded paths on a URL, so the URL must not encode
+                    // them a second time.
+                    final String path = GitHubRoute.create("/repos/{owner}/{repo}").expand("a b", "c%d");
+                    final URL url = URL.parse("https://api.github.com").await()
+                        .setPath(path);
+                    test.assertEqual("https://api.github.com/repos/a%20b/c%25d", url.toString());
+                });
+            });
+
+            runner.testGroup("encodePathSegment(String)", () ->
+            {
+                final Action2<String,String> encodePathSegmentTest = (String value, String expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(value), (Test test) ->
+                    {
+                        test.assertEqual(expected, GitHubRoute.encodePathSegment(value));
+                    });
+                };
+
+                encodePathSegmentTest.run("", "");
+                encodePathSegmentTest.run("abc-XYZ_0.9~", "abc-XYZ_0.9~");
+                encodePathSegmentTest.run("%", "%25");
+                encodePathSegmentTest.run("#{}", "%23%7B%7D");
+            });
+
+            runner.testGroup("equals(Object)", () ->
+            {
+                runner.test("with same template", (Test test) ->
+                {
+                    test.assertEqual(GitHubRoute.create("/user"), GitHubRoute.create("/user"));
+                });
+
+                runner.test("with different template", (Test test) ->
+                {
+                    test.assertNotEqual(GitHubRoute.create("/user"), GitHubRoute.create("/user/repos"));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package qub;
+
+public interface GitHubSendThreadsExhaustedExceptionTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(GitHubSendThreadsExhaustedException.class, () ->
+        {
+            runner.testGroup("constructor(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> new GitHubSendThreadsExhaustedException(0),
+                        new PreConditionFailure("maximumThreadCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 64", (Test test) ->
+                {
+                    final GitHubSendThreadsExhaustedException e = new GitHubSendThreadsExhaustedException(64);
+                    test.assertEqual(64, e.getMaximumThreadCount());
+                    test.assertEqual("The request was not sent because all 64 threads that send requests with deadlines are still waiting on earlier responses.", e.getMessage());
+                });
+            });
+        });
+    }
+}
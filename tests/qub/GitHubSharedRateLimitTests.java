@@ -0,0 +1,326 @@
+package qub;
+
+public interface GitHubSharedRateLimitTests
+{
+    static java.nio.file.Path createTempFilePath()
+    {
+        try
+        {
+            final java.nio.file.Path result = java.nio.file.Files.createTempFile("github-rate-limit", ".bin");
+            java.nio.file.Files.delete(result);
+            return result;
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void deleteFile(java.nio.file.Path filePath)
+    {
+        try
+        {
+            java.nio.file.Files.deleteIfExists(filePath);
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static GitHubResponse createResponse(long limit, long remaining, long resetSeconds)
+    {
+        return GitHubResponse.create(HttpResponse.create()
+            .setStatusCode(200)
+            .setHeader(GitHubResponse.rateLimitLimitHeaderName, Long.toString(limit))
+            .setHeader(GitHubResponse.rateLimitRemainingHeaderName, Long.toString(remaining))
+            .setHeader(GitHubResponse.rateLimitResetHeaderName, Long.toString(resetSeconds)));
+    }
+
+    static GitHubRequest createRequest()
+    {
+        return GitHubRequest.create()
+            .setHttpMethod(HttpMethod.GET)
+            .setRoute(GitHubClient.repositoryRoute, "octocat", "Hello-World");
+    }
+
+    /**
+     * Run the provided action with a {@link GitHubSharedRateLimit} that uses a new temporary
+     * file, and then dispose of it and delete the file.
+     */
+    static void runWithRateLimit(Action1<GitHubSharedRateLimit> action)
+    {
+        final java.nio.file.Path filePath = GitHubSharedRateLimitTests.createTempFilePath();
+        final GitHubSharedRateLimit rateLimit = GitHubSharedRateLimit.open(filePath).await();
+        try
+        {
+            action.run(rateLimit);
+        }
+        finally
+        {
+            rateLimit.dispose().await();
+            GitHubSharedRateLimitTests.deleteFile(filePath);
+        }
+    }
+
+    static void test(TestRunner runner)
+    {
+        final long resetSeconds = 2000000000L;
+        final long now = (resetSeconds - 100) * 1000;
+
+        runner.testGroup(GitHubSharedRateLimit.class, () ->
+        {
+            runner.testGroup("open(java.nio.file.Path)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubSharedRateLimit.open(null),
+                        new PreConditionFailure("filePath cannot be null."));
+                });
+
+                runner.test("with file that doesn't exist", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        test.assertTrue(java.nio.file.Files.exists(rateLimit.getFilePath()));
+                        test.assertFalse(rateLimit.isDisposed());
+                        test.assertEqual(0.1, rateLimit.getPacingFraction());
+                        test.assertNull(rateLimit.getLimit());
+                        test.assertNull(rateLimit.getRemaining());
+                        test.assertNull(rateLimit.getReset());
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                    });
+                });
+
+                runner.test("with file shared by another object", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4000, resetSeconds));
+
+                        final GitHubSharedRateLimit otherRateLimit = GitHubSharedRateLimit.open(rateLimit.getFilePath()).await()
+                            .setClock(() -> now);
+                        try
+                        {
+                            test.assertEqual(5000L, otherRateLimit.getLimit());
+                            test.assertEqual(4000L, otherRateLimit.getRemaining());
+                            test.assertEqual(java.time.Instant.ofEpochSecond(resetSeconds), otherRateLimit.getReset());
+
+                            test.assertEqual(0L, otherRateLimit.tryReserve());
+                            test.assertEqual(3999L, rateLimit.getRemaining());
+                        }
+                        finally
+                        {
+                            otherRateLimit.dispose().await();
+                        }
+                    });
+                });
+            });
+
+            runner.testGroup("setPacingFraction(double)", () ->
+            {
+                runner.test("with 2", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        test.assertThrows(() -> rateLimit.setPacingFraction(2),
+                            new PreConditionFailure("pacingFraction (2.0) must be between 0.0 and 1.0."));
+                    });
+                });
+
+                runner.test("with 0.5", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        final GitHubSharedRateLimit setPacingFractionResult = rateLimit.setPacingFraction(0.5);
+                        test.assertSame(rateLimit, setPacingFractionResult);
+                        test.assertEqual(0.5, rateLimit.getPacingFraction());
+                    });
+                });
+            });
+
+            runner.testGroup("onResponse(GitHubResponse)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        test.assertThrows(() -> rateLimit.onResponse(null),
+                            new PreConditionFailure("response cannot be null."));
+                    });
+                });
+
+                runner.test("with response without rate limit headers", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.onResponse(GitHubResponse.create(HttpResponse.create().setStatusCode(200)));
+                        test.assertNull(rateLimit.getLimit());
+                    });
+                });
+
+                runner.test("with responses out of order", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4000, resetSeconds));
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4001, resetSeconds));
+                        test.assertEqual(4000L, rateLimit.getRemaining());
+
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 10, resetSeconds - 3600));
+                        test.assertEqual(4000L, rateLimit.getRemaining());
+
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4999, resetSeconds + 3600));
+                        test.assertEqual(4999L, rateLimit.getRemaining());
+                    });
+                });
+
+                runner.test("after the window resets", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        final java.util.concurrent.atomic.AtomicLong clock = new java.util.concurrent.atomic.AtomicLong(now);
+                        rateLimit.setClock(clock::get);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 0, resetSeconds));
+                        test.assertEqual(0L, rateLimit.getRemaining());
+
+                        clock.set(resetSeconds * 1000);
+                        test.assertNull(rateLimit.getRemaining());
+                        test.assertNull(rateLimit.getReset());
+                        test.assertEqual(5000L, rateLimit.getLimit());
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                    });
+                });
+            });
+
+            runner.testGroup("tryReserve()", () ->
+            {
+                runner.test("with nothing remaining", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 0, resetSeconds));
+                        test.assertEqual(100000L, rateLimit.tryReserve());
+                        test.assertEqual(0L, rateLimit.getRemaining());
+                    });
+                });
+
+                runner.test("with remaining below the pacing fraction", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        final java.util.concurrent.atomic.AtomicLong clock = new java.util.concurrent.atomic.AtomicLong(now);
+                        rateLimit.setClock(clock::get);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 100, resetSeconds));
+
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                        test.assertEqual(99L, rateLimit.getRemaining());
+                        // The 100 seconds left in the window are spread over the 100 requests.
+                        test.assertEqual(1000L, rateLimit.tryReserve());
+
+                        clock.addAndGet(1000);
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                        test.assertEqual(98L, rateLimit.getRemaining());
+                    });
+                });
+
+                runner.test("with remaining above the pacing fraction", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4000, resetSeconds));
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                        test.assertEqual(0L, rateLimit.tryReserve());
+                        test.assertEqual(3998L, rateLimit.getRemaining());
+                    });
+                });
+            });
+
+            runner.testGroup("reserve(GitHubRequest)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        test.assertThrows(() -> rateLimit.reserve(null),
+                            new PreConditionFailure("request cannot be null."));
+                    });
+                });
+
+                runner.test("with nothing remaining and a deadline", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 0, resetSeconds));
+                        final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                        test.assertThrows(() -> rateLimit.reserve(GitHubSharedRateLimitTests.createRequest().setDeadline(deadline)),
+                            new GitHubDeadlineExceededException(deadline, "waiting for the shared rate limit"));
+                    });
+                });
+
+                runner.test("with requests remaining", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4000, resetSeconds));
+                        rateLimit.reserve(GitHubSharedRateLimitTests.createRequest());
+                        test.assertEqual(3999L, rateLimit.getRemaining());
+                    });
+                });
+
+                runner.test("with background request while an interactive request is waiting", (Test test) ->
+                {
+                    GitHubSharedRateLimitTests.runWithRateLimit((GitHubSharedRateLimit rateLimit) ->
+                    {
+                        rateLimit.setClock(() -> now);
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 0, resetSeconds));
+
+                        final java.util.concurrent.CompletableFuture<Void> interactive = java.util.concurrent.CompletableFuture.runAsync(() ->
+                            rateLimit.reserve(GitHubSharedRateLimitTests.createRequest().setDeadline(java.time.Instant.now().plusMillis(200))));
+                        while (rateLimit.getWaitingInteractiveCount() == 0)
+                        {
+                            Thread.yield();
+                        }
+
+                        // Requests are available again, but the background request still waits
+                        // behind the interactive request.
+                        rateLimit.onResponse(GitHubSharedRateLimitTests.createResponse(5000, 4000, resetSeconds));
+                        final java.time.Instant deadline = java.time.Instant.now().plusMillis(20);
+                        test.assertThrows(() -> rateLimit.reserve(GitHubSharedRateLimitTests.createRequest().setPriority(GitHubRequest.Priority.Background).setDeadline(deadline)),
+                            new GitHubDeadlineExceededException(deadline, "waiting for the shared rate limit"));
+                        test.assertEqual(4000L, rateLimit.getRemaining());
+
+                        interactive.join();
+                        test.assertEqual(0, rateLimit.getWaitingInteractiveCount());
+                        test.assertEqual(3999L, rateLimit.getRemaining());
+
+                        rateLimit.reserve(GitHubSharedRateLimitTests.createRequest().setPriority(GitHubRequest.Priority.Background));
+                        test.assertEqual(3998L, rateLimit.getRemaining());
+                    });
+                });
+            });
+
+            runner.test("dispose()", (Test test) ->
+            {
+                final java.nio.file.Path filePath = GitHubSharedRateLimitTests.createTempFilePath();
+                final GitHubSharedRateLimit rateLimit = GitHubSharedRateLimit.open(filePath).await();
+                try
+                {
+                    test.assertTrue(rateLimit.dispose().await());
+                    test.assertTrue(rateLimit.isDisposed());
+                    test.assertFalse(rateLimit.dispose().await());
+                }
+                finally
+                {
+                    GitHubSharedRateLimitTests.deleteFile(filePath);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package qub;
+
+public interface JSONBodyEncoderTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JSONBodyEncoder.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JSONBodyEncoder encoder = JSONBodyEncoder.create();
+                test.assertNotNull(encoder);
+                test.assertEqual(0, encoder.getByteCount());
+                test.assertEqual(new byte[0], encoder.toByteArray());
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONBodyEncoder.create(0),
+                        new PreConditionFailure("initialCapacity (0) must be greater than 0."));
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final JSONBodyEncoder encoder = JSONBodyEncoder.create(1);
+                    test.assertEqual(0, encoder.getByteCount());
+                    test.assertEqual(1, encoder.getCapacity());
+                });
+            });
+
+            runner.testGroup("encode(JSONSegment)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JSONBodyEncoder encoder = JSONBodyEncoder.create();
+                    test.assertThrows(() -> encoder.encode(null),
+                        new PreConditionFailure("json cannot be null."));
+                    test.assertEqual(0, encoder.getByteCount());
+                });
+
+                final Action1<JSONSegment> encodeTest = (JSONSegment json) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(json), (Test test) ->
+                    {
+                        final JSONBodyEncoder encoder = JSONBodyEncoder.create(1);
+                        final JSONBodyEncoder encodeResult = encoder.encode(json);
+                        test.assertSame(encoder, encodeResult);
+
+                        final byte[] expected = CharacterEncoding.UTF_8.encodeCharacters(json.toString()).await();
+                        test.assertEqual(expected.length, encoder.getByteCount());
+                        test.assertEqual(expected, encoder.toByteArray());
+                    });
+                };
+
+                encodeTest.run(JSONObject.create());
+                encodeTest.run(JSONArray.create());
+                encodeTest.run(JSONObject.create()
+                    .setString("hello", "there"));
+                encodeTest.run(JSONObject.create()
+                    .setString("name", "fake-repo-name")
+                    .setString("description", "A \"quoted\" description\twith\\escapes\n")
+                    .setBoolean("private", true));
+                encodeTest.run(JSONObject.create()
+                    .setString("unicode", "café € 😀"));
+                encodeTest.run(JSONObject.create()
+                    .setNumber("count", 50)
+                    .setObject("owner", JSONObject.create()
+                        .setString("login", "fake-login"))
+                    .setArray("topics", JSONArray.create()
+                        .addString("a")
+                        .addString("b")));
+                encodeTest.run(JSONArray.create()
+                    .addString("hello")
+                    .addString("there"));
+            });
+
+            runner.test("clear()", (Test test) ->
+            {
+                final JSONBodyEncoder encoder = JSONBodyEncoder.create();
+                encoder.encode(JSONObject.create().setString("a", "b"));
+                test.assertNotEqual(0, encoder.getByteCount());
+
+                final JSONBodyEncoder clearResult = encoder.clear();
+                test.assertSame(encoder, clearResult);
+                test.assertEqual(0, encoder.getByteCount());
+
+                encoder.encode(JSONArray.create());
+                test.assertEqual(new byte[] { '[', ']' }, encoder.toByteArray());
+            });
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package qub;
+
+public interface LazyJSONArrayTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(LazyJSONArray.class, () ->
+        {
+            runner.testGroup("parse(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> LazyJSONArray.parse(null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                final Action2<String,Throwable> parseErrorTest = (String text, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> LazyJSONArray.parse(LazyJSONObjectTests.toBytes(text)).await(),
+                            expected);
+                    });
+                };
+
+                parseErrorTest.run("", new ParseException("No JSON tokens found."));
+                parseErrorTest.run("{}", new ParseException("Expected the JSON to be a JSONArray, but found \"{\" instead."));
+                parseErrorTest.run("[", new ParseException("Expected a JSON value at byte index 1."));
+                parseErrorTest.run("[1", new ParseException("Expected ',' or ']' at byte index 2."));
+                parseErrorTest.run("[1,]", new ParseException("Expected a JSON value at byte index 3."));
+                parseErrorTest.run("[] 1", new ParseException("Expected the end of the JSON text at byte index 2."));
+
+                final Action2<String,Integer> parseTest = (String text, Integer expectedCount) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final LazyJSONArray json = LazyJSONArray.parse(LazyJSONObjectTests.toBytes(text)).await();
+                        test.assertNotNull(json);
+                        test.assertEqual(expectedCount, json.getCount());
+                    });
+                };
+
+                parseTest.run("[]", 0);
+                parseTest.run(" [ ] ", 0);
+                parseTest.run("[1]", 1);
+                parseTest.run("[1, \"two\", {\"three\":[3]}, [4], null]", 5);
+            });
+
+            runner.testGroup("get(int)", () ->
+            {
+                runner.test("with negative index", (Test test) ->
+                {
+                    final LazyJSONArray json = LazyJSONArray.parse(LazyJSONObjectTests.toBytes("[1]")).await();
+                    test.assertThrows(() -> json.get(-1).await(),
+                        new PreConditionFailure("index (-1) must be equal to 0."));
+                });
+
+                runner.test("with valid index", (Test test) ->
+                {
+                    final LazyJSONArray json = LazyJSONArray.parse(LazyJSONObjectTests.toBytes("[\"a\", {\"b\":2}]")).await();
+                    test.assertEqual(JSON.parse("\"a\"").await(), json.get(0).await());
+                    test.assertEqual(JSON.parse("{\"b\":2}").await(), json.get(1).await());
+                });
+            });
+
+            runner.testGroup("getObjects()", () ->
+            {
+                runner.test("with no elements", (Test test) ->
+                {
+                    final LazyJSONArray json = LazyJSONArray.parse(LazyJSONObjectTests.toBytes("[]")).await();
+                    test.assertEqual(0, json.getObjects().getCount());
+                });
+
+                runner.test("with mixed elements", (Test test) ->
+                {
+                    final LazyJSONArray json = LazyJSONArray.parse(LazyJSONObjectTests.toBytes("[{\"name\":\"a\"}, 5, {\"name\":\"b\"}]")).await();
+                    final Iterable<LazyJSONObject> objects = json.getObjects();
+                    test.assertEqual(Iterable.create("a", "b"), objects.map((LazyJSONObject object) -> object.getString("name").await()).toList());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package qub;
+
+public interface LazyJSONObjectTests
+{
+    static byte[] toBytes(String text)
+    {
+        return CharacterEncoding.UTF_8.encodeCharacters(text).await();
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(LazyJSONObject.class, () ->
+        {
+            runner.testGroup("parse(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> LazyJSONObject.parse(null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                final Action2<String,Throwable> parseErrorTest = (String text, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await(),
+                            expected);
+                    });
+                };
+
+                parseErrorTest.run("", new ParseException("No JSON tokens found."));
+                parseErrorTest.run("   ", new ParseException("No JSON tokens found."));
+                parseErrorTest.run("[]", new ParseException("Expected the JSON to be a JSONObject, but found \"[\" instead."));
+                parseErrorTest.run("{", new ParseException("Expected a JSON property name at byte index 1."));
+                parseErrorTest.run("{\"a\"}", new ParseException("Expected ':' after the JSON property name at byte index 1."));
+                parseErrorTest.run("{\"a\":}", new ParseException("Expected a JSON value at byte index 5."));
+                parseErrorTest.run("{\"a\":1", new ParseException("Expected ',' or '}' at byte index 6."));
+                parseErrorTest.run("{\"a\":\"b}", new ParseException("Missing the closing quote for the JSON string that starts at byte index 5."));
+                parseErrorTest.run("{\"a\":{\"b\":1}", new ParseException("Expected ',' or '}' at byte index 12."));
+                parseErrorTest.run("{\"a\":[1,2", new ParseException("Missing the closing bracket for the JSON value that starts at byte index 5."));
+                parseErrorTest.run("{} {}", new ParseException("Expected the end of the JSON text at byte index 2."));
+
+                final Action2<String,Integer> parseTest = (String text, Integer expectedPropertyCount) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                        test.assertNotNull(json);
+                        test.assertEqual(expectedPropertyCount, json.getPropertyCount());
+                        test.assertEqual(text.trim(), json.toString());
+                    });
+                };
+
+                parseTest.run("{}", 0);
+                parseTest.run(" { } ", 0);
+                parseTest.run("{\"a\":1}", 1);
+                parseTest.run("{\"a\":\"b\",\"c\":true,\"d\":null}", 3);
+                parseTest.run("{ \"a\" : { \"b\" : [ 1, \"]\", { } ] } , \"c\" : \"}\" }", 2);
+            });
+
+            runner.testGroup("contains(String)", () ->
+            {
+                final Action3<String,String,Boolean> containsTest = (String text, String propertyName, Boolean expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(text), Strings.escapeAndQuote(propertyName)), (Test test) ->
+                    {
+                        final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                        test.assertEqual(expected, json.contains(propertyName));
+                    });
+                };
+
+                containsTest.run("{}", "a", false);
+                containsTest.run("{\"a\":1}", "a", true);
+                containsTest.run("{\"a\":1}", "A", false);
+                containsTest.run("{\"ab\":1}", "a", false);
+                containsTest.run("{\"a\\u0062\":1}", "ab", true);
+                containsTest.run("{\"café\":1}", "café", true);
+            });
+
+            runner.testGroup("get(String)", () ->
+            {
+                runner.test("with missing property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"a\":1}")).await();
+                    test.assertThrows(() -> json.get("b").await(),
+                        new NotFoundException("No property found with the name \"b\"."));
+                });
+
+                runner.test("with existing property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"a\":{\"b\":[1,2]},\"c\":3}")).await();
+                    final JSONSegment a = json.get("a").await();
+                    test.assertEqual(JSON.parse("{\"b\":[1,2]}").await(), a);
+                    test.assertSame(a, json.get("a").await());
+                });
+
+                runner.test("with duplicate property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"a\":\"first\",\"a\":\"second\"}")).await();
+                    test.assertEqual("second", json.getString("a").await());
+                });
+            });
+
+            runner.testGroup("getString(String)", () ->
+            {
+                final Action3<String,String,String> getStringTest = (String text, String propertyName, String expected) ->
+                {
+                    runner.test("with " + English.andList(Strings.escapeAndQuote(text), Strings.escapeAndQuote(propertyName)), (Test test) ->
+                    {
+                        final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                        test.assertEqual(expected, json.getString(propertyName).await());
+                    });
+                };
+
+                getStringTest.run("{\"login\":\"octocat\"}", "login", "octocat");
+                getStringTest.run("{\"login\":\"\"}", "login", "");
+                getStringTest.run("{\"description\":\"a \\\"quoted\\\"\\nvalue\"}", "description", "a \"quoted\"\nvalue");
+                getStringTest.run("{\"name\":\"café\"}", "name", "café");
+
+                runner.test("more than once", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"login\":\"octocat\"}")).await();
+                    final String login = json.getString("login").await();
+                    test.assertEqual("octocat", login);
+                    test.assertSame(login, json.getString("login").await());
+                });
+
+                runner.test("with non-string property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"id\":5}")).await();
+                    test.assertThrows(() -> json.getString("id").await(),
+                        new ParseException("Expected the property \"id\" to be a JSONString."));
+                });
+            });
+
+            runner.testGroup("getObject(String)", () ->
+            {
+                runner.test("with object property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"owner\":{\"login\":\"octocat\",\"id\":1},\"name\":\"hello\"}")).await();
+                    final LazyJSONObject owner = json.getObject("owner").await();
+                    test.assertEqual(2, owner.getPropertyCount());
+                    test.assertEqual("octocat", owner.getString("login").await());
+                    test.assertEqual("{\"login\":\"octocat\",\"id\":1}", owner.toString());
+                });
+
+                runner.test("with non-object property", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes("{\"name\":\"hello\"}")).await();
+                    test.assertThrows(() -> json.getObject("name").await(),
+                        new ParseException("Expected the JSON to be a JSONObject, but found \"\\\"\" instead."));
+                });
+            });
+
+            runner.testGroup("toJson(String...)", () ->
+            {
+                final String text = JSONObject.create()
+                    .setString("name", "fake-repo-name")
+                    .setString("full_name", "fake-owner/fake-repo-name")
+                    .setObject("owner", JSONObject.create()
+                        .setString("login", "fake-owner"))
+                    .toString();
+
+                runner.test("with no property names", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                    test.assertEqual(JSONObject.create(), json.toJson(new String[0]));
+                });
+
+                runner.test("with some property names", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                    final GitHubRepository repository = GitHubRepository.create(json.toJson(GitHubRepository.namePropertyName, GitHubRepository.ownerPropertyName, "missing"));
+                    test.assertEqual("fake-repo-name", repository.getName());
+                    test.assertEqual("fake-owner", repository.getOwner().getLogin());
+                    test.assertNull(repository.getFullName());
+                });
+
+                runner.test("with all property names", (Test test) ->
+                {
+                    final LazyJSONObject json = LazyJSONObject.parse(LazyJSONObjectTests.toBytes(text)).await();
+                    test.assertEqual(JSON.parse(text).await(), json.toJson());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package qub;
+
+public interface LongLongMapTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(LongLongMap.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final LongLongMap map = LongLongMap.create();
+                test.assertNotNull(map);
+                test.assertEqual(0, map.getCount());
+                test.assertFalse(map.containsKey(0));
+                test.assertEqual(LongLongMap.noValue, map.get(0));
+                test.assertEqual(0, map.getKeys().length);
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    test.assertThrows(() -> LongLongMap.create(-1),
+                        new PreConditionFailure("initialCapacity (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with 1000", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create(1000);
+                    test.assertEqual(0, map.getCount());
+                });
+
+                runner.test("with Integer.MAX_VALUE", (Test test) ->
+                {
+                    test.assertThrows(java.lang.IllegalArgumentException.class, () -> LongLongMap.create(Integer.MAX_VALUE));
+                });
+            });
+
+            runner.testGroup("set(long,long)", () ->
+            {
+                runner.test("with noValue", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    test.assertThrows(() -> map.set(1, LongLongMap.noValue),
+                        new PreConditionFailure("value == LongLongMap.noValue cannot be true."));
+                    test.assertEqual(0, map.getCount());
+                });
+
+                runner.test("with new key", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    test.assertEqual(LongLongMap.noValue, map.set(-5, 0));
+                    test.assertEqual(1, map.getCount());
+                    test.assertTrue(map.containsKey(-5));
+                    test.assertEqual(0L, map.get(-5));
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    map.set(Long.MAX_VALUE, 1);
+                    test.assertEqual(1L, map.set(Long.MAX_VALUE, 2));
+                    test.assertEqual(1, map.getCount());
+                    test.assertEqual(2L, map.get(Long.MAX_VALUE));
+                });
+
+                runner.test("with enough keys to grow", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    for (long key = 0; key < 1000; ++key)
+                    {
+                        map.set(key * 1024, -key);
+                    }
+                    test.assertEqual(1000, map.getCount());
+                    for (long key = 0; key < 1000; ++key)
+                    {
+                        test.assertEqual(-key, map.get(key * 1024));
+                    }
+                    test.assertFalse(map.containsKey(1));
+                });
+            });
+
+            runner.testGroup("remove(long)", () ->
+            {
+                runner.test("with missing key", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    map.set(1, 10);
+                    test.assertEqual(LongLongMap.noValue, map.remove(2));
+                    test.assertEqual(1, map.getCount());
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    map.set(1, 10);
+                    test.assertEqual(10L, map.remove(1));
+                    test.assertEqual(0, map.getCount());
+                    test.assertFalse(map.containsKey(1));
+                });
+
+                runner.test("with every other key from a crowded map", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    for (long key = 0; key < 500; ++key)
+                    {
+                        map.set(key, key * 10);
+                    }
+                    for (long key = 1; key < 500; key += 2)
+                    {
+                        test.assertEqual(key * 10, map.remove(key));
+                    }
+                    test.assertEqual(250, map.getCount());
+                    for (long key = 0; key < 500; ++key)
+                    {
+                        test.assertEqual(key % 2 == 0, map.containsKey(key));
+                    }
+                });
+            });
+
+            runner.test("clear()", (Test test) ->
+            {
+                final LongLongMap map = LongLongMap.create();
+                map.set(1, 10);
+                map.set(2, 20);
+                map.clear();
+                test.assertEqual(0, map.getCount());
+                test.assertFalse(map.containsKey(1));
+                map.set(1, 30);
+                test.assertEqual(30L, map.get(1));
+            });
+
+            runner.test("getKeys()", (Test test) ->
+            {
+                final LongLongMap map = LongLongMap.create();
+                map.set(3, 30);
+                map.set(1, 10);
+                map.set(2, 20);
+
+                final long[] keys = map.getKeys();
+                java.util.Arrays.sort(keys);
+                test.assertEqual(3, keys.length);
+                test.assertEqual(1L, keys[0]);
+                test.assertEqual(2L, keys[1]);
+                test.assertEqual(3L, keys[2]);
+            });
+
+            runner.testGroup("ensureCapacity(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    test.assertThrows(() -> map.ensureCapacity(-1),
+                        new PreConditionFailure("entryCount (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with existing entries", (Test test) ->
+                {
+                    final LongLongMap map = LongLongMap.create();
+                    map.set(7, 70);
+                    map.ensureCapacity(100);
+                    test.assertEqual(1, map.getCount());
+                    test.assertEqual(70L, map.get(7));
+                });
+            });
+        });
+    }
+}
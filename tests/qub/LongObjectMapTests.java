@@ -0,0 +1,177 @@
+package qub;
+
+public interface LongObjectMapTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(LongObjectMap.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final LongObjectMap<String> map = LongObjectMap.create();
+                test.assertNotNull(map);
+                test.assertEqual(0, map.getCount());
+                test.assertFalse(map.containsKey(0));
+                test.assertNull(map.get(0));
+                test.assertEqual(0, map.getKeys().length);
+                test.assertEqual(Iterable.create(), map.getValues());
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    test.assertThrows(() -> LongObjectMap.create(-1),
+                        new PreConditionFailure("initialCapacity (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with 1000", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create(1000);
+                    test.assertEqual(0, map.getCount());
+                });
+
+                runner.test("with Integer.MAX_VALUE", (Test test) ->
+                {
+                    test.assertThrows(java.lang.IllegalArgumentException.class, () -> LongObjectMap.create(Integer.MAX_VALUE));
+                });
+            });
+
+            runner.testGroup("set(long,V)", () ->
+            {
+                runner.test("with null value", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    test.assertThrows(() -> map.set(1, null),
+                        new PreConditionFailure("value cannot be null."));
+                    test.assertEqual(0, map.getCount());
+                });
+
+                runner.test("with new key", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    test.assertNull(map.set(-5, "a"));
+                    test.assertEqual(1, map.getCount());
+                    test.assertTrue(map.containsKey(-5));
+                    test.assertEqual("a", map.get(-5));
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    map.set(Long.MAX_VALUE, "a");
+                    test.assertEqual("a", map.set(Long.MAX_VALUE, "b"));
+                    test.assertEqual(1, map.getCount());
+                    test.assertEqual("b", map.get(Long.MAX_VALUE));
+                });
+
+                runner.test("with enough keys to grow", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    for (long key = 0; key < 1000; ++key)
+                    {
+                        map.set(key * 1024, Long.toString(key));
+                    }
+                    test.assertEqual(1000, map.getCount());
+                    for (long key = 0; key < 1000; ++key)
+                    {
+                        test.assertEqual(Long.toString(key), map.get(key * 1024));
+                    }
+                    test.assertFalse(map.containsKey(1));
+                });
+            });
+
+            runner.testGroup("remove(long)", () ->
+            {
+                runner.test("with missing key", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    map.set(1, "a");
+                    test.assertNull(map.remove(2));
+                    test.assertEqual(1, map.getCount());
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    map.set(1, "a");
+                    test.assertEqual("a", map.remove(1));
+                    test.assertEqual(0, map.getCount());
+                    test.assertFalse(map.containsKey(1));
+                });
+
+                runner.test("with every other key from a crowded map", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    for (long key = 0; key < 500; ++key)
+                    {
+                        map.set(key, Long.toString(key));
+                    }
+                    for (long key = 1; key < 500; key += 2)
+                    {
+                        test.assertEqual(Long.toString(key), map.remove(key));
+                    }
+                    test.assertEqual(250, map.getCount());
+                    for (long key = 0; key < 500; ++key)
+                    {
+                        test.assertEqual(key % 2 == 0, map.containsKey(key));
+                    }
+                });
+            });
+
+            runner.test("clear()", (Test test) ->
+            {
+                final LongObjectMap<String> map = LongObjectMap.create();
+                map.set(1, "a");
+                map.set(2, "b");
+                map.clear();
+                test.assertEqual(0, map.getCount());
+                test.assertFalse(map.containsKey(1));
+                map.set(1, "c");
+                test.assertEqual("c", map.get(1));
+            });
+
+            runner.test("getKeys() and getValues()", (Test test) ->
+            {
+                final LongObjectMap<String> map = LongObjectMap.create();
+                map.set(3, "c");
+                map.set(1, "a");
+                map.set(2, "b");
+
+                final long[] keys = map.getKeys();
+                java.util.Arrays.sort(keys);
+                test.assertEqual(3, keys.length);
+                test.assertEqual(1L, keys[0]);
+                test.assertEqual(2L, keys[1]);
+                test.assertEqual(3L, keys[2]);
+
+                final java.util.List<String> values = new java.util.ArrayList<>();
+                for (final String value : map.getValues())
+                {
+                    values.add(value);
+                }
+                java.util.Collections.sort(values);
+                test.assertEqual(java.util.Arrays.asList("a", "b", "c"), values);
+            });
+
+            runner.testGroup("ensureCapacity(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    test.assertThrows(() -> map.ensureCapacity(-1),
+                        new PreConditionFailure("entryCount (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with existing entries", (Test test) ->
+                {
+                    final LongObjectMap<String> map = LongObjectMap.create();
+                    map.set(7, "a");
+                    map.ensureCapacity(100);
+                    test.assertEqual(1, map.getCount());
+                    test.assertEqual("a", map.get(7));
+                });
+            });
+        });
+    }
+}
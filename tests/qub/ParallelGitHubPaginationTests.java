@@ -0,0 +1,178 @@
+package qub;
+
+public interface ParallelGitHubPaginationTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ParallelGitHubPagination.class, () ->
+        {
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> GitHubPagination.parallel(0),
+                        new PreConditionFailure("maximumPagesInFlight (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 4", (Test test) ->
+                {
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(4);
+                    test.assertNotNull(pagination);
+                    test.assertEqual(4, pagination.getMaximumPagesInFlight());
+                });
+            });
+
+            runner.testGroup("getRepositories(GitHubClient,GitHubRequest)", () ->
+            {
+                runner.test("with one page", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(1, 2);
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(4);
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-1-2"), repositories.map(GitHubRepository::getName));
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                });
+
+                runner.test("with pages that arrive out of order", (Test test) ->
+                {
+                    // Earlier pages take longer to arrive than later pages, but the pages are
+                    // still delivered in order.
+                    final FakeGitHubClient pagingClient = GitHubRepositoryPublisherTests.createPagingClient(6, 1);
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String page = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        if (page != null)
+                        {
+                            try
+                            {
+                                java.lang.Thread.sleep((7 - Integer.parseInt(page)) * 5L);
+                            }
+                            catch (InterruptedException e)
+                            {
+                                java.lang.Thread.currentThread().interrupt();
+                            }
+                        }
+                        return pagingClient.sendRequest(request).await();
+                    });
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(3, java.util.concurrent.Executors.newFixedThreadPool(3));
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(
+                        Iterable.create("repo-1-1", "repo-2-1", "repo-3-1", "repo-4-1", "repo-5-1", "repo-6-1"),
+                        repositories.map(GitHubRepository::getName));
+                    test.assertEqual(6, client.getSentRequests().getCount());
+                });
+
+                runner.test("with bounded window", (Test test) ->
+                {
+                    final java.util.concurrent.atomic.AtomicInteger pagesInFlight = new java.util.concurrent.atomic.AtomicInteger();
+                    final java.util.concurrent.atomic.AtomicInteger maximumObservedPagesInFlight = new java.util.concurrent.atomic.AtomicInteger();
+                    // Pages 2 and 3 only return once both have been requested, which can only
+                    // happen if they are fetched concurrently.
+                    final java.util.concurrent.CyclicBarrier barrier = new java.util.concurrent.CyclicBarrier(2);
+                    final FakeGitHubClient pagingClient = GitHubRepositoryPublisherTests.createPagingClient(8, 1);
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        maximumObservedPagesInFlight.accumulateAndGet(pagesInFlight.incrementAndGet(), Math::max);
+                        try
+                        {
+                            final String page = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                            if ("2".equals(page) || "3".equals(page))
+                            {
+                                barrier.await(10, java.util.concurrent.TimeUnit.SECONDS);
+                            }
+                            return pagingClient.sendRequest(request).await();
+                        }
+                        catch (Exception e)
+                        {
+                            throw new RuntimeException(e);
+                        }
+                        finally
+                        {
+                            pagesInFlight.decrementAndGet();
+                        }
+                    });
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(2, java.util.concurrent.Executors.newFixedThreadPool(8));
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(8, repositories.getCount());
+                    test.assertEqual(2, maximumObservedPagesInFlight.get());
+                });
+
+                runner.test("with no rel=\"last\" link", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String page = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        final MutableHttpResponse response = HttpResponse.create()
+                            .setStatusCode(200)
+                            .setBody(JSONArray.create()
+                                .add(JSONObject.create()
+                                    .setString(GitHubRepository.namePropertyName, "repo-" + (page == null ? "1" : page)))
+                                .toString());
+                        if (page == null)
+                        {
+                            response.setHeader(GitHubLinkHeader.headerName, "<https://api.github.com/user/repos?page=2>; rel=\"next\"");
+                        }
+                        return response;
+                    });
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(4);
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(Iterable.create("repo-1", "repo-2"), repositories.map(GitHubRepository::getName));
+                });
+
+                runner.test("with error response on a later page", (Test test) ->
+                {
+                    final FakeGitHubClient pagingClient = GitHubRepositoryPublisherTests.createPagingClient(5, 1);
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String page = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        return "3".equals(page)
+                            ? HttpResponse.create()
+                                .setStatusCode(500)
+                                .setBody(JSONObject.create()
+                                    .setString("message", "Server Error")
+                                    .toString())
+                            : pagingClient.sendRequest(request).await();
+                    });
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(2);
+                    test.assertThrows(GitHubException.class, () -> pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await());
+                });
+
+                runner.test("with failed page and pages in the window that haven't been sent", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(5, 1);
+                    // The first page fetch runs right away and the rest wait until the test runs
+                    // them, so they are still in the window when the page action fails.
+                    final java.util.List<Runnable> waitingTasks = new java.util.ArrayList<>();
+                    final java.util.concurrent.Executor executor = (Runnable task) ->
+                    {
+                        if (client.getSentRequests().getCount() == 1 && waitingTasks.isEmpty())
+                        {
+                            task.run();
+                        }
+                        else
+                        {
+                            waitingTasks.add(task);
+                        }
+                    };
+                    final ParallelGitHubPagination pagination = GitHubPagination.parallel(3, executor);
+                    final java.util.concurrent.atomic.AtomicInteger pageCount = new java.util.concurrent.atomic.AtomicInteger();
+                    test.assertThrows(() -> pagination.forEachPage(client, GitHubRepositoryPublisherTests.createFirstPageRequest(), (GitHubResponse pageResponse) ->
+                        {
+                            if (pageCount.incrementAndGet() == 2)
+                            {
+                                throw new RuntimeException("page action failed");
+                            }
+                        }).await(),
+                        new RuntimeException("page action failed"));
+                    test.assertEqual(2, waitingTasks.size());
+
+                    for (final Runnable waitingTask : waitingTasks)
+                    {
+                        waitingTask.run();
+                    }
+                    test.assertEqual(2, client.getSentRequests().getCount());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package qub;
+
+public interface ReadOnlyHttpHeadersTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ReadOnlyHttpHeaders.class, () ->
+        {
+            runner.testGroup("create(HttpHeaders)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ReadOnlyHttpHeaders.create(null),
+                        new PreConditionFailure("headers cannot be null."));
+                });
+
+                runner.test("with headers", (Test test) ->
+                {
+                    final MutableHttpHeaders headers = HttpHeaders.create()
+                        .set("Accept", "application/vnd.github+json");
+                    final ReadOnlyHttpHeaders readOnlyHeaders = ReadOnlyHttpHeaders.create(headers);
+                    test.assertFalse(((Object)readOnlyHeaders) instanceof MutableHttpHeaders);
+                    test.assertEqual(1, readOnlyHeaders.getCount());
+                    test.assertTrue(readOnlyHeaders.contains("accept"));
+                    test.assertEqual("application/vnd.github+json", readOnlyHeaders.getValue("Accept").await());
+
+                    headers.set("User-Agent", "qub-github-java");
+                    test.assertEqual("qub-github-java", readOnlyHeaders.getValue("User-Agent").await());
+                });
+            });
+
+            runner.testGroup("equals(Object)", () ->
+            {
+                final Action3<ReadOnlyHttpHeaders,Object,Boolean> equalsTest = (ReadOnlyHttpHeaders lhs, Object rhs, Boolean expected) ->
+                {
+                    runner.test("with " + lhs + " and " + rhs, (Test test) ->
+                    {
+                        test.assertEqual(expected, lhs.equals(rhs));
+                        if (rhs instanceof ReadOnlyHttpHeaders)
+                        {
+                            test.assertEqual(expected, rhs.equals(lhs));
+                            if (expected)
+                            {
+                                test.assertEqual(lhs.hashCode(), rhs.hashCode());
+                            }
+                        }
+                    });
+                };
+
+                final ReadOnlyHttpHeaders empty = ReadOnlyHttpHeaders.create(HttpHeaders.create());
+                final ReadOnlyHttpHeaders accept = ReadOnlyHttpHeaders.create(HttpHeaders.create()
+                    .set("Accept", "application/vnd.github+json"));
+                equalsTest.run(empty, null, false);
+                equalsTest.run(empty, "", false);
+                equalsTest.run(empty, HttpHeaders.create(), true);
+                equalsTest.run(empty, ReadOnlyHttpHeaders.create(HttpHeaders.create()), true);
+                equalsTest.run(empty, accept, false);
+                equalsTest.run(accept, empty, false);
+                equalsTest.run(accept, HttpHeaders.create().set("Accept", "application/vnd.github+json"), true);
+                equalsTest.run(accept, ReadOnlyHttpHeaders.create(HttpHeaders.create().set("ACCEPT", "application/vnd.github+json")), true);
+                equalsTest.run(accept, ReadOnlyHttpHeaders.create(HttpHeaders.create().set("Accept", "text/plain")), false);
+                equalsTest.run(accept, ReadOnlyHttpHeaders.create(HttpHeaders.create().set("User-Agent", "application/vnd.github+json")), false);
+                equalsTest.run(
+                    ReadOnlyHttpHeaders.create(HttpHeaders.create().set("A", "1").set("B", "2")),
+                    ReadOnlyHttpHeaders.create(HttpHeaders.create().set("B", "2").set("A", "1")),
+                    true);
+            });
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package qub;
+
+public interface SequentialGitHubPaginationTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(SequentialGitHubPagination.class, () ->
+        {
+            runner.testGroup("getRepositories(GitHubClient,GitHubRequest)", () ->
+            {
+                runner.test("with null client", (Test test) ->
+                {
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    test.assertThrows(() -> pagination.getRepositories(null, GitHubRepositoryPublisherTests.createFirstPageRequest()),
+                        new PreConditionFailure("client cannot be null."));
+                });
+
+                runner.test("with one page", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(1, 2);
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-1-2"), repositories.map(GitHubRepository::getName));
+                    test.assertEqual(1, client.getSentRequests().getCount());
+                });
+
+                runner.test("with multiple pages", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 1);
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await();
+                    test.assertEqual(Iterable.create("repo-1-1", "repo-2-1", "repo-3-1"), repositories.map(GitHubRepository::getName));
+                    test.assertEqual(
+                        Iterable.create(null, "2", "3"),
+                        client.getSentRequests().map((GitHubRequest request) -> request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await()));
+                });
+
+                runner.test("with deadline", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(3, 1);
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    final java.time.Instant deadline = java.time.Instant.parse("2030-01-01T00:00:00Z");
+                    pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest().setDeadline(deadline)).await();
+                    test.assertEqual(
+                        Iterable.create(deadline, deadline, deadline),
+                        client.getSentRequests().map(GitHubRequest::getDeadline));
+                });
+
+                runner.test("with error response", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                        HttpResponse.create()
+                            .setStatusCode(401)
+                            .setBody(JSONObject.create()
+                                .setString("message", "Requires authentication")
+                                .toString()));
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    test.assertThrows(GitHubException.class, () -> pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest()).await());
+                });
+            });
+
+            runner.testGroup("getRepositories(GitHubClient,GitHubRequest,GitHubJSONInterner)", () ->
+            {
+                runner.test("with null interner", (Test test) ->
+                {
+                    final FakeGitHubClient client = GitHubRepositoryPublisherTests.createPagingClient(1, 2);
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    test.assertThrows(() -> pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest(), null),
+                        new PreConditionFailure("interner cannot be null."));
+                });
+
+                runner.test("with multiple pages", (Test test) ->
+                {
+                    final FakeGitHubClient client = FakeGitHubClient.create((GitHubRequest request) ->
+                    {
+                        final String page = request.getQueryParameter(GitHubPagination.pageQueryParameterName).catchError().await();
+                        final JSONArray body = JSONArray.create();
+                        body.add(GitHubJSONInternerTests.createRepositoryJson("octocat", page == null ? "repo-1" : "repo-" + page));
+                        final MutableHttpResponse response = HttpResponse.create()
+                            .setStatusCode(200)
+                            .setBody(body.toString());
+                        if (page == null)
+                        {
+                            response.setHeader(GitHubLinkHeader.headerName, "<https://api.github.com/user/repos?page=2>; rel=\"next\", <https://api.github.com/user/repos?page=2>; rel=\"last\"");
+                        }
+                        return response;
+                    });
+                    final SequentialGitHubPagination pagination = GitHubPagination.sequential();
+                    final GitHubJSONInterner interner = GitHubJSONInterner.create();
+                    final Iterable<GitHubRepository> repositories = pagination.getRepositories(client, GitHubRepositoryPublisherTests.createFirstPageRequest(), interner).await();
+                    test.assertEqual(Iterable.create("repo-1", "repo-2"), repositories.map(GitHubRepository::getName));
+                    test.assertEqual(1, interner.getObjectCount());
+                    test.assertSame(
+                        repositories.first().toJson().getObject(GitHubRepository.ownerPropertyName).await(),
+                        repositories.last().toJson().getObject(GitHubRepository.ownerPropertyName).await());
+                });
+            });
+        });
+    }
+}